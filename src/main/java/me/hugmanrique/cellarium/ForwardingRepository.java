@@ -2,6 +2,8 @@ package me.hugmanrique.cellarium;
 
 import javax.annotation.Nullable;
 import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.IntBinaryOperator;
 import java.util.function.Supplier;
 import java.util.function.UnaryOperator;
 
@@ -44,6 +46,17 @@ public class ForwardingRepository implements Repository {
         return repository.compute(key, remappingFunction);
     }
 
+    @Nullable
+    @Override
+    public <T, A> T compute(Key<T> key, A argument, BiFunction<? super T, ? super A, ? extends T> remappingFunction) {
+        return repository.compute(key, argument, remappingFunction);
+    }
+
+    @Override
+    public int computeInt(Key<Integer> key, int operand, IntBinaryOperator operator) {
+        return repository.computeInt(key, operand, operator);
+    }
+
     @Override
     public <T> T computeIfAbsent(Key<T> key, Supplier<? extends T> mappingFunction) {
         return repository.computeIfAbsent(key, mappingFunction);
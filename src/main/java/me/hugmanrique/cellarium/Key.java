@@ -2,6 +2,7 @@ package me.hugmanrique.cellarium;
 
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
+import java.util.function.Supplier;
 
 /**
  * An immutable parameterized key that can be mapped to values in a {@link Repository}.
@@ -28,6 +29,77 @@ public interface Key<T> {
     @Nullable
     T defaultValue();
 
+    /**
+     * Returns the name of this key, or {@code null} if not defined.
+     *
+     * <p>Names are stable identifiers that allow referring to keys from outside
+     * the program, e.g. in persisted data, configuration files or commands.
+     *
+     * @return the name of this key, or {@code null} if not defined
+     * @see KeyRegistry to resolve keys by name
+     */
+    @Nullable
+    default String name() {
+        return null;
+    }
+
+    /**
+     * Returns how strongly repositories reference the values mapped from this key.
+     *
+     * <p>Repositories that do not support non-strong retention reference all
+     * values strongly. Values that are reclaimed by the garbage collector are
+     * treated as if their mapping was removed.
+     *
+     * @return the value retention of this key
+     */
+    default ValueRetention retention() {
+        return ValueRetention.STRONG;
+    }
+
+    /**
+     * Returns the function used to compute a value for this key when a repository
+     * contains no mapping for it (e.g. because its value was reclaimed), or
+     * {@code null} if not defined.
+     *
+     * <p>Repositories that support loaders associate the loaded value with this
+     * key, and return it instead of the {@link #defaultValue() default value}.
+     * Reads only apply the loader if this key retains its values weakly or softly,
+     * so reading a strongly retained key never adds a mapping.
+     *
+     * @return the loader of this key, or {@code null} if not defined
+     * @see #retention()
+     */
+    @Nullable
+    default Supplier<? extends T> loader() {
+        return null;
+    }
+
+    /**
+     * Returns whether repositories that support interning should replace the
+     * values mapped from this key by a canonical equal instance. Values of
+     * interned keys must be immutable.
+     *
+     * @return {@code true} if the values of this key are interned
+     * @see me.hugmanrique.cellarium.memory.InterningRepository
+     */
+    default boolean interned() {
+        return false;
+    }
+
+    /**
+     * Returns the group of this key, or {@code null} if not defined.
+     *
+     * <p>Repositories that do not support groups store the values of grouped
+     * keys like any other value.
+     *
+     * @return the group of this key, or {@code null} if not defined
+     * @see KeyGroup#reset()
+     */
+    @Nullable
+    default KeyGroup group() {
+        return null;
+    }
+
     /**
      * Casts an object to the type referenced by this key's {@link #type()} object.
      *
@@ -0,0 +1,70 @@
+package me.hugmanrique.cellarium;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A named group of keys whose values can be reset at once, e.g. the keys of
+ * weekly statistics.
+ *
+ * <p>Each group has a generation, which is incremented by {@link #reset()}.
+ * Repositories that support groups tag the values of grouped keys with the
+ * generation of the group at the time they were written, and treat values of
+ * past generations as absent. Resetting a group thus logically removes its
+ * values from all these repositories in constant time.
+ *
+ * @see Key#group()
+ */
+@ThreadSafe
+public final class KeyGroup {
+
+    private final String name;
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Creates a key group with the specified name.
+     *
+     * @param name the name of the group
+     */
+    public KeyGroup(String name) {
+        this.name = requireNonNull(name, "name");
+    }
+
+    /**
+     * Returns the name of this group.
+     *
+     * @return the name of this group
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Returns the current generation of this group.
+     *
+     * @return the current generation
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Starts a new generation, logically removing the values of the keys in
+     * this group from all repositories that support groups.
+     *
+     * @return the new generation
+     */
+    public long reset() {
+        return generation.incrementAndGet();
+    }
+
+    @Override
+    public String toString() {
+        return "KeyGroup{" +
+                "name=" + name +
+                ", generation=" + generation +
+                '}';
+    }
+}
@@ -0,0 +1,260 @@
+package me.hugmanrique.cellarium;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * An immutable registry that resolves {@link Key}s by their {@link Key#name() name}.
+ *
+ * <p>When built, the registry computes a minimal perfect hash function over
+ * the names of its keys using the hash and displace algorithm: names are
+ * distributed into buckets by their hash code, and each bucket is assigned
+ * a seed that maps all its names to free slots of a table with exactly one
+ * slot per key. Therefore, resolving a name takes constant time, performs a
+ * single string comparison and does not allocate.
+ *
+ * @see <a href="http://cmph.sourceforge.net/papers/esa09.pdf">Belazzougui et al., Hash, displace, and compress</a>
+ * @see Builder to create instances of this class
+ */
+@ThreadSafe
+public final class KeyRegistry {
+
+    private static final int MAX_SEED = 1 << 24;
+
+    private final Key<?>[] keys;
+    private final String[] names;
+    private final int[] seeds;
+
+    private KeyRegistry(List<Key<?>> entries) {
+        int size = entries.size();
+
+        this.keys = new Key<?>[size];
+        this.names = new String[size];
+        this.seeds = new int[Math.max(1, size)];
+
+        // Group the keys by bucket, and place the largest buckets first
+        List<List<Key<?>>> buckets = new ArrayList<>(seeds.length);
+
+        for (int i = 0; i < seeds.length; i++) {
+            buckets.add(new ArrayList<>(2));
+        }
+
+        for (Key<?> key : entries) {
+            buckets.get(bucket(key.name(), seeds.length)).add(key);
+        }
+
+        Integer[] order = new Integer[seeds.length];
+
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+
+        Arrays.sort(order, (a, b) -> Integer.compare(buckets.get(b).size(), buckets.get(a).size()));
+
+        int[] slots = new int[size];
+
+        for (int bucket : order) {
+            List<Key<?>> bucketKeys = buckets.get(bucket);
+
+            if (bucketKeys.isEmpty()) {
+                break;
+            }
+
+            int seed = findSeed(bucketKeys, slots);
+            seeds[bucket] = seed;
+
+            for (int i = 0; i < bucketKeys.size(); i++) {
+                Key<?> key = bucketKeys.get(i);
+                keys[slots[i]] = key;
+                names[slots[i]] = key.name();
+            }
+        }
+    }
+
+    /**
+     * Finds a seed that maps all the keys of a bucket to distinct free slots,
+     * which are stored in {@code slots}.
+     */
+    private int findSeed(List<Key<?>> bucketKeys, int[] slots) {
+        for (int seed = 1; seed < MAX_SEED; seed++) {
+            if (fits(bucketKeys, seed, slots)) {
+                return seed;
+            }
+        }
+
+        throw new IllegalStateException("Could not find a perfect hash function");
+    }
+
+    private boolean fits(List<Key<?>> bucketKeys, int seed, int[] slots) {
+        for (int i = 0; i < bucketKeys.size(); i++) {
+            int slot = slot(bucketKeys.get(i).name(), seed, keys.length);
+
+            if (keys[slot] != null) {
+                return false;
+            }
+
+            for (int j = 0; j < i; j++) {
+                if (slots[j] == slot) {
+                    return false;
+                }
+            }
+
+            slots[i] = slot;
+        }
+
+        return true;
+    }
+
+    private static int mix(int hash) {
+        // MurmurHash3 finalizer
+        hash ^= hash >>> 16;
+        hash *= 0x85EBCA6B;
+        hash ^= hash >>> 13;
+        hash *= 0xC2B2AE35;
+        hash ^= hash >>> 16;
+        return hash;
+    }
+
+    private static int bucket(String name, int bucketCount) {
+        return (mix(name.hashCode()) & Integer.MAX_VALUE) % bucketCount;
+    }
+
+    private static int slot(String name, int seed, int slotCount) {
+        // Seeded FNV-1a, independent from String#hashCode
+        int hash = seed * 0x9E3779B9;
+
+        for (int i = 0; i < name.length(); i++) {
+            hash = (hash ^ name.charAt(i)) * 0x01000193;
+        }
+
+        return (mix(hash) & Integer.MAX_VALUE) % slotCount;
+    }
+
+    /**
+     * Returns the key with the specified name, or {@code null} if this registry
+     * contains no such key.
+     *
+     * @param name the name of the key
+     * @return the key with the given name, or {@code null} if not found
+     */
+    @Nullable
+    public Key<?> get(String name) {
+        if (keys.length == 0) {
+            return null;
+        }
+
+        int seed = seeds[bucket(name, seeds.length)];
+
+        if (seed == 0) {
+            // Empty bucket
+            return null;
+        }
+
+        int slot = slot(name, seed, keys.length);
+
+        return names[slot].equals(name) ? keys[slot] : null;
+    }
+
+    /**
+     * Returns the key with the specified name and value type, or {@code null}
+     * if this registry contains no key with the given name.
+     *
+     * @param name the name of the key
+     * @param type the type of the key values
+     * @param <T> the type of the key values
+     * @return the key with the given name, or {@code null} if not found
+     * @throws IllegalArgumentException if the key values are not of the given type
+     */
+    @SuppressWarnings("unchecked")
+    @Nullable
+    public <T> Key<T> get(String name, Class<T> type) {
+        Key<?> key = get(name);
+
+        if (key != null && key.type() != type) {
+            throw new IllegalArgumentException("Key " + name + " has type " + key.type().getName());
+        }
+
+        return (Key<T>) key;
+    }
+
+    /**
+     * Returns {@code true} if this registry contains a key with the specified name.
+     *
+     * @param name the name of the key
+     * @return {@code true} if this registry contains a key with the given name
+     */
+    public boolean contains(String name) {
+        return get(name) != null;
+    }
+
+    /**
+     * Returns the keys in this registry, in no particular order.
+     *
+     * @return an unmodifiable list of the keys
+     */
+    public List<Key<?>> keys() {
+        return Collections.unmodifiableList(Arrays.asList(keys));
+    }
+
+    /**
+     * Returns the number of keys in this registry.
+     *
+     * @return the number of keys
+     */
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * Used to build instances of {@link KeyRegistry} from keys registered by
+     * {@link #add(Key)}.
+     */
+    public static class Builder {
+
+        private final List<Key<?>> keys = new ArrayList<>();
+        private final Set<String> names = new HashSet<>();
+
+        /**
+         * Registers a named key.
+         *
+         * @param key the key to register
+         * @return this builder
+         * @throws IllegalArgumentException if the key has no name, or another
+         *                                  key with the same name is registered
+         */
+        public Builder add(Key<?> key) {
+            String name = requireNonNull(key, "key").name();
+
+            if (name == null) {
+                throw new IllegalArgumentException("Key " + key + " has no name");
+            }
+
+            if (!names.add(name)) {
+                throw new IllegalArgumentException("Duplicate key name " + name);
+            }
+
+            keys.add(key);
+            return this;
+        }
+
+        /**
+         * Creates a {@link KeyRegistry}.
+         *
+         * <p>This method does not alter the state of this {@link Builder} instance,
+         * so it can be invoked again to create multiple independent registries.
+         *
+         * @return a {@link KeyRegistry} containing the registered keys
+         */
+        public KeyRegistry build() {
+            return new KeyRegistry(keys);
+        }
+    }
+}
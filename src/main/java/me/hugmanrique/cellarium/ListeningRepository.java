@@ -0,0 +1,194 @@
+package me.hugmanrique.cellarium;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.IntBinaryOperator;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * A repository that notifies its {@link RepositoryListener}s after a mapping
+ * is modified through it.
+ *
+ * <p>Modifications made directly to the backing repository are not observed.
+ * Listeners are called on the thread that performed the modification, after
+ * the backing repository method returns.
+ */
+public class ListeningRepository extends ForwardingRepository {
+
+    private static final RepositoryListener[] NO_LISTENERS = new RepositoryListener[0];
+
+    // Copied on write, so notifying the listeners allocates no iterator
+    private volatile RepositoryListener[] listeners = NO_LISTENERS;
+
+    public ListeningRepository(Repository repository) {
+        super(repository);
+    }
+
+    /**
+     * Registers a listener to be notified of modifications made through this
+     * repository. If the listener is already registered, this method does nothing.
+     *
+     * @param listener the listener to register
+     */
+    public synchronized void addListener(RepositoryListener listener) {
+        Objects.requireNonNull(listener, "listener");
+
+        if (indexOf(listener) == -1) {
+            RepositoryListener[] copy = Arrays.copyOf(listeners, listeners.length + 1);
+            copy[listeners.length] = listener;
+            listeners = copy;
+        }
+    }
+
+    /**
+     * Unregisters a listener previously registered by {@link #addListener(RepositoryListener)}.
+     *
+     * @param listener the listener to unregister
+     * @return {@code true} if the listener was registered
+     */
+    public synchronized boolean removeListener(RepositoryListener listener) {
+        int index = indexOf(listener);
+
+        if (index == -1) {
+            return false;
+        }
+
+        RepositoryListener[] copy = new RepositoryListener[listeners.length - 1];
+        System.arraycopy(listeners, 0, copy, 0, index);
+        System.arraycopy(listeners, index + 1, copy, index, copy.length - index);
+        listeners = copy;
+        return true;
+    }
+
+    private int indexOf(RepositoryListener listener) {
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i].equals(listener)) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    private void fireUpdate(Key<?> key) {
+        for (RepositoryListener listener : listeners) {
+            listener.onUpdate(this, key);
+        }
+    }
+
+    @Nullable
+    @Override
+    public <T> T put(Key<T> key, T value) {
+        T previous = super.put(key, value);
+        fireUpdate(key);
+        return previous;
+    }
+
+    @Nullable
+    @Override
+    public <T> T putIfAbsent(Key<T> key, T value) {
+        T previous = super.putIfAbsent(key, value);
+
+        if (previous == null) {
+            fireUpdate(key);
+        }
+
+        return previous;
+    }
+
+    @Nullable
+    @Override
+    public <T> T compute(Key<T> key, UnaryOperator<T> remappingFunction) {
+        T value = super.compute(key, remappingFunction);
+        fireUpdate(key);
+        return value;
+    }
+
+    @Nullable
+    @Override
+    public <T, A> T compute(Key<T> key, A argument, BiFunction<? super T, ? super A, ? extends T> remappingFunction) {
+        T value = super.compute(key, argument, remappingFunction);
+        fireUpdate(key);
+        return value;
+    }
+
+    @Override
+    public int computeInt(Key<Integer> key, int operand, IntBinaryOperator operator) {
+        int value = super.computeInt(key, operand, operator);
+        fireUpdate(key);
+        return value;
+    }
+
+    @Override
+    public <T> T computeIfAbsent(Key<T> key, Supplier<? extends T> mappingFunction) {
+        T value = super.computeIfAbsent(key, mappingFunction);
+        fireUpdate(key);
+        return value;
+    }
+
+    @Nullable
+    @Override
+    public <T> T computeIfPresent(Key<T> key, UnaryOperator<T> remappingFunction) {
+        T value = super.computeIfPresent(key, remappingFunction);
+        fireUpdate(key);
+        return value;
+    }
+
+    @Nullable
+    @Override
+    public <T> T replace(Key<T> key, T value) {
+        T previous = super.replace(key, value);
+
+        if (previous != null) {
+            fireUpdate(key);
+        }
+
+        return previous;
+    }
+
+    @Override
+    public <T> boolean replace(Key<T> key, T oldValue, T newValue) {
+        boolean replaced = super.replace(key, oldValue, newValue);
+
+        if (replaced) {
+            fireUpdate(key);
+        }
+
+        return replaced;
+    }
+
+    @Nullable
+    @Override
+    public <T> T remove(Key<T> key) {
+        T previous = super.remove(key);
+
+        if (previous != null) {
+            fireUpdate(key);
+        }
+
+        return previous;
+    }
+
+    @Override
+    public <T> boolean remove(Key<T> key, T value) {
+        boolean removed = super.remove(key, value);
+
+        if (removed) {
+            fireUpdate(key);
+        }
+
+        return removed;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+
+        for (RepositoryListener listener : listeners) {
+            listener.onClear(this);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package me.hugmanrique.cellarium;
+
+import javax.annotation.Nullable;
+
+/**
+ * A {@link Repository} whose mappings can be inspected without side effects,
+ * e.g. by tools such as {@link me.hugmanrique.cellarium.memory.MemoryMeter}.
+ */
+public interface PeekableRepository extends Repository {
+
+    /**
+     * Returns the value to which the specified key is mapped, or {@code null}
+     * if this repository contains no materialized mapping for the key.
+     *
+     * <p>Unlike {@link #get(Key)}, this method never returns the key's default
+     * value, invokes its loader, decodes values, or records accesses.
+     *
+     * @param key key whose associated value is to be returned
+     * @param <T> the type of the value
+     * @return the value to which the specified key is mapped, or {@code null}
+     */
+    @Nullable
+    <T> T peek(Key<T> key);
+}
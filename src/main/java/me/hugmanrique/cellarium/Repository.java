@@ -1,6 +1,8 @@
 package me.hugmanrique.cellarium;
 
 import javax.annotation.Nullable;
+import java.util.function.BiFunction;
+import java.util.function.IntBinaryOperator;
 import java.util.function.Supplier;
 import java.util.function.UnaryOperator;
 
@@ -76,6 +78,52 @@ public interface Repository {
     @Nullable
     <T> T compute(Key<T> key, UnaryOperator<T> remappingFunction);
 
+    /**
+     * Attempts to compute a mapping for the specified key given its current mapped
+     * value (or the key's default value if there is no current mapping) and the
+     * specified argument.
+     *
+     * <p>Unlike {@link #compute(Key, UnaryOperator)}, the caller state is passed
+     * explicitly, so non-capturing remapping functions (e.g. method references to
+     * static methods) can be used, which are not allocated on each call.
+     * Implementations may apply the remapping function more than once if the
+     * mapping is concurrently modified.
+     *
+     * <p>If the remapping function returns {@code null}, the mapping is removed.
+     * If the remapping function itself throws an (unchecked) exception, the
+     * exception is rethrown, and the current mapping is left unchanged.
+     *
+     * @param key key with which the computed value is to be associated
+     * @param argument the second argument of the remapping function
+     * @param remappingFunction remapping function to compute a value
+     * @param <T> the type of the value
+     * @param <A> the type of the argument
+     * @return the new value associated with the specified key, or {@code null} if none
+     */
+    @Nullable
+    default <T, A> T compute(Key<T> key, A argument, BiFunction<? super T, ? super A, ? extends T> remappingFunction) {
+        return compute(key, previous -> remappingFunction.apply(previous, argument));
+    }
+
+    /**
+     * Attempts to compute a mapping for the specified integer key given its current
+     * mapped value (the key's default value or zero if there is no current mapping)
+     * and the specified operand, e.g. {@code computeInt(key, delta, Integer::sum)}.
+     *
+     * <p>Implementations may apply the operator more than once if the mapping
+     * is concurrently modified.
+     *
+     * @param key key with which the computed value is to be associated
+     * @param operand the second operand of the operator
+     * @param operator operator to compute a value
+     * @return the new value associated with the specified key
+     */
+    default int computeInt(Key<Integer> key, int operand, IntBinaryOperator operator) {
+        //noinspection ConstantConditions
+        return compute(key, previous ->
+                operator.applyAsInt(previous != null ? previous : 0, operand));
+    }
+
     /**
      * If the specified key is not already associated with a value, attempts to
      * compute its value using the given mapping function and enters it into
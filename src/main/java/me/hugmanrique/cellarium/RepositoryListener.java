@@ -0,0 +1,29 @@
+package me.hugmanrique.cellarium;
+
+/**
+ * A listener that is notified after the mappings of a {@link ListeningRepository}
+ * have been modified.
+ *
+ * <p>Listeners are not given the new value of the modified mapping. Instead, they
+ * should query the repository, which always returns a value that is at least as
+ * recent as the modification that triggered the notification.
+ *
+ * @see ListeningRepository#addListener(RepositoryListener)
+ */
+public interface RepositoryListener {
+
+    /**
+     * Called after the mapping for the specified key may have been modified.
+     *
+     * @param repository the repository whose mapping was modified
+     * @param key the key whose mapping was modified
+     */
+    void onUpdate(Repository repository, Key<?> key);
+
+    /**
+     * Called after all the mappings of the specified repository were removed.
+     *
+     * @param repository the repository that was cleared
+     */
+    void onClear(Repository repository);
+}
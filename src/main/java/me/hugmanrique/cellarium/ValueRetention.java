@@ -0,0 +1,31 @@
+package me.hugmanrique.cellarium;
+
+/**
+ * Specifies how strongly a {@link Repository} references the values mapped
+ * from a {@link Key}.
+ *
+ * @see Key#retention()
+ */
+public enum ValueRetention {
+
+    /**
+     * Values are strongly referenced, and never reclaimed while mapped.
+     */
+    STRONG,
+
+    /**
+     * Values are weakly referenced, and reclaimed once no longer strongly
+     * reachable from elsewhere.
+     *
+     * @see java.lang.ref.WeakReference
+     */
+    WEAK,
+
+    /**
+     * Values are softly referenced, and reclaimed at the discretion of the
+     * garbage collector in response to memory demand.
+     *
+     * @see java.lang.ref.SoftReference
+     */
+    SOFT
+}
@@ -0,0 +1,165 @@
+package me.hugmanrique.cellarium.async;
+
+import me.hugmanrique.cellarium.Key;
+import me.hugmanrique.cellarium.Repository;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * A {@link Repository} whose operations complete asynchronously, for instance
+ * because its values are backed by a slow store.
+ *
+ * <p>Each method mirrors the {@link Repository} method with the same name
+ * (without the {@code Async} suffix), and the returned future completes with
+ * the value that method would have returned. If the operation fails, the future
+ * completes exceptionally with the thrown exception.
+ *
+ * @see AsyncRepositoryAdapter to adapt a synchronous {@link Repository}
+ */
+public interface AsyncRepository {
+
+    /**
+     * Asynchronously returns the value to which the specified key is mapped,
+     * or the key's default value if this repository contains no mapping for the key.
+     *
+     * @param key key whose associated value is to be returned
+     * @param <T> the type of the value
+     * @return a future completed with the value
+     * @see Repository#get(Key)
+     */
+    <T> CompletableFuture<T> getAsync(Key<T> key);
+
+    /**
+     * Asynchronously associates the specified value with the specified key.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @param <T> the type of the value
+     * @return a future completed with the previous value, or {@code null}
+     * @see Repository#put(Key, Object)
+     */
+    <T> CompletableFuture<T> putAsync(Key<T> key, T value);
+
+    /**
+     * Asynchronously associates the specified value with the specified key if
+     * it is not already associated with a value.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @param <T> the type of the value
+     * @return a future completed with the previous value, or {@code null}
+     * @see Repository#putIfAbsent(Key, Object)
+     */
+    <T> CompletableFuture<T> putIfAbsentAsync(Key<T> key, T value);
+
+    /**
+     * Asynchronously computes a mapping for the specified key and its current
+     * mapped value (or the key's default value if there is no current mapping).
+     *
+     * @param key key with which the computed value is to be associated
+     * @param remappingFunction remapping function to compute a value
+     * @param <T> the type of the value
+     * @return a future completed with the new value, or {@code null}
+     * @see Repository#compute(Key, UnaryOperator)
+     */
+    <T> CompletableFuture<T> computeAsync(Key<T> key, UnaryOperator<T> remappingFunction);
+
+    /**
+     * Asynchronously computes the value of the specified key if it is not
+     * already associated with a value.
+     *
+     * @param key key with which the computed value is to be associated
+     * @param mappingFunction mapping function to compute a value
+     * @param <T> the type of the value
+     * @return a future completed with the current (existing or computed) value
+     * @see Repository#computeIfAbsent(Key, Supplier)
+     */
+    <T> CompletableFuture<T> computeIfAbsentAsync(Key<T> key, Supplier<? extends T> mappingFunction);
+
+    /**
+     * Asynchronously computes a new mapping for the specified key if its value
+     * is present.
+     *
+     * @param key key with which the computed value is to be associated
+     * @param remappingFunction remapping function to compute a value
+     * @param <T> the type of the value
+     * @return a future completed with the new value, or {@code null}
+     * @see Repository#computeIfPresent(Key, UnaryOperator)
+     */
+    <T> CompletableFuture<T> computeIfPresentAsync(Key<T> key, UnaryOperator<T> remappingFunction);
+
+    /**
+     * Asynchronously replaces the value associated with the specified key only
+     * if it is currently mapped to some value.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @param <T> the type of the value
+     * @return a future completed with the previous value, or {@code null}
+     * @see Repository#replace(Key, Object)
+     */
+    <T> CompletableFuture<T> replaceAsync(Key<T> key, T value);
+
+    /**
+     * Asynchronously replaces the value associated with the specified key only
+     * if it is currently mapped to {@code oldValue}.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param oldValue value expected to be associated with the specified key
+     * @param newValue value to be associated with the specified key
+     * @param <T> the type of the value
+     * @return a future completed with {@code true} if the value was replaced
+     * @see Repository#replace(Key, Object, Object)
+     */
+    <T> CompletableFuture<Boolean> replaceAsync(Key<T> key, T oldValue, T newValue);
+
+    /**
+     * Asynchronously removes the mapping for a key if it is present.
+     *
+     * @param key key whose mapping is to be removed from the repository
+     * @param <T> the type of the value
+     * @return a future completed with the previous value, or {@code null}
+     * @see Repository#remove(Key)
+     */
+    <T> CompletableFuture<T> removeAsync(Key<T> key);
+
+    /**
+     * Asynchronously removes the mapping for the specified key only if it is
+     * currently mapped to the specified value.
+     *
+     * @param key key whose mapping is to be removed from the repository
+     * @param value value expected to be associated with the specified key
+     * @param <T> the type of the value
+     * @return a future completed with {@code true} if the value was removed
+     * @see Repository#remove(Key, Object)
+     */
+    <T> CompletableFuture<Boolean> removeAsync(Key<T> key, T value);
+
+    /**
+     * Asynchronously removes all of the mappings from this repository.
+     *
+     * @return a future completed when all the mappings are removed
+     * @see Repository#clear()
+     */
+    CompletableFuture<Void> clearAsync();
+
+    /**
+     * Asynchronously checks if this repository contains a mapping for the
+     * specified key.
+     *
+     * @param key key whose presence in this repository is to be tested
+     * @return a future completed with {@code true} if there is a mapping
+     * @see Repository#contains(Key)
+     */
+    CompletableFuture<Boolean> containsAsync(Key<?> key);
+
+    /**
+     * Asynchronously returns the number of key-value mappings in this repository.
+     *
+     * @return a future completed with the number of mappings
+     * @see Repository#size()
+     */
+    CompletableFuture<Integer> sizeAsync();
+}
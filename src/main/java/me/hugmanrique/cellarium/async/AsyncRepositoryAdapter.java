@@ -0,0 +1,183 @@
+package me.hugmanrique.cellarium.async;
+
+import me.hugmanrique.cellarium.Key;
+import me.hugmanrique.cellarium.Repository;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * An {@link AsyncRepository} that executes the operations of a synchronous
+ * {@link Repository} on an {@link Executor}.
+ *
+ * <p>Concurrent {@link #getAsync(Key)} and {@link #computeIfAbsentAsync(Key, Supplier)}
+ * calls for the same key are deduplicated: while a load is in flight, subsequent
+ * calls share its result instead of submitting another task. Loads are not shared
+ * with calls made after a modification of the key completes.
+ *
+ * <p>If the executor rejects the task of an operation, the returned future is
+ * completed exceptionally with the {@link RejectedExecutionException}, which is
+ * never thrown to the caller.
+ *
+ * <p>The backing repository may be accessed concurrently by the executor
+ * threads, so it must be thread-safe unless the executor runs a single task
+ * at a time.
+ */
+public class AsyncRepositoryAdapter implements AsyncRepository {
+
+    private final Repository repository;
+    private final Executor executor;
+
+    private final ConcurrentMap<Key<?>, CompletableFuture<?>> gets = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Key<?>, CompletableFuture<?>> absentComputations = new ConcurrentHashMap<>();
+
+    public AsyncRepositoryAdapter(Repository repository, Executor executor) {
+        this.repository = requireNonNull(repository, "repository");
+        this.executor = requireNonNull(executor, "executor");
+    }
+
+    private <T> CompletableFuture<T> singleFlight(ConcurrentMap<Key<?>, CompletableFuture<?>> flights,
+                                                  Key<T> key, Supplier<T> loader) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        @SuppressWarnings("unchecked")
+        CompletableFuture<T> existing = (CompletableFuture<T>) flights.putIfAbsent(key, future);
+
+        if (existing == null) {
+            existing = future;
+
+            try {
+                executor.execute(() -> {
+                    try {
+                        T value = loader.get();
+                        flights.remove(key, future);
+                        future.complete(value);
+                    } catch (Throwable t) {
+                        flights.remove(key, future);
+                        future.completeExceptionally(t);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                flights.remove(key, future);
+                future.completeExceptionally(e);
+            }
+        }
+
+        // Return a dependent future so callers cannot complete the shared one
+        return existing.thenApply(Function.identity());
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> operation) {
+        try {
+            return CompletableFuture.supplyAsync(operation, executor);
+        } catch (RejectedExecutionException e) {
+            CompletableFuture<T> future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+            return future;
+        }
+    }
+
+    private <T> CompletableFuture<T> mutate(Key<?> key, Supplier<T> operation) {
+        requireNonNull(key, "key");
+
+        return submit(() -> {
+            try {
+                return operation.get();
+            } finally {
+                // Calls made after this modification must not share stale loads
+                gets.remove(key);
+            }
+        });
+    }
+
+    @Override
+    public <T> CompletableFuture<T> getAsync(Key<T> key) {
+        requireNonNull(key, "key");
+
+        return singleFlight(gets, key, () -> repository.get(key));
+    }
+
+    @Override
+    public <T> CompletableFuture<T> putAsync(Key<T> key, T value) {
+        return mutate(key, () -> repository.put(key, value));
+    }
+
+    @Override
+    public <T> CompletableFuture<T> putIfAbsentAsync(Key<T> key, T value) {
+        return mutate(key, () -> repository.putIfAbsent(key, value));
+    }
+
+    @Override
+    public <T> CompletableFuture<T> computeAsync(Key<T> key, UnaryOperator<T> remappingFunction) {
+        return mutate(key, () -> repository.compute(key, remappingFunction));
+    }
+
+    @Override
+    public <T> CompletableFuture<T> computeIfAbsentAsync(Key<T> key, Supplier<? extends T> mappingFunction) {
+        requireNonNull(key, "key");
+
+        return singleFlight(absentComputations, key, () -> {
+            try {
+                return repository.computeIfAbsent(key, mappingFunction);
+            } finally {
+                gets.remove(key);
+            }
+        });
+    }
+
+    @Override
+    public <T> CompletableFuture<T> computeIfPresentAsync(Key<T> key, UnaryOperator<T> remappingFunction) {
+        return mutate(key, () -> repository.computeIfPresent(key, remappingFunction));
+    }
+
+    @Override
+    public <T> CompletableFuture<T> replaceAsync(Key<T> key, T value) {
+        return mutate(key, () -> repository.replace(key, value));
+    }
+
+    @Override
+    public <T> CompletableFuture<Boolean> replaceAsync(Key<T> key, T oldValue, T newValue) {
+        return mutate(key, () -> repository.replace(key, oldValue, newValue));
+    }
+
+    @Override
+    public <T> CompletableFuture<T> removeAsync(Key<T> key) {
+        return mutate(key, () -> repository.remove(key));
+    }
+
+    @Override
+    public <T> CompletableFuture<Boolean> removeAsync(Key<T> key, T value) {
+        return mutate(key, () -> repository.remove(key, value));
+    }
+
+    @Override
+    public CompletableFuture<Void> clearAsync() {
+        return submit(() -> {
+            try {
+                repository.clear();
+                return null;
+            } finally {
+                gets.clear();
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Boolean> containsAsync(Key<?> key) {
+        requireNonNull(key, "key");
+
+        return submit(() -> repository.contains(key));
+    }
+
+    @Override
+    public CompletableFuture<Integer> sizeAsync() {
+        return submit(repository::size);
+    }
+}
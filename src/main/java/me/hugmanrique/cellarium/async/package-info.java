@@ -0,0 +1,4 @@
+@ParametersAreNonnullByDefault
+package me.hugmanrique.cellarium.async;
+
+import javax.annotation.ParametersAreNonnullByDefault;
@@ -0,0 +1,268 @@
+package me.hugmanrique.cellarium.bulk;
+
+import me.hugmanrique.cellarium.Key;
+import me.hugmanrique.cellarium.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Executes scans, aggregations and updates over a collection of repositories
+ * in parallel.
+ *
+ * <p>The collection is recursively split into batches that are processed by
+ * the workers of a {@link ForkJoinPool}. Each repository is processed by a
+ * single worker, and the completion of the operation happens-before it returns,
+ * so repositories that are not thread-safe (e.g. created by
+ * {@link me.hugmanrique.cellarium.simple.SimpleRepository#newInstance()}) can be
+ * safely processed as long as no other thread accesses them during the operation.
+ *
+ * <p>The order in which repositories are processed is unspecified.
+ *
+ * @see Builder to create instances of this class
+ */
+public class BulkOperation {
+
+    private final ForkJoinPool pool;
+    private final int batchSize;
+    private final ProgressListener progressListener;
+
+    private BulkOperation(Builder builder) {
+        this.pool = builder.pool;
+        this.batchSize = builder.batchSize;
+        this.progressListener = builder.progressListener;
+    }
+
+    /**
+     * Performs the given action for each repository.
+     *
+     * @param repositories the repositories to process
+     * @param action the action to be performed for each repository
+     */
+    public void forEach(Collection<? extends Repository> repositories, Consumer<? super Repository> action) {
+        requireNonNull(action, "action");
+
+        aggregate(repositories, () -> null, (ignored, repository) -> action.accept(repository), (left, right) -> null);
+    }
+
+    /**
+     * Attempts to compute a new mapping for the specified key in each repository.
+     *
+     * @param repositories the repositories to update
+     * @param key key with which the computed value is to be associated
+     * @param remappingFunction remapping function to compute a value
+     * @param <T> the type of the value
+     * @see Repository#compute(Key, UnaryOperator)
+     */
+    public <T> void update(Collection<? extends Repository> repositories, Key<T> key, UnaryOperator<T> remappingFunction) {
+        requireNonNull(key, "key");
+        requireNonNull(remappingFunction, "remappingFunction");
+
+        forEach(repositories, repository -> repository.compute(key, remappingFunction));
+    }
+
+    /**
+     * Returns the number of repositories matching the given predicate.
+     *
+     * @param repositories the repositories to scan
+     * @param filter the predicate to apply to each repository
+     * @return the number of matching repositories
+     */
+    public long count(Collection<? extends Repository> repositories, Predicate<? super Repository> filter) {
+        requireNonNull(filter, "filter");
+
+        long[] count = aggregate(repositories, () -> new long[1], (sum, repository) -> {
+            if (filter.test(repository)) {
+                sum[0]++;
+            }
+        }, (left, right) -> {
+            left[0] += right[0];
+            return left;
+        });
+
+        return count[0];
+    }
+
+    /**
+     * Returns the repositories matching the given predicate.
+     *
+     * @param repositories the repositories to scan
+     * @param filter the predicate to apply to each repository
+     * @return a new list containing the matching repositories
+     */
+    public List<Repository> filter(Collection<? extends Repository> repositories, Predicate<? super Repository> filter) {
+        requireNonNull(filter, "filter");
+
+        return aggregate(repositories, ArrayList::new, (matches, repository) -> {
+            if (filter.test(repository)) {
+                matches.add(repository);
+            }
+        }, (left, right) -> {
+            left.addAll(right);
+            return left;
+        });
+    }
+
+    /**
+     * Performs a mutable reduction operation on the repositories. Each batch is
+     * accumulated into a new result container, and the containers of sibling
+     * batches are merged with the combiner.
+     *
+     * @param repositories the repositories to reduce
+     * @param supplier a function that creates a new result container
+     * @param accumulator a function for incorporating a repository into a result
+     * @param combiner a function for combining two partial results
+     * @param <R> the type of the result
+     * @return the result of the reduction
+     * @see java.util.stream.Stream#collect(Supplier, BiConsumer, BiConsumer)
+     */
+    public <R> R aggregate(Collection<? extends Repository> repositories,
+                           Supplier<R> supplier,
+                           BiConsumer<R, ? super Repository> accumulator,
+                           BinaryOperator<R> combiner) {
+        requireNonNull(supplier, "supplier");
+        requireNonNull(accumulator, "accumulator");
+        requireNonNull(combiner, "combiner");
+
+        Repository[] array = requireNonNull(repositories, "repositories").toArray(new Repository[0]);
+        AggregateTask<R> task = new AggregateTask<>(array, 0, array.length, new AtomicLong(),
+                supplier, accumulator, combiner);
+
+        return pool.invoke(task);
+    }
+
+    private final class AggregateTask<R> extends RecursiveTask<R> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Repository[] repositories;
+        private final int from;
+        private final int to;
+        private final AtomicLong completed;
+        private final Supplier<R> supplier;
+        private final BiConsumer<R, ? super Repository> accumulator;
+        private final BinaryOperator<R> combiner;
+
+        AggregateTask(Repository[] repositories, int from, int to, AtomicLong completed,
+                      Supplier<R> supplier, BiConsumer<R, ? super Repository> accumulator,
+                      BinaryOperator<R> combiner) {
+            this.repositories = repositories;
+            this.from = from;
+            this.to = to;
+            this.completed = completed;
+            this.supplier = supplier;
+            this.accumulator = accumulator;
+            this.combiner = combiner;
+        }
+
+        private AggregateTask<R> subtask(int from, int to) {
+            return new AggregateTask<>(repositories, from, to, completed, supplier, accumulator, combiner);
+        }
+
+        @Override
+        protected R compute() {
+            if (to - from > batchSize) {
+                int middle = (from + to) >>> 1;
+                AggregateTask<R> right = subtask(middle, to);
+                right.fork();
+
+                R left = subtask(from, middle).compute();
+                return combiner.apply(left, right.join());
+            }
+
+            R result = supplier.get();
+
+            for (int i = from; i < to; i++) {
+                accumulator.accept(result, repositories[i]);
+            }
+
+            if (progressListener != null) {
+                progressListener.onProgress(completed.addAndGet(to - from), repositories.length);
+            }
+
+            return result;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "BulkOperation{" +
+                "pool=" + pool +
+                ", batchSize=" + batchSize +
+                '}';
+    }
+
+    /**
+     * Used to build instances of {@link BulkOperation} from values configured by
+     * the setters.
+     */
+    public static class Builder {
+
+        private static final int DEFAULT_BATCH_SIZE = 1024;
+
+        private ForkJoinPool pool = ForkJoinPool.commonPool();
+        private int batchSize = DEFAULT_BATCH_SIZE;
+        private ProgressListener progressListener;
+
+        /**
+         * Specifies the pool whose workers process the repositories. By default,
+         * the {@link ForkJoinPool#commonPool() common pool} is used.
+         *
+         * @param pool the pool to use
+         * @return this builder
+         */
+        public Builder pool(ForkJoinPool pool) {
+            this.pool = requireNonNull(pool, "pool");
+            return this;
+        }
+
+        /**
+         * Specifies the maximum number of repositories processed sequentially by
+         * a worker before the work is split. Defaults to {@value DEFAULT_BATCH_SIZE}.
+         *
+         * @param batchSize the maximum number of repositories in a batch
+         * @return this builder
+         * @throws IllegalArgumentException if {@code batchSize} is not positive
+         */
+        public Builder batchSize(int batchSize) {
+            if (batchSize <= 0) {
+                throw new IllegalArgumentException("Non-positive batch size: " + batchSize);
+            }
+
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        /**
+         * Specifies the listener notified after each batch is processed.
+         *
+         * @param progressListener the progress listener
+         * @return this builder
+         */
+        public Builder progressListener(ProgressListener progressListener) {
+            this.progressListener = requireNonNull(progressListener, "progressListener");
+            return this;
+        }
+
+        /**
+         * Creates a {@link BulkOperation}.
+         *
+         * @return a {@link BulkOperation} having the specified values
+         */
+        public BulkOperation build() {
+            return new BulkOperation(this);
+        }
+    }
+}
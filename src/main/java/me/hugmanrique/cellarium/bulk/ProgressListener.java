@@ -0,0 +1,20 @@
+package me.hugmanrique.cellarium.bulk;
+
+/**
+ * A listener that is notified as a {@link BulkOperation} processes repositories.
+ */
+@FunctionalInterface
+public interface ProgressListener {
+
+    /**
+     * Called after a batch of repositories has been processed.
+     *
+     * <p>This method may be called concurrently from multiple worker threads,
+     * so notifications can arrive out of order. Exactly one notification of
+     * an operation reports {@code completed == total}.
+     *
+     * @param completed the number of repositories processed so far
+     * @param total the number of repositories to process
+     */
+    void onProgress(long completed, long total);
+}
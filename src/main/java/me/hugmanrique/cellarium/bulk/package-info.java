@@ -0,0 +1,4 @@
+@ParametersAreNonnullByDefault
+package me.hugmanrique.cellarium.bulk;
+
+import javax.annotation.ParametersAreNonnullByDefault;
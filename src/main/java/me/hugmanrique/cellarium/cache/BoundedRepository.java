@@ -0,0 +1,613 @@
+package me.hugmanrique.cellarium.cache;
+
+import me.hugmanrique.cellarium.Key;
+import me.hugmanrique.cellarium.PeekableRepository;
+import me.hugmanrique.cellarium.Repository;
+import me.hugmanrique.cellarium.monitor.RepositoryMonitors;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.IntBinaryOperator;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link Repository} that evicts mappings to stay within a maximum number
+ * of entries, or a maximum total weight.
+ *
+ * <p>Mappings are kept in intrusive linked lists ordered by recency, so reads
+ * and writes take constant time. The mappings to evict are chosen by the
+ * configured {@link EvictionPolicy}. With {@link EvictionPolicy#TINY_LFU},
+ * 1% of the capacity (at least one entry, unless the maximum is zero) forms the
+ * admission window, and the main region is ordered by recency. The frequency
+ * sketch grows with the number of entries rather than the maximum weight, and
+ * is sized for at most 2<sup>24</sup> entries.
+ *
+ * <p>Evictions are reported to the {@link EvictionListener} (if any) and to the
+ * {@link RepositoryMonitors#current() current monitor}, on the thread that caused
+ * them. Listeners must not modify this repository. Reads through {@link #get(Key)}
+ * are counted as hits or misses in the {@link #stats() statistics}, while
+ * {@link #peek(Key)} neither records the access nor updates the recency.
+ *
+ * <p>All methods are synchronized.
+ *
+ * @see Builder to create instances of this class
+ */
+@ThreadSafe
+public class BoundedRepository implements PeekableRepository {
+
+    private final EvictionPolicy policy;
+    private final long maximum;
+    private final long windowMaximum;
+    private final long mainMaximum;
+    private final Weigher weigher;
+    private final EvictionListener listener;
+    private FrequencySketch sketch;
+
+    private final Map<Key<?>, Node> nodes = new HashMap<>();
+
+    // The window holds all the mappings under the LRU policy
+    private Node windowHead;
+    private Node windowTail;
+    private long windowWeight;
+    private Node mainHead;
+    private Node mainTail;
+    private long mainWeight;
+
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    private BoundedRepository(Builder builder) {
+        this.policy = builder.policy;
+        this.maximum = builder.maximum;
+        this.weigher = builder.weigher;
+        this.listener = builder.listener;
+
+        if (policy == EvictionPolicy.TINY_LFU) {
+            this.windowMaximum = Math.min(maximum, Math.max(1, maximum / 100));
+            this.mainMaximum = maximum - windowMaximum;
+            this.sketch = new FrequencySketch(0);
+        } else {
+            this.windowMaximum = maximum;
+            this.mainMaximum = 0;
+            this.sketch = null;
+        }
+    }
+
+    // Bookkeeping
+
+    private void append(Node node) {
+        if (node.main) {
+            node.prev = mainTail;
+
+            if (mainTail != null) {
+                mainTail.next = node;
+            } else {
+                mainHead = node;
+            }
+
+            mainTail = node;
+            mainWeight += node.weight;
+        } else {
+            node.prev = windowTail;
+
+            if (windowTail != null) {
+                windowTail.next = node;
+            } else {
+                windowHead = node;
+            }
+
+            windowTail = node;
+            windowWeight += node.weight;
+        }
+    }
+
+    private void unlink(Node node) {
+        Node prev = node.prev;
+        Node next = node.next;
+
+        if (prev != null) {
+            prev.next = next;
+        } else if (node.main) {
+            mainHead = next;
+        } else {
+            windowHead = next;
+        }
+
+        if (next != null) {
+            next.prev = prev;
+        } else if (node.main) {
+            mainTail = prev;
+        } else {
+            windowTail = prev;
+        }
+
+        node.prev = null;
+        node.next = null;
+
+        if (node.main) {
+            mainWeight -= node.weight;
+        } else {
+            windowWeight -= node.weight;
+        }
+    }
+
+    private void touch(Node node) {
+        if (node.next != null) {
+            unlink(node);
+            append(node);
+        }
+    }
+
+    private void recordAccess(Key<?> key) {
+        if (sketch != null) {
+            sketch.increment(System.identityHashCode(key));
+        }
+    }
+
+    private int frequency(Node node) {
+        return sketch.frequency(System.identityHashCode(node.key));
+    }
+
+    /**
+     * Replaces the sketch by one sized for twice the current number of mappings,
+     * carrying over the estimated frequencies of the present keys. The sketch is
+     * sized by entries since the maximum may be a weight.
+     */
+    private void growSketch() {
+        FrequencySketch grown = new FrequencySketch(2L * nodes.size());
+
+        for (Key<?> key : nodes.keySet()) {
+            int hash = System.identityHashCode(key);
+            grown.restore(hash, sketch.frequency(hash));
+        }
+
+        this.sketch = grown;
+    }
+
+    private int weigh(Key<?> key, Object value) {
+        if (weigher == null) {
+            return 1;
+        }
+
+        int weight = weigher.weigh(key, value);
+
+        if (weight < 0) {
+            throw new IllegalArgumentException("Weight of " + key + " cannot be negative");
+        }
+
+        return weight;
+    }
+
+    /**
+     * Sets the mapping for the specified key to {@code value} (or removes it if
+     * {@code null}), then evicts mappings if the maximum is exceeded.
+     */
+    private void set(Key<?> key, @Nullable Node node, @Nullable Object value) {
+        if (value == null) {
+            if (node != null) {
+                unlink(node);
+                nodes.remove(key);
+            }
+
+            return;
+        }
+
+        int weight = weigh(key, value);
+
+        if (node != null) {
+            unlink(node);
+            node.value = value;
+            node.weight = weight;
+        } else {
+            node = new Node(key, value, weight);
+            nodes.put(key, node);
+
+            if (sketch != null && nodes.size() > sketch.capacity()
+                    && sketch.capacity() < FrequencySketch.MAXIMUM_CAPACITY) {
+                growSketch();
+            }
+        }
+
+        append(node);
+        evict();
+    }
+
+    private void evict() {
+        if (policy == EvictionPolicy.LRU) {
+            while (windowWeight > maximum) {
+                evict(windowHead);
+            }
+
+            return;
+        }
+
+        while (windowWeight > windowMaximum) {
+            // Move the oldest mapping of the window into the main region
+            Node candidate = windowHead;
+            unlink(candidate);
+            candidate.main = true;
+            append(candidate);
+
+            // The candidate competes with the least recently used mappings for admission
+            while (mainWeight > mainMaximum) {
+                Node victim = mainHead;
+
+                if (victim != candidate && frequency(candidate) > frequency(victim)) {
+                    evict(victim);
+                } else {
+                    evict(candidate);
+                    break;
+                }
+            }
+        }
+
+        // Updated mappings may have grown heavier
+        while (mainWeight > mainMaximum) {
+            evict(mainHead);
+        }
+    }
+
+    private void evict(Node node) {
+        unlink(node);
+        nodes.remove(node.key);
+        evictionCount++;
+
+        if (listener != null) {
+            listener.onEviction(node.key, node.value);
+        }
+
+        RepositoryMonitors.current().eviction(this, node.key);
+    }
+
+    /**
+     * Returns the total weight of the mappings in this repository. If no
+     * weigher was configured, this is the number of mappings.
+     *
+     * @return the total weight of the mappings
+     */
+    public synchronized long weightedSize() {
+        return windowWeight + mainWeight;
+    }
+
+    /**
+     * Returns a snapshot of the hit, miss and eviction counts of this repository.
+     *
+     * @return the statistics of this repository
+     */
+    public synchronized CacheStats stats() {
+        return new CacheStats(hitCount, missCount, evictionCount);
+    }
+
+    @Nullable
+    @Override
+    public synchronized <T> T peek(Key<T> key) {
+        Node node = nodes.get(requireNonNull(key, "key"));
+
+        return node != null ? key.cast(node.value) : null;
+    }
+
+    // Repository methods
+
+    @Nullable
+    @Override
+    public synchronized <T> T get(Key<T> key) {
+        Node node = nodes.get(requireNonNull(key, "key"));
+        recordAccess(key);
+
+        if (node == null) {
+            missCount++;
+            return key.defaultValue();
+        }
+
+        hitCount++;
+        touch(node);
+        return key.cast(node.value);
+    }
+
+    @Nullable
+    @Override
+    public synchronized <T> T put(Key<T> key, T value) {
+        requireNonNull(key, "key");
+        requireNonNull(value, "value");
+
+        Node node = nodes.get(key);
+        T previous = node != null ? key.cast(node.value) : null;
+
+        recordAccess(key);
+        set(key, node, value);
+        return previous;
+    }
+
+    @Nullable
+    @Override
+    public synchronized <T> T putIfAbsent(Key<T> key, T value) {
+        requireNonNull(key, "key");
+        requireNonNull(value, "value");
+
+        Node node = nodes.get(key);
+        recordAccess(key);
+
+        if (node != null) {
+            touch(node);
+            return key.cast(node.value);
+        }
+
+        set(key, null, value);
+        return null;
+    }
+
+    @Nullable
+    @Override
+    public synchronized <T> T compute(Key<T> key, UnaryOperator<T> remappingFunction) {
+        requireNonNull(key, "key");
+
+        Node node = nodes.get(key);
+        T previous = node != null ? key.cast(node.value) : null;
+        T value = remappingFunction.apply(previous != null ? previous : key.defaultValue());
+
+        recordAccess(key);
+        set(key, node, value);
+        return value;
+    }
+
+    @Nullable
+    @Override
+    public synchronized <T, A> T compute(Key<T> key, A argument, BiFunction<? super T, ? super A, ? extends T> remappingFunction) {
+        requireNonNull(key, "key");
+
+        Node node = nodes.get(key);
+        T previous = node != null ? key.cast(node.value) : null;
+        T value = remappingFunction.apply(previous != null ? previous : key.defaultValue(), argument);
+
+        recordAccess(key);
+        set(key, node, value);
+        return value;
+    }
+
+    @Override
+    public synchronized int computeInt(Key<Integer> key, int operand, IntBinaryOperator operator) {
+        requireNonNull(key, "key");
+
+        Node node = nodes.get(key);
+        Integer previous = node != null ? key.cast(node.value) : key.defaultValue();
+        int value = operator.applyAsInt(previous != null ? previous : 0, operand);
+
+        recordAccess(key);
+        set(key, node, value);
+        return value;
+    }
+
+    @Override
+    public synchronized <T> T computeIfAbsent(Key<T> key, Supplier<? extends T> mappingFunction) {
+        requireNonNull(key, "key");
+
+        Node node = nodes.get(key);
+        recordAccess(key);
+
+        if (node != null) {
+            touch(node);
+            return key.cast(node.value);
+        }
+
+        T value = requireNonNull(mappingFunction.get(), "new value");
+        set(key, null, value);
+        return value;
+    }
+
+    @Nullable
+    @Override
+    public synchronized <T> T computeIfPresent(Key<T> key, UnaryOperator<T> remappingFunction) {
+        requireNonNull(key, "key");
+
+        Node node = nodes.get(key);
+
+        if (node == null) {
+            return null;
+        }
+
+        T value = remappingFunction.apply(key.cast(node.value));
+
+        recordAccess(key);
+        set(key, node, value);
+        return value;
+    }
+
+    @Nullable
+    @Override
+    public synchronized <T> T replace(Key<T> key, T value) {
+        requireNonNull(key, "key");
+        requireNonNull(value, "value");
+
+        Node node = nodes.get(key);
+
+        if (node == null) {
+            return null;
+        }
+
+        T previous = key.cast(node.value);
+
+        recordAccess(key);
+        set(key, node, value);
+        return previous;
+    }
+
+    @Override
+    public synchronized <T> boolean replace(Key<T> key, T oldValue, T newValue) {
+        requireNonNull(key, "key");
+        requireNonNull(oldValue, "oldValue");
+        requireNonNull(newValue, "newValue");
+
+        Node node = nodes.get(key);
+
+        if (node == null || !Objects.equals(node.value, oldValue)) {
+            return false;
+        }
+
+        recordAccess(key);
+        set(key, node, newValue);
+        return true;
+    }
+
+    @Nullable
+    @Override
+    public synchronized <T> T remove(Key<T> key) {
+        requireNonNull(key, "key");
+
+        Node node = nodes.get(key);
+
+        if (node == null) {
+            return null;
+        }
+
+        set(key, node, null);
+        return key.cast(node.value);
+    }
+
+    @Override
+    public synchronized <T> boolean remove(Key<T> key, T value) {
+        requireNonNull(key, "key");
+        requireNonNull(value, "value");
+
+        Node node = nodes.get(key);
+
+        if (node == null || !Objects.equals(node.value, value)) {
+            return false;
+        }
+
+        set(key, node, null);
+        return true;
+    }
+
+    @Override
+    public synchronized void clear() {
+        nodes.clear();
+        windowHead = windowTail = mainHead = mainTail = null;
+        windowWeight = mainWeight = 0;
+    }
+
+    @Override
+    public synchronized boolean contains(Key<?> key) {
+        return nodes.containsKey(requireNonNull(key, "key"));
+    }
+
+    @Override
+    public synchronized int size() {
+        return nodes.size();
+    }
+
+    @Override
+    public synchronized boolean isEmpty() {
+        return nodes.isEmpty();
+    }
+
+    private static final class Node {
+
+        final Key<?> key;
+        Object value;
+        int weight;
+        boolean main;
+        Node prev;
+        Node next;
+
+        Node(Key<?> key, Object value, int weight) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * Used to build instances of {@link BoundedRepository}. Either a maximum
+     * size or a maximum weight must be set.
+     */
+    public static class Builder {
+
+        private EvictionPolicy policy = EvictionPolicy.TINY_LFU;
+        private long maximum = -1;
+        private Weigher weigher;
+        private EvictionListener listener;
+
+        /**
+         * Sets the maximum number of mappings.
+         *
+         * @param maximumSize the maximum number of mappings
+         * @return this builder
+         * @throws IllegalArgumentException if {@code maximumSize} is negative
+         */
+        public Builder maximumSize(long maximumSize) {
+            if (maximumSize < 0) {
+                throw new IllegalArgumentException("Maximum size cannot be negative");
+            }
+
+            this.maximum = maximumSize;
+            this.weigher = null;
+            return this;
+        }
+
+        /**
+         * Sets the maximum total weight of the mappings, as calculated by the
+         * specified weigher.
+         *
+         * @param maximumWeight the maximum total weight
+         * @param weigher the weigher of the mappings
+         * @return this builder
+         * @throws IllegalArgumentException if {@code maximumWeight} is negative
+         */
+        public Builder maximumWeight(long maximumWeight, Weigher weigher) {
+            if (maximumWeight < 0) {
+                throw new IllegalArgumentException("Maximum weight cannot be negative");
+            }
+
+            this.maximum = maximumWeight;
+            this.weigher = requireNonNull(weigher, "weigher");
+            return this;
+        }
+
+        /**
+         * Sets the eviction policy. Defaults to {@link EvictionPolicy#TINY_LFU}.
+         *
+         * @param policy the eviction policy
+         * @return this builder
+         */
+        public Builder policy(EvictionPolicy policy) {
+            this.policy = requireNonNull(policy, "policy");
+            return this;
+        }
+
+        /**
+         * Sets the listener notified of evictions.
+         *
+         * @param listener the eviction listener
+         * @return this builder
+         */
+        public Builder evictionListener(EvictionListener listener) {
+            this.listener = requireNonNull(listener, "listener");
+            return this;
+        }
+
+        /**
+         * Creates a {@link BoundedRepository}.
+         *
+         * <p>This method does not alter the state of this {@link Builder} instance,
+         * so it can be invoked again to create multiple independent repositories.
+         *
+         * @return a new, empty {@link BoundedRepository}
+         * @throws IllegalStateException if neither a maximum size nor weight was set
+         */
+        public BoundedRepository build() {
+            if (maximum < 0) {
+                throw new IllegalStateException("Maximum size or weight must be set");
+            }
+
+            return new BoundedRepository(this);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package me.hugmanrique.cellarium.cache;
+
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * A snapshot of the statistics of a {@link BoundedRepository}.
+ */
+@Immutable
+public final class CacheStats {
+
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+
+    CacheStats(long hitCount, long missCount, long evictionCount) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+    }
+
+    /**
+     * Returns the number of reads of a mapped key.
+     *
+     * @return the number of hits
+     */
+    public long hitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Returns the number of reads of a key without a mapping.
+     *
+     * @return the number of misses
+     */
+    public long missCount() {
+        return missCount;
+    }
+
+    /**
+     * Returns the ratio of reads that hit a mapping, or {@code 1.0} if there
+     * were no reads.
+     *
+     * @return the hit rate
+     */
+    public double hitRate() {
+        long requests = hitCount + missCount;
+
+        return requests == 0 ? 1.0 : (double) hitCount / requests;
+    }
+
+    /**
+     * Returns the number of evicted mappings.
+     *
+     * @return the number of evictions
+     */
+    public long evictionCount() {
+        return evictionCount;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats{" +
+                "hitCount=" + hitCount +
+                ", missCount=" + missCount +
+                ", evictionCount=" + evictionCount +
+                '}';
+    }
+}
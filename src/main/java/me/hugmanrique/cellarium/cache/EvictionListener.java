@@ -0,0 +1,19 @@
+package me.hugmanrique.cellarium.cache;
+
+import me.hugmanrique.cellarium.Key;
+
+/**
+ * Notified after a {@link BoundedRepository} evicts a mapping to stay within
+ * its maximum size or weight. Mappings removed explicitly are not reported.
+ */
+@FunctionalInterface
+public interface EvictionListener {
+
+    /**
+     * Called after a mapping is evicted, on the thread that caused the eviction.
+     *
+     * @param key the key of the evicted mapping
+     * @param value the value of the evicted mapping
+     */
+    void onEviction(Key<?> key, Object value);
+}
@@ -0,0 +1,20 @@
+package me.hugmanrique.cellarium.cache;
+
+/**
+ * Specifies how a {@link BoundedRepository} chooses the mappings to evict.
+ */
+public enum EvictionPolicy {
+
+    /**
+     * Evicts the least recently used mapping.
+     */
+    LRU,
+
+    /**
+     * Window TinyLFU: new mappings enter a small LRU window, and mappings leaving
+     * the window are only admitted into the main region if they were accessed
+     * more frequently than the mapping they would replace, as estimated by a
+     * compact frequency sketch. Resists scans and one-off accesses better than LRU.
+     */
+    TINY_LFU
+}
@@ -0,0 +1,119 @@
+package me.hugmanrique.cellarium.cache;
+
+/**
+ * A count-min sketch of 4-bit counters estimating how often keys were accessed
+ * recently. Counters are halved once the number of recorded accesses reaches
+ * ten times the capacity, so the estimates age.
+ *
+ * <p>This class is not thread-safe.
+ */
+final class FrequencySketch {
+
+    static final int MAXIMUM_CAPACITY = 1 << 24;
+
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final int[] SEEDS = { 0x97CB3127, 0xB7D69A15, 0x3B8E5E71, 0x6F4B2C3D };
+
+    private final long[] table;
+    private final int mask;
+    private final int sampleSize;
+    private int additions;
+
+    FrequencySketch(long capacity) {
+        int size = (int) Math.min(MAXIMUM_CAPACITY, Math.max(16, capacity));
+        int length = Integer.highestOneBit(size - 1) << 1;
+
+        this.table = new long[length];
+        this.mask = length - 1;
+        this.sampleSize = 10 * length;
+    }
+
+    /**
+     * Returns the number of keys this sketch was sized for.
+     */
+    int capacity() {
+        return table.length;
+    }
+
+    private static int spread(int hash) {
+        hash ^= hash >>> 17;
+        hash *= 0xED5AD4BB;
+        return hash ^ hash >>> 11;
+    }
+
+    /**
+     * Returns the estimated number of recent accesses, up to 15.
+     */
+    int frequency(int hash) {
+        hash = spread(hash);
+        int frequency = 15;
+
+        for (int depth = 0; depth < SEEDS.length; depth++) {
+            frequency = Math.min(frequency, counter(hash, depth));
+        }
+
+        return frequency;
+    }
+
+    /**
+     * Records an access, incrementing the counters of the hash unless saturated.
+     */
+    void increment(int hash) {
+        hash = spread(hash);
+        boolean added = false;
+
+        for (int depth = 0; depth < SEEDS.length; depth++) {
+            int index = indexOf(hash, depth);
+            int shift = offsetOf(hash, depth);
+
+            if (((table[index] >>> shift) & 0xF) != 0xF) {
+                table[index] += 1L << shift;
+                added = true;
+            }
+        }
+
+        if (added && ++additions >= sampleSize) {
+            halve();
+        }
+    }
+
+    /**
+     * Raises the counters of the hash to at least the given frequency, without
+     * counting towards the next halving. Used to carry over estimates.
+     */
+    void restore(int hash, int frequency) {
+        hash = spread(hash);
+
+        for (int depth = 0; depth < SEEDS.length; depth++) {
+            int index = indexOf(hash, depth);
+            int shift = offsetOf(hash, depth);
+            long counter = (table[index] >>> shift) & 0xF;
+
+            if (counter < frequency) {
+                table[index] += (frequency - counter) << shift;
+            }
+        }
+    }
+
+    private int counter(int hash, int depth) {
+        return (int) ((table[indexOf(hash, depth)] >>> offsetOf(hash, depth)) & 0xF);
+    }
+
+    private int indexOf(int hash, int depth) {
+        int h = (hash + SEEDS[depth]) * SEEDS[depth];
+        return (h ^ h >>> 16) & mask;
+    }
+
+    private static int offsetOf(int hash, int depth) {
+        // Each depth uses a different quarter of the 16 counters in a word
+        return ((depth << 2) + ((hash >>> (depth << 3)) & 3)) << 2;
+    }
+
+    private void halve() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+
+        additions >>>= 1;
+    }
+}
@@ -0,0 +1,21 @@
+package me.hugmanrique.cellarium.cache;
+
+import me.hugmanrique.cellarium.Key;
+
+/**
+ * Calculates the weight of a mapping, counted against the maximum weight
+ * of a {@link BoundedRepository}.
+ */
+@FunctionalInterface
+public interface Weigher {
+
+    /**
+     * Returns the weight of the specified mapping. The weight of a mapping is
+     * calculated when its value is set, and not updated afterwards.
+     *
+     * @param key the key of the mapping
+     * @param value the value of the mapping
+     * @return the non-negative weight of the mapping
+     */
+    int weigh(Key<?> key, Object value);
+}
@@ -0,0 +1,4 @@
+@ParametersAreNonnullByDefault
+package me.hugmanrique.cellarium.cache;
+
+import javax.annotation.ParametersAreNonnullByDefault;
@@ -0,0 +1,358 @@
+package me.hugmanrique.cellarium.codec;
+
+import me.hugmanrique.cellarium.ForwardingRepository;
+import me.hugmanrique.cellarium.Key;
+import me.hugmanrique.cellarium.PeekableRepository;
+import me.hugmanrique.cellarium.Repository;
+import me.hugmanrique.cellarium.simple.SimpleRepository;
+
+import javax.annotation.Nullable;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.function.BiFunction;
+import java.util.function.IntBinaryOperator;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link Repository} populated from encoded bytes that only decodes the
+ * value of a key when it is first accessed.
+ *
+ * <p>The encoded form starts with the varint number of values. Each value is
+ * written as the varint id of its key in the {@link Schema}, the varint length
+ * of the encoded value and the bytes written by the key codec. Values with ids
+ * unknown to the schema are skipped.
+ *
+ * <p>Each value is kept as a slice of the source array until any operation
+ * other than {@link #contains(Key)} accesses its key, at which point it is
+ * decoded once and stored in a backing {@link SimpleRepository}. When written
+ * back by {@link #write(DataOutput)}, the slices of untouched values are copied
+ * as-is, without decoding and re-encoding them. Mappings of keys the schema
+ * does not contain are not written.
+ *
+ * <p>The source array must not be modified while referenced by this repository.
+ * This class is not thread-safe.
+ */
+public class LazyRepository extends ForwardingRepository implements PeekableRepository {
+
+    /**
+     * Encodes the mappings of the specified repository in the format read by
+     * {@link #LazyRepository(Schema, byte[])}.
+     *
+     * @param repository the repository to encode
+     * @param schema the schema of the encoded keys
+     * @return the encoded mappings
+     */
+    public static byte[] encode(Repository repository, Schema schema) {
+        LazyRepository lazy = new LazyRepository(schema);
+
+        for (Key<?> key : schema.keys()) {
+            copy(repository, lazy, key);
+        }
+
+        return lazy.toByteArray();
+    }
+
+    private static <T> void copy(Repository source, Repository target, Key<T> key) {
+        if (source.contains(key)) {
+            T value = source.get(key);
+
+            if (value != null) {
+                target.put(key, value);
+            }
+        }
+    }
+
+    private final Schema schema;
+    private final SimpleRepository values;
+
+    private byte[] data = new byte[0];
+    // Slices of the encoded values, indexed by key id. A negative length marks no value
+    private final int[] offsets;
+    private final int[] lengths;
+    private int encodedCount;
+
+    /**
+     * Creates an empty {@code LazyRepository}.
+     *
+     * @param schema the schema of the encoded keys
+     */
+    public LazyRepository(Schema schema) {
+        this(schema, SimpleRepository.newInstance());
+    }
+
+    /**
+     * Creates a {@code LazyRepository} that contains the encoded values. Only
+     * the framing of the values is read.
+     *
+     * @param schema the schema of the encoded keys
+     * @param data the encoded values
+     * @throws IOException if the data is malformed
+     */
+    public LazyRepository(Schema schema, byte[] data) throws IOException {
+        this(schema);
+        this.data = requireNonNull(data, "data");
+
+        ByteArrayInputStream bytes = new ByteArrayInputStream(data);
+        DataInputStream in = new DataInputStream(bytes);
+        int count = Varints.readVarInt(in);
+
+        for (int i = 0; i < count; i++) {
+            int id = Varints.readVarInt(in);
+            int length = Varints.readVarInt(in);
+            int offset = data.length - bytes.available();
+
+            if (length < 0 || length > bytes.available()) {
+                throw new IOException("Value length " + length + " exceeds the available bytes");
+            }
+
+            if (id >= 0 && id < lengths.length) {
+                if (lengths[id] < 0) {
+                    encodedCount++;
+                }
+
+                offsets[id] = offset;
+                lengths[id] = length;
+            }
+
+            in.skipBytes(length);
+        }
+    }
+
+    private LazyRepository(Schema schema, SimpleRepository values) {
+        super(values);
+        this.schema = requireNonNull(schema, "schema");
+        this.values = values;
+        this.offsets = new int[schema.size()];
+        this.lengths = new int[schema.size()];
+
+        Arrays.fill(lengths, -1);
+    }
+
+    /**
+     * Returns the number of values that have not been decoded yet.
+     *
+     * @return the number of encoded values
+     */
+    public int encodedCount() {
+        return encodedCount;
+    }
+
+    /**
+     * Decodes the value of the specified key, if it is still encoded.
+     */
+    private void decode(Key<?> key) {
+        if (encodedCount == 0 || !schema.contains(key)) {
+            return;
+        }
+
+        int id = schema.idOf(key);
+
+        if (lengths[id] < 0) {
+            return;
+        }
+
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(data, offsets[id], lengths[id]));
+            put(values, key, schema.codec(key).decode(in));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not decode the value of " + key, e);
+        }
+
+        discard(id);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void put(Repository repository, Key<T> key, Object value) {
+        repository.put(key, (T) value);
+    }
+
+    private void discard(int id) {
+        lengths[id] = -1;
+        encodedCount--;
+    }
+
+    /**
+     * Writes the mappings of this repository. Values that have not been decoded
+     * are copied without decoding them.
+     *
+     * @param out the output to write to
+     * @throws IOException if an I/O error occurs
+     */
+    public void write(DataOutput out) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        DataOutputStream bufferOut = new DataOutputStream(buffer);
+        int count = encodedCount;
+
+        for (Key<?> key : schema.keys()) {
+            if (values.contains(key)) {
+                count++;
+            }
+        }
+
+        Varints.writeVarInt(out, count);
+
+        for (int id = 0; id < schema.size(); id++) {
+            if (lengths[id] >= 0) {
+                Varints.writeVarInt(out, id);
+                Varints.writeVarInt(out, lengths[id]);
+                out.write(data, offsets[id], lengths[id]);
+            } else if (values.contains(schema.key(id))) {
+                buffer.reset();
+                encodeValue(schema.key(id), bufferOut);
+
+                Varints.writeVarInt(out, id);
+                Varints.writeVarInt(out, buffer.size());
+                out.write(buffer.toByteArray());
+            }
+        }
+    }
+
+    private <T> void encodeValue(Key<T> key, DataOutput out) throws IOException {
+        schema.codec(key).encode(values.get(key), out);
+    }
+
+    /**
+     * Returns the encoded mappings of this repository.
+     *
+     * @return the encoded mappings
+     * @see #write(DataOutput)
+     */
+    public byte[] toByteArray() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try {
+            write(new DataOutputStream(out));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return out.toByteArray();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Values that have not been decoded yet are not materialized, so
+     * {@code null} is returned for them.
+     */
+    @Nullable
+    @Override
+    public <T> T peek(Key<T> key) {
+        return values.peek(key);
+    }
+
+    @Nullable
+    @Override
+    public <T> T get(Key<T> key) {
+        decode(key);
+        return super.get(key);
+    }
+
+    @Nullable
+    @Override
+    public <T> T put(Key<T> key, T value) {
+        decode(key);
+        return super.put(key, value);
+    }
+
+    @Nullable
+    @Override
+    public <T> T putIfAbsent(Key<T> key, T value) {
+        decode(key);
+        return super.putIfAbsent(key, value);
+    }
+
+    @Nullable
+    @Override
+    public <T> T compute(Key<T> key, UnaryOperator<T> remappingFunction) {
+        decode(key);
+        return super.compute(key, remappingFunction);
+    }
+
+    @Nullable
+    @Override
+    public <T, A> T compute(Key<T> key, A argument, BiFunction<? super T, ? super A, ? extends T> remappingFunction) {
+        decode(key);
+        return super.compute(key, argument, remappingFunction);
+    }
+
+    @Override
+    public int computeInt(Key<Integer> key, int operand, IntBinaryOperator operator) {
+        decode(key);
+        return super.computeInt(key, operand, operator);
+    }
+
+    @Override
+    public <T> T computeIfAbsent(Key<T> key, Supplier<? extends T> mappingFunction) {
+        decode(key);
+        return super.computeIfAbsent(key, mappingFunction);
+    }
+
+    @Nullable
+    @Override
+    public <T> T computeIfPresent(Key<T> key, UnaryOperator<T> remappingFunction) {
+        decode(key);
+        return super.computeIfPresent(key, remappingFunction);
+    }
+
+    @Nullable
+    @Override
+    public <T> T replace(Key<T> key, T value) {
+        decode(key);
+        return super.replace(key, value);
+    }
+
+    @Override
+    public <T> boolean replace(Key<T> key, T oldValue, T newValue) {
+        decode(key);
+        return super.replace(key, oldValue, newValue);
+    }
+
+    @Nullable
+    @Override
+    public <T> T remove(Key<T> key) {
+        decode(key);
+        return super.remove(key);
+    }
+
+    @Override
+    public <T> boolean remove(Key<T> key, T value) {
+        decode(key);
+        return super.remove(key, value);
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        Arrays.fill(lengths, -1);
+        encodedCount = 0;
+    }
+
+    @Override
+    public boolean contains(Key<?> key) {
+        if (encodedCount > 0 && schema.contains(key) && lengths[schema.idOf(key)] >= 0) {
+            return true;
+        }
+
+        return super.contains(key);
+    }
+
+    @Override
+    public int size() {
+        return super.size() + encodedCount;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+}
@@ -0,0 +1,212 @@
+package me.hugmanrique.cellarium.codec;
+
+import me.hugmanrique.cellarium.Key;
+import me.hugmanrique.cellarium.Repository;
+
+import javax.annotation.Nullable;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * An immutable set of {@link Key}s, each associated to a {@link ValueCodec} and
+ * a numeric id, used to encode repository values in binary form.
+ *
+ * <p>Ids are assigned in registration order, starting at zero. Both the
+ * encoding and the decoding side must build equivalent schemas.
+ *
+ * @see Builder to create instances of this class
+ */
+public final class Schema {
+
+    private final List<Key<?>> keys;
+    private final List<ValueCodec<?>> codecs;
+    private final Map<Key<?>, Integer> ids;
+
+    private Schema(Builder builder) {
+        this.keys = Collections.unmodifiableList(new ArrayList<>(builder.keys));
+        this.codecs = new ArrayList<>(builder.codecs);
+        this.ids = new IdentityHashMap<>(builder.ids);
+    }
+
+    /**
+     * Returns the number of keys in this schema.
+     *
+     * @return the number of keys
+     */
+    public int size() {
+        return keys.size();
+    }
+
+    /**
+     * Returns the keys of this schema, indexed by id.
+     *
+     * @return an unmodifiable list of the keys
+     */
+    public List<Key<?>> keys() {
+        return keys;
+    }
+
+    /**
+     * Returns {@code true} if this schema contains the specified key.
+     *
+     * @param key the key to test
+     * @return {@code true} if this schema contains the key
+     */
+    public boolean contains(Key<?> key) {
+        return ids.containsKey(key);
+    }
+
+    /**
+     * Returns the id of the specified key.
+     *
+     * @param key the key
+     * @return the id of the key
+     * @throws IllegalArgumentException if this schema does not contain the key
+     */
+    public int idOf(Key<?> key) {
+        Integer id = ids.get(key);
+
+        if (id == null) {
+            throw new IllegalArgumentException("Unknown key " + key);
+        }
+
+        return id;
+    }
+
+    /**
+     * Returns the key with the specified id.
+     *
+     * @param id the key id
+     * @return the key with the given id
+     * @throws IllegalArgumentException if this schema contains no key with the given id
+     */
+    public Key<?> key(int id) {
+        if (id < 0 || id >= keys.size()) {
+            throw new IllegalArgumentException("Unknown key id " + id);
+        }
+
+        return keys.get(id);
+    }
+
+    /**
+     * Returns the codec associated to the specified key.
+     *
+     * @param key the key
+     * @param <T> the type of the key values
+     * @return the codec of the key
+     * @throws IllegalArgumentException if this schema does not contain the key
+     */
+    @SuppressWarnings("unchecked")
+    public <T> ValueCodec<T> codec(Key<T> key) {
+        return (ValueCodec<T>) codecs.get(idOf(key));
+    }
+
+    /**
+     * Writes a record of the specified mapping, as the varint of the key id (shifted
+     * left by one, with the lowest bit set for removals) followed by the encoded
+     * value, if any.
+     *
+     * @param out the output to write to
+     * @param key the key of the mapping
+     * @param value the value of the mapping, or {@code null} if it was removed
+     * @throws IOException if an I/O error occurs
+     * @throws IllegalArgumentException if this schema does not contain the key
+     * @see #readRecord(DataInput, Repository)
+     */
+    public void writeRecord(DataOutput out, Key<?> key, @Nullable Object value) throws IOException {
+        int id = idOf(key);
+
+        if (value == null) {
+            Varints.writeVarInt(out, (id << 1) | 1);
+        } else {
+            Varints.writeVarInt(out, id << 1);
+            encode(key, value, out);
+        }
+    }
+
+    private <T> void encode(Key<T> key, Object value, DataOutput out) throws IOException {
+        codec(key).encode(key.cast(value), out);
+    }
+
+    /**
+     * Reads a record written by {@link #writeRecord(DataOutput, Key, Object)},
+     * and applies it to the specified repository.
+     *
+     * @param in the input to read from
+     * @param target the repository to apply the record to
+     * @throws IOException if an I/O error occurs, or the record is malformed
+     */
+    public void readRecord(DataInput in, Repository target) throws IOException {
+        int header = Varints.readVarInt(in);
+        int id = header >>> 1;
+
+        if (id >= keys.size()) {
+            throw new IOException("Unknown key id " + id);
+        }
+
+        Key<?> key = keys.get(id);
+
+        if ((header & 1) != 0) {
+            target.remove(key);
+        } else {
+            decodeAndPut(key, in, target);
+        }
+    }
+
+    private <T> void decodeAndPut(Key<T> key, DataInput in, Repository target) throws IOException {
+        target.put(key, codec(key).decode(in));
+    }
+
+    /**
+     * Used to build instances of {@link Schema} from values configured by
+     * the setters.
+     */
+    public static class Builder {
+
+        private final List<Key<?>> keys = new ArrayList<>();
+        private final List<ValueCodec<?>> codecs = new ArrayList<>();
+        private final Map<Key<?>, Integer> ids = new IdentityHashMap<>();
+
+        /**
+         * Registers a key with the next available id.
+         *
+         * @param key the key to register
+         * @param codec the codec used to encode the values of the key
+         * @param <T> the type of the key values
+         * @return this builder
+         * @throws IllegalArgumentException if the key is already registered
+         */
+        public <T> Builder add(Key<T> key, ValueCodec<T> codec) {
+            requireNonNull(key, "key");
+            requireNonNull(codec, "codec");
+
+            if (ids.putIfAbsent(key, keys.size()) != null) {
+                throw new IllegalArgumentException("Duplicate key " + key);
+            }
+
+            keys.add(key);
+            codecs.add(codec);
+            return this;
+        }
+
+        /**
+         * Creates a {@link Schema}.
+         *
+         * <p>This method does not alter the state of this {@link Builder} instance,
+         * so it can be invoked again to create multiple independent schemas.
+         *
+         * @return a {@link Schema} having the registered keys
+         */
+        public Schema build() {
+            return new Schema(this);
+        }
+    }
+}
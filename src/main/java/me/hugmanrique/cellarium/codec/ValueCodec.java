@@ -0,0 +1,32 @@
+package me.hugmanrique.cellarium.codec;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Encodes and decodes values of a given type to and from a binary representation.
+ *
+ * @param <T> the type of the values
+ * @see ValueCodecs for codecs of common types
+ */
+public interface ValueCodec<T> {
+
+    /**
+     * Writes the binary representation of the specified value.
+     *
+     * @param value the value to encode
+     * @param out the output to write to
+     * @throws IOException if an I/O error occurs
+     */
+    void encode(T value, DataOutput out) throws IOException;
+
+    /**
+     * Reads a value written by {@link #encode(Object, DataOutput)}.
+     *
+     * @param in the input to read from
+     * @return the decoded value
+     * @throws IOException if an I/O error occurs
+     */
+    T decode(DataInput in) throws IOException;
+}
@@ -0,0 +1,144 @@
+package me.hugmanrique.cellarium.codec;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * {@link ValueCodec}s for common value types.
+ */
+public final class ValueCodecs {
+
+    /**
+     * Encodes integers as zig-zag varints.
+     */
+    public static final ValueCodec<Integer> INTEGER = new ValueCodec<Integer>() {
+        @Override
+        public void encode(Integer value, DataOutput out) throws IOException {
+            Varints.writeVarInt(out, Varints.zigZag(value));
+        }
+
+        @Override
+        public Integer decode(DataInput in) throws IOException {
+            return Varints.unZigZag(Varints.readVarInt(in));
+        }
+    };
+
+    /**
+     * Encodes longs as zig-zag varlongs.
+     */
+    public static final ValueCodec<Long> LONG = new ValueCodec<Long>() {
+        @Override
+        public void encode(Long value, DataOutput out) throws IOException {
+            Varints.writeVarLong(out, Varints.zigZag(value));
+        }
+
+        @Override
+        public Long decode(DataInput in) throws IOException {
+            return Varints.unZigZag(Varints.readVarLong(in));
+        }
+    };
+
+    /**
+     * Encodes doubles as 8 bytes.
+     */
+    public static final ValueCodec<Double> DOUBLE = new ValueCodec<Double>() {
+        @Override
+        public void encode(Double value, DataOutput out) throws IOException {
+            out.writeDouble(value);
+        }
+
+        @Override
+        public Double decode(DataInput in) throws IOException {
+            return in.readDouble();
+        }
+    };
+
+    /**
+     * Encodes booleans as a single byte.
+     */
+    public static final ValueCodec<Boolean> BOOLEAN = new ValueCodec<Boolean>() {
+        @Override
+        public void encode(Boolean value, DataOutput out) throws IOException {
+            out.writeBoolean(value);
+        }
+
+        @Override
+        public Boolean decode(DataInput in) throws IOException {
+            return in.readBoolean();
+        }
+    };
+
+    // Bounds the buffer allocated for a string before its bytes are read
+    private static final int MAX_STRING_LENGTH = 1 << 24;
+
+    /**
+     * Encodes strings as a varint byte length followed by their UTF-8 bytes.
+     * Strings longer than 16 MiB in UTF-8 cannot be encoded.
+     */
+    public static final ValueCodec<String> STRING = new ValueCodec<String>() {
+        @Override
+        public void encode(String value, DataOutput out) throws IOException {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+
+            if (bytes.length > MAX_STRING_LENGTH) {
+                throw new IOException("String length " + bytes.length + " exceeds " + MAX_STRING_LENGTH + " bytes");
+            }
+
+            Varints.writeVarInt(out, bytes.length);
+            out.write(bytes);
+        }
+
+        @Override
+        public String decode(DataInput in) throws IOException {
+            int length = Varints.readVarInt(in);
+
+            if (length < 0 || length > MAX_STRING_LENGTH) {
+                throw new IOException("Invalid string length: " + length);
+            }
+
+            byte[] bytes = new byte[length];
+            in.readFully(bytes);
+
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    };
+
+    /**
+     * Returns a codec that encodes the elements of the specified enum type
+     * as the varint of their ordinal. The encoding is only stable as long as
+     * the declaration order of the enum elements does not change.
+     *
+     * @param type the enum type
+     * @param <E> the enum type
+     * @return the enum codec
+     */
+    public static <E extends Enum<E>> ValueCodec<E> forEnum(Class<E> type) {
+        E[] constants = requireNonNull(type, "type").getEnumConstants();
+
+        return new ValueCodec<E>() {
+            @Override
+            public void encode(E value, DataOutput out) throws IOException {
+                Varints.writeVarInt(out, value.ordinal());
+            }
+
+            @Override
+            public E decode(DataInput in) throws IOException {
+                int ordinal = Varints.readVarInt(in);
+
+                if (ordinal < 0 || ordinal >= constants.length) {
+                    throw new IOException("Invalid " + type.getName() + " ordinal: " + ordinal);
+                }
+
+                return constants[ordinal];
+            }
+        };
+    }
+
+    private ValueCodecs() {
+        throw new AssertionError();
+    }
+}
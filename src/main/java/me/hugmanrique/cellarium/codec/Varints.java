@@ -0,0 +1,140 @@
+package me.hugmanrique.cellarium.codec;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Variable-length integer encoding utilities. Values are written in groups of
+ * 7 bits, least significant group first, with the high bit of each byte
+ * indicating whether more bytes follow.
+ *
+ * <p>Signed values should be {@linkplain #zigZag(int) zig-zag encoded} first,
+ * so small negative values also take few bytes.
+ *
+ * @see <a href="https://developers.google.com/protocol-buffers/docs/encoding#varints">Protocol Buffers varints</a>
+ */
+public final class Varints {
+
+    /**
+     * Maps signed integers to unsigned integers so that numbers with a small
+     * absolute value have a small encoded value.
+     *
+     * @param value the signed value
+     * @return the zig-zag encoded value
+     */
+    public static int zigZag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    /**
+     * Reverses {@link #zigZag(int)}.
+     *
+     * @param value the zig-zag encoded value
+     * @return the signed value
+     */
+    public static int unZigZag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Maps signed longs to unsigned longs so that numbers with a small
+     * absolute value have a small encoded value.
+     *
+     * @param value the signed value
+     * @return the zig-zag encoded value
+     */
+    public static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    /**
+     * Reverses {@link #zigZag(long)}.
+     *
+     * @param value the zig-zag encoded value
+     * @return the signed value
+     */
+    public static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Writes the specified value as an unsigned varint.
+     *
+     * @param out the output to write to
+     * @param value the value to write
+     * @throws IOException if an I/O error occurs
+     */
+    public static void writeVarInt(DataOutput out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+
+        out.writeByte(value);
+    }
+
+    /**
+     * Reads an unsigned varint written by {@link #writeVarInt(DataOutput, int)}.
+     *
+     * @param in the input to read from
+     * @return the read value
+     * @throws IOException if an I/O error occurs, or the varint is malformed
+     */
+    public static int readVarInt(DataInput in) throws IOException {
+        int value = 0;
+
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = in.readByte();
+            value |= (b & 0x7F) << shift;
+
+            if (b >= 0) {
+                return value;
+            }
+        }
+
+        throw new IOException("Malformed varint");
+    }
+
+    /**
+     * Writes the specified value as an unsigned varlong.
+     *
+     * @param out the output to write to
+     * @param value the value to write
+     * @throws IOException if an I/O error occurs
+     */
+    public static void writeVarLong(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte(((int) value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+
+        out.writeByte((int) value);
+    }
+
+    /**
+     * Reads an unsigned varlong written by {@link #writeVarLong(DataOutput, long)}.
+     *
+     * @param in the input to read from
+     * @return the read value
+     * @throws IOException if an I/O error occurs, or the varlong is malformed
+     */
+    public static long readVarLong(DataInput in) throws IOException {
+        long value = 0;
+
+        for (int shift = 0; shift < 70; shift += 7) {
+            byte b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+
+            if (b >= 0) {
+                return value;
+            }
+        }
+
+        throw new IOException("Malformed varlong");
+    }
+
+    private Varints() {
+        throw new AssertionError();
+    }
+}
@@ -0,0 +1,4 @@
+@ParametersAreNonnullByDefault
+package me.hugmanrique.cellarium.codec;
+
+import javax.annotation.ParametersAreNonnullByDefault;
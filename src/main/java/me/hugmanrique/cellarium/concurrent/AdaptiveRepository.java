@@ -0,0 +1,563 @@
+package me.hugmanrique.cellarium.concurrent;
+
+import me.hugmanrique.cellarium.ForwardingRepository;
+import me.hugmanrique.cellarium.Key;
+import me.hugmanrique.cellarium.Repository;
+import me.hugmanrique.cellarium.util.IntegerValues;
+
+import javax.annotation.Nullable;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.BiFunction;
+import java.util.function.IntBinaryOperator;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A repository that detects contended integer keys updated by {@link #add(Key, int)}
+ * and promotes them to striped cells, so that concurrent increments of a hot key
+ * do not contend on a single mapping.
+ *
+ * <p>Each call to {@link #add(Key, int)} on a regular key is applied to the backing
+ * repository with the semantics of {@link IntegerValues#increaseBy(Repository, Key, int)}.
+ * If the update function had to be retried because the mapping was concurrently
+ * modified (as in compare-and-set based repositories), or was first applied after
+ * waiting longer than the lock wait threshold (as in lock based repositories, where
+ * the wait includes acquiring the lock), the key is charged a contention event.
+ * Once a key accumulates the
+ * promotion threshold of contention events within a window, its increments are
+ * added to a cell with one padded counter per stripe of threads instead.
+ *
+ * <p>Updates of promoted keys are sampled. A promoted key that receives fewer
+ * updates than the demotion threshold within a window is demoted: its cell is
+ * folded back into the backing repository. Every other writing method demotes
+ * the key it is called with before forwarding, so only increments are striped.
+ *
+ * <p>Like {@link java.util.concurrent.atomic.LongAdder}, reads of a promoted key
+ * return the sum of its backing value and the counters at some point during the
+ * read, which may not reflect increments made concurrently with it.
+ *
+ * <p>This class is thread-safe if the backing repository is thread-safe.
+ *
+ * @see Builder to create instances of this class
+ */
+public class AdaptiveRepository extends ForwardingRepository {
+
+    // Estimate the update rate of promoted keys by counting one of every SAMPLE_RATE updates
+    private static final int SAMPLE_RATE = 16;
+
+    private final Repository repository;
+    private final int promotionThreshold;
+    private final int demotionThreshold;
+    private final long windowNanos;
+    private final long lockWaitNanos;
+    private final int stripes;
+
+    private final ThreadLocal<Probe> probes = ThreadLocal.withInitial(Probe::new);
+    private final Map<Key<?>, Contention> contention = new ConcurrentHashMap<>();
+    private final Map<Key<?>, Cell> cells = new ConcurrentHashMap<>();
+
+    private AdaptiveRepository(Repository repository, Builder builder) {
+        super(repository);
+        this.repository = repository;
+        this.promotionThreshold = builder.promotionThreshold;
+        this.demotionThreshold = builder.demotionThreshold;
+        this.windowNanos = builder.windowNanos;
+        this.lockWaitNanos = builder.lockWaitNanos;
+        this.stripes = builder.stripes;
+    }
+
+    /**
+     * Adds the specified delta to the value of the specified key.
+     *
+     * @param key the key whose value is to be increased
+     * @param delta the value to be added, may be negative
+     */
+    public void add(Key<Integer> key, int delta) {
+        requireNonNull(key, "key");
+
+        Probe probe = probes.get();
+        Cell cell = cells.get(key);
+
+        if (cell != null) {
+            cell.add(probe.stripe, delta);
+
+            if (cell.retired) {
+                // The cell was demoted after we read it, make sure our delta is not lost
+                fold(key, cell);
+            } else if (ThreadLocalRandom.current().nextInt(SAMPLE_RATE) == 0) {
+                sample(key, cell);
+            }
+
+            return;
+        }
+
+        probe.attempts = 0;
+        probe.waitNanos = 0;
+        probe.start = System.nanoTime();
+        repository.computeInt(key, delta, probe);
+
+        if (probe.attempts > 1 || probe.waitNanos >= lockWaitNanos) {
+            charge(key);
+        }
+    }
+
+    private void charge(Key<Integer> key) {
+        long now = System.nanoTime();
+        Contention stats = contention.computeIfAbsent(key, k -> new Contention(now));
+
+        if (stats.record(now, windowNanos) >= promotionThreshold) {
+            contention.remove(key);
+            cells.putIfAbsent(key, new Cell(stripes, now));
+        }
+    }
+
+    private void sample(Key<?> key, Cell cell) {
+        cell.sampledUpdates.incrementAndGet();
+        long now = System.nanoTime();
+
+        if (now - cell.windowStart >= windowNanos) {
+            evaluate(key, cell, now);
+        }
+    }
+
+    private void evaluate(Key<?> key, Cell cell, long now) {
+        int updates;
+
+        synchronized (cell) {
+            if (now - cell.windowStart < windowNanos) {
+                return; // Already evaluated by another thread
+            }
+
+            updates = cell.sampledUpdates.getAndSet(0) * SAMPLE_RATE;
+            cell.windowStart = now;
+        }
+
+        if (updates < demotionThreshold) {
+            demote(key, cell);
+        }
+    }
+
+    private void demote(Key<?> key, Cell cell) {
+        if (cells.remove(key, cell)) {
+            cell.retired = true;
+            fold(key, cell);
+        }
+    }
+
+    private void demote(Key<?> key) {
+        if (!cells.isEmpty()) {
+            Cell cell = cells.get(key);
+
+            if (cell != null) {
+                demote(key, cell);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void fold(Key<?> key, Cell cell) {
+        long delta = cell.drain();
+
+        if (delta != 0) {
+            // Only integer keys are promoted, truncation matches the overflow of int addition
+            IntegerValues.increaseBy(repository, (Key<Integer>) key, (int) delta);
+        }
+    }
+
+    /**
+     * Returns whether the specified key is currently promoted to a striped cell.
+     *
+     * @param key the key
+     * @return {@code true} if the key is promoted
+     */
+    public boolean isPromoted(Key<?> key) {
+        return cells.containsKey(requireNonNull(key, "key"));
+    }
+
+    /**
+     * Returns the number of keys currently promoted to striped cells.
+     *
+     * @return the number of promoted keys
+     */
+    public int promotedCount() {
+        return cells.size();
+    }
+
+    /**
+     * Demotes promoted keys whose window has elapsed with fewer updates than
+     * the demotion threshold, and discards the contention statistics of keys
+     * whose window has elapsed.
+     *
+     * <p>Promoted keys are otherwise only evaluated when they are updated, so
+     * this method should be called periodically if keys can stop being updated
+     * altogether.
+     */
+    public void cleanUp() {
+        long now = System.nanoTime();
+
+        for (Map.Entry<Key<?>, Cell> entry : cells.entrySet()) {
+            if (now - entry.getValue().windowStart >= windowNanos) {
+                evaluate(entry.getKey(), entry.getValue(), now);
+            }
+        }
+
+        Iterator<Contention> iterator = contention.values().iterator();
+
+        while (iterator.hasNext()) {
+            if (iterator.next().isExpired(now, windowNanos)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    @Nullable
+    @Override
+    public <T> T get(Key<T> key) {
+        Cell cell = cells.isEmpty() ? null : cells.get(requireNonNull(key, "key"));
+        T value = repository.get(key);
+
+        if (cell == null) {
+            return value;
+        }
+
+        long delta = cell.sum();
+
+        if (delta == 0) {
+            return value;
+        }
+
+        int base = value != null ? (Integer) value : 0;
+        return key.cast(base + (int) delta);
+    }
+
+    @Override
+    public <T> T put(Key<T> key, T value) {
+        demote(requireNonNull(key, "key"));
+        return repository.put(key, value);
+    }
+
+    @Override
+    public <T> T putIfAbsent(Key<T> key, T value) {
+        demote(requireNonNull(key, "key"));
+        return repository.putIfAbsent(key, value);
+    }
+
+    @Nullable
+    @Override
+    public <T> T compute(Key<T> key, UnaryOperator<T> remappingFunction) {
+        demote(requireNonNull(key, "key"));
+        return repository.compute(key, remappingFunction);
+    }
+
+    @Nullable
+    @Override
+    public <T, A> T compute(Key<T> key, A argument, BiFunction<? super T, ? super A, ? extends T> remappingFunction) {
+        demote(requireNonNull(key, "key"));
+        return repository.compute(key, argument, remappingFunction);
+    }
+
+    @Override
+    public int computeInt(Key<Integer> key, int operand, IntBinaryOperator operator) {
+        demote(requireNonNull(key, "key"));
+        return repository.computeInt(key, operand, operator);
+    }
+
+    @Override
+    public <T> T computeIfAbsent(Key<T> key, Supplier<? extends T> mappingFunction) {
+        demote(requireNonNull(key, "key"));
+        return repository.computeIfAbsent(key, mappingFunction);
+    }
+
+    @Nullable
+    @Override
+    public <T> T computeIfPresent(Key<T> key, UnaryOperator<T> remappingFunction) {
+        demote(requireNonNull(key, "key"));
+        return repository.computeIfPresent(key, remappingFunction);
+    }
+
+    @Override
+    public <T> T replace(Key<T> key, T value) {
+        demote(requireNonNull(key, "key"));
+        return repository.replace(key, value);
+    }
+
+    @Override
+    public <T> boolean replace(Key<T> key, T oldValue, T newValue) {
+        demote(requireNonNull(key, "key"));
+        return repository.replace(key, oldValue, newValue);
+    }
+
+    @Override
+    public <T> T remove(Key<T> key) {
+        demote(requireNonNull(key, "key"));
+        return repository.remove(key);
+    }
+
+    @Override
+    public <T> boolean remove(Key<T> key, T value) {
+        demote(requireNonNull(key, "key"));
+        return repository.remove(key, value);
+    }
+
+    @Override
+    public void clear() {
+        for (Map.Entry<Key<?>, Cell> entry : cells.entrySet()) {
+            demote(entry.getKey(), entry.getValue());
+        }
+
+        contention.clear();
+        repository.clear();
+    }
+
+    @Override
+    public boolean contains(Key<?> key) {
+        if (repository.contains(key)) {
+            return true;
+        }
+
+        Cell cell = cells.isEmpty() ? null : cells.get(key);
+        return cell != null && cell.sum() != 0;
+    }
+
+    @Override
+    public int size() {
+        int size = repository.size();
+
+        for (Map.Entry<Key<?>, Cell> entry : cells.entrySet()) {
+            if (!repository.contains(entry.getKey()) && entry.getValue().sum() != 0) {
+                size++;
+            }
+        }
+
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Per-thread state. Doubles as the update function of regular keys to
+     * count the attempts of each update, and measure the time until the first
+     * attempt, without allocating.
+     */
+    private static final class Probe implements IntBinaryOperator {
+
+        final int stripe = System.identityHashCode(Thread.currentThread()) * 0x9E3779B9;
+        int attempts;
+        long start;
+        long waitNanos;
+
+        @Override
+        public int applyAsInt(int previous, int delta) {
+            if (attempts++ == 0) {
+                waitNanos = System.nanoTime() - start;
+            }
+
+            return previous + delta;
+        }
+    }
+
+    /**
+     * The contention events charged to a regular key in the current window.
+     */
+    private static final class Contention {
+
+        private long windowStart;
+        private int events;
+
+        Contention(long windowStart) {
+            this.windowStart = windowStart;
+        }
+
+        synchronized int record(long now, long windowNanos) {
+            if (now - windowStart >= windowNanos) {
+                windowStart = now;
+                events = 0;
+            }
+
+            return ++events;
+        }
+
+        synchronized boolean isExpired(long now, long windowNanos) {
+            return now - windowStart >= windowNanos;
+        }
+    }
+
+    /**
+     * The striped counters of a promoted key.
+     */
+    private static final class Cell {
+
+        // Place each counter on its own 128-byte region to avoid false sharing
+        private static final int STRIDE = 16;
+
+        private final AtomicLongArray counters;
+        private final int mask;
+
+        final AtomicInteger sampledUpdates = new AtomicInteger();
+        volatile long windowStart;
+        volatile boolean retired;
+
+        Cell(int stripes, long windowStart) {
+            this.counters = new AtomicLongArray(stripes * STRIDE);
+            this.mask = stripes - 1;
+            this.windowStart = windowStart;
+        }
+
+        void add(int stripe, int delta) {
+            counters.getAndAdd((stripe >>> 16 & mask) * STRIDE, delta);
+        }
+
+        long sum() {
+            long sum = 0;
+
+            for (int i = 0; i < counters.length(); i += STRIDE) {
+                sum += counters.get(i);
+            }
+
+            return sum;
+        }
+
+        /**
+         * Atomically resets each counter, returning the sum of their values.
+         * Each increment is returned by exactly one call.
+         */
+        long drain() {
+            long sum = 0;
+
+            for (int i = 0; i < counters.length(); i += STRIDE) {
+                sum += counters.getAndSet(i, 0);
+            }
+
+            return sum;
+        }
+    }
+
+    /**
+     * Used to build instances of {@link AdaptiveRepository}.
+     */
+    public static class Builder {
+
+        private int promotionThreshold = 16;
+        private int demotionThreshold = 1024;
+        private long windowNanos = TimeUnit.SECONDS.toNanos(1);
+        private long lockWaitNanos = TimeUnit.MICROSECONDS.toNanos(10);
+        private int stripes = ceilingPowerOfTwo(Runtime.getRuntime().availableProcessors());
+
+        private static int ceilingPowerOfTwo(int value) {
+            return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+        }
+
+        /**
+         * Sets the number of contention events within a window after which a
+         * key is promoted. Defaults to 16.
+         *
+         * @param events the promotion threshold
+         * @return this builder
+         * @throws IllegalArgumentException if {@code events} is not positive
+         */
+        public Builder promotionThreshold(int events) {
+            if (events <= 0) {
+                throw new IllegalArgumentException("Promotion threshold must be positive");
+            }
+
+            this.promotionThreshold = events;
+            return this;
+        }
+
+        /**
+         * Sets the estimated number of updates within a window below which a
+         * promoted key is demoted. Defaults to 1024.
+         *
+         * @param updates the demotion threshold
+         * @return this builder
+         * @throws IllegalArgumentException if {@code updates} is negative
+         */
+        public Builder demotionThreshold(int updates) {
+            if (updates < 0) {
+                throw new IllegalArgumentException("Demotion threshold cannot be negative");
+            }
+
+            this.demotionThreshold = updates;
+            return this;
+        }
+
+        /**
+         * Sets the duration of the windows in which contention events and
+         * updates are counted. Defaults to one second.
+         *
+         * @param window the window duration
+         * @param unit the time unit of the {@code window} argument
+         * @return this builder
+         * @throws IllegalArgumentException if {@code window} is negative
+         */
+        public Builder window(long window, TimeUnit unit) {
+            if (window < 0) {
+                throw new IllegalArgumentException("Window cannot be negative");
+            }
+
+            this.windowNanos = unit.toNanos(window);
+            return this;
+        }
+
+        /**
+         * Sets the time an increment may wait before its update function is first
+         * applied (e.g. to acquire a lock of the backing repository) after which
+         * the key is charged a contention event. Defaults to 10 microseconds.
+         *
+         * @param threshold the lock wait threshold
+         * @param unit the time unit of the {@code threshold} argument
+         * @return this builder
+         * @throws IllegalArgumentException if {@code threshold} is negative
+         */
+        public Builder lockWaitThreshold(long threshold, TimeUnit unit) {
+            if (threshold < 0) {
+                throw new IllegalArgumentException("Lock wait threshold cannot be negative");
+            }
+
+            this.lockWaitNanos = unit.toNanos(threshold);
+            return this;
+        }
+
+        /**
+         * Sets the number of counters of each promoted key, rounded up to a power
+         * of two. Defaults to the number of available processors.
+         *
+         * @param stripes the number of counters
+         * @return this builder
+         * @throws IllegalArgumentException if {@code stripes} is not positive
+         */
+        public Builder stripes(int stripes) {
+            if (stripes <= 0 || stripes > 1 << 16) {
+                throw new IllegalArgumentException("Stripe count must be between 1 and 65536");
+            }
+
+            this.stripes = ceilingPowerOfTwo(stripes);
+            return this;
+        }
+
+        /**
+         * Creates an {@link AdaptiveRepository} backed by the specified repository,
+         * which should be thread-safe (e.g. {@link me.hugmanrique.cellarium.simple.SimpleRepository#newConcurrentInstance()}).
+         *
+         * <p>This method does not alter the state of this {@link Builder} instance,
+         * so it can be invoked again to create multiple independent repositories.
+         *
+         * @param repository the backing repository
+         * @return an {@link AdaptiveRepository}
+         */
+        public AdaptiveRepository build(Repository repository) {
+            return new AdaptiveRepository(requireNonNull(repository, "repository"), this);
+        }
+    }
+}
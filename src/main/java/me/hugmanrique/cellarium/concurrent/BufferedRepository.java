@@ -0,0 +1,231 @@
+package me.hugmanrique.cellarium.concurrent;
+
+import me.hugmanrique.cellarium.ForwardingRepository;
+import me.hugmanrique.cellarium.Key;
+import me.hugmanrique.cellarium.Repository;
+import me.hugmanrique.cellarium.util.IntegerValues;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A repository that buffers increments of integer keys made by {@link #add(Key, int)}
+ * in a per-thread buffer, and periodically merges them into the backing repository.
+ *
+ * <p>Each buffer is merged by the thread that owns it once it holds the given
+ * number of pending updates, or the given interval has elapsed since its last
+ * merge, whichever happens first. Pending deltas are applied to the backing
+ * repository with the semantics of {@link IntegerValues#increaseBy(Repository, Key, int)},
+ * one {@code compute} call per modified key and merge.
+ *
+ * <p>Reads and the remaining repository methods are forwarded to the backing
+ * repository and do not observe pending deltas, so they take constant time
+ * regardless of the number of threads. Call {@link #flush()} to merge the buffer
+ * of the current thread (e.g. to read your own writes), or {@link #flushAll()} to
+ * merge the buffers of all threads. Pending deltas are applied to the value mapped
+ * when they are merged, including values written after they were added.
+ * {@link #clear()} discards all pending deltas.
+ *
+ * <p>The thresholds are only checked when a delta is added, so the buffer of a
+ * thread that stops adding deltas is not merged until {@link #flushAll()} is called.
+ * Call {@link #flushAll()} periodically (e.g. from a scheduled executor) to bound
+ * the staleness of the backing repository. Buffers of terminated threads, and of
+ * threads that added no deltas since the previous call, are released by this method.
+ *
+ * <p>This class is thread-safe if the backing repository is thread-safe.
+ */
+public class BufferedRepository extends ForwardingRepository {
+
+    private static final Buffer[] NO_BUFFERS = new Buffer[0];
+
+    private final Repository repository;
+    private final int maxPendingUpdates;
+    private final long flushIntervalNanos;
+
+    private final ThreadLocal<Buffer> buffers = ThreadLocal.withInitial(Buffer::new);
+
+    // Copied on write, so merging all buffers allocates no iterator
+    private volatile Buffer[] registered = NO_BUFFERS;
+
+    /**
+     * Creates a {@code BufferedRepository} that merges each buffer after the
+     * specified number of updates, or when the specified interval elapses.
+     *
+     * @param repository the backing repository
+     * @param maxPendingUpdates the number of updates after which a buffer is merged
+     * @param flushInterval the maximum time between merges of a buffer
+     * @param unit the time unit of the {@code flushInterval} argument
+     * @throws IllegalArgumentException if {@code maxPendingUpdates} is not positive,
+     *                                  or {@code flushInterval} is negative
+     */
+    public BufferedRepository(Repository repository, int maxPendingUpdates, long flushInterval, TimeUnit unit) {
+        super(repository);
+
+        if (maxPendingUpdates <= 0) {
+            throw new IllegalArgumentException("Max pending updates must be positive");
+        }
+
+        if (flushInterval < 0) {
+            throw new IllegalArgumentException("Flush interval cannot be negative");
+        }
+
+        this.repository = repository;
+        this.maxPendingUpdates = maxPendingUpdates;
+        this.flushIntervalNanos = unit.toNanos(flushInterval);
+    }
+
+    private synchronized void register(Buffer buffer) {
+        Buffer[] copy = Arrays.copyOf(registered, registered.length + 1);
+        copy[registered.length] = buffer;
+        registered = copy;
+    }
+
+    private synchronized void unregister(Buffer buffer) {
+        Buffer[] buffers = registered;
+
+        for (int i = 0; i < buffers.length; i++) {
+            if (buffers[i] == buffer) {
+                Buffer[] copy = new Buffer[buffers.length - 1];
+                System.arraycopy(buffers, 0, copy, 0, i);
+                System.arraycopy(buffers, i + 1, copy, i, copy.length - i);
+                registered = copy;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of buffers that may hold pending deltas.
+     *
+     * @return the number of registered buffers
+     */
+    public int bufferCount() {
+        return registered.length;
+    }
+
+    /**
+     * Adds the specified delta to the buffered value of the specified key,
+     * merging the buffer of the current thread if a threshold is reached.
+     *
+     * @param key the key whose value is to be increased
+     * @param delta the value to be added, may be negative
+     */
+    public void add(Key<Integer> key, int delta) {
+        requireNonNull(key, "key");
+
+        Buffer buffer = buffers.get();
+
+        synchronized (buffer) {
+            if (!buffer.registered) {
+                register(buffer);
+                buffer.registered = true;
+            }
+
+            int[] cell = buffer.deltas.get(key);
+
+            if (cell == null) {
+                cell = new int[1];
+                buffer.deltas.put(key, cell);
+            }
+
+            cell[0] += delta;
+            buffer.active = true;
+
+            if (++buffer.pendingUpdates >= maxPendingUpdates
+                    || System.nanoTime() - buffer.lastMerge >= flushIntervalNanos) {
+                merge(buffer);
+            }
+        }
+    }
+
+    /**
+     * Merges the pending deltas of the current thread into the backing repository.
+     */
+    public void flush() {
+        Buffer buffer = buffers.get();
+
+        synchronized (buffer) {
+            merge(buffer);
+        }
+    }
+
+    /**
+     * Merges the pending deltas of all threads into the backing repository.
+     * Buffers of terminated threads, and of threads that added no deltas since
+     * the previous call, are released afterwards.
+     */
+    public void flushAll() {
+        for (Buffer buffer : registered) {
+            synchronized (buffer) {
+                merge(buffer);
+
+                Thread owner = buffer.owner.get();
+
+                if (!buffer.active || owner == null || !owner.isAlive()) {
+                    // The owner registers the buffer again on its next update
+                    buffer.deltas.clear();
+                    buffer.registered = false;
+                    unregister(buffer);
+                }
+
+                buffer.active = false;
+            }
+        }
+    }
+
+    private void merge(Buffer buffer) {
+        if (buffer.pendingUpdates > 0) {
+            for (Map.Entry<Key<Integer>, int[]> entry : buffer.deltas.entrySet()) {
+                int[] cell = entry.getValue();
+
+                if (cell[0] != 0) {
+                    IntegerValues.increaseBy(repository, entry.getKey(), cell[0]);
+                    cell[0] = 0;
+                }
+            }
+
+            buffer.pendingUpdates = 0;
+        }
+
+        buffer.lastMerge = System.nanoTime();
+    }
+
+    // Repository methods
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The pending deltas of all threads are discarded.
+     */
+    @Override
+    public void clear() {
+        for (Buffer buffer : registered) {
+            synchronized (buffer) {
+                for (int[] cell : buffer.deltas.values()) {
+                    cell[0] = 0;
+                }
+
+                buffer.pendingUpdates = 0;
+            }
+        }
+
+        super.clear();
+    }
+
+    private static final class Buffer {
+
+        // Registered buffers must not keep terminated threads reachable
+        final WeakReference<Thread> owner = new WeakReference<>(Thread.currentThread());
+        // The cells are reused across merges to avoid boxing on each update
+        final Map<Key<Integer>, int[]> deltas = new IdentityHashMap<>();
+        int pendingUpdates;
+        long lastMerge = System.nanoTime();
+        boolean registered;
+        boolean active;
+    }
+}
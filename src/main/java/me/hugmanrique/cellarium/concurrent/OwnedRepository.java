@@ -0,0 +1,114 @@
+package me.hugmanrique.cellarium.concurrent;
+
+import me.hugmanrique.cellarium.Key;
+import me.hugmanrique.cellarium.Repository;
+import me.hugmanrique.cellarium.simple.FrozenRepository;
+import me.hugmanrique.cellarium.simple.SimpleRepository;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A repository confined to a shard of a {@link ShardedRuntime}.
+ *
+ * <p>The repository is not accessed directly. Instead, operations are submitted
+ * to the owning shard, which applies them in submission order (per submitting
+ * thread). Operations must not retain the repository they receive, nor block
+ * waiting for other operations of the same shard.
+ *
+ * @see ShardedRuntime#create()
+ */
+@ThreadSafe
+public final class OwnedRepository {
+
+    private final ShardedRuntime.Shard shard;
+    private final SimpleRepository repository;
+
+    OwnedRepository(ShardedRuntime.Shard shard, SimpleRepository repository) {
+        this.shard = shard;
+        this.repository = repository;
+    }
+
+    /**
+     * Enqueues an operation to be applied to the repository by its owner.
+     *
+     * <p>Exceptions thrown by the operation are passed to the uncaught exception
+     * handler of the shard thread.
+     *
+     * @param operation the operation to apply
+     * @throws RejectedExecutionException if the runtime is closed
+     */
+    public void execute(Consumer<? super Repository> operation) {
+        requireNonNull(operation, "operation");
+
+        shard.enqueue(() -> operation.accept(repository));
+    }
+
+    /**
+     * Enqueues an operation to be applied to the repository by its owner, and
+     * returns a future completed with its result.
+     *
+     * @param operation the operation to apply
+     * @param <R> the type of the result
+     * @return a future completed with the result of the operation, or
+     *         exceptionally if the operation throws
+     * @throws RejectedExecutionException if the runtime is closed
+     */
+    public <R> CompletableFuture<R> submit(Function<? super Repository, ? extends R> operation) {
+        requireNonNull(operation, "operation");
+
+        CompletableFuture<R> future = new CompletableFuture<>();
+
+        shard.enqueue(() -> {
+            try {
+                future.complete(operation.apply(repository));
+            } catch (Throwable throwable) {
+                future.completeExceptionally(throwable);
+            }
+        });
+
+        return future;
+    }
+
+    /**
+     * Returns a future completed with the value to which the specified key is
+     * mapped once the previously submitted operations are applied.
+     *
+     * @param key key whose associated value is to be returned
+     * @param <T> the type of the value
+     * @return a future completed with the value of the key
+     * @see Repository#get(Key)
+     */
+    public <T> CompletableFuture<T> get(Key<T> key) {
+        requireNonNull(key, "key");
+
+        return submit(repository -> repository.get(key));
+    }
+
+    /**
+     * Returns a future completed with an immutable copy of the repository once
+     * the previously submitted operations are applied. The copy can be read
+     * from any thread.
+     *
+     * @return a future completed with a snapshot of the repository
+     * @see SimpleRepository#freeze()
+     */
+    public CompletableFuture<FrozenRepository> snapshot() {
+        return submit(ignored -> repository.freeze());
+    }
+
+    /**
+     * Returns {@code true} if the current thread owns this repository, i.e.
+     * operations are currently being applied by it.
+     *
+     * @return {@code true} if called from the owning shard thread
+     */
+    public boolean isOwner() {
+        return shard.isOwner();
+    }
+}
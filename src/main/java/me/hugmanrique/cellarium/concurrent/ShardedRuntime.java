@@ -0,0 +1,191 @@
+package me.hugmanrique.cellarium.concurrent;
+
+import me.hugmanrique.cellarium.simple.SimpleRepository;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A runtime that confines repositories to shard threads, so each repository
+ * is only accessed by the single thread that owns it.
+ *
+ * <p>Repositories created by {@link #create()} are assigned to shards in a
+ * round-robin fashion. Operations on an {@link OwnedRepository} are enqueued
+ * in a lock-free multiple-producer, single-consumer queue and applied in
+ * order by the owning shard to a non thread-safe {@link SimpleRepository}.
+ * Each shard drains its queue in batches and parks when it is empty.
+ * Repositories on different shards are updated in parallel.
+ *
+ * <p>Shard threads are created by the given thread factory, and the default
+ * factory creates non-daemon threads. A runtime must therefore be {@link #close() closed}
+ * once it is no longer needed, or the JVM will not exit.
+ *
+ * <p>This class is thread-safe.
+ */
+@ThreadSafe
+public class ShardedRuntime implements AutoCloseable {
+
+    private final Shard[] shards;
+    private final AtomicInteger nextShard = new AtomicInteger();
+
+    /**
+     * Creates a {@code ShardedRuntime} with the specified number of shards,
+     * whose threads are created by {@link Executors#defaultThreadFactory()}.
+     *
+     * @param shardCount the number of shards
+     * @throws IllegalArgumentException if {@code shardCount} is not positive
+     */
+    public ShardedRuntime(int shardCount) {
+        this(shardCount, Executors.defaultThreadFactory());
+    }
+
+    /**
+     * Creates a {@code ShardedRuntime} with the specified number of shards.
+     *
+     * @param shardCount the number of shards
+     * @param threadFactory the factory used to create the shard threads
+     * @throws IllegalArgumentException if {@code shardCount} is not positive
+     */
+    public ShardedRuntime(int shardCount, ThreadFactory threadFactory) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Shard count must be positive");
+        }
+
+        requireNonNull(threadFactory, "threadFactory");
+        this.shards = new Shard[shardCount];
+
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(threadFactory);
+        }
+
+        for (Shard shard : shards) {
+            shard.thread.start();
+        }
+    }
+
+    /**
+     * Returns the number of shards of this runtime.
+     *
+     * @return the number of shards
+     */
+    public int shardCount() {
+        return shards.length;
+    }
+
+    /**
+     * Creates an empty repository owned by one of the shards of this runtime.
+     *
+     * @return a new {@link OwnedRepository}
+     * @throws RejectedExecutionException if this runtime is closed
+     */
+    public OwnedRepository create() {
+        int index = Math.floorMod(nextShard.getAndIncrement(), shards.length);
+        Shard shard = shards[index];
+
+        if (!shard.running) {
+            throw new RejectedExecutionException("Runtime is closed");
+        }
+
+        return new OwnedRepository(shard, SimpleRepository.newInstance());
+    }
+
+    /**
+     * Stops accepting operations, waits for the shards to apply the pending
+     * operations and terminates their threads. Operations enqueued concurrently
+     * with this call may not be applied.
+     *
+     * <p>If the current thread is interrupted while waiting, this method returns
+     * without waiting for the remaining shards (which still terminate once their
+     * pending operations are applied), with the interrupt status set.
+     */
+    @Override
+    public void close() {
+        for (Shard shard : shards) {
+            shard.running = false;
+            LockSupport.unpark(shard.thread);
+        }
+
+        try {
+            for (Shard shard : shards) {
+                shard.thread.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static final class Shard implements Runnable {
+
+        private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+        final Thread thread;
+        volatile boolean running = true;
+        private volatile boolean parked;
+
+        Shard(ThreadFactory threadFactory) {
+            this.thread = requireNonNull(threadFactory.newThread(this), "thread");
+        }
+
+        void enqueue(Runnable task) {
+            if (!running) {
+                throw new RejectedExecutionException("Runtime is closed");
+            }
+
+            queue.offer(task);
+
+            // The shard may have applied its final batch before the task was enqueued
+            if (!running && queue.remove(task)) {
+                throw new RejectedExecutionException("Runtime is closed");
+            }
+
+            if (parked) {
+                LockSupport.unpark(thread);
+            }
+        }
+
+        boolean isOwner() {
+            return Thread.currentThread() == thread;
+        }
+
+        /**
+         * Applies the enqueued tasks until the queue is empty.
+         */
+        private void drain() {
+            Runnable task;
+
+            while ((task = queue.poll()) != null) {
+                try {
+                    task.run();
+                } catch (Throwable throwable) {
+                    thread.getUncaughtExceptionHandler().uncaughtException(thread, throwable);
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                drain();
+
+                parked = true;
+
+                // Re-check after publishing the flag, so no wake-up is missed
+                if (queue.isEmpty() && running) {
+                    LockSupport.park(this);
+                }
+
+                parked = false;
+            }
+
+            // Apply the operations enqueued before closing
+            drain();
+        }
+    }
+}
@@ -0,0 +1,4 @@
+@ParametersAreNonnullByDefault
+package me.hugmanrique.cellarium.concurrent;
+
+import javax.annotation.ParametersAreNonnullByDefault;
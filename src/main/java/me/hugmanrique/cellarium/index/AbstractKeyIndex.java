@@ -0,0 +1,113 @@
+package me.hugmanrique.cellarium.index;
+
+import me.hugmanrique.cellarium.Key;
+import me.hugmanrique.cellarium.ListeningRepository;
+import me.hugmanrique.cellarium.Repository;
+import me.hugmanrique.cellarium.RepositoryListener;
+
+import javax.annotation.Nullable;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A skeletal index over the values a {@link Key} is mapped to in a collection
+ * of repositories.
+ *
+ * <p>Repositories are tracked through a {@link ListeningRepository}, so the index
+ * is updated each time the indexed key is modified through it. Modifications
+ * made directly to the backing repository are not observed.
+ *
+ * <p>Updates are serialized by the index monitor, and the indexed value is
+ * always read from the repository while holding it. This guarantees the index
+ * converges to the latest value even if concurrent writers notify it out of order.
+ *
+ * @param <T> the type of the indexed values
+ */
+public abstract class AbstractKeyIndex<T> {
+
+    private final Key<T> key;
+    private final RepositoryListener listener = new IndexListener();
+
+    protected AbstractKeyIndex(Key<T> key) {
+        this.key = requireNonNull(key, "key");
+    }
+
+    /**
+     * Returns the key whose values are indexed.
+     *
+     * @return the indexed key
+     */
+    public final Key<T> key() {
+        return key;
+    }
+
+    /**
+     * Starts tracking the specified repository. If the repository is not a
+     * {@link ListeningRepository}, it is wrapped in one. Only modifications
+     * made through the returned repository update this index.
+     *
+     * @param repository the repository to track
+     * @return the repository whose modifications update this index
+     */
+    public ListeningRepository track(Repository repository) {
+        requireNonNull(repository, "repository");
+
+        ListeningRepository listening = repository instanceof ListeningRepository
+                ? (ListeningRepository) repository
+                : new ListeningRepository(repository);
+
+        listening.addListener(listener);
+        refresh(listening);
+
+        return listening;
+    }
+
+    /**
+     * Stops tracking the specified repository and removes it from this index.
+     *
+     * @param repository the repository returned by {@link #track(Repository)}
+     */
+    public void untrack(ListeningRepository repository) {
+        repository.removeListener(listener);
+
+        synchronized (this) {
+            remove(repository);
+        }
+    }
+
+    private synchronized void refresh(Repository repository) {
+        update(repository, repository.get(key));
+    }
+
+    /**
+     * Updates the indexed value of the specified repository. Called while
+     * holding the index monitor.
+     *
+     * @param repository the modified repository
+     * @param value the current value of the indexed key, or {@code null} if none
+     */
+    protected abstract void update(Repository repository, @Nullable T value);
+
+    /**
+     * Removes the specified repository from this index. Called while holding
+     * the index monitor.
+     *
+     * @param repository the untracked repository
+     */
+    protected abstract void remove(Repository repository);
+
+    private final class IndexListener implements RepositoryListener {
+
+        @Override
+        public void onUpdate(Repository repository, Key<?> key) {
+            if (key.equals(AbstractKeyIndex.this.key)) {
+                refresh(repository);
+            }
+        }
+
+        @Override
+        public void onClear(Repository repository) {
+            refresh(repository);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package me.hugmanrique.cellarium.index;
+
+import me.hugmanrique.cellarium.Key;
+import me.hugmanrique.cellarium.Repository;
+
+import javax.annotation.Nullable;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.OptionalLong;
+import java.util.TreeMap;
+import java.util.function.ToLongFunction;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * An index that maintains the count, sum, minimum and maximum of the values
+ * the indexed {@link Key} is mapped to in the tracked repositories.
+ *
+ * <p>The count and sum are maintained by applying the difference between the
+ * previous and the new value of each update. The minimum and maximum are
+ * maintained by a sorted multiset of values, so updates take logarithmic time.
+ * The aggregates are published after each update, so reading them takes
+ * constant time and does not block writers. Repositories whose key maps to
+ * {@code null} (i.e. there is no mapping and the key has no default value)
+ * are not aggregated.
+ *
+ * <p>The sum can overflow.
+ *
+ * <p>This class is thread-safe.
+ *
+ * @param <T> the type of the indexed values
+ */
+public class AggregateIndex<T> extends AbstractKeyIndex<T> {
+
+    /**
+     * Creates an {@code AggregateIndex} over the numeric values of the
+     * specified integer key.
+     *
+     * @param key the key whose values are aggregated
+     * @return a new {@code AggregateIndex}
+     */
+    public static AggregateIndex<Integer> newInstance(Key<Integer> key) {
+        return new AggregateIndex<>(key, Integer::longValue);
+    }
+
+    /**
+     * Creates an {@code AggregateIndex} over the values of the specified key,
+     * converted by the given function.
+     *
+     * @param key the key whose values are aggregated
+     * @param converter function that computes the numeric value of a non-null value
+     * @param <T> the type of the indexed values
+     * @return a new {@code AggregateIndex}
+     */
+    public static <T> AggregateIndex<T> newInstance(Key<T> key, ToLongFunction<? super T> converter) {
+        return new AggregateIndex<>(key, converter);
+    }
+
+    private final ToLongFunction<? super T> converter;
+    private final Map<Repository, Long> values = new IdentityHashMap<>();
+    // Number of repositories mapped to each value
+    private final TreeMap<Long, Integer> occurrences = new TreeMap<>();
+
+    private volatile int count;
+    private volatile long sum;
+    private volatile long min;
+    private volatile long max;
+
+    private AggregateIndex(Key<T> key, ToLongFunction<? super T> converter) {
+        super(key);
+        this.converter = requireNonNull(converter, "converter");
+    }
+
+    @Override
+    protected void update(Repository repository, @Nullable T value) {
+        if (value == null) {
+            remove(repository);
+            return;
+        }
+
+        long newValue = converter.applyAsLong(value);
+        Long previous = values.put(repository, newValue);
+
+        if (previous != null) {
+            if (previous == newValue) {
+                return;
+            }
+
+            removeOccurrence(previous);
+            sum += newValue - previous;
+        } else {
+            sum += newValue;
+        }
+
+        occurrences.merge(newValue, 1, Integer::sum);
+        publish();
+    }
+
+    @Override
+    protected void remove(Repository repository) {
+        Long previous = values.remove(repository);
+
+        if (previous != null) {
+            removeOccurrence(previous);
+            sum -= previous;
+            publish();
+        }
+    }
+
+    private void removeOccurrence(long value) {
+        occurrences.computeIfPresent(value, (ignored, occurrences) -> occurrences > 1 ? occurrences - 1 : null);
+    }
+
+    private void publish() {
+        if (!occurrences.isEmpty()) {
+            min = occurrences.firstKey();
+            max = occurrences.lastKey();
+        }
+
+        // Written last, so readers that observe a count also observe its extremes
+        count = values.size();
+    }
+
+    /**
+     * Returns the number of aggregated repositories.
+     *
+     * @return the number of aggregated repositories
+     */
+    public int count() {
+        return count;
+    }
+
+    /**
+     * Returns the sum of the aggregated values.
+     *
+     * @return the sum of the values, or zero if there are none
+     */
+    public long sum() {
+        return sum;
+    }
+
+    /**
+     * Returns the minimum of the aggregated values.
+     *
+     * @return the minimum value, or an empty optional if there are none
+     */
+    public OptionalLong min() {
+        // Read the count first, since the extremes are published before it
+        return count > 0 ? OptionalLong.of(min) : OptionalLong.empty();
+    }
+
+    /**
+     * Returns the maximum of the aggregated values.
+     *
+     * @return the maximum value, or an empty optional if there are none
+     */
+    public OptionalLong max() {
+        return count > 0 ? OptionalLong.of(max) : OptionalLong.empty();
+    }
+
+    /**
+     * Returns the arithmetic mean of the aggregated values.
+     *
+     * @return the average value, or an empty optional if there are none
+     */
+    public OptionalDouble average() {
+        int count = this.count;
+
+        return count > 0 ? OptionalDouble.of((double) sum / count) : OptionalDouble.empty();
+    }
+}
@@ -0,0 +1,348 @@
+package me.hugmanrique.cellarium.index;
+
+import me.hugmanrique.cellarium.Key;
+import me.hugmanrique.cellarium.Repository;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.ToLongFunction;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * An index that orders the tracked repositories by the score of the value
+ * their indexed {@link Key} is mapped to, from highest to lowest score.
+ * Repositories with equal scores are ordered by the time they reached it.
+ *
+ * <p>The index is backed by an indexable skip list of primitive scores, so
+ * updates, {@link #rankOf(Repository)} and the first element of every query
+ * take logarithmic time. Repositories whose key maps to {@code null} (i.e.
+ * there is no mapping and the key has no default value) are not indexed.
+ *
+ * <p>This class is thread-safe.
+ *
+ * @param <T> the type of the indexed values
+ */
+public class SortedIndex<T> extends AbstractKeyIndex<T> {
+
+    /**
+     * Creates a {@code SortedIndex} that scores the values of the specified
+     * integer key by their numeric value.
+     *
+     * @param key the key whose values are indexed
+     * @return a new {@code SortedIndex}
+     */
+    public static SortedIndex<Integer> newInstance(Key<Integer> key) {
+        return new SortedIndex<>(key, Integer::longValue);
+    }
+
+    /**
+     * Creates a {@code SortedIndex} that scores the values of the specified
+     * key with the given scoring function.
+     *
+     * @param key the key whose values are indexed
+     * @param scorer function that computes the score of a non-null value
+     * @param <T> the type of the indexed values
+     * @return a new {@code SortedIndex}
+     */
+    public static <T> SortedIndex<T> newInstance(Key<T> key, ToLongFunction<? super T> scorer) {
+        return new SortedIndex<>(key, scorer);
+    }
+
+    private static final int MAX_LEVEL = 32;
+
+    private final ToLongFunction<? super T> scorer;
+    private final Map<Repository, Node> nodes = new IdentityHashMap<>();
+    private final Node head = new Node(null, 0, 0, MAX_LEVEL);
+    private int level = 1;
+    private int length;
+    private long nextSequence;
+
+    private SortedIndex(Key<T> key, ToLongFunction<? super T> scorer) {
+        super(key);
+        this.scorer = requireNonNull(scorer, "scorer");
+    }
+
+    @Override
+    protected void update(Repository repository, @Nullable T value) {
+        Node node = nodes.get(repository);
+
+        if (value == null) {
+            if (node != null) {
+                remove(repository);
+            }
+            return;
+        }
+
+        long score = scorer.applyAsLong(value);
+
+        if (node != null) {
+            if (node.score == score) {
+                return;
+            }
+            delete(node);
+        }
+
+        nodes.put(repository, insert(repository, score, nextSequence++));
+    }
+
+    @Override
+    protected void remove(Repository repository) {
+        Node node = nodes.remove(repository);
+
+        if (node != null) {
+            delete(node);
+        }
+    }
+
+    /**
+     * Returns the number of indexed repositories.
+     *
+     * @return the number of indexed repositories
+     */
+    public synchronized int size() {
+        return length;
+    }
+
+    /**
+     * Returns the score of the specified repository.
+     *
+     * @param repository the tracked repository
+     * @return the score of the repository
+     * @throws IllegalArgumentException if the repository is not indexed
+     */
+    public synchronized long scoreOf(Repository repository) {
+        Node node = nodes.get(repository);
+
+        if (node == null) {
+            throw new IllegalArgumentException("Repository is not indexed");
+        }
+
+        return node.score;
+    }
+
+    /**
+     * Returns the zero-based rank of the specified repository, where rank
+     * zero has the highest score.
+     *
+     * @param repository the tracked repository
+     * @return the rank of the repository, or {@code -1} if it is not indexed
+     */
+    public synchronized int rankOf(Repository repository) {
+        Node node = nodes.get(repository);
+
+        if (node == null) {
+            return -1;
+        }
+
+        int rank = 0;
+        Node x = head;
+
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && !precedes(node, x.next[i])) {
+                rank += x.span[i];
+                x = x.next[i];
+            }
+
+            if (x == node) {
+                break;
+            }
+        }
+
+        return rank - 1;
+    }
+
+    /**
+     * Returns the repositories with the {@code n} highest scores, from highest
+     * to lowest.
+     *
+     * @param n the maximum number of repositories to return
+     * @return the top {@code n} repositories
+     */
+    public List<Repository> top(int n) {
+        return ranked(0, n);
+    }
+
+    /**
+     * Returns at most {@code limit} repositories starting at the specified
+     * zero-based rank, from highest to lowest score.
+     *
+     * @param fromRank the rank of the first returned repository
+     * @param limit the maximum number of repositories to return
+     * @return the repositories in the specified rank window
+     * @throws IllegalArgumentException if {@code fromRank} or {@code limit} is negative
+     */
+    public synchronized List<Repository> ranked(int fromRank, int limit) {
+        if (fromRank < 0 || limit < 0) {
+            throw new IllegalArgumentException("Negative rank window");
+        }
+
+        List<Repository> result = new ArrayList<>(Math.min(limit, length));
+
+        for (Node x = nodeAt(fromRank); x != null && result.size() < limit; x = x.next[0]) {
+            result.add(x.repository);
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the repositories whose score is between {@code minScore} and
+     * {@code maxScore} (both inclusive), from highest to lowest score.
+     *
+     * @param minScore the minimum score
+     * @param maxScore the maximum score
+     * @return the repositories within the score range
+     */
+    public synchronized List<Repository> rangeByScore(long minScore, long maxScore) {
+        List<Repository> result = new ArrayList<>();
+        Node x = head;
+
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && x.next[i].score > maxScore) {
+                x = x.next[i];
+            }
+        }
+
+        for (x = x.next[0]; x != null && x.score >= minScore; x = x.next[0]) {
+            result.add(x.repository);
+        }
+
+        return result;
+    }
+
+    // Skip list implementation, see William Pugh's "A Skip List Cookbook"
+
+    @Nullable
+    private Node nodeAt(int rank) {
+        if (rank >= length) {
+            return null;
+        }
+
+        int traversed = 0;
+        Node x = head;
+
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && traversed + x.span[i] <= rank + 1) {
+                traversed += x.span[i];
+                x = x.next[i];
+            }
+
+            if (traversed == rank + 1) {
+                return x;
+            }
+        }
+
+        return null;
+    }
+
+    private Node insert(Repository repository, long score, long sequence) {
+        Node[] update = new Node[MAX_LEVEL];
+        int[] rank = new int[MAX_LEVEL];
+        Node x = head;
+
+        for (int i = level - 1; i >= 0; i--) {
+            rank[i] = i == level - 1 ? 0 : rank[i + 1];
+
+            while (x.next[i] != null && precedes(x.next[i], score, sequence)) {
+                rank[i] += x.span[i];
+                x = x.next[i];
+            }
+
+            update[i] = x;
+        }
+
+        int nodeLevel = randomLevel();
+
+        if (nodeLevel > level) {
+            for (int i = level; i < nodeLevel; i++) {
+                rank[i] = 0;
+                update[i] = head;
+                update[i].span[i] = length;
+            }
+
+            level = nodeLevel;
+        }
+
+        Node node = new Node(repository, score, sequence, nodeLevel);
+
+        for (int i = 0; i < nodeLevel; i++) {
+            node.next[i] = update[i].next[i];
+            update[i].next[i] = node;
+
+            node.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+            update[i].span[i] = (rank[0] - rank[i]) + 1;
+        }
+
+        for (int i = nodeLevel; i < level; i++) {
+            update[i].span[i]++;
+        }
+
+        length++;
+        return node;
+    }
+
+    private void delete(Node node) {
+        Node x = head;
+
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && precedes(x.next[i], node.score, node.sequence)) {
+                x = x.next[i];
+            }
+
+            if (x.next[i] == node) {
+                x.span[i] += node.span[i] - 1;
+                x.next[i] = node.next[i];
+            } else {
+                x.span[i]--;
+            }
+        }
+
+        while (level > 1 && head.next[level - 1] == null) {
+            level--;
+        }
+
+        length--;
+    }
+
+    private static boolean precedes(Node node, long score, long sequence) {
+        return node.score > score || (node.score == score && node.sequence < sequence);
+    }
+
+    private static boolean precedes(Node node, Node other) {
+        return precedes(node, other.score, other.sequence);
+    }
+
+    private static int randomLevel() {
+        int level = 1;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        // Each level has a 1/4 probability of being promoted
+        while (level < MAX_LEVEL && (random.nextInt() & 3) == 0) {
+            level++;
+        }
+
+        return level;
+    }
+
+    private static final class Node {
+
+        final Repository repository;
+        final long score;
+        final long sequence;
+        final Node[] next;
+        final int[] span;
+
+        Node(@Nullable Repository repository, long score, long sequence, int level) {
+            this.repository = repository;
+            this.score = score;
+            this.sequence = sequence;
+            this.next = new Node[level];
+            this.span = new int[level];
+        }
+    }
+}
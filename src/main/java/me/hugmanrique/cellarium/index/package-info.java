@@ -0,0 +1,4 @@
+@ParametersAreNonnullByDefault
+package me.hugmanrique.cellarium.index;
+
+import javax.annotation.ParametersAreNonnullByDefault;
@@ -0,0 +1,191 @@
+package me.hugmanrique.cellarium.io;
+
+import me.hugmanrique.cellarium.Key;
+import me.hugmanrique.cellarium.KeyRegistry;
+import me.hugmanrique.cellarium.Repository;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads and writes records in the format described by RFC 4180, with a
+ * header record containing the key names. Unquoted empty fields represent
+ * missing mappings.
+ */
+final class CsvRecords {
+
+    static boolean isIncomplete(CharSequence record) {
+        boolean quoted = false;
+
+        for (int i = 0; i < record.length(); i++) {
+            if (record.charAt(i) == '"') {
+                quoted = !quoted;
+            }
+        }
+
+        return quoted;
+    }
+
+    /**
+     * Splits a record into fields, adding {@code null} for unquoted empty fields.
+     */
+    static void split(String record, List<String> fields, StringBuilder buffer) throws IOException {
+        fields.clear();
+        int index = 0;
+
+        while (true) {
+            buffer.setLength(0);
+            boolean quoted = index < record.length() && record.charAt(index) == '"';
+
+            if (quoted) {
+                index++;
+
+                while (true) {
+                    if (index >= record.length()) {
+                        throw new IOException("Unterminated quoted field");
+                    }
+
+                    char c = record.charAt(index++);
+
+                    if (c == '"') {
+                        if (index < record.length() && record.charAt(index) == '"') {
+                            buffer.append('"');
+                            index++;
+                        } else {
+                            break;
+                        }
+                    } else {
+                        buffer.append(c);
+                    }
+                }
+
+                if (index < record.length() && record.charAt(index) != ',') {
+                    throw new IOException("Unexpected character after quoted field");
+                }
+            } else {
+                int end = record.indexOf(',', index);
+
+                if (end < 0) {
+                    end = record.length();
+                }
+
+                buffer.append(record, index, end);
+                index = end;
+            }
+
+            fields.add(quoted || buffer.length() > 0 ? buffer.toString() : null);
+
+            if (index >= record.length()) {
+                return;
+            }
+
+            index++; // Skip comma
+        }
+    }
+
+    static void appendField(StringBuilder out, String text) {
+        boolean quote = text.isEmpty();
+
+        for (int i = 0; i < text.length() && !quote; i++) {
+            char c = text.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+
+        if (!quote) {
+            out.append(text);
+            return;
+        }
+
+        out.append('"');
+
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+
+            if (c == '"') {
+                out.append('"');
+            }
+
+            out.append(c);
+        }
+
+        out.append('"');
+    }
+
+    static void appendHeader(Key<?>[] columns, StringBuilder out) {
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+
+            appendField(out, columns[i].name());
+        }
+    }
+
+    static void appendRecord(Repository repository, Key<?>[] columns, StringBuilder out) {
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+
+            if (repository.contains(columns[i])) {
+                Object value = repository.get(columns[i]);
+
+                if (value != null) {
+                    appendField(out, TextValues.format(value));
+                }
+            }
+        }
+    }
+
+    /**
+     * Resolves the keys named by a header record, or {@code null} for unknown names.
+     */
+    static Key<?>[] parseHeader(String record, KeyRegistry registry) throws IOException {
+        List<String> names = new ArrayList<>();
+        split(record, names, new StringBuilder());
+
+        Key<?>[] columns = new Key<?>[names.size()];
+
+        for (int i = 0; i < columns.length; i++) {
+            String name = names.get(i);
+            columns[i] = name != null ? registry.get(name) : null;
+        }
+
+        return columns;
+    }
+
+    static final class Parser implements RecordParser {
+
+        private final Key<?>[] columns;
+        private final List<String> fields = new ArrayList<>();
+        private final StringBuilder buffer = new StringBuilder();
+
+        Parser(Key<?>[] columns) {
+            this.columns = columns;
+        }
+
+        @Override
+        public void parse(String record, Repository repository) throws IOException {
+            split(record, fields, buffer);
+
+            if (fields.size() != columns.length) {
+                throw new IOException("Expected " + columns.length + " fields, found " + fields.size());
+            }
+
+            for (int i = 0; i < columns.length; i++) {
+                Key<?> key = columns[i];
+                @Nullable String text = fields.get(i);
+
+                if (key != null && text != null) {
+                    TextValues.put(repository, key, text);
+                }
+            }
+        }
+    }
+
+    private CsvRecords() {
+        throw new AssertionError();
+    }
+}
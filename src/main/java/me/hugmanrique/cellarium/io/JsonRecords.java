@@ -0,0 +1,255 @@
+package me.hugmanrique.cellarium.io;
+
+import me.hugmanrique.cellarium.Key;
+import me.hugmanrique.cellarium.KeyRegistry;
+import me.hugmanrique.cellarium.Repository;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+
+/**
+ * Reads and writes records as flat JSON objects, one per line, whose member
+ * names are key names. Missing members and {@code null} represent missing
+ * mappings.
+ */
+final class JsonRecords {
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    static void appendString(StringBuilder out, String text) {
+        out.append('"');
+
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+
+            switch (c) {
+                case '"':
+                    out.append("\\\"");
+                    break;
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                case '\t':
+                    out.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        out.append("\\u00").append(HEX_DIGITS[c >> 4]).append(HEX_DIGITS[c & 0xF]);
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+
+        out.append('"');
+    }
+
+    static void appendRecord(Repository repository, Key<?>[] columns, StringBuilder out) {
+        out.append('{');
+        boolean first = true;
+
+        for (Key<?> key : columns) {
+            if (!repository.contains(key)) {
+                continue;
+            }
+
+            Object value = repository.get(key);
+
+            if (value == null) {
+                continue;
+            }
+
+            if (!first) {
+                out.append(',');
+            }
+
+            first = false;
+            appendString(out, key.name());
+            out.append(':');
+
+            if (TextValues.isJsonLiteral(value)) {
+                out.append(value);
+            } else {
+                appendString(out, TextValues.format(value));
+            }
+        }
+
+        out.append('}');
+    }
+
+    static final class Parser implements RecordParser {
+
+        private final KeyRegistry registry;
+        private final StringBuilder buffer = new StringBuilder();
+
+        private String record;
+        private int index;
+
+        Parser(KeyRegistry registry) {
+            this.registry = registry;
+        }
+
+        @Override
+        public void parse(String record, Repository repository) throws IOException {
+            this.record = record;
+            this.index = 0;
+
+            expect('{');
+
+            if (peek() == '}') {
+                index++;
+            } else {
+                do {
+                    expect('"');
+                    String name = readString();
+                    expect(':');
+
+                    String text = readValue();
+                    Key<?> key = registry.get(name);
+
+                    if (key != null && text != null) {
+                        TextValues.put(repository, key, text);
+                    }
+                } while (next() == ',');
+
+                index--;
+                expect('}');
+            }
+
+            if (peek() != 0) {
+                throw new IOException("Unexpected trailing characters");
+            }
+        }
+
+        /**
+         * Returns the next non-whitespace character without consuming it,
+         * or zero at the end of the record.
+         */
+        private char peek() {
+            while (index < record.length() && Character.isWhitespace(record.charAt(index))) {
+                index++;
+            }
+
+            return index < record.length() ? record.charAt(index) : 0;
+        }
+
+        private char next() throws IOException {
+            char c = peek();
+
+            if (c == 0) {
+                throw new IOException("Unexpected end of record");
+            }
+
+            index++;
+            return c;
+        }
+
+        private void expect(char expected) throws IOException {
+            char c = next();
+
+            if (c != expected) {
+                throw new IOException("Expected '" + expected + "' at index " + (index - 1) + ", found '" + c + '\'');
+            }
+        }
+
+        /**
+         * Reads the remainder of a string whose opening quote was consumed.
+         */
+        private String readString() throws IOException {
+            buffer.setLength(0);
+
+            while (true) {
+                if (index >= record.length()) {
+                    throw new IOException("Unterminated string");
+                }
+
+                char c = record.charAt(index++);
+
+                if (c == '"') {
+                    return buffer.toString();
+                } else if (c != '\\') {
+                    buffer.append(c);
+                    continue;
+                }
+
+                if (index >= record.length()) {
+                    throw new IOException("Unterminated string");
+                }
+
+                char escaped = record.charAt(index++);
+
+                switch (escaped) {
+                    case 'n':
+                        buffer.append('\n');
+                        break;
+                    case 'r':
+                        buffer.append('\r');
+                        break;
+                    case 't':
+                        buffer.append('\t');
+                        break;
+                    case 'b':
+                        buffer.append('\b');
+                        break;
+                    case 'f':
+                        buffer.append('\f');
+                        break;
+                    case 'u':
+                        if (index + 4 > record.length()) {
+                            throw new IOException("Invalid unicode escape");
+                        }
+
+                        try {
+                            buffer.append((char) Integer.parseInt(record.substring(index, index + 4), 16));
+                        } catch (NumberFormatException e) {
+                            throw new IOException("Invalid unicode escape", e);
+                        }
+
+                        index += 4;
+                        break;
+                    default:
+                        buffer.append(escaped);
+                }
+            }
+        }
+
+        /**
+         * Reads a scalar value, returning its text or {@code null} for the null literal.
+         */
+        @Nullable
+        private String readValue() throws IOException {
+            char c = next();
+
+            if (c == '"') {
+                return readString();
+            } else if (c == '{' || c == '[') {
+                throw new IOException("Nested values are not supported");
+            }
+
+            int start = index - 1;
+
+            while (index < record.length()) {
+                char current = record.charAt(index);
+
+                if (current == ',' || current == '}' || Character.isWhitespace(current)) {
+                    break;
+                }
+
+                index++;
+            }
+
+            String literal = record.substring(start, index);
+            return "null".equals(literal) ? null : literal;
+        }
+    }
+
+    private JsonRecords() {
+        throw new AssertionError();
+    }
+}
@@ -0,0 +1,21 @@
+package me.hugmanrique.cellarium.io;
+
+import me.hugmanrique.cellarium.Repository;
+
+import java.io.IOException;
+
+/**
+ * Parses records of a {@link TextFormat}. Parsers reuse their state across
+ * records, so they must not be shared by multiple threads.
+ */
+interface RecordParser {
+
+    /**
+     * Parses a record and puts its values into the given repository.
+     *
+     * @param record the record text, without the line terminator
+     * @param repository the repository to populate
+     * @throws IOException if the record is malformed
+     */
+    void parse(String record, Repository repository) throws IOException;
+}
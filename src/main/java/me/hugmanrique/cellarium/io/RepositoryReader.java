@@ -0,0 +1,242 @@
+package me.hugmanrique.cellarium.io;
+
+import me.hugmanrique.cellarium.Key;
+import me.hugmanrique.cellarium.KeyRegistry;
+import me.hugmanrique.cellarium.Repository;
+import me.hugmanrique.cellarium.monitor.RepositoryMonitors;
+
+import javax.annotation.Nullable;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Reads repositories from a stream of records in a {@link TextFormat}, one
+ * record at a time.
+ *
+ * <p>Keys are resolved by name from a {@link KeyRegistry}. Values of names
+ * that are not registered are skipped. The reader only buffers the record
+ * being parsed (or, when reading in parallel, a bounded number of chunks),
+ * so arbitrarily large streams can be read in constant memory.
+ *
+ * <p>This class is not thread-safe.
+ */
+public class RepositoryReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final BufferedReader reader;
+    private final TextFormat format;
+    private final KeyRegistry registry;
+    private final Supplier<? extends Repository> repositoryFactory;
+
+    @Nullable
+    private final Key<?>[] columns;
+    private final RecordParser parser;
+    private final StringBuilder record = new StringBuilder();
+
+    /**
+     * Creates a {@code RepositoryReader} that reads records from the specified
+     * reader. If the format has a header, it is read immediately.
+     *
+     * @param in the reader to read from
+     * @param format the format of the records
+     * @param registry the registry used to resolve key names
+     * @param repositoryFactory the supplier of the empty repositories to populate
+     * @throws IOException if an I/O error occurs, or the header is malformed
+     */
+    public RepositoryReader(Reader in, TextFormat format, KeyRegistry registry, Supplier<? extends Repository> repositoryFactory) throws IOException {
+        this.reader = new BufferedReader(requireNonNull(in, "in"), BUFFER_SIZE);
+        this.format = requireNonNull(format, "format");
+        this.registry = requireNonNull(registry, "registry");
+        this.repositoryFactory = requireNonNull(repositoryFactory, "repositoryFactory");
+
+        if (format.hasHeader()) {
+            String header = readRecord();
+            this.columns = header != null ? format.parseHeader(header, registry) : new Key<?>[0];
+        } else {
+            this.columns = null;
+        }
+
+        this.parser = format.newParser(columns, registry);
+    }
+
+    /**
+     * Returns the text of the next record, or {@code null} at the end of the
+     * stream.
+     */
+    @Nullable
+    private String readRecord() throws IOException {
+        String line;
+
+        do {
+            line = reader.readLine();
+
+            if (line == null) {
+                return null;
+            }
+        } while (format.skipsBlankLines() && line.trim().isEmpty());
+
+        if (!format.isIncomplete(line)) {
+            return line;
+        }
+
+        record.setLength(0);
+        record.append(line);
+
+        while (format.isIncomplete(record)) {
+            line = reader.readLine();
+
+            if (line == null) {
+                throw new IOException("Unterminated quoted value");
+            }
+
+            record.append('\n').append(line);
+        }
+
+        return record.toString();
+    }
+
+    /**
+     * Reads the next repository.
+     *
+     * @return the next repository, or {@code null} at the end of the stream
+     * @throws IOException if an I/O error occurs, or the record is malformed
+     */
+    @Nullable
+    public Repository read() throws IOException {
+        String text = readRecord();
+
+        if (text == null) {
+            return null;
+        }
+
+        Repository repository = repositoryFactory.get();
+        parser.parse(text, repository);
+        return repository;
+    }
+
+    /**
+     * Reads all the remaining repositories, passing each to the given consumer
+     * in stream order. The load is reported to the
+     * {@link RepositoryMonitors#current() current monitor} once it completes.
+     *
+     * @param consumer the consumer of the read repositories
+     * @return the number of read repositories
+     * @throws IOException if an I/O error occurs, or a record is malformed
+     */
+    public long readAll(Consumer<? super Repository> consumer) throws IOException {
+        requireNonNull(consumer, "consumer");
+
+        long start = System.nanoTime();
+        Repository repository;
+        long count = 0;
+
+        while ((repository = read()) != null) {
+            consumer.accept(repository);
+            count++;
+        }
+
+        RepositoryMonitors.current().bulkLoad(format.name(), count, System.nanoTime() - start);
+        return count;
+    }
+
+    /**
+     * Reads all the remaining repositories, parsing chunks of records in
+     * parallel on the given pool. Repositories are passed to the consumer on
+     * the calling thread, in stream order.
+     *
+     * <p>At most twice as many chunks as the pool parallelism are buffered.
+     * The load is reported to the {@link RepositoryMonitors#current() current monitor}
+     * once it completes.
+     *
+     * @param consumer the consumer of the read repositories
+     * @param pool the pool used to parse the records
+     * @param chunkSize the number of records per chunk
+     * @return the number of read repositories
+     * @throws IOException if an I/O error occurs, or a record is malformed
+     * @throws IllegalArgumentException if {@code chunkSize} is not positive
+     */
+    public long readAll(Consumer<? super Repository> consumer, ForkJoinPool pool, int chunkSize) throws IOException {
+        requireNonNull(consumer, "consumer");
+        requireNonNull(pool, "pool");
+
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+
+        int maxPendingChunks = pool.getParallelism() * 2;
+        Deque<CompletableFuture<List<Repository>>> pending = new ArrayDeque<>(maxPendingChunks);
+        long start = System.nanoTime();
+        long count = 0;
+
+        while (true) {
+            List<String> chunk = new ArrayList<>(chunkSize);
+            String text;
+
+            while (chunk.size() < chunkSize && (text = readRecord()) != null) {
+                chunk.add(text);
+            }
+
+            if (!chunk.isEmpty()) {
+                pending.add(CompletableFuture.supplyAsync(() -> parseChunk(chunk), pool));
+            }
+
+            if (pending.isEmpty()) {
+                RepositoryMonitors.current().bulkLoad(format.name(), count, System.nanoTime() - start);
+                return count;
+            } else if (chunk.isEmpty() || pending.size() >= maxPendingChunks) {
+                List<Repository> repositories = await(pending.poll());
+                repositories.forEach(consumer);
+                count += repositories.size();
+            }
+        }
+    }
+
+    private List<Repository> parseChunk(List<String> chunk) {
+        RecordParser parser = format.newParser(columns, registry);
+        List<Repository> repositories = new ArrayList<>(chunk.size());
+
+        try {
+            for (String text : chunk) {
+                Repository repository = repositoryFactory.get();
+                parser.parse(text, repository);
+                repositories.add(repository);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return repositories;
+    }
+
+    private static List<Repository> await(CompletableFuture<List<Repository>> future) throws IOException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,103 @@
+package me.hugmanrique.cellarium.io;
+
+import me.hugmanrique.cellarium.Key;
+import me.hugmanrique.cellarium.Repository;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Writes repositories to a stream as records in a {@link TextFormat}, one
+ * record per line.
+ *
+ * <p>Only the mappings of the given keys (i.e. columns) are written. Each
+ * record is formatted in a reusable buffer and written to a bounded output
+ * buffer, so arbitrarily many repositories can be written in constant memory.
+ *
+ * <p>This class is not thread-safe.
+ */
+public class RepositoryWriter implements Closeable, Flushable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Writer writer;
+    private final TextFormat format;
+    private final Key<?>[] columns;
+    private final StringBuilder record = new StringBuilder();
+
+    /**
+     * Creates a {@code RepositoryWriter} that writes records to the specified
+     * writer. If the format has a header, it is written immediately.
+     *
+     * @param out the writer to write to
+     * @param format the format of the records
+     * @param columns the keys whose mappings are written
+     * @throws IOException if an I/O error occurs
+     * @throws IllegalArgumentException if a key has no name, or its type is not supported
+     */
+    public RepositoryWriter(Writer out, TextFormat format, List<? extends Key<?>> columns) throws IOException {
+        this.writer = new BufferedWriter(requireNonNull(out, "out"), BUFFER_SIZE);
+        this.format = requireNonNull(format, "format");
+        this.columns = columns.toArray(new Key<?>[0]);
+
+        for (Key<?> key : this.columns) {
+            if (requireNonNull(key, "key").name() == null) {
+                throw new IllegalArgumentException("Key " + key + " has no name");
+            }
+
+            if (!TextValues.isSupported(key.type())) {
+                throw new IllegalArgumentException("Unsupported key type " + key.type().getName());
+            }
+        }
+
+        if (format.hasHeader()) {
+            format.appendHeader(this.columns, record);
+            writeRecord();
+        }
+    }
+
+    private void writeRecord() throws IOException {
+        record.append('\n');
+        writer.append(record);
+        record.setLength(0);
+    }
+
+    /**
+     * Writes the mappings of the specified repository as a record.
+     *
+     * @param repository the repository to write
+     * @throws IOException if an I/O error occurs
+     */
+    public void write(Repository repository) throws IOException {
+        format.appendRecord(requireNonNull(repository, "repository"), columns, record);
+        writeRecord();
+    }
+
+    /**
+     * Writes the mappings of each of the specified repositories as a record.
+     *
+     * @param repositories the repositories to write
+     * @throws IOException if an I/O error occurs
+     */
+    public void writeAll(Iterable<? extends Repository> repositories) throws IOException {
+        for (Repository repository : repositories) {
+            write(repository);
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
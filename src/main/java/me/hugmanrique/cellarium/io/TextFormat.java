@@ -0,0 +1,114 @@
+package me.hugmanrique.cellarium.io;
+
+import me.hugmanrique.cellarium.Key;
+import me.hugmanrique.cellarium.KeyRegistry;
+import me.hugmanrique.cellarium.Repository;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+
+/**
+ * A line-oriented text format in which each record holds the values of a
+ * repository, as read by {@link RepositoryReader} and written by {@link RepositoryWriter}.
+ *
+ * <p>Values are converted from and to text based on the {@link Key#type() type}
+ * of their key: strings, boxed primitives and enums (by constant name) are
+ * supported. Keys are identified by their {@link Key#name() name}.
+ */
+public enum TextFormat {
+
+    /**
+     * Comma-separated values, as described by RFC 4180. The first record is a
+     * header with the names of the keys of each column. Missing mappings are
+     * written as unquoted empty fields, whereas empty strings are quoted.
+     */
+    CSV {
+        @Override
+        boolean isIncomplete(CharSequence record) {
+            return CsvRecords.isIncomplete(record);
+        }
+
+        @Override
+        Key<?>[] parseHeader(String record, KeyRegistry registry) throws IOException {
+            return CsvRecords.parseHeader(record, registry);
+        }
+
+        @Override
+        void appendHeader(Key<?>[] columns, StringBuilder out) {
+            CsvRecords.appendHeader(columns, out);
+        }
+
+        @Override
+        void appendRecord(Repository repository, Key<?>[] columns, StringBuilder out) {
+            CsvRecords.appendRecord(repository, columns, out);
+        }
+
+        @Override
+        RecordParser newParser(@Nullable Key<?>[] columns, KeyRegistry registry) {
+            return new CsvRecords.Parser(columns);
+        }
+    },
+
+    /**
+     * One flat JSON object per line, whose member names are key names, e.g.
+     * {@code {"name":"Steve","elo":1200}}. Missing mappings are omitted.
+     */
+    JSON_LINES {
+        @Override
+        boolean isIncomplete(CharSequence record) {
+            return false;
+        }
+
+        @Nullable
+        @Override
+        Key<?>[] parseHeader(String record, KeyRegistry registry) {
+            return null;
+        }
+
+        @Override
+        void appendHeader(Key<?>[] columns, StringBuilder out) {
+            // No header
+        }
+
+        @Override
+        void appendRecord(Repository repository, Key<?>[] columns, StringBuilder out) {
+            JsonRecords.appendRecord(repository, columns, out);
+        }
+
+        @Override
+        RecordParser newParser(@Nullable Key<?>[] columns, KeyRegistry registry) {
+            return new JsonRecords.Parser(registry);
+        }
+    };
+
+    /**
+     * Returns {@code true} if the given text ends inside a quoted value, i.e.
+     * the record continues on the next line.
+     */
+    abstract boolean isIncomplete(CharSequence record);
+
+    /**
+     * Resolves the columns of a header record, or returns {@code null} if this
+     * format has no header.
+     */
+    @Nullable
+    abstract Key<?>[] parseHeader(String record, KeyRegistry registry) throws IOException;
+
+    abstract void appendHeader(Key<?>[] columns, StringBuilder out);
+
+    abstract void appendRecord(Repository repository, Key<?>[] columns, StringBuilder out);
+
+    abstract RecordParser newParser(@Nullable Key<?>[] columns, KeyRegistry registry);
+
+    boolean hasHeader() {
+        return this == CSV;
+    }
+
+    /**
+     * Returns {@code true} if blank lines are not records. In CSV, a blank
+     * line is a record with a single empty field.
+     */
+    boolean skipsBlankLines() {
+        return this == JSON_LINES;
+    }
+}
@@ -0,0 +1,105 @@
+package me.hugmanrique.cellarium.io;
+
+import me.hugmanrique.cellarium.Key;
+import me.hugmanrique.cellarium.Repository;
+
+import java.io.IOException;
+
+/**
+ * Converts values from and to their textual representation, based on the
+ * {@link Key#type() type} of their key.
+ */
+final class TextValues {
+
+    static boolean isSupported(Class<?> type) {
+        return type == String.class || type == Integer.class || type == Long.class
+                || type == Double.class || type == Float.class || type == Short.class
+                || type == Byte.class || type == Boolean.class || type == Character.class
+                || type.isEnum();
+    }
+
+    /**
+     * Returns {@code true} if values of the given type are represented by
+     * JSON numbers or booleans.
+     */
+    static boolean isJsonLiteral(Object value) {
+        if (value instanceof Double) {
+            return !((Double) value).isNaN() && !((Double) value).isInfinite();
+        } else if (value instanceof Float) {
+            return !((Float) value).isNaN() && !((Float) value).isInfinite();
+        }
+
+        return value instanceof Number || value instanceof Boolean;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static <T> T parse(Key<T> key, String text) throws IOException {
+        Class<T> type = key.type();
+        Object value;
+
+        try {
+            if (type == String.class) {
+                value = text;
+            } else if (type == Integer.class) {
+                value = Integer.valueOf(text);
+            } else if (type == Long.class) {
+                value = Long.valueOf(text);
+            } else if (type == Double.class) {
+                value = Double.valueOf(text);
+            } else if (type == Float.class) {
+                value = Float.valueOf(text);
+            } else if (type == Short.class) {
+                value = Short.valueOf(text);
+            } else if (type == Byte.class) {
+                value = Byte.valueOf(text);
+            } else if (type == Boolean.class) {
+                value = parseBoolean(text);
+            } else if (type == Character.class) {
+                if (text.length() != 1) {
+                    throw new IOException("Invalid character \"" + text + '"');
+                }
+
+                value = text.charAt(0);
+            } else if (type.isEnum()) {
+                value = Enum.valueOf((Class) type, text);
+            } else {
+                throw new IllegalArgumentException("Unsupported key type " + type.getName());
+            }
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid number \"" + text + "\" for " + key, e);
+        } catch (IllegalArgumentException e) {
+            if (type.isEnum()) {
+                throw new IOException("Invalid constant \"" + text + "\" for " + key, e);
+            }
+
+            throw e;
+        }
+
+        return key.cast(value);
+    }
+
+    private static Boolean parseBoolean(String text) throws IOException {
+        if ("true".equals(text)) {
+            return Boolean.TRUE;
+        } else if ("false".equals(text)) {
+            return Boolean.FALSE;
+        }
+
+        throw new IOException("Invalid boolean \"" + text + '"');
+    }
+
+    /**
+     * Parses the given text and associates the value with the specified key.
+     */
+    static <T> void put(Repository repository, Key<T> key, String text) throws IOException {
+        repository.put(key, parse(key, text));
+    }
+
+    static String format(Object value) {
+        return value instanceof Enum ? ((Enum<?>) value).name() : value.toString();
+    }
+
+    private TextValues() {
+        throw new AssertionError();
+    }
+}
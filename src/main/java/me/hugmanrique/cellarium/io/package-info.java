@@ -0,0 +1,4 @@
+@ParametersAreNonnullByDefault
+package me.hugmanrique.cellarium.io;
+
+import javax.annotation.ParametersAreNonnullByDefault;
@@ -0,0 +1,128 @@
+package me.hugmanrique.cellarium.memory;
+
+import me.hugmanrique.cellarium.ForwardingRepository;
+import me.hugmanrique.cellarium.Key;
+import me.hugmanrique.cellarium.Repository;
+
+import javax.annotation.Nullable;
+import java.util.function.BiFunction;
+import java.util.function.IntBinaryOperator;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A repository that replaces the values of {@link Key#interned() interned} keys
+ * by their canonical instance in a {@link WeakInterner} before storing them,
+ * so that equal values written to many repositories are retained once.
+ *
+ * <p>Operations on keys that are not interned are forwarded as-is. Operations
+ * that compute the value of an interned key wrap the passed function.
+ *
+ * <p>This class is thread-safe if the backing repository is thread-safe.
+ */
+public class InterningRepository extends ForwardingRepository {
+
+    private final WeakInterner interner;
+
+    /**
+     * Creates an {@code InterningRepository} that uses the
+     * {@link WeakInterner#shared() shared} interner.
+     *
+     * @param repository the backing repository
+     */
+    public InterningRepository(Repository repository) {
+        this(repository, WeakInterner.shared());
+    }
+
+    /**
+     * Creates an {@code InterningRepository} that uses the specified interner.
+     *
+     * @param repository the backing repository
+     * @param interner the interner of the values
+     */
+    public InterningRepository(Repository repository, WeakInterner interner) {
+        super(repository);
+        this.interner = requireNonNull(interner, "interner");
+    }
+
+    @Nullable
+    private <T> T intern(Key<T> key, @Nullable T value) {
+        return value != null && key.interned() ? interner.intern(value) : value;
+    }
+
+    @Nullable
+    @Override
+    public <T> T put(Key<T> key, T value) {
+        return super.put(key, intern(key, value));
+    }
+
+    @Nullable
+    @Override
+    public <T> T putIfAbsent(Key<T> key, T value) {
+        return super.putIfAbsent(key, intern(key, value));
+    }
+
+    @Nullable
+    @Override
+    public <T> T compute(Key<T> key, UnaryOperator<T> remappingFunction) {
+        if (!key.interned()) {
+            return super.compute(key, remappingFunction);
+        }
+
+        return super.compute(key, previous -> intern(key, remappingFunction.apply(previous)));
+    }
+
+    @Nullable
+    @Override
+    public <T, A> T compute(Key<T> key, A argument, BiFunction<? super T, ? super A, ? extends T> remappingFunction) {
+        if (!key.interned()) {
+            return super.compute(key, argument, remappingFunction);
+        }
+
+        return super.compute(key, argument, (previous, arg) -> intern(key, remappingFunction.apply(previous, arg)));
+    }
+
+    @Override
+    public int computeInt(Key<Integer> key, int operand, IntBinaryOperator operator) {
+        if (!key.interned()) {
+            return super.computeInt(key, operand, operator);
+        }
+
+        // Intern the boxed result, which the backing repository would otherwise allocate
+        //noinspection ConstantConditions
+        return compute(key, operand, (previous, op) ->
+                operator.applyAsInt(previous != null ? previous : 0, op));
+    }
+
+    @Override
+    public <T> T computeIfAbsent(Key<T> key, Supplier<? extends T> mappingFunction) {
+        if (!key.interned()) {
+            return super.computeIfAbsent(key, mappingFunction);
+        }
+
+        return super.computeIfAbsent(key, () -> intern(key, mappingFunction.get()));
+    }
+
+    @Nullable
+    @Override
+    public <T> T computeIfPresent(Key<T> key, UnaryOperator<T> remappingFunction) {
+        if (!key.interned()) {
+            return super.computeIfPresent(key, remappingFunction);
+        }
+
+        return super.computeIfPresent(key, previous -> intern(key, remappingFunction.apply(previous)));
+    }
+
+    @Nullable
+    @Override
+    public <T> T replace(Key<T> key, T value) {
+        return super.replace(key, intern(key, value));
+    }
+
+    @Override
+    public <T> boolean replace(Key<T> key, T oldValue, T newValue) {
+        return super.replace(key, oldValue, intern(key, newValue));
+    }
+}
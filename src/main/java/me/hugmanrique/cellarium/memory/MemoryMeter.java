@@ -0,0 +1,263 @@
+package me.hugmanrique.cellarium.memory;
+
+import me.hugmanrique.cellarium.Key;
+import me.hugmanrique.cellarium.PeekableRepository;
+import me.hugmanrique.cellarium.Repository;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Estimates the heap footprint of repositories, broken down by key.
+ *
+ * <p>Since a {@link Repository} cannot enumerate its keys, the keys to
+ * account for must be given explicitly, e.g. from a
+ * {@link me.hugmanrique.cellarium.KeyRegistry} or
+ * {@link me.hugmanrique.cellarium.codec.Schema}. The footprint of a repository
+ * is estimated as a fixed container overhead, plus a fixed entry overhead and
+ * the retained size of the value of each mapping. Values are measured by the
+ * {@link ValueSizer} registered for the {@link Key#type() type} of their key.
+ *
+ * <p>Values of a {@link PeekableRepository} are read by {@link PeekableRepository#peek(Key)},
+ * so measuring does not decode values, invoke loaders nor record accesses. Values
+ * that are not materialized (e.g. still encoded) are not counted. Other repositories
+ * are read by {@link Repository#get(Key)} if they {@link Repository#contains(Key) contain}
+ * the key.
+ *
+ * <p>The default sizers assume a 64-bit JVM with compressed references, where
+ * objects have a 12-byte header and are aligned to 8 bytes. Strings are measured
+ * with the layout of the running JVM, i.e. backed by a {@code char[]} before
+ * Java 9, and by a {@code byte[]} of Latin-1 or UTF-16 bytes since. Shared instances,
+ * such as cached boxed values, booleans and enum constants, are not counted.
+ * Other types are measured by the fallback sizer, which by default returns
+ * the size of an object header.
+ *
+ * @see Builder to create instances of this class
+ */
+@ThreadSafe
+public class MemoryMeter {
+
+    private static final int OBJECT_HEADER = 12;
+
+    /**
+     * Returns the given size rounded up to the object alignment.
+     *
+     * @param size the unaligned size, in bytes
+     * @return the aligned size, in bytes
+     */
+    public static long align(long size) {
+        return (size + 7) & ~7L;
+    }
+
+    // Java 9 replaced the char[] backing strings by a byte[] and a coder (JEP 254)
+    private static final boolean COMPACT_STRINGS = hasField(String.class, "coder");
+
+    private static boolean hasField(Class<?> type, String name) {
+        try {
+            type.getDeclaredField(name);
+            return true;
+        } catch (NoSuchFieldException e) {
+            return false;
+        }
+    }
+
+    private static long sizeOfString(String value) {
+        if (!COMPACT_STRINGS) {
+            // String (hash and value fields) plus its backing char array
+            return align(OBJECT_HEADER + 8) + align(OBJECT_HEADER + 4 + 2L * value.length());
+        }
+
+        boolean latin1 = true;
+
+        for (int i = 0; i < value.length() && latin1; i++) {
+            latin1 = value.charAt(i) < 256;
+        }
+
+        // String (hash, coder and value fields) plus its backing byte array
+        long array = align(OBJECT_HEADER + 4 + (long) value.length() * (latin1 ? 1 : 2));
+        return align(OBJECT_HEADER + 12) + array;
+    }
+
+    @Nullable
+    private static Object peek(Repository repository, Key<?> key) {
+        if (repository instanceof PeekableRepository) {
+            return ((PeekableRepository) repository).peek(key);
+        }
+
+        // Unmapped keys resolve to shared default values
+        return repository.contains(key) ? repository.get(key) : null;
+    }
+
+    private final Map<Class<?>, ValueSizer<?>> sizers;
+    private final ValueSizer<Object> fallbackSizer;
+    private final long containerOverhead;
+    private final long entryOverhead;
+
+    private MemoryMeter(Builder builder) {
+        this.sizers = new HashMap<>(builder.sizers);
+        this.fallbackSizer = builder.fallbackSizer;
+        this.containerOverhead = builder.containerOverhead;
+        this.entryOverhead = builder.entryOverhead;
+    }
+
+    @SuppressWarnings("unchecked")
+    private long sizeOf(Key<?> key, Object value) {
+        ValueSizer<Object> sizer = (ValueSizer<Object>) sizers.get(key.type());
+
+        if (sizer != null) {
+            return sizer.sizeOf(value);
+        } else if (key.type().isEnum()) {
+            return 0;
+        }
+
+        return fallbackSizer.sizeOf(value);
+    }
+
+    /**
+     * Estimates the footprint of the specified repository.
+     *
+     * @param repository the repository to measure
+     * @param keys the keys to account for
+     * @return a report of the footprint of the repository
+     */
+    public MemoryReport measure(Repository repository, Iterable<? extends Key<?>> keys) {
+        return measureAll(Collections.singleton(requireNonNull(repository, "repository")), keys);
+    }
+
+    /**
+     * Estimates the combined footprint of the specified repositories.
+     *
+     * @param repositories the repositories to measure
+     * @param keys the keys to account for
+     * @return a report of the footprint of all the repositories
+     */
+    public MemoryReport measureAll(Collection<? extends Repository> repositories, Iterable<? extends Key<?>> keys) {
+        requireNonNull(repositories, "repositories");
+        requireNonNull(keys, "keys");
+
+        Map<Key<?>, Long> keyBytes = new LinkedHashMap<>();
+        Map<Key<?>, Integer> keyEntries = new HashMap<>();
+
+        for (Key<?> key : keys) {
+            long bytes = 0;
+            int entries = 0;
+
+            for (Repository repository : repositories) {
+                Object value = peek(repository, key);
+
+                if (value != null) {
+                    bytes += entryOverhead + sizeOf(key, value);
+                    entries++;
+                }
+            }
+
+            keyBytes.put(key, bytes);
+            keyEntries.put(key, entries);
+        }
+
+        return new MemoryReport(repositories.size(), containerOverhead * repositories.size(), keyBytes, keyEntries);
+    }
+
+    /**
+     * Used to build instances of {@link MemoryMeter}.
+     */
+    public static class Builder {
+
+        private final Map<Class<?>, ValueSizer<?>> sizers = new HashMap<>();
+        private ValueSizer<Object> fallbackSizer = value -> align(OBJECT_HEADER);
+        // A repository wrapping an empty HashMap and its table
+        private long containerOverhead = 80;
+        // A HashMap node plus its share of the table
+        private long entryOverhead = 40;
+
+        public Builder() {
+            // Values in [-128, 127] are cached by valueOf
+            sizer(Integer.class, value -> value >= -128 && value <= 127 ? 0 : align(OBJECT_HEADER + 4));
+            sizer(Long.class, value -> value >= -128 && value <= 127 ? 0 : align(OBJECT_HEADER + 8));
+            sizer(Short.class, value -> value >= -128 && value <= 127 ? 0 : align(OBJECT_HEADER + 2));
+            sizer(Byte.class, value -> 0);
+            sizer(Character.class, value -> value <= 127 ? 0 : align(OBJECT_HEADER + 2));
+            sizer(Boolean.class, value -> 0);
+            sizer(Float.class, value -> align(OBJECT_HEADER + 4));
+            sizer(Double.class, value -> align(OBJECT_HEADER + 8));
+            sizer(String.class, MemoryMeter::sizeOfString);
+        }
+
+        /**
+         * Sets the sizer used to measure the values of keys of the specified
+         * type, replacing any previously set sizer.
+         *
+         * @param type the type of the key values
+         * @param sizer the sizer
+         * @param <T> the type of the key values
+         * @return this builder
+         */
+        public <T> Builder sizer(Class<T> type, ValueSizer<? super T> sizer) {
+            sizers.put(requireNonNull(type, "type"), requireNonNull(sizer, "sizer"));
+            return this;
+        }
+
+        /**
+         * Sets the sizer used to measure the values of keys whose type has no
+         * registered sizer.
+         *
+         * @param fallbackSizer the fallback sizer
+         * @return this builder
+         */
+        public Builder fallbackSizer(ValueSizer<Object> fallbackSizer) {
+            this.fallbackSizer = requireNonNull(fallbackSizer, "fallbackSizer");
+            return this;
+        }
+
+        /**
+         * Sets the estimated size of an empty repository.
+         *
+         * @param containerOverhead the container overhead, in bytes
+         * @return this builder
+         * @throws IllegalArgumentException if the overhead is negative
+         */
+        public Builder containerOverhead(long containerOverhead) {
+            if (containerOverhead < 0) {
+                throw new IllegalArgumentException("Container overhead cannot be negative");
+            }
+
+            this.containerOverhead = containerOverhead;
+            return this;
+        }
+
+        /**
+         * Sets the estimated size of a mapping, excluding its value.
+         *
+         * @param entryOverhead the entry overhead, in bytes
+         * @return this builder
+         * @throws IllegalArgumentException if the overhead is negative
+         */
+        public Builder entryOverhead(long entryOverhead) {
+            if (entryOverhead < 0) {
+                throw new IllegalArgumentException("Entry overhead cannot be negative");
+            }
+
+            this.entryOverhead = entryOverhead;
+            return this;
+        }
+
+        /**
+         * Creates a {@link MemoryMeter}.
+         *
+         * <p>This method does not alter the state of this {@link Builder} instance,
+         * so it can be invoked again to create multiple independent meters.
+         *
+         * @return a {@link MemoryMeter}
+         */
+        public MemoryMeter build() {
+            return new MemoryMeter(this);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package me.hugmanrique.cellarium.memory;
+
+import me.hugmanrique.cellarium.Key;
+
+import javax.annotation.concurrent.Immutable;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * The estimated heap footprint of one or more repositories, computed by a
+ * {@link MemoryMeter}.
+ *
+ * <p>The size attributed to a key includes the per-entry overhead of its
+ * mappings and the retained size of their values.
+ */
+@Immutable
+public final class MemoryReport {
+
+    private final int repositoryCount;
+    private final long containerBytes;
+    private final Map<Key<?>, Long> keyBytes;
+    private final Map<Key<?>, Integer> keyEntries;
+
+    MemoryReport(int repositoryCount, long containerBytes, Map<Key<?>, Long> keyBytes, Map<Key<?>, Integer> keyEntries) {
+        this.repositoryCount = repositoryCount;
+        this.containerBytes = containerBytes;
+        this.keyBytes = Collections.unmodifiableMap(keyBytes);
+        this.keyEntries = Collections.unmodifiableMap(keyEntries);
+    }
+
+    /**
+     * Returns the number of measured repositories.
+     *
+     * @return the number of measured repositories
+     */
+    public int repositoryCount() {
+        return repositoryCount;
+    }
+
+    /**
+     * Returns the estimated size of the repository containers, excluding
+     * their entries.
+     *
+     * @return the container overhead, in bytes
+     */
+    public long containerBytes() {
+        return containerBytes;
+    }
+
+    /**
+     * Returns the estimated size of the mappings for the specified key.
+     *
+     * @param key the key
+     * @return the size attributed to the key, in bytes
+     */
+    public long sizeOf(Key<?> key) {
+        return keyBytes.getOrDefault(key, 0L);
+    }
+
+    /**
+     * Returns the number of mappings for the specified key, i.e. the number
+     * of measured repositories that contain a mapping for the key.
+     *
+     * @param key the key
+     * @return the number of mappings for the key
+     */
+    public int entryCount(Key<?> key) {
+        return keyEntries.getOrDefault(key, 0);
+    }
+
+    /**
+     * Returns the estimated size attributed to each measured key, in the
+     * order the keys were given to the {@link MemoryMeter}.
+     *
+     * @return an unmodifiable map from keys to their size, in bytes
+     */
+    public Map<Key<?>, Long> byKey() {
+        return keyBytes;
+    }
+
+    /**
+     * Returns the estimated total size of the measured repositories.
+     *
+     * @return the total size, in bytes
+     */
+    public long totalBytes() {
+        long total = containerBytes;
+
+        for (long bytes : keyBytes.values()) {
+            total += bytes;
+        }
+
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        return "MemoryReport{" +
+                "repositoryCount=" + repositoryCount +
+                ", totalBytes=" + totalBytes() +
+                ", byKey=" + keyBytes +
+                '}';
+    }
+}
@@ -0,0 +1,22 @@
+package me.hugmanrique.cellarium.memory;
+
+/**
+ * Estimates the number of heap bytes retained by a value.
+ *
+ * <p>Implementations should only account for memory that would be reclaimed
+ * if the value was removed from the repository, e.g. shared constants such
+ * as enum values have a retained size of zero.
+ *
+ * @param <T> the type of the values
+ */
+@FunctionalInterface
+public interface ValueSizer<T> {
+
+    /**
+     * Returns the estimated number of bytes retained by the given value.
+     *
+     * @param value the value to measure
+     * @return the estimated retained size, in bytes
+     */
+    long sizeOf(T value);
+}
@@ -0,0 +1,119 @@
+package me.hugmanrique.cellarium.memory;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Canonicalizes equal immutable values to a single instance, so that duplicates
+ * can be reclaimed.
+ *
+ * <p>Canonical instances are weakly referenced, hence the interner never keeps
+ * a value alive, and its overhead is bounded by the number of distinct live
+ * values. The interner is split into stripes by hash code, each guarded by its
+ * own lock.
+ *
+ * <p>Values must be immutable, and their {@link Object#equals(Object)} and
+ * {@link Object#hashCode()} methods must be consistent. A value is only
+ * replaced by an equal instance of the same class.
+ */
+@ThreadSafe
+public class WeakInterner {
+
+    private static final WeakInterner SHARED = new WeakInterner();
+
+    /**
+     * Returns the interner shared by default across repositories.
+     *
+     * @return the shared interner
+     */
+    public static WeakInterner shared() {
+        return SHARED;
+    }
+
+    private final Map<Object, WeakReference<Object>>[] stripes;
+    private final int mask;
+
+    /**
+     * Creates an interner with four stripes per available processor.
+     */
+    public WeakInterner() {
+        this(Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    /**
+     * Creates an interner with the specified number of stripes, rounded up to
+     * a power of two.
+     *
+     * @param stripes the number of stripes
+     * @throws IllegalArgumentException if {@code stripes} is not positive
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public WeakInterner(int stripes) {
+        if (stripes <= 0 || stripes > 1 << 16) {
+            throw new IllegalArgumentException("Stripe count must be between 1 and 65536");
+        }
+
+        int count = stripes == 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.stripes = new Map[count];
+        this.mask = count - 1;
+
+        for (int i = 0; i < count; i++) {
+            this.stripes[i] = new WeakHashMap<>();
+        }
+    }
+
+    private Map<Object, WeakReference<Object>> stripeOf(Object value) {
+        // Spread the high bits, WeakHashMap rehashes the rest
+        int hash = value.hashCode() * 0x9E3779B9;
+        return stripes[(hash >>> 16) & mask];
+    }
+
+    /**
+     * Returns the canonical instance equal to the specified value. If there is
+     * none, the value becomes the canonical instance.
+     *
+     * @param value the value to intern
+     * @param <T> the type of the value
+     * @return the canonical instance equal to {@code value}
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T intern(T value) {
+        requireNonNull(value, "value");
+        Map<Object, WeakReference<Object>> stripe = stripeOf(value);
+
+        synchronized (stripe) {
+            WeakReference<Object> reference = stripe.get(value);
+            Object canonical = reference != null ? reference.get() : null;
+
+            if (canonical != null) {
+                // Equal values of another class (e.g. lists) cannot replace each other
+                return canonical.getClass() == value.getClass() ? (T) canonical : value;
+            }
+
+            stripe.put(value, new WeakReference<>(value));
+            return value;
+        }
+    }
+
+    /**
+     * Returns the number of canonical instances held by this interner. Instances
+     * that were reclaimed may be counted until their entry is expunged.
+     *
+     * @return the number of canonical instances
+     */
+    public int size() {
+        int size = 0;
+
+        for (Map<Object, WeakReference<Object>> stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+
+        return size;
+    }
+}
@@ -0,0 +1,4 @@
+@ParametersAreNonnullByDefault
+package me.hugmanrique.cellarium.memory;
+
+import javax.annotation.ParametersAreNonnullByDefault;
@@ -0,0 +1,277 @@
+package me.hugmanrique.cellarium.monitor;
+
+import me.hugmanrique.cellarium.ForwardingRepository;
+import me.hugmanrique.cellarium.Key;
+import me.hugmanrique.cellarium.Repository;
+
+import javax.annotation.Nullable;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.IntBinaryOperator;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A repository that times the callbacks passed to its {@code compute} methods
+ * and reports slow callbacks and contended operations to a {@link RepositoryMonitor}.
+ *
+ * <p>An operation is considered contended if the time it spent outside of
+ * its callback (e.g. waiting for a lock held by another writer) exceeds the
+ * contention threshold, or if its callback was applied more than once.
+ * Operations that do not receive a callback, and all operations if the monitor
+ * is the {@link RepositoryMonitors#none() no-op monitor}, are forwarded as-is.
+ *
+ * @see Builder to create instances of this class
+ */
+public class MonitoredRepository extends ForwardingRepository {
+
+    private final RepositoryMonitor monitor;
+    // Whether callbacks are timed, operations are forwarded as-is to a no-op monitor
+    private final boolean enabled;
+    private final long slowCallbackThresholdNanos;
+    private final long contentionThresholdNanos;
+
+    private MonitoredRepository(Repository repository, Builder builder) {
+        super(repository);
+        this.monitor = builder.monitor != null ? builder.monitor : RepositoryMonitors.current();
+        this.enabled = monitor != RepositoryMonitors.none();
+        this.slowCallbackThresholdNanos = builder.slowCallbackThresholdNanos;
+        this.contentionThresholdNanos = builder.contentionThresholdNanos;
+    }
+
+    private void report(Key<?> key, String operation, Timing timing, long durationNanos) {
+        if (timing.attempts > 0 && timing.callbackNanos >= slowCallbackThresholdNanos) {
+            monitor.slowCallback(this, key, operation, timing.callbackNanos);
+        }
+
+        long waitNanos = durationNanos - timing.callbackNanos;
+
+        if (waitNanos >= contentionThresholdNanos || timing.attempts > 1) {
+            monitor.contention(this, key, operation, waitNanos, timing.attempts);
+        }
+    }
+
+    @Nullable
+    @Override
+    public <T> T compute(Key<T> key, UnaryOperator<T> remappingFunction) {
+        requireNonNull(remappingFunction, "remappingFunction");
+
+        if (!enabled) {
+            return super.compute(key, remappingFunction);
+        }
+
+        Timing timing = new Timing();
+        long start = System.nanoTime();
+
+        try {
+            return super.compute(key, previous -> {
+                long callbackStart = timing.start();
+
+                try {
+                    return remappingFunction.apply(previous);
+                } finally {
+                    timing.stop(callbackStart);
+                }
+            });
+        } finally {
+            report(key, "compute", timing, System.nanoTime() - start);
+        }
+    }
+
+    @Nullable
+    @Override
+    public <T, A> T compute(Key<T> key, A argument, BiFunction<? super T, ? super A, ? extends T> remappingFunction) {
+        requireNonNull(remappingFunction, "remappingFunction");
+
+        if (!enabled) {
+            return super.compute(key, argument, remappingFunction);
+        }
+
+        Timing timing = new Timing();
+        long start = System.nanoTime();
+
+        try {
+            return super.compute(key, argument, (previous, arg) -> {
+                long callbackStart = timing.start();
+
+                try {
+                    return remappingFunction.apply(previous, arg);
+                } finally {
+                    timing.stop(callbackStart);
+                }
+            });
+        } finally {
+            report(key, "compute", timing, System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public int computeInt(Key<Integer> key, int operand, IntBinaryOperator operator) {
+        requireNonNull(operator, "operator");
+
+        if (!enabled) {
+            return super.computeInt(key, operand, operator);
+        }
+
+        Timing timing = new Timing();
+        long start = System.nanoTime();
+
+        try {
+            return super.computeInt(key, operand, (previous, op) -> {
+                long callbackStart = timing.start();
+
+                try {
+                    return operator.applyAsInt(previous, op);
+                } finally {
+                    timing.stop(callbackStart);
+                }
+            });
+        } finally {
+            report(key, "computeInt", timing, System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public <T> T computeIfAbsent(Key<T> key, Supplier<? extends T> mappingFunction) {
+        requireNonNull(mappingFunction, "mappingFunction");
+
+        if (!enabled) {
+            return super.computeIfAbsent(key, mappingFunction);
+        }
+
+        Timing timing = new Timing();
+        long start = System.nanoTime();
+
+        try {
+            return super.computeIfAbsent(key, () -> {
+                long callbackStart = timing.start();
+
+                try {
+                    return mappingFunction.get();
+                } finally {
+                    timing.stop(callbackStart);
+                }
+            });
+        } finally {
+            report(key, "computeIfAbsent", timing, System.nanoTime() - start);
+        }
+    }
+
+    @Nullable
+    @Override
+    public <T> T computeIfPresent(Key<T> key, UnaryOperator<T> remappingFunction) {
+        requireNonNull(remappingFunction, "remappingFunction");
+
+        if (!enabled) {
+            return super.computeIfPresent(key, remappingFunction);
+        }
+
+        Timing timing = new Timing();
+        long start = System.nanoTime();
+
+        try {
+            return super.computeIfPresent(key, previous -> {
+                long callbackStart = timing.start();
+
+                try {
+                    return remappingFunction.apply(previous);
+                } finally {
+                    timing.stop(callbackStart);
+                }
+            });
+        } finally {
+            report(key, "computeIfPresent", timing, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * The time spent running the callback of an operation. Only accessed by
+     * the thread performing the operation.
+     */
+    private static final class Timing {
+
+        long callbackNanos;
+        int attempts;
+
+        long start() {
+            attempts++;
+            return System.nanoTime();
+        }
+
+        void stop(long start) {
+            callbackNanos += System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * Used to build instances of {@link MonitoredRepository}.
+     */
+    public static class Builder {
+
+        private RepositoryMonitor monitor;
+        private long slowCallbackThresholdNanos = TimeUnit.MILLISECONDS.toNanos(1);
+        private long contentionThresholdNanos = TimeUnit.MILLISECONDS.toNanos(1);
+
+        /**
+         * Sets the monitor that receives the events. If not set, the
+         * {@link RepositoryMonitors#current() current} monitor at build time is used.
+         *
+         * @param monitor the monitor
+         * @return this builder
+         */
+        public Builder monitor(RepositoryMonitor monitor) {
+            this.monitor = requireNonNull(monitor, "monitor");
+            return this;
+        }
+
+        /**
+         * Sets the minimum callback duration reported as slow. Defaults to one millisecond.
+         *
+         * @param threshold the threshold
+         * @param unit the time unit of the {@code threshold} argument
+         * @return this builder
+         * @throws IllegalArgumentException if the threshold is negative
+         */
+        public Builder slowCallbackThreshold(long threshold, TimeUnit unit) {
+            this.slowCallbackThresholdNanos = toNanos(threshold, unit);
+            return this;
+        }
+
+        /**
+         * Sets the minimum time spent outside of a callback reported as contention.
+         * Defaults to one millisecond.
+         *
+         * @param threshold the threshold
+         * @param unit the time unit of the {@code threshold} argument
+         * @return this builder
+         * @throws IllegalArgumentException if the threshold is negative
+         */
+        public Builder contentionThreshold(long threshold, TimeUnit unit) {
+            this.contentionThresholdNanos = toNanos(threshold, unit);
+            return this;
+        }
+
+        private static long toNanos(long threshold, TimeUnit unit) {
+            if (threshold < 0) {
+                throw new IllegalArgumentException("Threshold cannot be negative");
+            }
+
+            return unit.toNanos(threshold);
+        }
+
+        /**
+         * Creates a {@link MonitoredRepository} that forwards to the specified repository.
+         *
+         * <p>This method does not alter the state of this {@link Builder} instance,
+         * so it can be invoked again to create multiple independent repositories.
+         *
+         * @param repository the backing repository
+         * @return a {@link MonitoredRepository}
+         */
+        public MonitoredRepository build(Repository repository) {
+            return new MonitoredRepository(repository, this);
+        }
+    }
+}
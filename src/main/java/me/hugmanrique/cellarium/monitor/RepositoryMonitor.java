@@ -0,0 +1,59 @@
+package me.hugmanrique.cellarium.monitor;
+
+import me.hugmanrique.cellarium.Key;
+import me.hugmanrique.cellarium.Repository;
+
+/**
+ * Receives notifications of notable repository events, e.g. to record them
+ * in a profiler.
+ *
+ * <p>All methods have an empty default implementation, and may be called
+ * concurrently from multiple threads. Implementations should return quickly,
+ * since they are called on the thread that performed the operation.
+ *
+ * @see RepositoryMonitors#install(RepositoryMonitor)
+ * @see MonitoredRepository
+ */
+public interface RepositoryMonitor {
+
+    /**
+     * Called when a remapping or mapping function took longer than the
+     * configured threshold to run.
+     *
+     * @param repository the repository the function was passed to
+     * @param key the key whose value was computed
+     * @param operation the name of the repository method, e.g. {@code "compute"}
+     * @param durationNanos the time spent running the function, in nanoseconds
+     */
+    default void slowCallback(Repository repository, Key<?> key, String operation, long durationNanos) {}
+
+    /**
+     * Called when an operation spent longer than the configured threshold
+     * outside of its callback (e.g. waiting for a lock), or applied its callback
+     * more than once because the mapping was concurrently modified.
+     *
+     * @param repository the contended repository
+     * @param key the contended key
+     * @param operation the name of the repository method, e.g. {@code "compute"}
+     * @param waitNanos the time spent outside of the callback, in nanoseconds
+     * @param attempts the number of times the callback was applied
+     */
+    default void contention(Repository repository, Key<?> key, String operation, long waitNanos, int attempts) {}
+
+    /**
+     * Called after a bulk load of repositories completes.
+     *
+     * @param source a description of the source, e.g. {@code "CSV"}
+     * @param count the number of loaded repositories
+     * @param durationNanos the duration of the load, in nanoseconds
+     */
+    default void bulkLoad(String source, long count, long durationNanos) {}
+
+    /**
+     * Called after a mapping is evicted from a repository.
+     *
+     * @param repository the repository the mapping was evicted from
+     * @param key the key of the evicted mapping
+     */
+    default void eviction(Repository repository, Key<?> key) {}
+}
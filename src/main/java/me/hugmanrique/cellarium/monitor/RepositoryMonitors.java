@@ -0,0 +1,68 @@
+package me.hugmanrique.cellarium.monitor;
+
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Holds the process-wide {@link RepositoryMonitor} that receives events from
+ * components without their own monitor, e.g. bulk loads and evictions.
+ */
+public final class RepositoryMonitors {
+
+    private static final RepositoryMonitor NONE = new RepositoryMonitor() {};
+
+    private static final String FLIGHT_RECORDER_MONITOR = "me.hugmanrique.cellarium.monitor.jfr.FlightRecorderMonitor";
+
+    private static volatile RepositoryMonitor current = NONE;
+
+    /**
+     * Returns a monitor that ignores all events.
+     *
+     * @return a no-op monitor
+     */
+    public static RepositoryMonitor none() {
+        return NONE;
+    }
+
+    /**
+     * Returns the installed process-wide monitor, or a no-op monitor if none
+     * was installed.
+     *
+     * @return the current monitor
+     */
+    public static RepositoryMonitor current() {
+        return current;
+    }
+
+    /**
+     * Installs the process-wide monitor, replacing the previous one.
+     *
+     * @param monitor the monitor to install
+     */
+    public static void install(RepositoryMonitor monitor) {
+        current = requireNonNull(monitor, "monitor");
+    }
+
+    /**
+     * Returns a monitor that emits Java Flight Recorder events, if available.
+     *
+     * <p>The monitor classes are packaged as Java 11 classes of the multi-release
+     * jar built on Java 11 or later, so the monitor is only available when running
+     * from that jar on Java 11 or later with the {@code jdk.jfr} module.
+     *
+     * @return the Flight Recorder monitor, or an empty optional if not available
+     */
+    public static Optional<RepositoryMonitor> flightRecorder() {
+        try {
+            Class<?> type = Class.forName(FLIGHT_RECORDER_MONITOR);
+            return Optional.of((RepositoryMonitor) type.getConstructor().newInstance());
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return Optional.empty();
+        }
+    }
+
+    private RepositoryMonitors() {
+        throw new AssertionError();
+    }
+}
@@ -0,0 +1,27 @@
+package me.hugmanrique.cellarium.monitor.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name("me.hugmanrique.cellarium.BulkLoad")
+@Label("Repository Bulk Load")
+@Category("Cellarium")
+@Description("A bulk load of repositories completed")
+@StackTrace(false)
+class BulkLoadEvent extends Event {
+
+    @Label("Source")
+    String source;
+
+    @Label("Repository Count")
+    long count;
+
+    @Label("Load Duration")
+    @Timespan
+    long loadDuration;
+}
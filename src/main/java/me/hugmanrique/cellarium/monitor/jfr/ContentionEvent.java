@@ -0,0 +1,30 @@
+package me.hugmanrique.cellarium.monitor.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name("me.hugmanrique.cellarium.Contention")
+@Label("Repository Contention")
+@Category("Cellarium")
+@Description("An operation waited longer than the threshold, or retried its callback")
+@StackTrace
+class ContentionEvent extends Event {
+
+    @Label("Key")
+    String key;
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Wait Duration")
+    @Timespan
+    long waitDuration;
+
+    @Label("Attempts")
+    int attempts;
+}
@@ -0,0 +1,19 @@
+package me.hugmanrique.cellarium.monitor.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("me.hugmanrique.cellarium.Eviction")
+@Label("Repository Eviction")
+@Category("Cellarium")
+@Description("A mapping was evicted from a repository")
+@StackTrace(false)
+class EvictionEvent extends Event {
+
+    @Label("Key")
+    String key;
+}
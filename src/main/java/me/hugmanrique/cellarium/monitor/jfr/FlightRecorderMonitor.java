@@ -0,0 +1,68 @@
+package me.hugmanrique.cellarium.monitor.jfr;
+
+import me.hugmanrique.cellarium.Key;
+import me.hugmanrique.cellarium.Repository;
+import me.hugmanrique.cellarium.monitor.RepositoryMonitor;
+
+/**
+ * A {@link RepositoryMonitor} that emits Java Flight Recorder events in the
+ * {@code Cellarium} category. Events are only created when enabled in the
+ * active recording settings.
+ *
+ * <p>This class requires Java 11 or later, and is loaded reflectively by
+ * {@link me.hugmanrique.cellarium.monitor.RepositoryMonitors#flightRecorder()}.
+ */
+public final class FlightRecorderMonitor implements RepositoryMonitor {
+
+    private static String describe(Key<?> key) {
+        String name = key.name();
+        return name != null ? name : key.toString();
+    }
+
+    @Override
+    public void slowCallback(Repository repository, Key<?> key, String operation, long durationNanos) {
+        SlowCallbackEvent event = new SlowCallbackEvent();
+
+        if (event.isEnabled()) {
+            event.key = describe(key);
+            event.operation = operation;
+            event.callbackDuration = durationNanos;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void contention(Repository repository, Key<?> key, String operation, long waitNanos, int attempts) {
+        ContentionEvent event = new ContentionEvent();
+
+        if (event.isEnabled()) {
+            event.key = describe(key);
+            event.operation = operation;
+            event.waitDuration = waitNanos;
+            event.attempts = attempts;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void bulkLoad(String source, long count, long durationNanos) {
+        BulkLoadEvent event = new BulkLoadEvent();
+
+        if (event.isEnabled()) {
+            event.source = source;
+            event.count = count;
+            event.loadDuration = durationNanos;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void eviction(Repository repository, Key<?> key) {
+        EvictionEvent event = new EvictionEvent();
+
+        if (event.isEnabled()) {
+            event.key = describe(key);
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package me.hugmanrique.cellarium.monitor.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name("me.hugmanrique.cellarium.SlowCallback")
+@Label("Slow Repository Callback")
+@Category("Cellarium")
+@Description("A remapping or mapping function took longer than the threshold to run")
+@StackTrace
+class SlowCallbackEvent extends Event {
+
+    @Label("Key")
+    String key;
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Callback Duration")
+    @Timespan
+    long callbackDuration;
+}
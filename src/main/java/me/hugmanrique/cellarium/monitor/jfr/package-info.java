@@ -0,0 +1,4 @@
+@ParametersAreNonnullByDefault
+package me.hugmanrique.cellarium.monitor.jfr;
+
+import javax.annotation.ParametersAreNonnullByDefault;
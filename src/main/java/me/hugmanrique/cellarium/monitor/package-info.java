@@ -0,0 +1,4 @@
+@ParametersAreNonnullByDefault
+package me.hugmanrique.cellarium.monitor;
+
+import javax.annotation.ParametersAreNonnullByDefault;
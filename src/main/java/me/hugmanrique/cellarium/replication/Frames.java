@@ -0,0 +1,38 @@
+package me.hugmanrique.cellarium.replication;
+
+import me.hugmanrique.cellarium.Repository;
+import me.hugmanrique.cellarium.codec.Schema;
+import me.hugmanrique.cellarium.codec.Varints;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Encodes replication frames.
+ *
+ * <p>A frame starts with its type ({@link #BATCH} or {@link #SNAPSHOT}), the
+ * varlong sequence number of the primary and the varint number of records.
+ * Each record is written by {@link Schema#writeRecord(DataOutput, me.hugmanrique.cellarium.Key, Object)}.
+ */
+final class Frames {
+
+    static final byte BATCH = 0;
+    static final byte SNAPSHOT = 1;
+
+    static void writeHeader(DataOutput out, byte type, long sequence, int count) throws IOException {
+        out.writeByte(type);
+        Varints.writeVarLong(out, sequence);
+        Varints.writeVarInt(out, count);
+    }
+
+    static void readRecords(DataInput in, Schema schema, int count, Repository target) throws IOException {
+        for (int i = 0; i < count; i++) {
+            schema.readRecord(in, target);
+        }
+    }
+
+    private Frames() {
+        throw new AssertionError();
+    }
+}
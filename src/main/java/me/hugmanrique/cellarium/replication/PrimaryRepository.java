@@ -0,0 +1,189 @@
+package me.hugmanrique.cellarium.replication;
+
+import me.hugmanrique.cellarium.Key;
+import me.hugmanrique.cellarium.ListeningRepository;
+import me.hugmanrique.cellarium.PeekableRepository;
+import me.hugmanrique.cellarium.Repository;
+import me.hugmanrique.cellarium.RepositoryListener;
+import me.hugmanrique.cellarium.codec.Schema;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A repository that streams the modifications made through it to the
+ * {@link Replica}s listening on a {@link ReplicationTransport}.
+ *
+ * <p>Modified keys are accumulated and sent as an ordered, numbered batch
+ * containing their current values on each {@link #flush()}, or as soon as
+ * the number of pending keys reaches the maximum batch size. A replica lags
+ * behind by at most the modifications made since the last flush, plus the
+ * frames buffered by the transport.
+ *
+ * <p>Only the keys contained in the {@link Schema} are replicated. Replicas
+ * that miss a batch (or join late) request a snapshot, which is sent by
+ * {@link #sendSnapshot()}.
+ *
+ * <p>This class is thread-safe if the backing repository is thread-safe.
+ */
+public class PrimaryRepository extends ListeningRepository {
+
+    private final PeekableRepository repository;
+    private final Schema schema;
+    private final ReplicationTransport transport;
+    private final int maxBatchSize;
+
+    private final Set<Key<?>> pending = new LinkedHashSet<>(); // guarded by pending
+    private final Object sendLock = new Object();
+    private long sequence; // guarded by sendLock
+
+    /**
+     * Creates a {@code PrimaryRepository}.
+     *
+     * @param repository the backing repository, whose values are peeked when sending frames
+     * @param schema the schema of the replicated keys
+     * @param transport the transport to send frames through
+     * @param maxBatchSize the number of pending keys that triggers a flush
+     * @throws IllegalArgumentException if {@code maxBatchSize} is not positive
+     */
+    public PrimaryRepository(PeekableRepository repository, Schema schema, ReplicationTransport transport, int maxBatchSize) {
+        super(repository);
+        this.repository = repository;
+        this.schema = requireNonNull(schema, "schema");
+        this.transport = requireNonNull(transport, "transport");
+
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("Non-positive max batch size: " + maxBatchSize);
+        }
+
+        this.maxBatchSize = maxBatchSize;
+        addListener(new PendingTracker());
+    }
+
+    /**
+     * Returns the sequence number of the last sent batch.
+     *
+     * @return the last sequence number
+     */
+    public long sequence() {
+        synchronized (sendLock) {
+            return sequence;
+        }
+    }
+
+    private void markPending(Key<?> key) {
+        boolean full;
+
+        synchronized (pending) {
+            pending.add(key);
+            full = pending.size() >= maxBatchSize;
+        }
+
+        if (full) {
+            try {
+                flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not flush replication batch", e);
+            }
+        }
+    }
+
+    private List<Key<?>> takePending() {
+        synchronized (pending) {
+            List<Key<?>> keys = new ArrayList<>(pending);
+            pending.clear();
+            return keys;
+        }
+    }
+
+    private void restorePending(List<Key<?>> keys) {
+        synchronized (pending) {
+            pending.addAll(keys);
+        }
+    }
+
+    private byte[] encode(byte type, long sequence, List<Key<?>> keys) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        Frames.writeHeader(out, type, sequence, keys.size());
+
+        for (Key<?> key : keys) {
+            // Values are read after the key was marked as pending, so the latest value is sent
+            schema.writeRecord(out, key, repository.peek(key));
+        }
+
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Sends a batch containing the current values of the keys modified since
+     * the last flush. If no keys were modified, this method does nothing.
+     *
+     * @throws IOException if an I/O error occurs while sending the batch; the
+     *                     modified keys will be included in the next batch
+     */
+    public void flush() throws IOException {
+        synchronized (sendLock) {
+            List<Key<?>> keys = takePending();
+
+            if (keys.isEmpty()) {
+                return;
+            }
+
+            try {
+                transport.send(encode(Frames.BATCH, sequence + 1, keys));
+            } catch (IOException | RuntimeException e) {
+                restorePending(keys);
+                throw e;
+            }
+
+            sequence++;
+        }
+    }
+
+    /**
+     * Sends a snapshot containing the current values of all the replicated keys,
+     * allowing replicas to resynchronize.
+     *
+     * @throws IOException if an I/O error occurs while sending the snapshot
+     */
+    public void sendSnapshot() throws IOException {
+        synchronized (sendLock) {
+            // The snapshot includes the pending keys
+            List<Key<?>> keys = takePending();
+
+            try {
+                transport.send(encode(Frames.SNAPSHOT, sequence, schema.keys()));
+            } catch (IOException | RuntimeException e) {
+                restorePending(keys);
+                throw e;
+            }
+        }
+    }
+
+    private final class PendingTracker implements RepositoryListener {
+
+        @Override
+        public void onUpdate(Repository repository, Key<?> key) {
+            if (schema.contains(key)) {
+                markPending(key);
+            }
+        }
+
+        @Override
+        public void onClear(Repository repository) {
+            for (Key<?> key : schema.keys()) {
+                markPending(key);
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package me.hugmanrique.cellarium.replication;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * A {@link ReplicationTransport} that delivers frames between threads of the
+ * same process through a bounded queue. Senders block while the queue is full,
+ * which bounds the lag of the receiving {@link Replica}.
+ *
+ * <p>Closing the transport discards the pending frames, and wakes up blocked
+ * receivers, which then throw {@link EOFException}.
+ */
+public class QueueTransport implements ReplicationTransport {
+
+    // Wakes up blocked receivers once closed, compared by identity
+    private static final byte[] CLOSED = new byte[0];
+
+    private final BlockingQueue<byte[]> frames;
+    private volatile boolean closed;
+
+    /**
+     * Creates a {@code QueueTransport} that can hold up to the specified number
+     * of frames that have not been received yet.
+     *
+     * @param capacity the capacity of the queue
+     * @throws IllegalArgumentException if {@code capacity} is not positive
+     */
+    public QueueTransport(int capacity) {
+        this.frames = new ArrayBlockingQueue<>(capacity);
+    }
+
+    @Override
+    public void send(byte[] frame) throws IOException {
+        if (closed) {
+            throw new IOException("Transport is closed");
+        }
+
+        try {
+            frames.put(frame);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        }
+    }
+
+    @Override
+    public byte[] receive() throws IOException {
+        if (closed) {
+            throw new EOFException();
+        }
+
+        try {
+            byte[] frame = frames.take();
+
+            if (frame == CLOSED || closed) {
+                // Let other receivers wake up as well
+                frames.offer(CLOSED);
+                throw new EOFException();
+            }
+
+            return frame;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        }
+    }
+
+    /**
+     * Returns the number of frames that have not been received yet.
+     *
+     * @return the number of pending frames
+     */
+    public int pending() {
+        return closed ? 0 : frames.size();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        frames.clear();
+        frames.offer(CLOSED);
+    }
+}
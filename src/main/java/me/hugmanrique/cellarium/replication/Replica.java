@@ -0,0 +1,238 @@
+package me.hugmanrique.cellarium.replication;
+
+import me.hugmanrique.cellarium.Key;
+import me.hugmanrique.cellarium.Repository;
+import me.hugmanrique.cellarium.codec.Schema;
+import me.hugmanrique.cellarium.codec.Varints;
+import me.hugmanrique.cellarium.simple.SimpleRepository;
+
+import javax.annotation.Nullable;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Applies the frames sent by a {@link PrimaryRepository} to a local, read-only
+ * copy of its replicated keys.
+ *
+ * <p>A replica starts unsynchronized and requests a snapshot through the
+ * resync callback when it receives its first frame. Batches must be received
+ * in sequence: if a batch is missed, the replica ignores the following batches
+ * and requests a new snapshot. Snapshots are applied atomically, whereas
+ * readers may observe a batch partially applied.
+ *
+ * <p>Frames are received by {@link #receive()}, or continuously by running
+ * the replica on a dedicated thread. The {@link #repository() replicated
+ * repository} can be read from any thread.
+ */
+public class Replica implements Runnable {
+
+    private final Schema schema;
+    private final ReplicationTransport transport;
+    private final Runnable resyncRequest;
+    private final Repository view = new ReadOnlyView();
+
+    private volatile Repository current = SimpleRepository.newConcurrentInstance();
+    private volatile long sequence;
+    private volatile boolean synced;
+    private boolean resyncRequested;
+
+    /**
+     * Creates a {@code Replica}.
+     *
+     * @param schema the schema of the replicated keys
+     * @param transport the transport to receive frames from
+     * @param resyncRequest callback that asks the primary to send a snapshot,
+     *                      e.g. by calling {@link PrimaryRepository#sendSnapshot()}.
+     *                      It is called on the receiving thread, so it must not
+     *                      wait for the snapshot to be sent
+     */
+    public Replica(Schema schema, ReplicationTransport transport, Runnable resyncRequest) {
+        this.schema = requireNonNull(schema, "schema");
+        this.transport = requireNonNull(transport, "transport");
+        this.resyncRequest = requireNonNull(resyncRequest, "resyncRequest");
+    }
+
+    /**
+     * Returns a read-only view of the replicated keys. Mutating methods throw
+     * {@link UnsupportedOperationException}.
+     *
+     * @return the replicated repository
+     */
+    public Repository repository() {
+        return view;
+    }
+
+    /**
+     * Returns the sequence number of the last applied batch or snapshot.
+     *
+     * @return the last applied sequence number
+     */
+    public long sequence() {
+        return sequence;
+    }
+
+    /**
+     * Returns {@code true} if this replica has applied a snapshot and has
+     * not missed any batch since.
+     *
+     * @return {@code true} if this replica is synchronized with the primary
+     */
+    public boolean isSynchronized() {
+        return synced;
+    }
+
+    private void requestResync() {
+        synced = false;
+
+        if (!resyncRequested) {
+            resyncRequested = true;
+            resyncRequest.run();
+        }
+    }
+
+    /**
+     * Receives and applies the next frame, blocking until one is available.
+     *
+     * @throws IOException if an I/O error occurs, or the frame is malformed
+     */
+    public void receive() throws IOException {
+        if (!synced) {
+            requestResync();
+        }
+
+        apply(transport.receive());
+    }
+
+    private void apply(byte[] frame) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(frame));
+        byte type = in.readByte();
+        long frameSequence = Varints.readVarLong(in);
+        int count = Varints.readVarInt(in);
+
+        if (type == Frames.SNAPSHOT) {
+            Repository snapshot = SimpleRepository.newConcurrentInstance();
+            Frames.readRecords(in, schema, count, snapshot);
+
+            current = snapshot;
+            sequence = frameSequence;
+            synced = true;
+            resyncRequested = false;
+        } else if (type == Frames.BATCH) {
+            if (!synced || frameSequence <= sequence) {
+                // Awaiting a snapshot, or the batch precedes the applied snapshot
+                return;
+            }
+
+            if (frameSequence != sequence + 1) {
+                requestResync();
+                return;
+            }
+
+            Frames.readRecords(in, schema, count, current);
+            sequence = frameSequence;
+        } else {
+            throw new IOException("Unknown frame type " + type);
+        }
+    }
+
+    /**
+     * Receives and applies frames until the transport is closed or the
+     * thread is interrupted.
+     *
+     * @throws UncheckedIOException if an I/O error occurs
+     */
+    @Override
+    public void run() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                receive();
+            }
+        } catch (EOFException | InterruptedIOException e) {
+            // Closed or interrupted
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private final class ReadOnlyView implements Repository {
+
+        @Nullable
+        @Override
+        public <T> T get(Key<T> key) {
+            return current.get(key);
+        }
+
+        @Override
+        public <T> T put(Key<T> key, T value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <T> T putIfAbsent(Key<T> key, T value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <T> T compute(Key<T> key, UnaryOperator<T> remappingFunction) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <T> T computeIfAbsent(Key<T> key, Supplier<? extends T> mappingFunction) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <T> T computeIfPresent(Key<T> key, UnaryOperator<T> remappingFunction) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <T> T replace(Key<T> key, T value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <T> boolean replace(Key<T> key, T oldValue, T newValue) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <T> T remove(Key<T> key) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <T> boolean remove(Key<T> key, T value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void clear() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean contains(Key<?> key) {
+            return current.contains(key);
+        }
+
+        @Override
+        public int size() {
+            return current.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return current.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package me.hugmanrique.cellarium.replication;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * A channel that delivers replication frames from a {@link PrimaryRepository}
+ * to a {@link Replica}, in order.
+ *
+ * @see QueueTransport for in-process replication
+ * @see SocketTransport for replication over a socket
+ */
+public interface ReplicationTransport extends Closeable {
+
+    /**
+     * Sends a frame, blocking if the transport is at capacity.
+     *
+     * @param frame the frame to send
+     * @throws IOException if an I/O error occurs, or the thread is interrupted
+     *                     while waiting
+     */
+    void send(byte[] frame) throws IOException;
+
+    /**
+     * Receives the next frame, blocking until one is available.
+     *
+     * @return the received frame
+     * @throws java.io.EOFException if the transport was closed by the sender
+     * @throws IOException if an I/O error occurs, or the thread is interrupted
+     *                     while waiting
+     */
+    byte[] receive() throws IOException;
+}
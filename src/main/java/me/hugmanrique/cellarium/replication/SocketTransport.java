@@ -0,0 +1,57 @@
+package me.hugmanrique.cellarium.replication;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link ReplicationTransport} that delivers frames over a connected
+ * {@link Socket}, e.g. to a replica in another process on the same host.
+ * Each frame is prefixed by its length.
+ *
+ * <p>Both ends of the connection create a {@code SocketTransport} from their
+ * socket. The sending end should only call {@link #send(byte[])}, and the
+ * receiving end {@link #receive()}.
+ */
+public class SocketTransport implements ReplicationTransport {
+
+    private final Socket socket;
+    private final DataOutputStream out;
+    private final DataInputStream in;
+
+    public SocketTransport(Socket socket) throws IOException {
+        this.socket = requireNonNull(socket, "socket");
+        this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+    }
+
+    @Override
+    public synchronized void send(byte[] frame) throws IOException {
+        out.writeInt(frame.length);
+        out.write(frame);
+        out.flush();
+    }
+
+    @Override
+    public byte[] receive() throws IOException {
+        int length = in.readInt();
+
+        if (length < 0) {
+            throw new IOException("Negative frame length: " + length);
+        }
+
+        byte[] frame = new byte[length];
+        in.readFully(frame);
+        return frame;
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+}
@@ -0,0 +1,4 @@
+@ParametersAreNonnullByDefault
+package me.hugmanrique.cellarium.replication;
+
+import javax.annotation.ParametersAreNonnullByDefault;
@@ -0,0 +1,248 @@
+package me.hugmanrique.cellarium.simple;
+
+import me.hugmanrique.cellarium.Key;
+import me.hugmanrique.cellarium.PeekableRepository;
+import me.hugmanrique.cellarium.Repository;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * An immutable {@link Repository} laid out for fast reads from any thread.
+ *
+ * <p>Mappings are stored in two flat arrays indexed by a multiplicative hash
+ * of the key identity, with a load factor of at most 0.5 (or 0.25 if that allows
+ * it). When possible, the multiplier is chosen when the repository is built so
+ * that keys do not collide, hence a lookup is a single array read. Otherwise,
+ * collisions are resolved by linear probing.
+ * Since all fields are final, no synchronization is needed.
+ *
+ * <p>All mutating methods throw {@link UnsupportedOperationException}.
+ *
+ * @see SimpleRepository#freeze()
+ * @see Builder to create instances of this class
+ */
+@Immutable
+public final class FrozenRepository implements PeekableRepository {
+
+    private static final int MULTIPLIER_ATTEMPTS = 64;
+
+    private final Key<?>[] keys;
+    private final Object[] values;
+    private final int shift;
+    private final int multiplier;
+    private final int size;
+
+    FrozenRepository(Map<Key<?>, Object> items) {
+        this.size = items.size();
+
+        // Keep the load factor at most 0.5, and allow a single doubling to find a
+        // perfect multiplier. Larger key sets fall back to linear probing
+        int capacity = Integer.highestOneBit(Math.max(1, size) * 2 - 1) << 1;
+        int multiplier = findMultiplier(items, capacity);
+
+        if (multiplier == 0) {
+            multiplier = findMultiplier(items, capacity << 1);
+
+            if (multiplier != 0) {
+                capacity <<= 1;
+            }
+        }
+
+        this.shift = 32 - Integer.numberOfTrailingZeros(capacity);
+        this.multiplier = multiplier != 0 ? multiplier : 0x9E3779B9;
+        this.keys = new Key<?>[capacity];
+        this.values = new Object[capacity];
+
+        for (Map.Entry<Key<?>, Object> entry : items.entrySet()) {
+            int index = indexOf(entry.getKey());
+
+            while (keys[index] != null) {
+                index = (index + 1) & (capacity - 1);
+            }
+
+            keys[index] = entry.getKey();
+            values[index] = entry.getValue();
+        }
+    }
+
+    /**
+     * Returns an odd multiplier that maps all the keys to distinct slots, or
+     * zero if none was found.
+     */
+    private static int findMultiplier(Map<Key<?>, Object> items, int capacity) {
+        int shift = 32 - Integer.numberOfTrailingZeros(capacity);
+        boolean[] used = new boolean[capacity];
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        attempts:
+        for (int attempt = 0; attempt < MULTIPLIER_ATTEMPTS; attempt++) {
+            int multiplier = attempt == 0 ? 0x9E3779B9 : random.nextInt() | 1;
+            Arrays.fill(used, false);
+
+            for (Key<?> key : items.keySet()) {
+                int index = (System.identityHashCode(key) * multiplier) >>> shift;
+
+                if (used[index]) {
+                    continue attempts;
+                }
+
+                used[index] = true;
+            }
+
+            return multiplier;
+        }
+
+        return 0;
+    }
+
+    private int indexOf(Key<?> key) {
+        return (System.identityHashCode(key) * multiplier) >>> shift;
+    }
+
+    @Nullable
+    private Object rawGet(Key<?> key) {
+        int mask = keys.length - 1;
+
+        for (int index = indexOf(key); ; index = (index + 1) & mask) {
+            Key<?> candidate = keys[index];
+
+            if (candidate == key) {
+                return values[index];
+            } else if (candidate == null) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped, or {@code null}
+     * if this repository contains no mapping for the key.
+     */
+    @Nullable
+    <T> T getIfPresent(Key<T> key) {
+        return key.cast(rawGet(key));
+    }
+
+    @Nullable
+    @Override
+    public <T> T peek(Key<T> key) {
+        return getIfPresent(requireNonNull(key, "key"));
+    }
+
+    @Nullable
+    @Override
+    public <T> T get(Key<T> key) {
+        T value = key.cast(rawGet(requireNonNull(key, "key")));
+
+        return value != null ? value : key.defaultValue();
+    }
+
+    @Override
+    public <T> T put(Key<T> key, T value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public <T> T putIfAbsent(Key<T> key, T value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public <T> T compute(Key<T> key, UnaryOperator<T> remappingFunction) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public <T> T computeIfAbsent(Key<T> key, Supplier<? extends T> mappingFunction) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public <T> T computeIfPresent(Key<T> key, UnaryOperator<T> remappingFunction) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public <T> T replace(Key<T> key, T value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public <T> boolean replace(Key<T> key, T oldValue, T newValue) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public <T> T remove(Key<T> key) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public <T> boolean remove(Key<T> key, T value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean contains(Key<?> key) {
+        return rawGet(requireNonNull(key, "key")) != null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Used to build instances of {@link FrozenRepository} from the mappings
+     * added by {@link #put(Key, Object)}.
+     */
+    public static class Builder {
+
+        private final Map<Key<?>, Object> items = new IdentityHashMap<>();
+
+        /**
+         * Associates the specified value with the specified key, replacing
+         * any previously added value.
+         *
+         * @param key key with which the specified value is to be associated
+         * @param value value to be associated with the specified key
+         * @param <T> the type of the value
+         * @return this builder
+         */
+        public <T> Builder put(Key<T> key, T value) {
+            items.put(requireNonNull(key, "key"), requireNonNull(value, "value"));
+            return this;
+        }
+
+        /**
+         * Creates a {@link FrozenRepository}.
+         *
+         * <p>This method does not alter the state of this {@link Builder} instance,
+         * so it can be invoked again to create multiple independent repositories.
+         *
+         * @return a {@link FrozenRepository} containing the added mappings
+         */
+        public FrozenRepository build() {
+            return new FrozenRepository(items);
+        }
+    }
+}
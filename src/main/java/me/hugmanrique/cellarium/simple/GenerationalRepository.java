@@ -0,0 +1,708 @@
+package me.hugmanrique.cellarium.simple;
+
+import me.hugmanrique.cellarium.Key;
+import me.hugmanrique.cellarium.KeyGroup;
+import me.hugmanrique.cellarium.Repository;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.IntBinaryOperator;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link Repository} that supports resetting {@link KeyGroup}s.
+ *
+ * <p>Each grouped key is mapped to a mutable entry holding its value along with
+ * the generation of its group at the time the value was written, so writes do
+ * not allocate once the entry exists. Once the group is {@link KeyGroup#reset() reset},
+ * these values are treated as absent, and their entries are removed when the
+ * key is next accessed, or by {@link #cleanUp()}. Values of keys without a group
+ * are stored as-is.
+ *
+ * <p>Atomic operations on grouped keys hold the lock of their entry, so functions
+ * are applied once. Atomic operations on other keys of a concurrent instance are
+ * implemented by compare-and-set loops, so functions may be applied more than once
+ * if the mapping is concurrently modified.
+ */
+public class GenerationalRepository implements Repository {
+
+    /**
+     * Creates a non thread-safe {@code GenerationalRepository} based on
+     * a {@link HashMap}.
+     *
+     * @return a new, empty repository
+     */
+    public static GenerationalRepository newInstance() {
+        return new GenerationalRepository(new HashMap<>(), false);
+    }
+
+    /**
+     * Creates a thread-safe {@code GenerationalRepository} based on
+     * a {@link ConcurrentHashMap}.
+     *
+     * @return a new, empty thread-safe repository
+     */
+    public static GenerationalRepository newConcurrentInstance() {
+        return new GenerationalRepository(new ConcurrentHashMap<>(), true);
+    }
+
+    private static final Group[] NO_GROUPS = new Group[0];
+
+    private final Map<Key<?>, Object> items;
+    private final boolean concurrent;
+
+    // The groups of the keys written to this repository, copied on write
+    private volatile Group[] groups = NO_GROUPS;
+
+    private GenerationalRepository(Map<Key<?>, Object> items, boolean concurrent) {
+        this.items = items;
+        this.concurrent = concurrent;
+    }
+
+    // Groups
+
+    /**
+     * Records that a value of the specified group is about to be written.
+     */
+    private void track(KeyGroup group) {
+        for (Group tracked : groups) {
+            if (tracked.group == group) {
+                return;
+            }
+        }
+
+        synchronized (this) {
+            Group[] tracked = groups;
+
+            for (Group existing : tracked) {
+                if (existing.group == group) {
+                    return;
+                }
+            }
+
+            Group[] copy = Arrays.copyOf(tracked, tracked.length + 1);
+            copy[tracked.length] = new Group(group);
+            groups = copy;
+        }
+    }
+
+    // Entries of grouped keys
+
+    /**
+     * Returns the entry of the specified grouped key, creating it if absent.
+     */
+    private Stamped entryOf(Key<?> key) {
+        Object item = items.get(key);
+
+        if (item != null) {
+            return (Stamped) item;
+        }
+
+        Stamped entry = new Stamped();
+
+        if (!concurrent) {
+            items.put(key, entry);
+            return entry;
+        }
+
+        item = items.putIfAbsent(key, entry);
+        return item != null ? (Stamped) item : entry;
+    }
+
+    /**
+     * Sets the value of the specified entry, removing it if the value is
+     * {@code null}. Must be called while holding the lock of the entry.
+     */
+    private void set(Key<?> key, Stamped entry, KeyGroup group, @Nullable Object value) {
+        if (value != null) {
+            track(group);
+            entry.value = value;
+            entry.generation = group.generation();
+        } else {
+            expunge(key, entry);
+        }
+    }
+
+    /**
+     * Removes the specified entry if it holds no current value. Must be called
+     * while holding the lock of the entry.
+     */
+    private void expungeIfAbsent(Key<?> key, Stamped entry, KeyGroup group) {
+        if (entry.get(group) == null) {
+            expunge(key, entry);
+        }
+    }
+
+    private void expunge(Key<?> key, Stamped entry) {
+        if (!entry.removed) {
+            entry.removed = true;
+            entry.value = null;
+            items.remove(key, entry);
+        }
+    }
+
+    /**
+     * Sets the mapping for the specified key to {@code item} (or removes it if
+     * {@code null}) if it is still mapped to {@code current}.
+     *
+     * @return {@code true} if the mapping was updated
+     */
+    private boolean update(Key<?> key, @Nullable Object current, @Nullable Object item) {
+        if (!concurrent) {
+            if (item != null) {
+                items.put(key, item);
+            } else {
+                items.remove(key);
+            }
+
+            return true;
+        }
+
+        if (current == null) {
+            return item == null || items.putIfAbsent(key, item) == null;
+        } else if (item == null) {
+            return items.remove(key, current);
+        }
+
+        return items.replace(key, current, item);
+    }
+
+    /**
+     * Removes the entries whose values belong to a past generation of their group.
+     */
+    public void cleanUp() {
+        Group[] tracked = groups;
+        long[] generations = new long[tracked.length];
+
+        for (int i = 0; i < tracked.length; i++) {
+            generations[i] = tracked[i].group.generation();
+        }
+
+        Iterator<Map.Entry<Key<?>, Object>> iterator = items.entrySet().iterator();
+
+        while (iterator.hasNext()) {
+            Map.Entry<Key<?>, Object> mapping = iterator.next();
+            KeyGroup group = mapping.getKey().group();
+
+            if (group == null) {
+                continue;
+            }
+
+            Stamped entry = (Stamped) mapping.getValue();
+
+            synchronized (entry) {
+                if (entry.removed || entry.get(group) != null) {
+                    continue;
+                }
+
+                entry.removed = true;
+                entry.value = null;
+
+                if (concurrent) {
+                    items.remove(mapping.getKey(), entry);
+                } else {
+                    iterator.remove();
+                }
+            }
+        }
+
+        for (int i = 0; i < tracked.length; i++) {
+            tracked[i].cleanGeneration = generations[i];
+        }
+    }
+
+    // Repository methods
+
+    @Nullable
+    @Override
+    public <T> T get(Key<T> key) {
+        Object item = items.get(requireNonNull(key, "key"));
+        KeyGroup group = key.group();
+        T value;
+
+        if (group == null || item == null) {
+            value = key.cast(item);
+        } else {
+            Stamped entry = (Stamped) item;
+
+            synchronized (entry) {
+                value = key.cast(entry.get(group));
+                expungeIfAbsent(key, entry, group);
+            }
+        }
+
+        return value != null ? value : key.defaultValue();
+    }
+
+    @Nullable
+    @Override
+    public <T> T put(Key<T> key, T value) {
+        requireNonNull(key, "key");
+        requireNonNull(value, "value");
+        KeyGroup group = key.group();
+
+        if (group == null) {
+            return key.cast(items.put(key, value));
+        }
+
+        while (true) {
+            Stamped entry = entryOf(key);
+
+            synchronized (entry) {
+                if (!entry.removed) {
+                    T previous = key.cast(entry.get(group));
+                    set(key, entry, group, value);
+                    return previous;
+                }
+            }
+        }
+    }
+
+    @Nullable
+    @Override
+    public <T> T putIfAbsent(Key<T> key, T value) {
+        requireNonNull(key, "key");
+        requireNonNull(value, "value");
+        KeyGroup group = key.group();
+
+        if (group == null) {
+            return key.cast(items.putIfAbsent(key, value));
+        }
+
+        while (true) {
+            Stamped entry = entryOf(key);
+
+            synchronized (entry) {
+                if (!entry.removed) {
+                    T previous = key.cast(entry.get(group));
+
+                    if (previous == null) {
+                        set(key, entry, group, value);
+                    }
+
+                    return previous;
+                }
+            }
+        }
+    }
+
+    @Nullable
+    @Override
+    public <T> T compute(Key<T> key, UnaryOperator<T> remappingFunction) {
+        requireNonNull(key, "key");
+        KeyGroup group = key.group();
+
+        if (group == null) {
+            while (true) {
+                Object current = items.get(key);
+                T previous = key.cast(current);
+                T value = remappingFunction.apply(previous != null ? previous : key.defaultValue());
+
+                if (update(key, current, value)) {
+                    return value;
+                }
+            }
+        }
+
+        while (true) {
+            Stamped entry = entryOf(key);
+
+            synchronized (entry) {
+                if (!entry.removed) {
+                    T previous = key.cast(entry.get(group));
+                    T value;
+
+                    try {
+                        value = remappingFunction.apply(previous != null ? previous : key.defaultValue());
+                    } catch (RuntimeException | Error e) {
+                        expungeIfAbsent(key, entry, group);
+                        throw e;
+                    }
+
+                    set(key, entry, group, value);
+                    return value;
+                }
+            }
+        }
+    }
+
+    @Nullable
+    @Override
+    public <T, A> T compute(Key<T> key, A argument, BiFunction<? super T, ? super A, ? extends T> remappingFunction) {
+        requireNonNull(key, "key");
+        KeyGroup group = key.group();
+
+        if (group == null) {
+            while (true) {
+                Object current = items.get(key);
+                T previous = key.cast(current);
+                T value = remappingFunction.apply(previous != null ? previous : key.defaultValue(), argument);
+
+                if (update(key, current, value)) {
+                    return value;
+                }
+            }
+        }
+
+        while (true) {
+            Stamped entry = entryOf(key);
+
+            synchronized (entry) {
+                if (!entry.removed) {
+                    T previous = key.cast(entry.get(group));
+                    T value;
+
+                    try {
+                        value = remappingFunction.apply(previous != null ? previous : key.defaultValue(), argument);
+                    } catch (RuntimeException | Error e) {
+                        expungeIfAbsent(key, entry, group);
+                        throw e;
+                    }
+
+                    set(key, entry, group, value);
+                    return value;
+                }
+            }
+        }
+    }
+
+    @Override
+    public int computeInt(Key<Integer> key, int operand, IntBinaryOperator operator) {
+        requireNonNull(key, "key");
+        KeyGroup group = key.group();
+
+        if (group == null) {
+            while (true) {
+                Object current = items.get(key);
+                int value = operator.applyAsInt(intValue(key, key.cast(current)), operand);
+
+                if (update(key, current, value)) {
+                    return value;
+                }
+            }
+        }
+
+        while (true) {
+            Stamped entry = entryOf(key);
+
+            synchronized (entry) {
+                if (!entry.removed) {
+                    int value;
+
+                    try {
+                        value = operator.applyAsInt(intValue(key, key.cast(entry.get(group))), operand);
+                    } catch (RuntimeException | Error e) {
+                        expungeIfAbsent(key, entry, group);
+                        throw e;
+                    }
+
+                    set(key, entry, group, value);
+                    return value;
+                }
+            }
+        }
+    }
+
+    private static int intValue(Key<Integer> key, @Nullable Integer value) {
+        if (value == null) {
+            value = key.defaultValue();
+        }
+
+        return value != null ? value : 0;
+    }
+
+    @Override
+    public <T> T computeIfAbsent(Key<T> key, Supplier<? extends T> mappingFunction) {
+        requireNonNull(key, "key");
+        KeyGroup group = key.group();
+
+        if (group == null) {
+            while (true) {
+                Object current = items.get(key);
+                T value = key.cast(current);
+
+                if (value != null) {
+                    return value;
+                }
+
+                value = requireNonNull(mappingFunction.get(), "new value");
+
+                if (update(key, null, value)) {
+                    return value;
+                }
+            }
+        }
+
+        while (true) {
+            Stamped entry = entryOf(key);
+
+            synchronized (entry) {
+                if (!entry.removed) {
+                    T value = key.cast(entry.get(group));
+
+                    if (value == null) {
+                        try {
+                            value = requireNonNull(mappingFunction.get(), "new value");
+                        } catch (RuntimeException | Error e) {
+                            expungeIfAbsent(key, entry, group);
+                            throw e;
+                        }
+
+                        set(key, entry, group, value);
+                    }
+
+                    return value;
+                }
+            }
+        }
+    }
+
+    @Nullable
+    @Override
+    public <T> T computeIfPresent(Key<T> key, UnaryOperator<T> remappingFunction) {
+        requireNonNull(key, "key");
+        KeyGroup group = key.group();
+
+        while (true) {
+            Object current = items.get(key);
+
+            if (current == null) {
+                return null;
+            }
+
+            if (group == null) {
+                T value = remappingFunction.apply(key.cast(current));
+
+                if (update(key, current, value)) {
+                    return value;
+                }
+
+                continue;
+            }
+
+            Stamped entry = (Stamped) current;
+
+            synchronized (entry) {
+                if (!entry.removed) {
+                    T previous = key.cast(entry.get(group));
+
+                    if (previous == null) {
+                        expunge(key, entry);
+                        return null;
+                    }
+
+                    T value = remappingFunction.apply(previous);
+                    set(key, entry, group, value);
+                    return value;
+                }
+            }
+        }
+    }
+
+    @Nullable
+    @Override
+    public <T> T replace(Key<T> key, T value) {
+        requireNonNull(key, "key");
+        requireNonNull(value, "value");
+        KeyGroup group = key.group();
+
+        if (group == null) {
+            return key.cast(items.replace(key, value));
+        }
+
+        while (true) {
+            Stamped entry = (Stamped) items.get(key);
+
+            if (entry == null) {
+                return null;
+            }
+
+            synchronized (entry) {
+                if (!entry.removed) {
+                    T previous = key.cast(entry.get(group));
+
+                    if (previous != null) {
+                        set(key, entry, group, value);
+                    } else {
+                        expunge(key, entry);
+                    }
+
+                    return previous;
+                }
+            }
+        }
+    }
+
+    @Override
+    public <T> boolean replace(Key<T> key, T oldValue, T newValue) {
+        requireNonNull(key, "key");
+        requireNonNull(oldValue, "oldValue");
+        requireNonNull(newValue, "newValue");
+        KeyGroup group = key.group();
+
+        if (group == null) {
+            return items.replace(key, oldValue, newValue);
+        }
+
+        while (true) {
+            Stamped entry = (Stamped) items.get(key);
+
+            if (entry == null) {
+                return false;
+            }
+
+            synchronized (entry) {
+                if (!entry.removed) {
+                    if (!Objects.equals(entry.get(group), oldValue)) {
+                        expungeIfAbsent(key, entry, group);
+                        return false;
+                    }
+
+                    set(key, entry, group, newValue);
+                    return true;
+                }
+            }
+        }
+    }
+
+    @Nullable
+    @Override
+    public <T> T remove(Key<T> key) {
+        requireNonNull(key, "key");
+        KeyGroup group = key.group();
+
+        if (group == null) {
+            return key.cast(items.remove(key));
+        }
+
+        while (true) {
+            Stamped entry = (Stamped) items.get(key);
+
+            if (entry == null) {
+                return null;
+            }
+
+            synchronized (entry) {
+                if (!entry.removed) {
+                    T previous = key.cast(entry.get(group));
+                    expunge(key, entry);
+                    return previous;
+                }
+            }
+        }
+    }
+
+    @Override
+    public <T> boolean remove(Key<T> key, T value) {
+        requireNonNull(key, "key");
+        requireNonNull(value, "value");
+        KeyGroup group = key.group();
+
+        if (group == null) {
+            return items.remove(key, value);
+        }
+
+        while (true) {
+            Stamped entry = (Stamped) items.get(key);
+
+            if (entry == null) {
+                return false;
+            }
+
+            synchronized (entry) {
+                if (!entry.removed) {
+                    boolean removed = Objects.equals(entry.get(group), value);
+
+                    if (removed) {
+                        expunge(key, entry);
+                    } else {
+                        expungeIfAbsent(key, entry, group);
+                    }
+
+                    return removed;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        items.clear();
+    }
+
+    @Override
+    public boolean contains(Key<?> key) {
+        Object item = items.get(requireNonNull(key, "key"));
+        KeyGroup group = key.group();
+
+        if (group == null || item == null) {
+            return item != null;
+        }
+
+        Stamped entry = (Stamped) item;
+
+        synchronized (entry) {
+            return entry.get(group) != null;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>If a group of the keys written to this repository was reset since the
+     * last clean up, this method {@link #cleanUp() cleans up} the repository first,
+     * which takes time linear in the number of mappings.
+     */
+    @Override
+    public int size() {
+        for (Group group : groups) {
+            if (group.cleanGeneration != group.group.generation()) {
+                cleanUp();
+                break;
+            }
+        }
+
+        return items.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    private static final class Group {
+
+        final KeyGroup group;
+        // The generation when the last clean up started, no entries can be stale if unchanged
+        volatile long cleanGeneration;
+
+        Group(KeyGroup group) {
+            this.group = group;
+            this.cleanGeneration = group.generation();
+        }
+    }
+
+    private static final class Stamped {
+
+        // Guarded by this
+        @Nullable
+        Object value;
+        long generation;
+        // Whether the entry was removed from the map, and must not be written
+        boolean removed;
+
+        @Nullable
+        Object get(KeyGroup group) {
+            return generation == group.generation() ? value : null;
+        }
+    }
+}
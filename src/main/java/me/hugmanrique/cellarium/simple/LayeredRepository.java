@@ -0,0 +1,309 @@
+package me.hugmanrique.cellarium.simple;
+
+import me.hugmanrique.cellarium.Key;
+import me.hugmanrique.cellarium.Repository;
+
+import javax.annotation.Nullable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link Repository} that falls back to an ordered chain of parent layers
+ * for the keys it contains no mapping for, e.g. player, guild and server
+ * default settings.
+ *
+ * <p>{@link #get(Key)} returns the value of the first layer (starting with
+ * this one, then its parents in order, recursively) that contains a mapping
+ * for the key, or the key's default value if none does. Likewise, the
+ * remapping function of {@link #compute(Key, UnaryOperator)} receives the
+ * resolved value. All other operations only act on the mappings of this layer.
+ *
+ * <p>Each layer has a version, incremented on each modification. Resolved
+ * values are cached in each layer, stamped with the versions of the layers
+ * consulted to resolve them, and remain valid until one of these layers is
+ * modified. Hence, modifying a layer only invalidates the values resolved
+ * through it, and validating a cached value reads the version of each
+ * consulted layer instead of looking the key up in each of them.
+ *
+ * <p>Lookups update the cache, so a layer shared by multiple threads (e.g. a
+ * parent of many layers) must be created by {@link #newConcurrentInstance(LayeredRepository...)}.
+ */
+public class LayeredRepository implements Repository {
+
+    /**
+     * Creates a non thread-safe {@code LayeredRepository} with the specified
+     * parent layers.
+     *
+     * @param parents the parent layers, in lookup order
+     * @return a non thread-safe {@code LayeredRepository}
+     */
+    public static LayeredRepository newInstance(LayeredRepository... parents) {
+        return new LayeredRepository(SimpleRepository.newInstance(), new HashMap<>(), parents);
+    }
+
+    /**
+     * Creates a thread-safe {@code LayeredRepository} with the specified
+     * parent layers.
+     *
+     * @param parents the parent layers, in lookup order
+     * @return a thread-safe {@code LayeredRepository}
+     */
+    public static LayeredRepository newConcurrentInstance(LayeredRepository... parents) {
+        return new LayeredRepository(SimpleRepository.newConcurrentInstance(), new ConcurrentHashMap<>(), parents);
+    }
+
+    private final SimpleRepository local;
+    private final Map<Key<?>, Resolved> cache;
+    private final LayeredRepository[] parents;
+    private final AtomicLong version = new AtomicLong();
+
+    private LayeredRepository(SimpleRepository local, Map<Key<?>, Resolved> cache, LayeredRepository[] parents) {
+        this.local = local;
+        this.cache = cache;
+        this.parents = parents.clone();
+
+        for (LayeredRepository parent : this.parents) {
+            requireNonNull(parent, "parent");
+        }
+    }
+
+    /**
+     * Must be called after every modification of the local mappings.
+     */
+    private void modified() {
+        version.incrementAndGet();
+    }
+
+    /**
+     * Returns the resolution of the specified key in this layer, whose value is
+     * the value of the first layer that contains a mapping for the key, or
+     * {@code null} if none does.
+     */
+    private Resolved resolve(Key<?> key) {
+        // Read the stamp before resolving, so concurrent modifications invalidate the entry
+        long stamp = version.get();
+        Resolved resolved = cache.get(key);
+
+        if (resolved != null && isValid(resolved, stamp)) {
+            return resolved;
+        }
+
+        Object value = local.getIfPresent(key);
+        Resolved[] sources = null;
+
+        if (value == null && parents.length > 0) {
+            sources = new Resolved[parents.length];
+
+            for (int i = 0; value == null && i < parents.length; i++) {
+                sources[i] = parents[i].resolve(key);
+                value = sources[i].value;
+            }
+        }
+
+        resolved = new Resolved(value, stamp, sources);
+        cache.put(key, resolved);
+        return resolved;
+    }
+
+    /**
+     * Returns whether none of the layers consulted to resolve the specified
+     * resolution has been modified since, walking the parent chain.
+     */
+    private boolean isValid(Resolved resolved, long stamp) {
+        if (resolved.stamp != stamp) {
+            return false;
+        }
+
+        Resolved[] sources = resolved.sources;
+
+        if (sources != null) {
+            // Only the parents consulted before the value was found are stamped
+            for (int i = 0; i < sources.length && sources[i] != null; i++) {
+                LayeredRepository parent = parents[i];
+
+                if (!parent.isValid(sources[i], parent.version.get())) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    @Nullable
+    private <T> T inherited(Key<T> key) {
+        for (LayeredRepository parent : parents) {
+            Object value = parent.resolve(key).value;
+
+            if (value != null) {
+                return key.cast(value);
+            }
+        }
+
+        return key.defaultValue();
+    }
+
+    @Nullable
+    @Override
+    public <T> T get(Key<T> key) {
+        T value = key.cast(resolve(requireNonNull(key, "key")).value);
+
+        return value != null ? value : key.defaultValue();
+    }
+
+    @Nullable
+    @Override
+    public <T> T put(Key<T> key, T value) {
+        T previous = local.put(key, value);
+        modified();
+        return previous;
+    }
+
+    @Nullable
+    @Override
+    public <T> T putIfAbsent(Key<T> key, T value) {
+        T previous = local.putIfAbsent(key, value);
+
+        if (previous == null) {
+            modified();
+        }
+
+        return previous;
+    }
+
+    @Nullable
+    @Override
+    public <T> T compute(Key<T> key, UnaryOperator<T> remappingFunction) {
+        requireNonNull(key, "key");
+
+        T value = local.compute(key, previous -> remappingFunction.apply(
+                local.getIfPresent(key) != null ? previous : inherited(key)));
+
+        // Not reached if the remapping function throws, leaving the mappings unchanged
+        modified();
+        return value;
+    }
+
+    @Override
+    public <T> T computeIfAbsent(Key<T> key, Supplier<? extends T> mappingFunction) {
+        T present = local.getIfPresent(requireNonNull(key, "key"));
+
+        if (present != null) {
+            return present;
+        }
+
+        T value = local.computeIfAbsent(key, mappingFunction);
+        modified();
+        return value;
+    }
+
+    @Nullable
+    @Override
+    public <T> T computeIfPresent(Key<T> key, UnaryOperator<T> remappingFunction) {
+        long stamp = version.get();
+        T previous = local.getIfPresent(requireNonNull(key, "key"));
+
+        if (previous == null) {
+            return null;
+        }
+
+        T value = local.computeIfPresent(key, remappingFunction);
+
+        // The mapping may also have been modified concurrently since it was read
+        if (value != previous || version.get() != stamp) {
+            modified();
+        }
+
+        return value;
+    }
+
+    @Nullable
+    @Override
+    public <T> T replace(Key<T> key, T value) {
+        T previous = local.replace(key, value);
+
+        if (previous != null) {
+            modified();
+        }
+
+        return previous;
+    }
+
+    @Override
+    public <T> boolean replace(Key<T> key, T oldValue, T newValue) {
+        boolean replaced = local.replace(key, oldValue, newValue);
+
+        if (replaced) {
+            modified();
+        }
+
+        return replaced;
+    }
+
+    @Nullable
+    @Override
+    public <T> T remove(Key<T> key) {
+        T previous = local.remove(key);
+
+        if (previous != null) {
+            modified();
+        }
+
+        return previous;
+    }
+
+    @Override
+    public <T> boolean remove(Key<T> key, T value) {
+        boolean removed = local.remove(key, value);
+
+        if (removed) {
+            modified();
+        }
+
+        return removed;
+    }
+
+    @Override
+    public void clear() {
+        local.clear();
+        cache.clear();
+        modified();
+    }
+
+    @Override
+    public boolean contains(Key<?> key) {
+        return local.contains(key);
+    }
+
+    @Override
+    public int size() {
+        return local.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return local.isEmpty();
+    }
+
+    private static final class Resolved {
+
+        @Nullable
+        final Object value;
+        final long stamp;
+        // The resolutions of the parents consulted in order, if not found locally
+        @Nullable
+        final Resolved[] sources;
+
+        Resolved(@Nullable Object value, long stamp, @Nullable Resolved[] sources) {
+            this.value = value;
+            this.stamp = stamp;
+            this.sources = sources;
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package me.hugmanrique.cellarium.simple;
+
+import me.hugmanrique.cellarium.Key;
+import me.hugmanrique.cellarium.Repository;
+
+import javax.annotation.Nullable;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.IntBinaryOperator;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link Repository} initially containing the mappings of a prototype
+ * {@link FrozenRepository}, which is shared until a mapping is modified.
+ *
+ * <p>Creating a {@code PrototypeRepository} allocates no storage for the mappings
+ * of the prototype. Mappings modified through this repository are copied on write,
+ * one key at a time, into a map of overrides (removed prototype mappings are
+ * recorded as tombstones). Reads check the overrides before the prototype, so
+ * unmodified values are stored once across all the repositories created from
+ * the same prototype.
+ *
+ * <p>A {@code PrototypeRepository} is not thread-safe.
+ *
+ * @see #newInstance(FrozenRepository)
+ */
+public class PrototypeRepository implements Repository {
+
+    /**
+     * Creates a {@code PrototypeRepository} containing the mappings of the
+     * specified prototype.
+     *
+     * @param prototype the repository whose mappings are initially contained
+     * @return a new repository
+     */
+    public static PrototypeRepository newInstance(FrozenRepository prototype) {
+        return new PrototypeRepository(requireNonNull(prototype, "prototype"));
+    }
+
+    // Masks a mapping of the prototype
+    private static final Object REMOVED = new Object();
+
+    private final FrozenRepository prototype;
+    private Map<Key<?>, Object> overrides;
+    private boolean detached;
+    private int size;
+
+    private PrototypeRepository(FrozenRepository prototype) {
+        this.prototype = prototype;
+        this.size = prototype.size();
+    }
+
+    /**
+     * Returns the prototype this repository was created from.
+     *
+     * @return the prototype
+     */
+    public FrozenRepository prototype() {
+        return prototype;
+    }
+
+    /**
+     * Returns the number of keys whose mapping differs from the prototype,
+     * i.e. the number of mappings copied on write.
+     *
+     * @return the number of overridden keys
+     */
+    public int overrideCount() {
+        return overrides != null ? overrides.size() : 0;
+    }
+
+    private boolean inPrototype(Key<?> key) {
+        return !detached && prototype.getIfPresent(key) != null;
+    }
+
+    @Nullable
+    private <T> T getIfPresent(Key<T> key) {
+        Object item = overrides != null ? overrides.get(key) : null;
+
+        if (item == REMOVED) {
+            return null;
+        } else if (item != null) {
+            return key.cast(item);
+        }
+
+        return detached ? null : prototype.getIfPresent(key);
+    }
+
+    /**
+     * Sets the mapping for the specified key to {@code value}, or removes it
+     * if {@code null}, given the current value.
+     */
+    private void set(Key<?> key, @Nullable Object previous, @Nullable Object value) {
+        if (previous == null && value != null) {
+            size++;
+        } else if (previous != null && value == null) {
+            size--;
+        }
+
+        if (value == null) {
+            if (inPrototype(key)) {
+                overrides().put(key, REMOVED);
+            } else if (overrides != null) {
+                overrides.remove(key);
+            }
+        } else {
+            overrides().put(key, value);
+        }
+    }
+
+    private Map<Key<?>, Object> overrides() {
+        if (overrides == null) {
+            overrides = new IdentityHashMap<>();
+        }
+
+        return overrides;
+    }
+
+    @Nullable
+    @Override
+    public <T> T get(Key<T> key) {
+        T value = getIfPresent(requireNonNull(key, "key"));
+
+        return value != null ? value : key.defaultValue();
+    }
+
+    @Nullable
+    @Override
+    public <T> T put(Key<T> key, T value) {
+        requireNonNull(key, "key");
+        requireNonNull(value, "value");
+
+        T previous = getIfPresent(key);
+        set(key, previous, value);
+        return previous;
+    }
+
+    @Nullable
+    @Override
+    public <T> T putIfAbsent(Key<T> key, T value) {
+        requireNonNull(key, "key");
+        requireNonNull(value, "value");
+
+        T previous = getIfPresent(key);
+
+        if (previous == null) {
+            set(key, null, value);
+        }
+
+        return previous;
+    }
+
+    @Nullable
+    @Override
+    public <T> T compute(Key<T> key, UnaryOperator<T> remappingFunction) {
+        requireNonNull(key, "key");
+
+        T previous = getIfPresent(key);
+        T value = remappingFunction.apply(previous != null ? previous : key.defaultValue());
+
+        set(key, previous, value);
+        return value;
+    }
+
+    @Nullable
+    @Override
+    public <T, A> T compute(Key<T> key, A argument, BiFunction<? super T, ? super A, ? extends T> remappingFunction) {
+        requireNonNull(key, "key");
+
+        T previous = getIfPresent(key);
+        T value = remappingFunction.apply(previous != null ? previous : key.defaultValue(), argument);
+
+        set(key, previous, value);
+        return value;
+    }
+
+    @Override
+    public int computeInt(Key<Integer> key, int operand, IntBinaryOperator operator) {
+        requireNonNull(key, "key");
+
+        Integer previous = getIfPresent(key);
+        Integer base = previous != null ? previous : key.defaultValue();
+        int value = operator.applyAsInt(base != null ? base : 0, operand);
+
+        set(key, previous, value);
+        return value;
+    }
+
+    @Override
+    public <T> T computeIfAbsent(Key<T> key, Supplier<? extends T> mappingFunction) {
+        requireNonNull(key, "key");
+
+        T value = getIfPresent(key);
+
+        if (value == null) {
+            value = requireNonNull(mappingFunction.get(), "new value");
+            set(key, null, value);
+        }
+
+        return value;
+    }
+
+    @Nullable
+    @Override
+    public <T> T computeIfPresent(Key<T> key, UnaryOperator<T> remappingFunction) {
+        requireNonNull(key, "key");
+
+        T previous = getIfPresent(key);
+
+        if (previous == null) {
+            return null;
+        }
+
+        T value = remappingFunction.apply(previous);
+        set(key, previous, value);
+        return value;
+    }
+
+    @Nullable
+    @Override
+    public <T> T replace(Key<T> key, T value) {
+        requireNonNull(key, "key");
+        requireNonNull(value, "value");
+
+        T previous = getIfPresent(key);
+
+        if (previous != null) {
+            set(key, previous, value);
+        }
+
+        return previous;
+    }
+
+    @Override
+    public <T> boolean replace(Key<T> key, T oldValue, T newValue) {
+        requireNonNull(key, "key");
+        requireNonNull(oldValue, "oldValue");
+        requireNonNull(newValue, "newValue");
+
+        T previous = getIfPresent(key);
+
+        if (!Objects.equals(previous, oldValue)) {
+            return false;
+        }
+
+        set(key, previous, newValue);
+        return true;
+    }
+
+    @Nullable
+    @Override
+    public <T> T remove(Key<T> key) {
+        requireNonNull(key, "key");
+
+        T previous = getIfPresent(key);
+
+        if (previous != null) {
+            set(key, previous, null);
+        }
+
+        return previous;
+    }
+
+    @Override
+    public <T> boolean remove(Key<T> key, T value) {
+        requireNonNull(key, "key");
+        requireNonNull(value, "value");
+
+        T previous = getIfPresent(key);
+
+        if (!Objects.equals(previous, value)) {
+            return false;
+        }
+
+        set(key, previous, null);
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The prototype is no longer consulted afterwards.
+     */
+    @Override
+    public void clear() {
+        overrides = null;
+        detached = true;
+        size = 0;
+    }
+
+    @Override
+    public boolean contains(Key<?> key) {
+        return getIfPresent(requireNonNull(key, "key")) != null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+}
@@ -1,10 +1,13 @@
 package me.hugmanrique.cellarium.simple;
 
 import me.hugmanrique.cellarium.Key;
+import me.hugmanrique.cellarium.KeyGroup;
 import me.hugmanrique.cellarium.Repository;
+import me.hugmanrique.cellarium.ValueRetention;
 
 import javax.annotation.Nullable;
 import java.util.Objects;
+import java.util.function.Supplier;
 
 /**
  * A simple {@link Key} implementation.
@@ -16,10 +19,20 @@ public class SimpleKey<T> implements Key<T> {
 
     private final Class<T> type;
     private final T defaultValue;
+    private final String name;
+    private final ValueRetention retention;
+    private final Supplier<? extends T> loader;
+    private final KeyGroup group;
+    private final boolean interned;
 
     private SimpleKey(Builder<T> builder) {
         this.type = builder.type;
         this.defaultValue = builder.defaultValue;
+        this.name = builder.name;
+        this.retention = builder.retention;
+        this.loader = builder.loader;
+        this.group = builder.group;
+        this.interned = builder.interned;
     }
 
     @Override
@@ -32,11 +45,43 @@ public class SimpleKey<T> implements Key<T> {
         return defaultValue;
     }
 
+    @Nullable
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public ValueRetention retention() {
+        return retention;
+    }
+
+    @Nullable
+    @Override
+    public Supplier<? extends T> loader() {
+        return loader;
+    }
+
+    @Nullable
+    @Override
+    public KeyGroup group() {
+        return group;
+    }
+
+    @Override
+    public boolean interned() {
+        return interned;
+    }
+
     @Override
     public String toString() {
         return "SimpleKey{" +
-                "type=" + type +
+                "name=" + name +
+                ", type=" + type +
                 ", defaultValue=" + defaultValue +
+                ", retention=" + retention +
+                ", group=" + (group != null ? group.name() : null) +
+                ", interned=" + interned +
                 '}';
     }
 
@@ -51,6 +96,11 @@ public class SimpleKey<T> implements Key<T> {
 
         private final Class<T> type;
         private T defaultValue;
+        private String name;
+        private ValueRetention retention = ValueRetention.STRONG;
+        private Supplier<? extends T> loader;
+        private KeyGroup group;
+        private boolean interned;
 
         /**
          * Construct a new {@code Builder} that can create instances of {@link SimpleKey}
@@ -76,6 +126,79 @@ public class SimpleKey<T> implements Key<T> {
             return this;
         }
 
+        /**
+         * Specifies the stable name of the key.
+         *
+         * @param name the name of the key
+         * @return this builder
+         * @see Key#name()
+         */
+        public Builder<T> name(String name) {
+            this.name = Objects.requireNonNull(name, "name");
+            return this;
+        }
+
+        /**
+         * Specifies that values mapped from the key are weakly referenced by
+         * repositories that support it.
+         *
+         * @return this builder
+         * @see ValueRetention#WEAK
+         */
+        public Builder<T> weakValues() {
+            this.retention = ValueRetention.WEAK;
+            return this;
+        }
+
+        /**
+         * Specifies that values mapped from the key are softly referenced by
+         * repositories that support it.
+         *
+         * @return this builder
+         * @see ValueRetention#SOFT
+         */
+        public Builder<T> softValues() {
+            this.retention = ValueRetention.SOFT;
+            return this;
+        }
+
+        /**
+         * Specifies the function used to compute a value when a repository contains
+         * no mapping for the key, e.g. after its value was reclaimed.
+         *
+         * @param loader the loader of the key values
+         * @return this builder
+         * @see Key#loader()
+         */
+        public Builder<T> loader(Supplier<? extends T> loader) {
+            this.loader = Objects.requireNonNull(loader, "loader");
+            return this;
+        }
+
+        /**
+         * Specifies the group of the key, whose values can be reset at once.
+         *
+         * @param group the group of the key
+         * @return this builder
+         * @see Key#group()
+         */
+        public Builder<T> group(KeyGroup group) {
+            this.group = Objects.requireNonNull(group, "group");
+            return this;
+        }
+
+        /**
+         * Specifies that values mapped from the key are replaced by a canonical
+         * equal instance by repositories that support it. The values must be immutable.
+         *
+         * @return this builder
+         * @see Key#interned()
+         */
+        public Builder<T> interned() {
+            this.interned = true;
+            return this;
+        }
+
         /**
          * Creates a {@link SimpleKey}.
          *
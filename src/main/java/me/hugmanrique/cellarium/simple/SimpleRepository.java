@@ -1,13 +1,25 @@
 package me.hugmanrique.cellarium.simple;
 
 import me.hugmanrique.cellarium.Key;
+import me.hugmanrique.cellarium.PeekableRepository;
 import me.hugmanrique.cellarium.Repository;
+import me.hugmanrique.cellarium.ValueRetention;
 
 import javax.annotation.Nullable;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.BiFunction;
+import java.util.function.IntBinaryOperator;
 import java.util.function.Supplier;
 import java.util.function.UnaryOperator;
 
@@ -18,8 +30,17 @@ import static java.util.Objects.requireNonNull;
  *
  * <p>A {@code SimpleRepository} is thread-safe only if the wrapped
  * {@link Map} is thread-safe.
+ *
+ * <p>Values of keys with {@link ValueRetention#WEAK weak} or {@link ValueRetention#SOFT soft}
+ * {@link Key#retention() retention} are stored behind references. Reclaimed values
+ * are treated as absent, and their entries are removed on subsequent modifications.
+ * Atomic operations on these keys are implemented by compare-and-set loops, so
+ * functions may be applied more than once if the mapping is concurrently modified.
+ * If such a key defines a {@link Key#loader() loader}, {@link #get(Key)} associates
+ * the loaded value with the key when the repository contains no mapping for it.
+ * Loaders of strongly retained keys are not applied by reads.
  */
-public class SimpleRepository implements Repository {
+public class SimpleRepository implements PeekableRepository {
 
     /**
      * Creates a non thread-safe {@code SimpleRepository} based on
@@ -72,36 +93,172 @@ public class SimpleRepository implements Repository {
     }
 
     private final Map<Key<?>, Object> items;
+    // Created on the first write of a weak or soft value
+    @Nullable
+    private volatile ReferenceQueue<Object> reclaimed;
+
+    // Whether the argument-passing compute methods can be implemented without
+    // Map#compute, either with compare-and-set operations or plain reads and writes.
+    // Unsynchronized maps also avoid allocating a remapping function on compute
+    private final boolean concurrent;
+    private final boolean unsynchronized;
 
     private SimpleRepository(Map<Key<?>, Object> items) {
         this.items = items;
+        this.concurrent = items instanceof ConcurrentMap;
+
+        Class<?> type = items.getClass();
+        this.unsynchronized = type == HashMap.class || type == LinkedHashMap.class
+                || type == IdentityHashMap.class || type == TreeMap.class;
+    }
+
+    // Value references
+
+    private static boolean isStrong(Key<?> key) {
+        return key.retention() == ValueRetention.STRONG;
+    }
+
+    @Nullable
+    private Object wrap(Key<?> key, @Nullable Object value) {
+        if (value == null) {
+            return null;
+        }
+
+        switch (key.retention()) {
+            case WEAK:
+                return new WeakValue(key, value, referenceQueue());
+            case SOFT:
+                return new SoftValue(key, value, referenceQueue());
+            default:
+                return value;
+        }
+    }
+
+    private ReferenceQueue<Object> referenceQueue() {
+        ReferenceQueue<Object> queue = reclaimed;
+
+        if (queue == null) {
+            synchronized (this) {
+                queue = reclaimed;
+
+                if (queue == null) {
+                    reclaimed = queue = new ReferenceQueue<>();
+                }
+            }
+        }
+
+        return queue;
     }
 
+    @Nullable
+    private static Object unwrap(@Nullable Object item) {
+        return item instanceof ValueReference ? ((Reference<?>) item).get() : item;
+    }
+
+    /**
+     * Removes the entries whose values have been reclaimed.
+     */
+    private void expungeReclaimed() {
+        ReferenceQueue<Object> queue = reclaimed;
+
+        if (queue == null) {
+            return;
+        }
+
+        Reference<?> reference;
+
+        while ((reference = queue.poll()) != null) {
+            items.remove(((ValueReference) reference).key(), reference);
+        }
+    }
+
+    /**
+     * Sets the mapping for the specified key to {@code item} (or removes it if
+     * {@code null}) if it is still mapped to {@code current}.
+     *
+     * @return {@code true} if the mapping was updated
+     */
+    private boolean update(Key<?> key, @Nullable Object current, @Nullable Object item) {
+        if (unsynchronized) {
+            if (item != null) {
+                items.put(key, item);
+            } else {
+                items.remove(key);
+            }
+
+            return true;
+        }
+
+        if (current == null) {
+            return item == null || items.putIfAbsent(key, item) == null;
+        } else if (item == null) {
+            return items.remove(key, current);
+        }
+
+        return items.replace(key, current, item);
+    }
+
+    // Repository methods
+
     @Nullable
     @Override
     public <T> T get(Key<T> key) {
         T value = key.cast(
-                items.get(requireNonNull(key, "key")));
+                unwrap(items.get(requireNonNull(key, "key"))));
+
+        if (value == null && key.loader() != null && !isStrong(key)) {
+            value = computeIfAbsent(key, key.loader());
+        }
 
         return value != null ? value : key.defaultValue();
     }
 
+    /**
+     * Returns the value to which the specified key is mapped, or {@code null}
+     * if this repository contains no mapping for the key.
+     */
+    @Nullable
+    <T> T getIfPresent(Key<T> key) {
+        return key.cast(unwrap(items.get(key)));
+    }
+
+    @Nullable
+    @Override
+    public <T> T peek(Key<T> key) {
+        return getIfPresent(requireNonNull(key, "key"));
+    }
+
     @Nullable
     @Override
     public <T> T put(Key<T> key, T value) {
         requireNonNull(key, "key");
+        requireNonNull(value, "value");
+        expungeReclaimed();
 
         return key.cast(
-                items.put(key, requireNonNull(value, "value")));
+                unwrap(items.put(key, wrap(key, value))));
     }
 
     @Nullable
     @Override
     public <T> T putIfAbsent(Key<T> key, T value) {
         requireNonNull(key, "key");
+        requireNonNull(value, "value");
 
-        return key.cast(
-                items.putIfAbsent(key, requireNonNull(value, "value")));
+        if (isStrong(key)) {
+            return key.cast(items.putIfAbsent(key, value));
+        }
+
+        expungeReclaimed();
+
+        while (true) {
+            Object current = items.get(key);
+            T previous = key.cast(unwrap(current));
+
+            if (previous != null || update(key, current, wrap(key, value))) {
+                return previous;
+            }
+        }
     }
 
     private <T> BiFunction<? super Key<?>, ? super Object, ?> wrapRemappingFunction(Key<T> key, UnaryOperator<T> remappingFunction) {
@@ -121,17 +278,99 @@ public class SimpleRepository implements Repository {
     public <T> T compute(Key<T> key, UnaryOperator<T> remappingFunction) {
         requireNonNull(key, "key");
 
-        return key.cast(
-                items.compute(key, wrapRemappingFunction(key, remappingFunction)));
+        if (isStrong(key) && !unsynchronized) {
+            return key.cast(
+                    items.compute(key, wrapRemappingFunction(key, remappingFunction)));
+        }
+
+        expungeReclaimed();
+
+        while (true) {
+            Object current = items.get(key);
+            T previous = key.cast(unwrap(current));
+            T value = remappingFunction.apply(previous != null ? previous : key.defaultValue());
+
+            if (update(key, current, wrap(key, value))) {
+                return value;
+            }
+        }
+    }
+
+    @Nullable
+    @Override
+    public <T, A> T compute(Key<T> key, A argument, BiFunction<? super T, ? super A, ? extends T> remappingFunction) {
+        requireNonNull(key, "key");
+
+        if (!concurrent && !unsynchronized) {
+            // The map may synchronize its own compute method
+            return PeekableRepository.super.compute(key, argument, remappingFunction);
+        }
+
+        expungeReclaimed();
+
+        while (true) {
+            Object current = items.get(key);
+            T previous = key.cast(unwrap(current));
+            T value = remappingFunction.apply(previous != null ? previous : key.defaultValue(), argument);
+
+            if (update(key, current, wrap(key, value))) {
+                return value;
+            }
+        }
+    }
+
+    @Override
+    public int computeInt(Key<Integer> key, int operand, IntBinaryOperator operator) {
+        requireNonNull(key, "key");
+
+        if (!concurrent && !unsynchronized) {
+            return PeekableRepository.super.computeInt(key, operand, operator);
+        }
+
+        expungeReclaimed();
+
+        while (true) {
+            Object current = items.get(key);
+            Integer previous = key.cast(unwrap(current));
+
+            if (previous == null) {
+                previous = key.defaultValue();
+            }
+
+            int value = operator.applyAsInt(previous != null ? previous : 0, operand);
+
+            if (update(key, current, wrap(key, value))) {
+                return value;
+            }
+        }
     }
 
     @Override
     public <T> T computeIfAbsent(Key<T> key, Supplier<? extends T> mappingFunction) {
         requireNonNull(key, "key");
 
-        return key.cast(
-                items.computeIfAbsent(key, key1 ->
-                        requireNonNull(mappingFunction.get(), "new value")));
+        if (isStrong(key)) {
+            return key.cast(
+                    items.computeIfAbsent(key, key1 ->
+                            requireNonNull(mappingFunction.get(), "new value")));
+        }
+
+        expungeReclaimed();
+
+        while (true) {
+            Object current = items.get(key);
+            T value = key.cast(unwrap(current));
+
+            if (value != null) {
+                return value;
+            }
+
+            value = requireNonNull(mappingFunction.get(), "new value");
+
+            if (update(key, current, wrap(key, value))) {
+                return value;
+            }
+        }
     }
 
     @Nullable
@@ -139,41 +378,103 @@ public class SimpleRepository implements Repository {
     public <T> T computeIfPresent(Key<T> key, UnaryOperator<T> remappingFunction) {
         requireNonNull(key, "key");
 
-        return key.cast(
-                items.computeIfPresent(key, wrapRemappingFunction(key, remappingFunction)));
+        if (isStrong(key) && !unsynchronized) {
+            return key.cast(
+                    items.computeIfPresent(key, wrapRemappingFunction(key, remappingFunction)));
+        }
+
+        expungeReclaimed();
+
+        while (true) {
+            Object current = items.get(key);
+            T previous = key.cast(unwrap(current));
+
+            if (previous == null) {
+                return null;
+            }
+
+            T value = remappingFunction.apply(previous);
+
+            if (update(key, current, wrap(key, value))) {
+                return value;
+            }
+        }
     }
 
     @Nullable
     @Override
     public <T> T replace(Key<T> key, T value) {
         requireNonNull(key, "key");
+        requireNonNull(value, "value");
 
-        return key.cast(
-                items.replace(key, requireNonNull(value, "value")));
+        if (isStrong(key)) {
+            return key.cast(items.replace(key, value));
+        }
+
+        expungeReclaimed();
+
+        while (true) {
+            Object current = items.get(key);
+            T previous = key.cast(unwrap(current));
+
+            if (previous == null || update(key, current, wrap(key, value))) {
+                return previous;
+            }
+        }
     }
 
     @Override
     public <T> boolean replace(Key<T> key, T oldValue, T newValue) {
-        return items.replace(
-                requireNonNull(key, "key"),
-                requireNonNull(oldValue, "oldValue"),
-                requireNonNull(newValue, "newValue"));
+        requireNonNull(key, "key");
+        requireNonNull(oldValue, "oldValue");
+        requireNonNull(newValue, "newValue");
+
+        if (isStrong(key)) {
+            return items.replace(key, oldValue, newValue);
+        }
+
+        expungeReclaimed();
+
+        while (true) {
+            Object current = items.get(key);
+
+            if (!Objects.equals(unwrap(current), oldValue)) {
+                return false;
+            } else if (update(key, current, wrap(key, newValue))) {
+                return true;
+            }
+        }
     }
 
     @Nullable
     @Override
     public <T> T remove(Key<T> key) {
         requireNonNull(key, "key");
+        expungeReclaimed();
 
-        return key.cast(items.remove(key));
+        return key.cast(unwrap(items.remove(key)));
     }
 
     @Override
     public <T> boolean remove(Key<T> key, T value) {
         requireNonNull(key, "key");
+        requireNonNull(value, "value");
+
+        if (isStrong(key)) {
+            return items.remove(key, value);
+        }
+
+        expungeReclaimed();
 
-        return items.remove(
-                requireNonNull(key, "key"), requireNonNull(value, "value"));
+        while (true) {
+            Object current = items.get(key);
+
+            if (!Objects.equals(unwrap(current), value)) {
+                return false;
+            } else if (update(key, current, null)) {
+                return true;
+            }
+        }
     }
 
     @Override
@@ -183,16 +484,86 @@ public class SimpleRepository implements Repository {
 
     @Override
     public boolean contains(Key<?> key) {
-        return items.containsKey(key);
+        return unwrap(items.get(key)) != null;
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Mappings whose values were reclaimed may be counted until they are
+     * removed by a modification of this repository.
+     */
     @Override
     public int size() {
         return items.size();
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Mappings whose values were reclaimed may be counted until they are
+     * removed by a modification of this repository.
+     */
     @Override
     public boolean isEmpty() {
         return items.isEmpty();
     }
+
+    /**
+     * Returns an immutable copy of the mappings contained in this repository,
+     * optimized for reads. Values are strongly referenced by the copy.
+     *
+     * <p>If the wrapped map is not thread-safe, this repository must not be
+     * modified while it is being copied.
+     *
+     * @return a {@link FrozenRepository} containing the mappings of this repository
+     */
+    public FrozenRepository freeze() {
+        Map<Key<?>, Object> copy = new IdentityHashMap<>(items.size());
+
+        items.forEach((key, item) -> {
+            Object value = unwrap(item);
+
+            if (value != null) {
+                copy.put(key, value);
+            }
+        });
+
+        return new FrozenRepository(copy);
+    }
+
+    private interface ValueReference {
+
+        Key<?> key();
+    }
+
+    private static final class WeakValue extends WeakReference<Object> implements ValueReference {
+
+        private final Key<?> key;
+
+        WeakValue(Key<?> key, Object value, ReferenceQueue<Object> queue) {
+            super(value, queue);
+            this.key = key;
+        }
+
+        @Override
+        public Key<?> key() {
+            return key;
+        }
+    }
+
+    private static final class SoftValue extends SoftReference<Object> implements ValueReference {
+
+        private final Key<?> key;
+
+        SoftValue(Key<?> key, Object value, ReferenceQueue<Object> queue) {
+            super(value, queue);
+            this.key = key;
+        }
+
+        @Override
+        public Key<?> key() {
+            return key;
+        }
+    }
 }
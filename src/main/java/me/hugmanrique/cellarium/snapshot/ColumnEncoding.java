@@ -0,0 +1,43 @@
+package me.hugmanrique.cellarium.snapshot;
+
+import me.hugmanrique.cellarium.Key;
+
+/**
+ * The encoding of the values of a column, chosen by the key value type.
+ */
+enum ColumnEncoding {
+
+    /**
+     * Zig-zag varint of the difference with the previous value in the column.
+     */
+    DELTA_INT,
+
+    /**
+     * Zig-zag varlong of the difference with the previous value in the column.
+     */
+    DELTA_LONG,
+
+    /**
+     * Varint index into a per-block dictionary of distinct values.
+     */
+    DICTIONARY,
+
+    /**
+     * The value encoded by the codec of the key.
+     */
+    PLAIN;
+
+    static ColumnEncoding of(Key<?> key) {
+        Class<?> type = key.type();
+
+        if (type == Integer.class) {
+            return DELTA_INT;
+        } else if (type == Long.class) {
+            return DELTA_LONG;
+        } else if (type == String.class || type.isEnum()) {
+            return DICTIONARY;
+        }
+
+        return PLAIN;
+    }
+}
@@ -0,0 +1,206 @@
+package me.hugmanrique.cellarium.snapshot;
+
+import me.hugmanrique.cellarium.Key;
+import me.hugmanrique.cellarium.Repository;
+import me.hugmanrique.cellarium.codec.Schema;
+import me.hugmanrique.cellarium.codec.ValueCodec;
+import me.hugmanrique.cellarium.codec.Varints;
+
+import javax.annotation.Nullable;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Reads the repositories of a snapshot written by {@link ColumnarSnapshotWriter},
+ * one block at a time.
+ */
+public class ColumnarSnapshotReader implements Closeable {
+
+    private final DataInputStream in;
+    private final Schema schema;
+    private final Supplier<? extends Repository> repositoryFactory;
+    private final Inflater inflater = new Inflater();
+
+    private final List<Repository> block = new ArrayList<>();
+    private int position;
+    private boolean finished;
+
+    /**
+     * Creates a {@code ColumnarSnapshotReader}.
+     *
+     * @param in the input stream to read from
+     * @param schema the schema used to write the snapshot
+     * @param repositoryFactory supplies the empty repositories the read
+     *                          mappings are put into
+     * @throws IOException if an I/O error occurs, or the stream is not a snapshot
+     *                     written with an equivalent schema
+     */
+    public ColumnarSnapshotReader(InputStream in, Schema schema, Supplier<? extends Repository> repositoryFactory) throws IOException {
+        this.in = new DataInputStream(requireNonNull(in, "in"));
+        this.schema = requireNonNull(schema, "schema");
+        this.repositoryFactory = requireNonNull(repositoryFactory, "repositoryFactory");
+
+        if (this.in.readInt() != ColumnarSnapshotWriter.MAGIC) {
+            throw new IOException("Not a columnar snapshot");
+        }
+
+        int keyCount = Varints.readVarInt(this.in);
+
+        if (keyCount != schema.size()) {
+            throw new IOException("Snapshot has " + keyCount + " keys, schema has " + schema.size());
+        }
+    }
+
+    /**
+     * Reads the next repository.
+     *
+     * @return the next repository, or {@code null} if the end of the snapshot
+     *         has been reached
+     * @throws IOException if an I/O error occurs, or the snapshot is malformed
+     */
+    @Nullable
+    public Repository read() throws IOException {
+        if (position == block.size()) {
+            if (finished || !readBlock()) {
+                return null;
+            }
+        }
+
+        return block.get(position++);
+    }
+
+    private boolean readBlock() throws IOException {
+        block.clear();
+        position = 0;
+
+        int rows = Varints.readVarInt(in);
+
+        if (rows == 0) {
+            finished = true;
+            return false;
+        } else if (rows < 0 || rows > ColumnarSnapshotWriter.MAX_BLOCK_SIZE) {
+            throw new IOException("Invalid block row count " + rows);
+        }
+
+        byte[] body = new byte[readBlockLength()];
+        byte[] compressed = new byte[readBlockLength()];
+        in.readFully(compressed);
+
+        inflater.reset();
+        inflater.setInput(compressed);
+
+        try {
+            if (inflater.inflate(body) != body.length || !inflater.finished()) {
+                throw new IOException("Corrupted block");
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupted block", e);
+        }
+
+        for (int i = 0; i < rows; i++) {
+            block.add(repositoryFactory.get());
+        }
+
+        DataInputStream bodyIn = new DataInputStream(new ByteArrayInputStream(body));
+
+        for (Key<?> key : schema.keys()) {
+            readColumn(key, bodyIn, rows);
+        }
+
+        return true;
+    }
+
+    private int readBlockLength() throws IOException {
+        int length = Varints.readVarInt(in);
+
+        // Rejects corrupted lengths before allocating the block buffers
+        if (length < 0 || length > ColumnarSnapshotWriter.MAX_BLOCK_LENGTH) {
+            throw new IOException("Invalid block length " + length);
+        }
+
+        return length;
+    }
+
+    private <T> void readColumn(Key<T> key, DataInputStream bodyIn, int rows) throws IOException {
+        int count = Varints.readVarInt(bodyIn);
+
+        if (count == 0) {
+            return;
+        }
+
+        byte[] presence = new byte[(rows + 7) >>> 3];
+        bodyIn.readFully(presence);
+
+        ValueCodec<T> codec = schema.codec(key);
+        ColumnEncoding encoding = ColumnEncoding.of(key);
+        List<T> dictionary = null;
+
+        if (encoding == ColumnEncoding.DICTIONARY) {
+            int size = Varints.readVarInt(bodyIn);
+
+            if (size < 0 || size > rows) {
+                throw new IOException("Invalid dictionary size " + size);
+            }
+
+            dictionary = new ArrayList<>(size);
+
+            for (int i = 0; i < size; i++) {
+                dictionary.add(codec.decode(bodyIn));
+            }
+        }
+
+        int previousInt = 0;
+        long previousLong = 0;
+
+        for (int row = 0; row < rows; row++) {
+            if ((presence[row >>> 3] & (1 << (row & 7))) == 0) {
+                continue;
+            }
+
+            Object value;
+
+            switch (encoding) {
+                case DELTA_INT:
+                    previousInt += Varints.unZigZag(Varints.readVarInt(bodyIn));
+                    value = previousInt;
+                    break;
+                case DELTA_LONG:
+                    previousLong += Varints.unZigZag(Varints.readVarLong(bodyIn));
+                    value = previousLong;
+                    break;
+                case DICTIONARY:
+                    int index = Varints.readVarInt(bodyIn);
+
+                    if (index < 0 || index >= dictionary.size()) {
+                        throw new IOException("Invalid dictionary index " + index);
+                    }
+
+                    value = dictionary.get(index);
+                    break;
+                default:
+                    value = codec.decode(bodyIn);
+            }
+
+            block.get(row).put(key, key.cast(value));
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            in.close();
+        } finally {
+            inflater.end();
+        }
+    }
+}
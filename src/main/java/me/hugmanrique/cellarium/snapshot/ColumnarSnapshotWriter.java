@@ -0,0 +1,266 @@
+package me.hugmanrique.cellarium.snapshot;
+
+import me.hugmanrique.cellarium.Key;
+import me.hugmanrique.cellarium.Repository;
+import me.hugmanrique.cellarium.codec.Schema;
+import me.hugmanrique.cellarium.codec.ValueCodec;
+import me.hugmanrique.cellarium.codec.Varints;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Writes the mappings of many repositories to a compact, columnar snapshot
+ * that can be read by {@link ColumnarSnapshotReader}.
+ *
+ * <p>Repositories are grouped into blocks. Within a block, the values of each
+ * {@link Schema} key are stored together in a column, preceded by a bitmap of
+ * the repositories that contain a mapping for the key. Integer and long columns
+ * are delta encoded, string and enum columns are dictionary encoded, and the
+ * remaining columns are encoded by the key codec. Each block is then compressed
+ * with DEFLATE, so memory usage is bounded by the block size.
+ *
+ * <p>Mappings of keys the schema does not contain are not written. The reader
+ * must use an equivalent schema.
+ */
+public class ColumnarSnapshotWriter implements Closeable {
+
+    static final int MAGIC = 0x43454C53; // CELS
+    static final int DEFAULT_BLOCK_SIZE = 4096;
+    static final int MAX_BLOCK_SIZE = 1 << 16;
+    // Bounds the buffers allocated by the reader for each block
+    static final int MAX_BLOCK_LENGTH = 1 << 28;
+
+    private final DataOutputStream out;
+    private final Schema schema;
+    private final int blockSize;
+
+    private final List<Repository> block;
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+    private final DataOutputStream bodyOut = new DataOutputStream(body);
+    private final Deflater deflater = new Deflater();
+    private byte[] compressed = new byte[0];
+
+    /**
+     * Creates a {@code ColumnarSnapshotWriter} with the default block size.
+     *
+     * @param out the output stream to write to
+     * @param schema the schema of the written keys
+     * @throws IOException if an I/O error occurs while writing the header
+     */
+    public ColumnarSnapshotWriter(OutputStream out, Schema schema) throws IOException {
+        this(out, schema, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Creates a {@code ColumnarSnapshotWriter}.
+     *
+     * @param out the output stream to write to
+     * @param schema the schema of the written keys
+     * @param blockSize the maximum number of repositories in a block
+     * @throws IOException if an I/O error occurs while writing the header
+     * @throws IllegalArgumentException if {@code blockSize} is not positive,
+     *                                  or greater than 65536
+     */
+    public ColumnarSnapshotWriter(OutputStream out, Schema schema, int blockSize) throws IOException {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Non-positive block size: " + blockSize);
+        } else if (blockSize > MAX_BLOCK_SIZE) {
+            throw new IllegalArgumentException("Block size " + blockSize + " exceeds " + MAX_BLOCK_SIZE);
+        }
+
+        this.out = new DataOutputStream(requireNonNull(out, "out"));
+        this.schema = requireNonNull(schema, "schema");
+        this.blockSize = blockSize;
+        this.block = new ArrayList<>(blockSize);
+
+        this.out.writeInt(MAGIC);
+        Varints.writeVarInt(this.out, schema.size());
+    }
+
+    /**
+     * Writes the mappings of the specified repository.
+     *
+     * @param repository the repository to write
+     * @throws IOException if an I/O error occurs, or the encoded block of
+     *                     repositories exceeds 256 MiB
+     */
+    public void write(Repository repository) throws IOException {
+        block.add(requireNonNull(repository, "repository"));
+
+        if (block.size() == blockSize) {
+            flushBlock();
+        }
+    }
+
+    private void flushBlock() throws IOException {
+        if (block.isEmpty()) {
+            return;
+        }
+
+        try {
+            writeBlock();
+        } finally {
+            block.clear();
+        }
+    }
+
+    private void writeBlock() throws IOException {
+        body.reset();
+
+        for (Key<?> key : schema.keys()) {
+            writeColumn(key);
+        }
+
+        if (body.size() > MAX_BLOCK_LENGTH) {
+            throw new IOException("Block length " + body.size() + " exceeds " + MAX_BLOCK_LENGTH + " bytes");
+        }
+
+        deflater.reset();
+        deflater.setInput(body.toByteArray());
+        deflater.finish();
+
+        int length = 0;
+
+        while (!deflater.finished()) {
+            if (length == compressed.length) {
+                compressed = Arrays.copyOf(compressed, Math.max(256, compressed.length * 2));
+            }
+
+            length += deflater.deflate(compressed, length, compressed.length - length);
+        }
+
+        if (length > MAX_BLOCK_LENGTH) {
+            throw new IOException("Compressed block length " + length + " exceeds " + MAX_BLOCK_LENGTH + " bytes");
+        }
+
+        Varints.writeVarInt(out, block.size());
+        Varints.writeVarInt(out, body.size());
+        Varints.writeVarInt(out, length);
+        out.write(compressed, 0, length);
+    }
+
+    private <T> void writeColumn(Key<T> key) throws IOException {
+        List<T> values = new ArrayList<>();
+        byte[] presence = new byte[(block.size() + 7) >>> 3];
+
+        for (int i = 0; i < block.size(); i++) {
+            Repository repository = block.get(i);
+
+            if (repository.contains(key)) {
+                T value = repository.get(key);
+
+                if (value != null) {
+                    presence[i >>> 3] |= 1 << (i & 7);
+                    values.add(value);
+                }
+            }
+        }
+
+        Varints.writeVarInt(bodyOut, values.size());
+
+        if (values.isEmpty()) {
+            return;
+        }
+
+        bodyOut.write(presence);
+
+        switch (ColumnEncoding.of(key)) {
+            case DELTA_INT: {
+                int previous = 0;
+
+                for (T value : values) {
+                    int current = (Integer) value;
+                    Varints.writeVarInt(bodyOut, Varints.zigZag(current - previous));
+                    previous = current;
+                }
+                break;
+            }
+            case DELTA_LONG: {
+                long previous = 0;
+
+                for (T value : values) {
+                    long current = (Long) value;
+                    Varints.writeVarLong(bodyOut, Varints.zigZag(current - previous));
+                    previous = current;
+                }
+                break;
+            }
+            case DICTIONARY: {
+                ValueCodec<T> codec = schema.codec(key);
+                Map<T, Integer> dictionary = new HashMap<>();
+                List<T> entries = new ArrayList<>();
+                int[] indices = new int[values.size()];
+
+                for (int i = 0; i < values.size(); i++) {
+                    T value = values.get(i);
+                    Integer index = dictionary.get(value);
+
+                    if (index == null) {
+                        index = entries.size();
+                        dictionary.put(value, index);
+                        entries.add(value);
+                    }
+
+                    indices[i] = index;
+                }
+
+                Varints.writeVarInt(bodyOut, entries.size());
+
+                for (T entry : entries) {
+                    codec.encode(entry, bodyOut);
+                }
+
+                for (int index : indices) {
+                    Varints.writeVarInt(bodyOut, index);
+                }
+                break;
+            }
+            default: {
+                ValueCodec<T> codec = schema.codec(key);
+
+                for (T value : values) {
+                    codec.encode(value, bodyOut);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the buffered repositories as a block.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    public void flush() throws IOException {
+        flushBlock();
+        out.flush();
+    }
+
+    /**
+     * Writes the buffered repositories and the end of snapshot marker, and
+     * closes the underlying stream.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flushBlock();
+            Varints.writeVarInt(out, 0);
+            out.close();
+        } finally {
+            deflater.end();
+        }
+    }
+}
@@ -0,0 +1,4 @@
+@ParametersAreNonnullByDefault
+package me.hugmanrique.cellarium.snapshot;
+
+import javax.annotation.ParametersAreNonnullByDefault;
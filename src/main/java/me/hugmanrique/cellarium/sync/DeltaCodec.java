@@ -0,0 +1,120 @@
+package me.hugmanrique.cellarium.sync;
+
+import me.hugmanrique.cellarium.Key;
+import me.hugmanrique.cellarium.Repository;
+import me.hugmanrique.cellarium.codec.Schema;
+import me.hugmanrique.cellarium.codec.Varints;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Encodes the changes made to a {@link VersionedRepository} after a given
+ * version into a compact binary delta, and applies such deltas to a
+ * {@link Repository}.
+ *
+ * <p>A delta starts with the version of the source repository at encoding time
+ * and the number of changed mappings. Each change is written as a
+ * {@linkplain Schema#writeRecord(DataOutput, Key, Object) schema record}.
+ * Mappings of keys the {@link Schema} does not contain are not synchronized.
+ *
+ * <p>A receiver that has applied all the deltas up to version {@code N} (as
+ * returned by {@link #readDelta(DataInput, Repository)}) should request the
+ * delta since version {@code N} next. A receiver starts at version zero, which
+ * produces a delta containing every mapping.
+ */
+public final class DeltaCodec {
+
+    private final Schema schema;
+
+    public DeltaCodec(Schema schema) {
+        this.schema = requireNonNull(schema, "schema");
+    }
+
+    /**
+     * Writes the changes made to the specified repository after the given version.
+     *
+     * @param repository the source repository
+     * @param sinceVersion the last version known by the receiver
+     * @param out the output to write to
+     * @return the version of the repository included in the delta
+     * @throws IOException if an I/O error occurs
+     */
+    public long writeDelta(VersionedRepository repository, long sinceVersion, DataOutput out) throws IOException {
+        List<Key<?>> keys = new ArrayList<>();
+        List<Object> values = new ArrayList<>();
+        long version = repository.collectModifiedSince(sinceVersion, keys, values);
+
+        int count = 0;
+
+        for (Key<?> key : keys) {
+            if (schema.contains(key)) {
+                count++;
+            }
+        }
+
+        Varints.writeVarLong(out, version);
+        Varints.writeVarInt(out, count);
+
+        for (int i = 0; i < keys.size(); i++) {
+            Key<?> key = keys.get(i);
+
+            if (!schema.contains(key)) {
+                continue;
+            }
+
+            schema.writeRecord(out, key, values.get(i));
+        }
+
+        return version;
+    }
+
+    /**
+     * Returns the changes made to the specified repository after the given
+     * version as a byte array.
+     *
+     * @param repository the source repository
+     * @param sinceVersion the last version known by the receiver
+     * @return the encoded delta
+     * @see #writeDelta(VersionedRepository, long, DataOutput)
+     */
+    public byte[] encodeDelta(VersionedRepository repository, long sinceVersion) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try {
+            writeDelta(repository, sinceVersion, new DataOutputStream(bytes));
+        } catch (IOException e) {
+            // ByteArrayOutputStream does not throw
+            throw new UncheckedIOException(e);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Reads a delta and applies its changes to the specified repository.
+     *
+     * @param in the input to read from
+     * @param target the repository to apply the changes to
+     * @return the version of the source repository included in the delta
+     * @throws IOException if an I/O error occurs, or the delta is malformed
+     */
+    public long readDelta(DataInput in, Repository target) throws IOException {
+        long version = Varints.readVarLong(in);
+        int count = Varints.readVarInt(in);
+
+        for (int i = 0; i < count; i++) {
+            schema.readRecord(in, target);
+        }
+
+        return version;
+    }
+}
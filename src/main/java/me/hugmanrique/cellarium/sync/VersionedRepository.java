@@ -0,0 +1,350 @@
+package me.hugmanrique.cellarium.sync;
+
+import me.hugmanrique.cellarium.Key;
+import me.hugmanrique.cellarium.Repository;
+
+import javax.annotation.Nullable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.IntBinaryOperator;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link Repository} that stamps each mapping with the version of the
+ * repository at the time it was last modified.
+ *
+ * <p>The version of the repository starts at zero and is incremented on each
+ * modification. Removed mappings are remembered as tombstones, so the changes
+ * made after any given version can be enumerated in time proportional to the
+ * number of changed keys, e.g. to build a delta with {@link DeltaCodec}.
+ * Tombstones are kept for each key that was ever mapped.
+ *
+ * <p>This class is thread-safe.
+ */
+public class VersionedRepository implements Repository {
+
+    private final Map<Key<?>, Entry> entries = new HashMap<>();
+
+    // Entries ordered by version, from oldest to newest
+    private Entry head;
+    private Entry tail;
+
+    private long version;
+    private int size;
+
+    /**
+     * Returns the current version of this repository, i.e. the version of
+     * the last modification.
+     *
+     * @return the current version
+     */
+    public synchronized long version() {
+        return version;
+    }
+
+    /**
+     * Returns the version of the last modification of the mapping for the
+     * specified key, or zero if it was never modified.
+     *
+     * @param key the key
+     * @return the version of the last modification of the key
+     */
+    public synchronized long versionOf(Key<?> key) {
+        Entry entry = entries.get(requireNonNull(key, "key"));
+
+        return entry != null ? entry.version : 0;
+    }
+
+    /**
+     * Appends the mappings modified after the specified version to the given
+     * lists, from oldest to newest modification. Removed mappings are appended
+     * with a {@code null} value.
+     *
+     * @return the current version
+     */
+    synchronized long collectModifiedSince(long sinceVersion, List<Key<?>> keys, List<Object> values) {
+        Entry first = null;
+
+        for (Entry entry = tail; entry != null && entry.version > sinceVersion; entry = entry.previous) {
+            first = entry;
+        }
+
+        for (Entry entry = first; entry != null; entry = entry.next) {
+            keys.add(entry.key);
+            values.add(entry.value);
+        }
+
+        return version;
+    }
+
+    @Nullable
+    private Object rawGet(Key<?> key) {
+        Entry entry = entries.get(key);
+
+        return entry != null ? entry.value : null;
+    }
+
+    /**
+     * Maps the key to the specified value (or removes it if {@code null}) and
+     * bumps its version.
+     */
+    private void set(Key<?> key, @Nullable Object value) {
+        Entry entry = entries.get(key);
+
+        if (entry == null) {
+            if (value == null) {
+                return;
+            }
+
+            entry = new Entry(key);
+            entries.put(key, entry);
+        } else {
+            if (entry.value == null && value == null) {
+                return;
+            }
+
+            unlink(entry);
+        }
+
+        if (entry.value == null) {
+            size++;
+        } else if (value == null) {
+            size--;
+        }
+
+        entry.value = value;
+        entry.version = ++version;
+        linkLast(entry);
+    }
+
+    private void unlink(Entry entry) {
+        if (entry.previous != null) {
+            entry.previous.next = entry.next;
+        } else {
+            head = entry.next;
+        }
+
+        if (entry.next != null) {
+            entry.next.previous = entry.previous;
+        } else {
+            tail = entry.previous;
+        }
+
+        entry.previous = null;
+        entry.next = null;
+    }
+
+    private void linkLast(Entry entry) {
+        entry.previous = tail;
+
+        if (tail != null) {
+            tail.next = entry;
+        } else {
+            head = entry;
+        }
+
+        tail = entry;
+    }
+
+    @Nullable
+    @Override
+    public synchronized <T> T get(Key<T> key) {
+        T value = key.cast(rawGet(requireNonNull(key, "key")));
+
+        return value != null ? value : key.defaultValue();
+    }
+
+    @Nullable
+    @Override
+    public synchronized <T> T put(Key<T> key, T value) {
+        requireNonNull(key, "key");
+        requireNonNull(value, "value");
+
+        T previous = key.cast(rawGet(key));
+        set(key, value);
+        return previous;
+    }
+
+    @Nullable
+    @Override
+    public synchronized <T> T putIfAbsent(Key<T> key, T value) {
+        requireNonNull(key, "key");
+        requireNonNull(value, "value");
+
+        T previous = key.cast(rawGet(key));
+
+        if (previous == null) {
+            set(key, value);
+        }
+
+        return previous;
+    }
+
+    @Nullable
+    @Override
+    public synchronized <T> T compute(Key<T> key, UnaryOperator<T> remappingFunction) {
+        requireNonNull(key, "key");
+
+        T previous = key.cast(rawGet(key));
+        T value = remappingFunction.apply(previous != null ? previous : key.defaultValue());
+
+        set(key, value);
+        return value;
+    }
+
+    @Nullable
+    @Override
+    public synchronized <T, A> T compute(Key<T> key, A argument, BiFunction<? super T, ? super A, ? extends T> remappingFunction) {
+        requireNonNull(key, "key");
+
+        T previous = key.cast(rawGet(key));
+        T value = remappingFunction.apply(previous != null ? previous : key.defaultValue(), argument);
+
+        set(key, value);
+        return value;
+    }
+
+    @Override
+    public synchronized int computeInt(Key<Integer> key, int operand, IntBinaryOperator operator) {
+        requireNonNull(key, "key");
+
+        Integer previous = key.cast(rawGet(key));
+
+        if (previous == null) {
+            previous = key.defaultValue();
+        }
+
+        int value = operator.applyAsInt(previous != null ? previous : 0, operand);
+
+        set(key, value);
+        return value;
+    }
+
+    @Override
+    public synchronized <T> T computeIfAbsent(Key<T> key, Supplier<? extends T> mappingFunction) {
+        requireNonNull(key, "key");
+
+        T value = key.cast(rawGet(key));
+
+        if (value == null) {
+            value = requireNonNull(mappingFunction.get(), "new value");
+            set(key, value);
+        }
+
+        return value;
+    }
+
+    @Nullable
+    @Override
+    public synchronized <T> T computeIfPresent(Key<T> key, UnaryOperator<T> remappingFunction) {
+        requireNonNull(key, "key");
+
+        T previous = key.cast(rawGet(key));
+
+        if (previous == null) {
+            return null;
+        }
+
+        T value = remappingFunction.apply(previous);
+        set(key, value);
+        return value;
+    }
+
+    @Nullable
+    @Override
+    public synchronized <T> T replace(Key<T> key, T value) {
+        requireNonNull(key, "key");
+        requireNonNull(value, "value");
+
+        T previous = key.cast(rawGet(key));
+
+        if (previous != null) {
+            set(key, value);
+        }
+
+        return previous;
+    }
+
+    @Override
+    public synchronized <T> boolean replace(Key<T> key, T oldValue, T newValue) {
+        requireNonNull(key, "key");
+        requireNonNull(oldValue, "oldValue");
+        requireNonNull(newValue, "newValue");
+
+        if (!Objects.equals(rawGet(key), oldValue)) {
+            return false;
+        }
+
+        set(key, newValue);
+        return true;
+    }
+
+    @Nullable
+    @Override
+    public synchronized <T> T remove(Key<T> key) {
+        requireNonNull(key, "key");
+
+        T previous = key.cast(rawGet(key));
+        set(key, null);
+        return previous;
+    }
+
+    @Override
+    public synchronized <T> boolean remove(Key<T> key, T value) {
+        requireNonNull(key, "key");
+        requireNonNull(value, "value");
+
+        if (!Objects.equals(rawGet(key), value)) {
+            return false;
+        }
+
+        set(key, null);
+        return true;
+    }
+
+    @Override
+    public synchronized void clear() {
+        // Iterate over a snapshot, since tombstoning reorders the entries
+        Entry[] snapshot = entries.values().toArray(new Entry[0]);
+
+        for (Entry entry : snapshot) {
+            set(entry.key, null);
+        }
+    }
+
+    @Override
+    public synchronized boolean contains(Key<?> key) {
+        return rawGet(key) != null;
+    }
+
+    @Override
+    public synchronized int size() {
+        return size;
+    }
+
+    @Override
+    public synchronized boolean isEmpty() {
+        return size == 0;
+    }
+
+    private static final class Entry {
+
+        final Key<?> key;
+        @Nullable
+        Object value;
+        long version;
+
+        Entry previous;
+        Entry next;
+
+        Entry(Key<?> key) {
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,4 @@
+@ParametersAreNonnullByDefault
+package me.hugmanrique.cellarium.sync;
+
+import javax.annotation.ParametersAreNonnullByDefault;
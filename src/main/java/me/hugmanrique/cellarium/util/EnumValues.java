@@ -13,6 +13,14 @@ import java.util.function.UnaryOperator;
  */
 public final class EnumValues {
 
+    // Class#getEnumConstants() returns a defensive copy, share a single copy per type instead
+    private static final ClassValue<Object[]> CONSTANTS = new ClassValue<Object[]>() {
+        @Override
+        protected Object[] computeValue(Class<?> type) {
+            return type.getEnumConstants();
+        }
+    };
+
     /**
      * Returns the enum element {@code offset} positions away from the
      * specified previous element (by declaration order). If the element
@@ -24,27 +32,11 @@ public final class EnumValues {
      * @return the enum element {@code offset} positions away from {@code element}
      */
     public static <T extends Enum<T>> T nextValue(T element, int offset) {
-        T[] constants = element.getDeclaringClass().getEnumConstants();
-        int previousIndex = -1;
-
-        // Lineally search previous index
-        for (int i = 0; i < constants.length; i++) {
-            if (constants[i] == element) {
-                previousIndex = i;
-                break;
-            }
-        }
-
-        if (previousIndex == -1) {
-            // The specified previous enum element was not found in the enum's
-            // constant array. Maybe the user reflectively instantiated an
-            // enum instance?
-            throw new AssertionError("Enum instance not found in constant array");
-        }
-
-        int newIndex = Math.floorMod(previousIndex + offset, constants.length);
+        Class<T> type = element.getDeclaringClass();
+        Object[] constants = CONSTANTS.get(type);
+        int newIndex = Math.floorMod(element.ordinal() + offset, constants.length);
 
-        return constants[newIndex];
+        return type.cast(constants[newIndex]);
     }
 
     /**
@@ -0,0 +1,85 @@
+package me.hugmanrique.cellarium.util;
+
+import me.hugmanrique.cellarium.Key;
+import me.hugmanrique.cellarium.Repository;
+import me.hugmanrique.cellarium.simple.PrototypeRepository;
+
+import java.util.function.Supplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Repository utilities related to {@link IntHistory} keys and values.
+ *
+ * <p>Histories are appended to in place, so appending to an existing history
+ * does not allocate. The history is then written back to the repository through
+ * {@link Repository#compute(Key, Object, java.util.function.BiFunction)}, so
+ * wrappers such as listening, versioned or replicated repositories observe the
+ * append.
+ *
+ * <p>History keys define a {@link Key#loader() loader} that creates an empty
+ * history with the desired capacity, and no default value (a default history
+ * would be shared by every repository, so appending to it is rejected):
+ *
+ * <pre>{@code
+ * Key<IntHistory> RATINGS = new SimpleKey.Builder<>(IntHistory.class)
+ *         .loader(() -> new IntHistory(20))
+ *         .build();
+ * }</pre>
+ *
+ * <p>The histories of the prototype of a {@link PrototypeRepository} are also
+ * shared, so they are copied once on their first append.
+ */
+public final class HistoryValues {
+
+    /**
+     * Appends a value to the history mapped from the specified key, creating
+     * the history with the key's {@link Key#loader() loader} if absent.
+     *
+     * @param repository repository whose mappings are to be modified
+     * @param key the history key
+     * @param value the value to append
+     * @return the history the value was appended to
+     * @throws IllegalArgumentException if the key defines a default value
+     * @throws IllegalStateException if the repository contains no history for the key,
+     *                               and the key defines no loader
+     */
+    public static IntHistory append(Repository repository, Key<IntHistory> key, int value) {
+        requireNonNull(key, "key");
+
+        if (key.defaultValue() != null) {
+            throw new IllegalArgumentException("History key " + key + " cannot define a shared default value");
+        }
+
+        IntHistory history = repository.get(key);
+
+        if (history == null) {
+            Supplier<? extends IntHistory> loader = key.loader();
+
+            if (loader == null) {
+                throw new IllegalStateException("History key " + key + " defines no loader");
+            }
+
+            history = repository.computeIfAbsent(key, loader);
+        } else if (isPrototypeValue(repository, key, history)) {
+            history = history.copy();
+        }
+
+        history.append(value);
+        return repository.compute(key, history, HistoryValues::replace);
+    }
+
+    private static boolean isPrototypeValue(Repository repository, Key<IntHistory> key, IntHistory history) {
+        return repository instanceof PrototypeRepository
+                && ((PrototypeRepository) repository).prototype().peek(key) == history;
+    }
+
+    // Not capturing, so writing the history back does not allocate
+    private static IntHistory replace(IntHistory previous, IntHistory history) {
+        return history;
+    }
+
+    private HistoryValues() {
+        throw new AssertionError();
+    }
+}
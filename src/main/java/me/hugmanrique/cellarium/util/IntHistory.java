@@ -0,0 +1,261 @@
+package me.hugmanrique.cellarium.util;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.NoSuchElementException;
+
+/**
+ * A fixed-capacity history of {@code int} values, e.g. the last ratings of a player.
+ *
+ * <p>Values are stored in a primitive ring buffer allocated on creation.
+ * Once the history is full, appending a value overwrites the oldest one, so
+ * appends and reads never allocate. Aggregates are computed over a window of
+ * the most recent values without copying them, and throw
+ * {@link NoSuchElementException} if the history is empty (check {@link #isEmpty()}
+ * first).
+ *
+ * <p>Values are indexed from the oldest ({@code 0}) to the most recent
+ * ({@code size() - 1}). Methods are synchronized, so a history can be
+ * appended to while mapped in a concurrent repository.
+ *
+ * @see HistoryValues#append(me.hugmanrique.cellarium.Repository, me.hugmanrique.cellarium.Key, int)
+ */
+@ThreadSafe
+public class IntHistory {
+
+    private final int[] values;
+    // The index of the next value to be written
+    private int head;
+    private int size;
+
+    /**
+     * Creates an empty history that retains the specified number of values.
+     *
+     * @param capacity the maximum number of values
+     * @throws IllegalArgumentException if {@code capacity} is not positive
+     */
+    public IntHistory(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+
+        this.values = new int[capacity];
+    }
+
+    /**
+     * Returns a new history with the same capacity and values as this history.
+     *
+     * @return a copy of this history
+     */
+    public synchronized IntHistory copy() {
+        IntHistory copy = new IntHistory(values.length);
+        System.arraycopy(values, 0, copy.values, 0, values.length);
+        copy.head = head;
+        copy.size = size;
+        return copy;
+    }
+
+    /**
+     * Returns the maximum number of values retained by this history.
+     *
+     * @return the capacity of this history
+     */
+    public int capacity() {
+        return values.length;
+    }
+
+    /**
+     * Returns the number of values in this history.
+     *
+     * @return the number of values
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Returns {@code true} if this history contains no values.
+     *
+     * @return {@code true} if this history contains no values
+     */
+    public synchronized boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Appends a value, discarding the oldest value if the history is full.
+     *
+     * @param value the value to append
+     */
+    public synchronized void append(int value) {
+        values[head] = value;
+        head = head + 1 == values.length ? 0 : head + 1;
+
+        if (size < values.length) {
+            size++;
+        }
+    }
+
+    /**
+     * Removes all the values from this history.
+     */
+    public synchronized void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    private int indexOf(int index) {
+        int slot = head - size + index;
+        return slot < 0 ? slot + values.length : slot;
+    }
+
+    /**
+     * Returns the value at the specified position, from the oldest ({@code 0})
+     * to the most recent ({@code size() - 1}).
+     *
+     * @param index the position of the value
+     * @return the value at the specified position
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public synchronized int get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+
+        return values[indexOf(index)];
+    }
+
+    /**
+     * Returns the most recently appended value.
+     *
+     * @return the most recent value
+     * @throws NoSuchElementException if this history is empty
+     */
+    public synchronized int latest() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+
+        return values[indexOf(size - 1)];
+    }
+
+    private int checkWindow(int window) {
+        if (window <= 0) {
+            throw new IllegalArgumentException("Window must be positive");
+        }
+
+        return Math.min(window, size);
+    }
+
+    private int checkNonEmptyWindow(int window) {
+        int count = checkWindow(window);
+
+        if (count == 0) {
+            throw new NoSuchElementException();
+        }
+
+        return count;
+    }
+
+    /**
+     * Returns the sum of the most recent values.
+     *
+     * @param window the maximum number of recent values to aggregate
+     * @return the sum of the last {@code window} values, or zero if empty
+     * @throws IllegalArgumentException if {@code window} is not positive
+     */
+    public synchronized long sum(int window) {
+        int count = checkWindow(window);
+        long sum = 0;
+
+        for (int i = size - count; i < size; i++) {
+            sum += values[indexOf(i)];
+        }
+
+        return sum;
+    }
+
+    /**
+     * Returns the minimum of the most recent values.
+     *
+     * @param window the maximum number of recent values to aggregate
+     * @return the minimum of the last {@code window} values
+     * @throws IllegalArgumentException if {@code window} is not positive
+     * @throws NoSuchElementException if this history is empty
+     */
+    public synchronized int min(int window) {
+        int count = checkNonEmptyWindow(window);
+        int min = Integer.MAX_VALUE;
+
+        for (int i = size - count; i < size; i++) {
+            min = Math.min(min, values[indexOf(i)]);
+        }
+
+        return min;
+    }
+
+
+    /**
+     * Returns the maximum of the most recent values.
+     *
+     * @param window the maximum number of recent values to aggregate
+     * @return the maximum of the last {@code window} values
+     * @throws IllegalArgumentException if {@code window} is not positive
+     * @throws NoSuchElementException if this history is empty
+     */
+    public synchronized int max(int window) {
+        int count = checkNonEmptyWindow(window);
+        int max = Integer.MIN_VALUE;
+
+        for (int i = size - count; i < size; i++) {
+            max = Math.max(max, values[indexOf(i)]);
+        }
+
+        return max;
+    }
+
+
+    /**
+     * Returns the average of the most recent values.
+     *
+     * @param window the maximum number of recent values to aggregate
+     * @return the average of the last {@code window} values
+     * @throws IllegalArgumentException if {@code window} is not positive
+     * @throws NoSuchElementException if this history is empty
+     */
+    public synchronized double average(int window) {
+        int count = checkNonEmptyWindow(window);
+
+        return (double) sum(window) / count;
+    }
+
+
+    /**
+     * Returns a copy of the values in this history, from the oldest to the most recent.
+     *
+     * @return an array containing the values of this history
+     */
+    public synchronized int[] toArray() {
+        int[] copy = new int[size];
+
+        for (int i = 0; i < size; i++) {
+            copy[i] = values[indexOf(i)];
+        }
+
+        return copy;
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder builder = new StringBuilder("IntHistory[");
+
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+
+            builder.append(values[indexOf(i)]);
+        }
+
+        return builder.append(']').toString();
+    }
+}
@@ -26,15 +26,7 @@ public final class IntegerValues {
      * @return the new value associated with the specified key
      */
     public static int increaseBy(Repository repository, Key<Integer> key, int addend) {
-        //noinspection ConstantConditions
-        return repository.compute(key, previous -> {
-            if (previous == null) {
-                // Start counting at zero
-                previous = 0;
-            }
-
-            return previous + addend;
-        });
+        return repository.computeInt(key, addend, Integer::sum);
     }
 
     /**
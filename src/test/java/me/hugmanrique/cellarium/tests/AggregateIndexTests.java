@@ -0,0 +1,96 @@
+package me.hugmanrique.cellarium.tests;
+
+import me.hugmanrique.cellarium.Key;
+import me.hugmanrique.cellarium.Repository;
+import me.hugmanrique.cellarium.index.AggregateIndex;
+import me.hugmanrique.cellarium.simple.SimpleKey;
+import me.hugmanrique.cellarium.simple.SimpleRepository;
+import me.hugmanrique.cellarium.util.IntegerValues;
+import org.junit.jupiter.api.Test;
+
+import java.util.OptionalDouble;
+import java.util.OptionalLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AggregateIndexTests {
+
+    private static final Key<Integer> ELO = new SimpleKey.Builder<>(Integer.class).build();
+    private static final Key<Integer> WINS = new SimpleKey.Builder<>(Integer.class)
+            .defaultValue(0)
+            .build();
+
+    @Test
+    void testAggregates() {
+        AggregateIndex<Integer> index = AggregateIndex.newInstance(ELO);
+
+        assertEquals(0, index.count());
+        assertEquals(0, index.sum());
+        assertEquals(OptionalLong.empty(), index.min());
+        assertEquals(OptionalDouble.empty(), index.average());
+
+        Repository first = index.track(SimpleRepository.newInstance());
+        Repository second = index.track(SimpleRepository.newInstance());
+        Repository third = index.track(SimpleRepository.newInstance());
+
+        // Unmapped keys without default values are not aggregated
+        assertEquals(0, index.count());
+
+        first.put(ELO, 1000);
+        second.put(ELO, 1500);
+        third.put(ELO, 1500);
+
+        assertEquals(3, index.count());
+        assertEquals(4000, index.sum());
+        assertEquals(OptionalLong.of(1000), index.min());
+        assertEquals(OptionalLong.of(1500), index.max());
+
+        // Duplicate extremes are kept until all are removed
+        second.remove(ELO);
+        assertEquals(OptionalLong.of(1500), index.max());
+        IntegerValues.decreaseBy(third, ELO, 600);
+        assertEquals(OptionalLong.of(1000), index.max());
+        assertEquals(OptionalLong.of(900), index.min());
+        assertEquals(1900, index.sum());
+        assertEquals(OptionalDouble.of(950), index.average());
+
+        first.clear();
+        third.clear();
+        assertEquals(0, index.count());
+        assertEquals(0, index.sum());
+        assertEquals(OptionalLong.empty(), index.max());
+    }
+
+    @Test
+    void testDefaultValuesAndUntrack() {
+        AggregateIndex<Integer> index = AggregateIndex.newInstance(WINS);
+
+        Repository first = index.track(SimpleRepository.newInstance());
+        Repository second = index.track(SimpleRepository.newInstance());
+
+        assertEquals(2, index.count());
+        assertEquals(OptionalLong.of(0), index.max());
+
+        IntegerValues.increaseBy(first, WINS, 3);
+        IntegerValues.increaseBy(second, WINS, 5);
+        assertEquals(8, index.sum());
+
+        index.untrack(index.track(second));
+        assertEquals(1, index.count());
+        assertEquals(3, index.sum());
+        assertEquals(OptionalLong.of(3), index.max());
+    }
+
+    @Test
+    void testConverter() {
+        Key<String> name = new SimpleKey.Builder<>(String.class).build();
+        AggregateIndex<String> index = AggregateIndex.newInstance(name, String::length);
+
+        index.track(SimpleRepository.newInstance()).put(name, "abc");
+        index.track(SimpleRepository.newInstance()).put(name, "a");
+
+        assertEquals(4, index.sum());
+        assertEquals(OptionalLong.of(1), index.min());
+        assertEquals(OptionalLong.of(3), index.max());
+    }
+}
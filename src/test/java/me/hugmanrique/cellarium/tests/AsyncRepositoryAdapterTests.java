@@ -0,0 +1,155 @@
+package me.hugmanrique.cellarium.tests;
+
+import me.hugmanrique.cellarium.ForwardingRepository;
+import me.hugmanrique.cellarium.Key;
+import me.hugmanrique.cellarium.async.AsyncRepository;
+import me.hugmanrique.cellarium.async.AsyncRepositoryAdapter;
+import me.hugmanrique.cellarium.simple.SimpleKey;
+import me.hugmanrique.cellarium.simple.SimpleRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.annotation.Nullable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AsyncRepositoryAdapterTests {
+
+    private static final Key<String> FOO = new SimpleKey.Builder<>(String.class).build();
+    private static final Key<Integer> BAR = new SimpleKey.Builder<>(Integer.class)
+            .defaultValue(20)
+            .build();
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * A repository whose gets block until released.
+     */
+    private static class SlowRepository extends ForwardingRepository {
+
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger loads = new AtomicInteger();
+
+        SlowRepository() {
+            super(SimpleRepository.newConcurrentInstance());
+        }
+
+        @Nullable
+        @Override
+        public <T> T get(Key<T> key) {
+            loads.incrementAndGet();
+
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+
+            return super.get(key);
+        }
+    }
+
+    @Test
+    void testOperations() throws ExecutionException, InterruptedException {
+        AsyncRepository repository = new AsyncRepositoryAdapter(SimpleRepository.newConcurrentInstance(), executor);
+
+        assertNull(repository.putAsync(FOO, "bar").get());
+        assertEquals("bar", repository.getAsync(FOO).get());
+        assertEquals(20, repository.getAsync(BAR).get());
+        assertEquals(21, repository.computeAsync(BAR, previous -> previous + 1).get());
+        assertEquals("bar", repository.computeIfAbsentAsync(FOO, () -> "baz").get());
+        assertTrue(repository.replaceAsync(FOO, "bar", "baz").get());
+        assertEquals(2, repository.sizeAsync().get());
+        assertEquals("baz", repository.removeAsync(FOO).get());
+        assertFalse(repository.containsAsync(FOO).get());
+
+        repository.clearAsync().get();
+        assertEquals(0, repository.sizeAsync().get());
+    }
+
+    @Test
+    void testDeduplicatesConcurrentGets() throws ExecutionException, InterruptedException {
+        SlowRepository slow = new SlowRepository();
+        slow.put(FOO, "bar");
+
+        AsyncRepository repository = new AsyncRepositoryAdapter(slow, executor);
+        CompletableFuture<String> first = repository.getAsync(FOO);
+        CompletableFuture<String> second = repository.getAsync(FOO);
+
+        slow.release.countDown();
+
+        assertEquals("bar", first.get());
+        assertEquals("bar", second.get());
+        assertEquals(1, slow.loads.get());
+
+        // Completed loads are not reused
+        assertEquals("bar", repository.getAsync(FOO).get());
+        assertEquals(2, slow.loads.get());
+    }
+
+    @Test
+    void testSharedFutureCannotBeCompletedByCallers() throws ExecutionException, InterruptedException {
+        SlowRepository slow = new SlowRepository();
+        slow.put(FOO, "bar");
+
+        AsyncRepository repository = new AsyncRepositoryAdapter(slow, executor);
+        CompletableFuture<String> first = repository.getAsync(FOO);
+        CompletableFuture<String> second = repository.getAsync(FOO);
+
+        first.complete("hijacked");
+        slow.release.countDown();
+
+        assertEquals("bar", second.get());
+    }
+
+    @Test
+    void testFailuresCompleteExceptionally() {
+        AsyncRepository repository = new AsyncRepositoryAdapter(SimpleRepository.newConcurrentInstance(), executor);
+
+        CompletableFuture<String> future = repository.computeAsync(FOO, previous -> {
+            throw new IllegalStateException("dummy");
+        });
+
+        ExecutionException e = assertThrows(ExecutionException.class, future::get);
+        assertTrue(e.getCause() instanceof IllegalStateException);
+    }
+
+    @Test
+    void testRejectionsCompleteExceptionally() {
+        AsyncRepository repository = new AsyncRepositoryAdapter(SimpleRepository.newConcurrentInstance(), task -> {
+            throw new RejectedExecutionException("dummy");
+        });
+
+        CompletableFuture<?>[] futures = {
+                repository.getAsync(FOO),
+                repository.putAsync(FOO, "bar"),
+                repository.computeIfAbsentAsync(FOO, () -> "bar"),
+                repository.clearAsync(),
+                repository.containsAsync(FOO),
+                repository.sizeAsync()
+        };
+
+        for (CompletableFuture<?> future : futures) {
+            ExecutionException e = assertThrows(ExecutionException.class, future::get);
+            assertTrue(e.getCause() instanceof RejectedExecutionException);
+        }
+    }
+}
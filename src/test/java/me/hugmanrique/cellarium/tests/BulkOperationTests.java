@@ -0,0 +1,104 @@
+package me.hugmanrique.cellarium.tests;
+
+import me.hugmanrique.cellarium.Key;
+import me.hugmanrique.cellarium.Repository;
+import me.hugmanrique.cellarium.bulk.BulkOperation;
+import me.hugmanrique.cellarium.simple.SimpleKey;
+import me.hugmanrique.cellarium.simple.SimpleRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BulkOperationTests {
+
+    private static final int REPOSITORY_COUNT = 10_000;
+
+    private static final Key<Integer> ELO = new SimpleKey.Builder<>(Integer.class)
+            .defaultValue(1200)
+            .build();
+
+    private static List<Repository> newRepositories() {
+        List<Repository> repositories = new ArrayList<>(REPOSITORY_COUNT);
+
+        for (int i = 0; i < REPOSITORY_COUNT; i++) {
+            Repository repository = SimpleRepository.newInstance();
+            repository.put(ELO, i);
+            repositories.add(repository);
+        }
+
+        return repositories;
+    }
+
+    private static final BulkOperation OPERATION = new BulkOperation.Builder()
+            .batchSize(100)
+            .build();
+
+    @Test
+    void testUpdate() {
+        List<Repository> repositories = newRepositories();
+
+        OPERATION.update(repositories, ELO, previous -> previous * 2);
+
+        for (int i = 0; i < REPOSITORY_COUNT; i++) {
+            assertEquals(i * 2, repositories.get(i).get(ELO));
+        }
+    }
+
+    @Test
+    void testForEach() {
+        List<Repository> repositories = newRepositories();
+        LongAdder visited = new LongAdder();
+
+        OPERATION.forEach(repositories, repository -> visited.increment());
+
+        assertEquals(REPOSITORY_COUNT, visited.sum());
+    }
+
+    @Test
+    void testCountAndFilter() {
+        List<Repository> repositories = newRepositories();
+
+        assertEquals(100, OPERATION.count(repositories, repository -> repository.get(ELO) < 100));
+        assertEquals(100, OPERATION.filter(repositories, repository -> repository.get(ELO) >= 9900).size());
+    }
+
+    @Test
+    void testAggregate() {
+        List<Repository> repositories = newRepositories();
+
+        long[] sum = OPERATION.aggregate(repositories, () -> new long[1],
+                (total, repository) -> total[0] += repository.get(ELO),
+                (left, right) -> {
+                    left[0] += right[0];
+                    return left;
+                });
+
+        assertEquals((long) REPOSITORY_COUNT * (REPOSITORY_COUNT - 1) / 2, sum[0]);
+    }
+
+    @Test
+    void testProgress() {
+        AtomicLong maxCompleted = new AtomicLong();
+        BulkOperation operation = new BulkOperation.Builder()
+                .batchSize(64)
+                .progressListener((completed, total) -> {
+                    assertEquals(REPOSITORY_COUNT, total);
+                    maxCompleted.accumulateAndGet(completed, Math::max);
+                })
+                .build();
+
+        operation.forEach(newRepositories(), repository -> {});
+
+        assertEquals(REPOSITORY_COUNT, maxCompleted.get());
+    }
+
+    @Test
+    void testInvalidBatchSizeThrows() {
+        assertThrows(IllegalArgumentException.class, () -> new BulkOperation.Builder().batchSize(0));
+    }
+}
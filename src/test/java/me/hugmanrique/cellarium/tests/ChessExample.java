@@ -41,7 +41,7 @@ public class ChessExample {
 
         public void onWin(int eloDelta) {
             // Update ELO
-            int newElo = statistics.compute(Statistics.ELO, previous -> previous + eloDelta);
+            int newElo = statistics.computeInt(Statistics.ELO, eloDelta, Integer::sum);
 
             broadcast("New player ELO is " + newElo);
 
@@ -0,0 +1,180 @@
+package me.hugmanrique.cellarium.tests;
+
+import me.hugmanrique.cellarium.Key;
+import me.hugmanrique.cellarium.Repository;
+import me.hugmanrique.cellarium.codec.Schema;
+import me.hugmanrique.cellarium.codec.Varints;
+import me.hugmanrique.cellarium.codec.ValueCodecs;
+import me.hugmanrique.cellarium.simple.SimpleKey;
+import me.hugmanrique.cellarium.simple.SimpleRepository;
+import me.hugmanrique.cellarium.snapshot.ColumnarSnapshotReader;
+import me.hugmanrique.cellarium.snapshot.ColumnarSnapshotWriter;
+import me.hugmanrique.cellarium.sync.DeltaCodec;
+import me.hugmanrique.cellarium.sync.VersionedRepository;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ColumnarSnapshotTests {
+
+    enum Rank {
+        BEGINNER, CHAMPION, MASTER
+    }
+
+    private static final Key<Integer> ELO = new SimpleKey.Builder<>(Integer.class).build();
+    private static final Key<Long> LAST_SEEN = new SimpleKey.Builder<>(Long.class).build();
+    private static final Key<Rank> RANK = new SimpleKey.Builder<>(Rank.class).build();
+    private static final Key<String> COUNTRY = new SimpleKey.Builder<>(String.class).build();
+    private static final Key<Boolean> PREMIUM = new SimpleKey.Builder<>(Boolean.class).build();
+
+    private static final Schema SCHEMA = new Schema.Builder()
+            .add(ELO, ValueCodecs.INTEGER)
+            .add(LAST_SEEN, ValueCodecs.LONG)
+            .add(RANK, ValueCodecs.forEnum(Rank.class))
+            .add(COUNTRY, ValueCodecs.STRING)
+            .add(PREMIUM, ValueCodecs.BOOLEAN)
+            .build();
+
+    private static final String[] COUNTRIES = { "Spain", "Norway", "United States", "India" };
+
+    private static List<Repository> newRepositories(int count) {
+        Random random = new Random(0x5EED);
+        List<Repository> repositories = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            Repository repository = new VersionedRepository();
+            repository.put(ELO, 1200 + random.nextInt(400));
+            repository.put(LAST_SEEN, 1_570_000_000_000L + random.nextInt(1_000_000));
+            repository.put(RANK, Rank.values()[random.nextInt(3)]);
+
+            if (i % 3 != 0) {
+                repository.put(COUNTRY, COUNTRIES[random.nextInt(COUNTRIES.length)]);
+            }
+
+            if (i % 7 == 0) {
+                repository.put(PREMIUM, true);
+            }
+
+            repositories.add(repository);
+        }
+
+        return repositories;
+    }
+
+    private static byte[] write(List<Repository> repositories, int blockSize) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (ColumnarSnapshotWriter writer = new ColumnarSnapshotWriter(bytes, SCHEMA, blockSize)) {
+            for (Repository repository : repositories) {
+                writer.write(repository);
+            }
+        }
+
+        return bytes.toByteArray();
+    }
+
+    @Test
+    void testRoundTrip() throws IOException {
+        List<Repository> repositories = newRepositories(1000);
+        byte[] snapshot = write(repositories, 128);
+
+        try (ColumnarSnapshotReader reader = new ColumnarSnapshotReader(
+                new ByteArrayInputStream(snapshot), SCHEMA, SimpleRepository::newInstance)) {
+            for (Repository expected : repositories) {
+                Repository actual = reader.read();
+
+                assertNotNull(actual);
+                assertEquals(expected.size(), actual.size());
+
+                for (Key<?> key : SCHEMA.keys()) {
+                    assertEquals(expected.contains(key), actual.contains(key));
+                    assertEquals(expected.get(key), actual.get(key));
+                }
+            }
+
+            assertNull(reader.read());
+            assertNull(reader.read());
+        }
+    }
+
+    @Test
+    void testEmptySnapshot() throws IOException {
+        byte[] snapshot = write(new ArrayList<>(), 16);
+
+        try (ColumnarSnapshotReader reader = new ColumnarSnapshotReader(
+                new ByteArrayInputStream(snapshot), SCHEMA, SimpleRepository::newInstance)) {
+            assertNull(reader.read());
+        }
+    }
+
+    @Test
+    void testSmallerThanRowEncoding() throws IOException {
+        List<Repository> repositories = newRepositories(4096);
+        DeltaCodec rowCodec = new DeltaCodec(SCHEMA);
+        long rowSize = 0;
+
+        for (Repository repository : repositories) {
+            rowSize += rowCodec.encodeDelta((VersionedRepository) repository, 0).length;
+        }
+
+        assertTrue(write(repositories, 4096).length * 2 < rowSize);
+    }
+
+    @Test
+    void testSchemaMismatchThrows() throws IOException {
+        byte[] snapshot = write(newRepositories(1), 16);
+        Schema other = new Schema.Builder().add(ELO, ValueCodecs.INTEGER).build();
+
+        assertThrows(IOException.class, () -> new ColumnarSnapshotReader(
+                new ByteArrayInputStream(snapshot), other, SimpleRepository::newInstance));
+    }
+
+    @Test
+    void testInvalidBlockLengthThrows() throws IOException {
+        // Drop the end of snapshot marker of an empty snapshot
+        byte[] empty = write(new ArrayList<>(), 16);
+
+        for (int length : new int[] { -1, Integer.MAX_VALUE }) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            bytes.write(empty, 0, empty.length - 1);
+
+            DataOutputStream out = new DataOutputStream(bytes);
+            Varints.writeVarInt(out, 1);
+            Varints.writeVarInt(out, length);
+            Varints.writeVarInt(out, 0);
+
+            ColumnarSnapshotReader reader = new ColumnarSnapshotReader(
+                    new ByteArrayInputStream(bytes.toByteArray()), SCHEMA, SimpleRepository::newInstance);
+            assertThrows(IOException.class, reader::read);
+        }
+    }
+
+    @Test
+    void testInvalidRowCountThrows() throws IOException {
+        byte[] empty = write(new ArrayList<>(), 16);
+
+        for (int rows : new int[] { -1, Integer.MAX_VALUE }) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            bytes.write(empty, 0, empty.length - 1);
+            Varints.writeVarInt(new DataOutputStream(bytes), rows);
+
+            ColumnarSnapshotReader reader = new ColumnarSnapshotReader(
+                    new ByteArrayInputStream(bytes.toByteArray()), SCHEMA, SimpleRepository::newInstance);
+            assertThrows(IOException.class, reader::read);
+        }
+    }
+
+    @Test
+    void testInvalidBlockSizeThrows() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ColumnarSnapshotWriter(new ByteArrayOutputStream(), SCHEMA, Integer.MAX_VALUE));
+    }
+}
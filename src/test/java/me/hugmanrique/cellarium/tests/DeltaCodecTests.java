@@ -0,0 +1,102 @@
+package me.hugmanrique.cellarium.tests;
+
+import me.hugmanrique.cellarium.Key;
+import me.hugmanrique.cellarium.Repository;
+import me.hugmanrique.cellarium.codec.Schema;
+import me.hugmanrique.cellarium.codec.ValueCodecs;
+import me.hugmanrique.cellarium.simple.SimpleKey;
+import me.hugmanrique.cellarium.simple.SimpleRepository;
+import me.hugmanrique.cellarium.sync.DeltaCodec;
+import me.hugmanrique.cellarium.sync.VersionedRepository;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DeltaCodecTests {
+
+    enum Rank {
+        BEGINNER, CHAMPION, MASTER
+    }
+
+    private static final Key<Integer> ELO = new SimpleKey.Builder<>(Integer.class).build();
+    private static final Key<String> NAME = new SimpleKey.Builder<>(String.class).build();
+    private static final Key<Rank> RANK = new SimpleKey.Builder<>(Rank.class).build();
+    private static final Key<String> SECRET = new SimpleKey.Builder<>(String.class).build();
+
+    private static final Schema SCHEMA = new Schema.Builder()
+            .add(ELO, ValueCodecs.INTEGER)
+            .add(NAME, ValueCodecs.STRING)
+            .add(RANK, ValueCodecs.forEnum(Rank.class))
+            .build();
+
+    private static final DeltaCodec CODEC = new DeltaCodec(SCHEMA);
+
+    private static long apply(byte[] delta, Repository target) throws IOException {
+        return CODEC.readDelta(new DataInputStream(new ByteArrayInputStream(delta)), target);
+    }
+
+    @Test
+    void testFullAndIncrementalDeltas() throws IOException {
+        VersionedRepository source = new VersionedRepository();
+        Repository replica = SimpleRepository.newInstance();
+
+        source.put(ELO, 1200);
+        source.put(NAME, "Magnus");
+        source.put(SECRET, "hidden");
+
+        long version = apply(CODEC.encodeDelta(source, 0), replica);
+        assertEquals(source.version(), version);
+        assertEquals(1200, replica.get(ELO));
+        assertEquals("Magnus", replica.get(NAME));
+        assertFalse(replica.contains(SECRET));
+
+        source.put(RANK, Rank.MASTER);
+        source.compute(ELO, previous -> previous + 30);
+        source.remove(NAME);
+
+        byte[] delta = CODEC.encodeDelta(source, version);
+        version = apply(delta, replica);
+
+        assertEquals(source.version(), version);
+        assertEquals(1230, replica.get(ELO));
+        assertEquals(Rank.MASTER, replica.get(RANK));
+        assertFalse(replica.contains(NAME));
+
+        // Header (2 bytes), ELO (3 bytes), rank (2 bytes), name removal (1 byte)
+        assertEquals(8, delta.length);
+
+        // Nothing changed
+        assertEquals(2, CODEC.encodeDelta(source, version).length);
+    }
+
+    @Test
+    void testRepeatedChangesAreSentOnce() throws IOException {
+        VersionedRepository source = new VersionedRepository();
+
+        for (int i = 0; i < 100; i++) {
+            source.put(ELO, i);
+        }
+
+        Repository replica = SimpleRepository.newInstance();
+        apply(CODEC.encodeDelta(source, 50), replica);
+
+        assertEquals(99, replica.get(ELO));
+        assertEquals(1, replica.size());
+    }
+
+    @Test
+    void testUnknownKeyIdThrows() {
+        Schema smaller = new Schema.Builder().add(ELO, ValueCodecs.INTEGER).build();
+        VersionedRepository source = new VersionedRepository();
+        source.put(RANK, Rank.BEGINNER);
+
+        byte[] delta = CODEC.encodeDelta(source, 0);
+
+        assertThrows(IOException.class, () -> new DeltaCodec(smaller).readDelta(
+                new DataInputStream(new ByteArrayInputStream(delta)), SimpleRepository.newInstance()));
+    }
+}
@@ -0,0 +1,169 @@
+package me.hugmanrique.cellarium.tests;
+
+import me.hugmanrique.cellarium.Key;
+import me.hugmanrique.cellarium.ListeningRepository;
+import me.hugmanrique.cellarium.Repository;
+import me.hugmanrique.cellarium.RepositoryListener;
+import me.hugmanrique.cellarium.simple.FrozenRepository;
+import me.hugmanrique.cellarium.simple.PrototypeRepository;
+import me.hugmanrique.cellarium.simple.SimpleKey;
+import me.hugmanrique.cellarium.simple.SimpleRepository;
+import me.hugmanrique.cellarium.tests.repository.AllocationMeter;
+import me.hugmanrique.cellarium.util.HistoryValues;
+import me.hugmanrique.cellarium.util.IntHistory;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class IntHistoryTests {
+
+    private static final Key<IntHistory> RATINGS = new SimpleKey.Builder<>(IntHistory.class)
+            .loader(() -> new IntHistory(3))
+            .build();
+
+    @Test
+    void testAppendWrapsAround() {
+        IntHistory history = new IntHistory(3);
+        assertTrue(history.isEmpty());
+        assertThrows(NoSuchElementException.class, history::latest);
+
+        for (int value = 1; value <= 5; value++) {
+            history.append(value);
+        }
+
+        assertEquals(3, history.size());
+        assertEquals(3, history.capacity());
+        assertArrayEquals(new int[] { 3, 4, 5 }, history.toArray());
+        assertEquals(3, history.get(0));
+        assertEquals(5, history.latest());
+        assertThrows(IndexOutOfBoundsException.class, () -> history.get(3));
+        assertEquals("IntHistory[3, 4, 5]", history.toString());
+
+        history.clear();
+        assertTrue(history.isEmpty());
+    }
+
+    @Test
+    void testWindowAggregates() {
+        IntHistory history = new IntHistory(4);
+
+        assertThrows(NoSuchElementException.class, () -> history.min(4));
+        assertThrows(NoSuchElementException.class, () -> history.max(4));
+        assertThrows(NoSuchElementException.class, () -> history.average(4));
+        assertEquals(0, history.sum(4));
+
+        for (int value : new int[] { 1500, 1480, 1520, 1490, 1530 }) {
+            history.append(value);
+        }
+
+        assertEquals(1480, history.min(4));
+        assertEquals(1490, history.min(2));
+        assertEquals(1530, history.max(10));
+        assertEquals(3020, history.sum(2));
+        assertEquals(1505, history.average(4));
+        assertThrows(IllegalArgumentException.class, () -> history.sum(0));
+    }
+
+    @Test
+    void testAppendToRepository() {
+        Repository repository = SimpleRepository.newInstance();
+
+        IntHistory history = HistoryValues.append(repository, RATINGS, 10);
+        assertSame(history, HistoryValues.append(repository, RATINGS, 20));
+        assertSame(history, repository.get(RATINGS));
+        assertArrayEquals(new int[] { 10, 20 }, history.toArray());
+    }
+
+    @Test
+    void testAppendIsObserved() {
+        ListeningRepository repository = new ListeningRepository(SimpleRepository.newInstance());
+        AtomicInteger updates = new AtomicInteger();
+        repository.addListener(new RepositoryListener() {
+            @Override
+            public void onUpdate(Repository repository, Key<?> key) {
+                updates.incrementAndGet();
+            }
+
+            @Override
+            public void onClear(Repository repository) {}
+        });
+
+        HistoryValues.append(repository, RATINGS, 10);
+        HistoryValues.append(repository, RATINGS, 20);
+        assertTrue(updates.get() >= 2);
+    }
+
+    @Test
+    void testAppendAllocation() {
+        assumeTrue(AllocationMeter.isSupported(), "allocated bytes are not measurable");
+
+        Repository repository = SimpleRepository.newInstance();
+        HistoryValues.append(repository, RATINGS, 0);
+
+        AllocationMeter.assertWithinBudget(
+                Collections.singletonMap("append", () -> HistoryValues.append(repository, RATINGS, 1500)),
+                operation -> 0);
+    }
+
+    @Test
+    void testDefaultValueRejected() {
+        Key<IntHistory> key = new SimpleKey.Builder<>(IntHistory.class)
+                .defaultValue(new IntHistory(2))
+                .build();
+        Repository repository = SimpleRepository.newInstance();
+
+        assertThrows(IllegalArgumentException.class, () -> HistoryValues.append(repository, key, 1));
+    }
+
+    @Test
+    void testAppendCopiesPrototypeValue() {
+        IntHistory shared = new IntHistory(3);
+        FrozenRepository prototype = new FrozenRepository.Builder()
+                .put(RATINGS, shared)
+                .build();
+        PrototypeRepository repository = PrototypeRepository.newInstance(prototype);
+
+        IntHistory history = HistoryValues.append(repository, RATINGS, 1);
+        assertNotSame(shared, history);
+        assertTrue(shared.isEmpty());
+
+        // Copied once, then appended in place
+        assertSame(history, HistoryValues.append(repository, RATINGS, 2));
+        assertArrayEquals(new int[] { 1, 2 }, history.toArray());
+    }
+
+    @Test
+    void testCopy() {
+        IntHistory history = new IntHistory(2);
+        history.append(1);
+        history.append(2);
+        history.append(3);
+
+        IntHistory copy = history.copy();
+        copy.append(4);
+
+        assertArrayEquals(new int[] { 2, 3 }, history.toArray());
+        assertArrayEquals(new int[] { 3, 4 }, copy.toArray());
+    }
+
+    @Test
+    void testAppendWithoutLoaderThrows() {
+        Key<IntHistory> key = new SimpleKey.Builder<>(IntHistory.class).build();
+        Repository repository = SimpleRepository.newInstance();
+
+        assertThrows(IllegalStateException.class, () -> HistoryValues.append(repository, key, 1));
+
+        repository.put(key, new IntHistory(2));
+        assertEquals(1, HistoryValues.append(repository, key, 1).latest());
+    }
+
+    @Test
+    void testInvalidCapacityThrows() {
+        assertThrows(IllegalArgumentException.class, () -> new IntHistory(0));
+    }
+}
@@ -0,0 +1,86 @@
+package me.hugmanrique.cellarium.tests;
+
+import me.hugmanrique.cellarium.Key;
+import me.hugmanrique.cellarium.KeyRegistry;
+import me.hugmanrique.cellarium.simple.SimpleKey;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class KeyRegistryTests {
+
+    private static final Key<Integer> ELO = new SimpleKey.Builder<>(Integer.class)
+            .name("elo")
+            .build();
+
+    private static final Key<String> TITLE = new SimpleKey.Builder<>(String.class)
+            .name("title")
+            .build();
+
+    @Test
+    void testResolvesNames() {
+        KeyRegistry registry = new KeyRegistry.Builder()
+                .add(ELO)
+                .add(TITLE)
+                .build();
+
+        assertEquals(2, registry.size());
+        assertSame(ELO, registry.get("elo"));
+        assertSame(TITLE, registry.get("title", String.class));
+        assertTrue(registry.contains("elo"));
+        assertFalse(registry.contains("wins"));
+        assertNull(registry.get("ELO"));
+        assertNull(registry.get(""));
+    }
+
+    @Test
+    void testWrongTypeThrows() {
+        KeyRegistry registry = new KeyRegistry.Builder().add(ELO).build();
+
+        assertThrows(IllegalArgumentException.class, () -> registry.get("elo", String.class));
+    }
+
+    @Test
+    void testEmptyRegistry() {
+        KeyRegistry registry = new KeyRegistry.Builder().build();
+
+        assertEquals(0, registry.size());
+        assertNull(registry.get("elo"));
+    }
+
+    @Test
+    void testManyKeys() {
+        KeyRegistry.Builder builder = new KeyRegistry.Builder();
+        List<Key<Integer>> keys = new ArrayList<>();
+
+        for (int i = 0; i < 5000; i++) {
+            Key<Integer> key = new SimpleKey.Builder<>(Integer.class)
+                    .name("stat." + i)
+                    .build();
+
+            keys.add(key);
+            builder.add(key);
+        }
+
+        KeyRegistry registry = builder.build();
+
+        for (int i = 0; i < keys.size(); i++) {
+            assertSame(keys.get(i), registry.get("stat." + i));
+        }
+
+        assertNull(registry.get("stat.5000"));
+        assertEquals(keys.size(), registry.keys().size());
+    }
+
+    @Test
+    void testInvalidKeysThrow() {
+        Key<Integer> unnamed = new SimpleKey.Builder<>(Integer.class).build();
+        Key<Integer> duplicate = new SimpleKey.Builder<>(Integer.class).name("elo").build();
+
+        assertThrows(IllegalArgumentException.class, () -> new KeyRegistry.Builder().add(unnamed));
+        assertThrows(IllegalArgumentException.class, () -> new KeyRegistry.Builder().add(ELO).add(duplicate));
+    }
+}
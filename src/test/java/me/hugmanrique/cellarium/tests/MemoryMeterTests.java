@@ -0,0 +1,114 @@
+package me.hugmanrique.cellarium.tests;
+
+import me.hugmanrique.cellarium.Key;
+import me.hugmanrique.cellarium.Repository;
+import me.hugmanrique.cellarium.codec.LazyRepository;
+import me.hugmanrique.cellarium.codec.Schema;
+import me.hugmanrique.cellarium.codec.ValueCodecs;
+import me.hugmanrique.cellarium.memory.MemoryMeter;
+import me.hugmanrique.cellarium.memory.MemoryReport;
+import me.hugmanrique.cellarium.simple.SimpleKey;
+import me.hugmanrique.cellarium.simple.SimpleRepository;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MemoryMeterTests {
+
+    private enum Rank { BEGINNER, CHAMPION }
+
+    private static final Key<Integer> SCORE = new SimpleKey.Builder<>(Integer.class).build();
+    private static final Key<String> NAME = new SimpleKey.Builder<>(String.class).build();
+    private static final Key<Rank> RANK = new SimpleKey.Builder<>(Rank.class)
+            .defaultValue(Rank.BEGINNER)
+            .build();
+    private static final Key<int[]> HISTORY = new SimpleKey.Builder<>(int[].class).build();
+
+    private static final List<Key<?>> KEYS = Arrays.asList(SCORE, NAME, RANK, HISTORY);
+
+    private static final MemoryMeter METER = new MemoryMeter.Builder()
+            .containerOverhead(100)
+            .entryOverhead(10)
+            .sizer(int[].class, value -> MemoryMeter.align(16 + value.length * 4L))
+            .build();
+
+    @Test
+    void testMeasure() {
+        Repository repository = SimpleRepository.newInstance();
+        repository.put(SCORE, 1000);
+        repository.put(NAME, "abcd");
+        repository.put(RANK, Rank.CHAMPION);
+        repository.put(HISTORY, new int[10]);
+
+        MemoryReport report = METER.measure(repository, KEYS);
+
+        assertEquals(1, report.repositoryCount());
+        assertEquals(100, report.containerBytes());
+        assertEquals(10 + 16, report.sizeOf(SCORE));
+        assertEquals(10 + 24 + 24, report.sizeOf(NAME));
+        assertEquals(10, report.sizeOf(RANK));
+        assertEquals(10 + 56, report.sizeOf(HISTORY));
+        assertEquals(100 + 26 + 58 + 10 + 66, report.totalBytes());
+        assertEquals(KEYS, Arrays.asList(report.byKey().keySet().toArray()));
+    }
+
+    @Test
+    void testSharedValuesAndMissingKeys() {
+        Repository repository = SimpleRepository.newInstance();
+        repository.put(SCORE, 5);
+
+        MemoryReport report = METER.measure(repository, KEYS);
+
+        // Cached boxed value
+        assertEquals(10, report.sizeOf(SCORE));
+        assertEquals(0, report.sizeOf(NAME));
+        assertEquals(0, report.sizeOf(RANK));
+        assertEquals(0, report.entryCount(RANK));
+        assertEquals(110, report.totalBytes());
+    }
+
+    @Test
+    void testMeasureAll() {
+        Repository first = SimpleRepository.newInstance();
+        first.put(SCORE, 1000);
+
+        Repository second = SimpleRepository.newInstance();
+        second.put(SCORE, 2000);
+        second.put(NAME, "");
+
+        MemoryReport report = METER.measureAll(Arrays.asList(first, second), KEYS);
+
+        assertEquals(2, report.repositoryCount());
+        assertEquals(200, report.containerBytes());
+        assertEquals(2, report.entryCount(SCORE));
+        assertEquals(52, report.sizeOf(SCORE));
+        assertEquals(1, report.entryCount(NAME));
+        assertEquals(10 + 24 + 16, report.sizeOf(NAME));
+    }
+
+    @Test
+    void testMeasureDoesNotDecode() throws IOException {
+        Schema schema = new Schema.Builder()
+                .add(SCORE, ValueCodecs.INTEGER)
+                .add(NAME, ValueCodecs.STRING)
+                .build();
+
+        Repository source = SimpleRepository.newInstance();
+        source.put(SCORE, 1000);
+        source.put(NAME, "abcd");
+
+        LazyRepository repository = new LazyRepository(schema, LazyRepository.encode(source, schema));
+        repository.get(SCORE);
+
+        MemoryReport report = METER.measure(repository, KEYS);
+
+        // Encoded values are not materialized, nor decoded by measuring
+        assertEquals(10 + 16, report.sizeOf(SCORE));
+        assertEquals(0, report.sizeOf(NAME));
+        assertEquals(1, repository.encodedCount());
+    }
+}
@@ -0,0 +1,228 @@
+package me.hugmanrique.cellarium.tests;
+
+import me.hugmanrique.cellarium.Key;
+import me.hugmanrique.cellarium.Repository;
+import me.hugmanrique.cellarium.codec.Schema;
+import me.hugmanrique.cellarium.codec.ValueCodecs;
+import me.hugmanrique.cellarium.replication.PrimaryRepository;
+import me.hugmanrique.cellarium.replication.QueueTransport;
+import me.hugmanrique.cellarium.replication.Replica;
+import me.hugmanrique.cellarium.replication.ReplicationTransport;
+import me.hugmanrique.cellarium.replication.SocketTransport;
+import me.hugmanrique.cellarium.simple.SimpleKey;
+import me.hugmanrique.cellarium.simple.SimpleRepository;
+import me.hugmanrique.cellarium.tests.repository.AllocationMeter;
+import org.junit.jupiter.api.Test;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class ReplicationTests {
+
+    private static final Key<Integer> ELO = new SimpleKey.Builder<>(Integer.class)
+            .defaultValue(1200)
+            .build();
+
+    private static final Key<String> NAME = new SimpleKey.Builder<>(String.class).build();
+    private static final Key<String> LOCAL = new SimpleKey.Builder<>(String.class).build();
+
+    private static final Schema SCHEMA = new Schema.Builder()
+            .add(ELO, ValueCodecs.INTEGER)
+            .add(NAME, ValueCodecs.STRING)
+            .build();
+
+    /**
+     * Sends snapshots when the replica requests them, before its next receive.
+     */
+    private static class SnapshotRequest implements Runnable {
+
+        final AtomicReference<PrimaryRepository> primary = new AtomicReference<>();
+        final AtomicBoolean requested = new AtomicBoolean();
+
+        @Override
+        public void run() {
+            requested.set(true);
+        }
+
+        void serve() throws IOException {
+            if (requested.getAndSet(false)) {
+                primary.get().sendSnapshot();
+            }
+        }
+    }
+
+    @Test
+    void testReplicatesBatches() throws IOException {
+        QueueTransport transport = new QueueTransport(16);
+        SnapshotRequest request = new SnapshotRequest();
+        PrimaryRepository primary = new PrimaryRepository(SimpleRepository.newInstance(), SCHEMA, transport, 100);
+        request.primary.set(primary);
+        Replica replica = new Replica(SCHEMA, transport, request);
+
+        primary.put(ELO, 1500);
+        primary.put(LOCAL, "not replicated");
+        primary.flush();
+
+        // Initial snapshot supersedes the first batch
+        replica.receive();
+        assertFalse(replica.isSynchronized());
+        request.serve();
+        replica.receive();
+
+        Repository replicated = replica.repository();
+        assertTrue(replica.isSynchronized());
+        assertEquals(1500, replicated.get(ELO));
+        assertFalse(replicated.contains(LOCAL));
+
+        primary.put(NAME, "Magnus");
+        primary.compute(ELO, previous -> previous + 10);
+        primary.compute(ELO, previous -> previous + 10);
+        primary.flush();
+        replica.receive();
+
+        assertEquals(2, replica.sequence());
+        assertEquals("Magnus", replicated.get(NAME));
+        assertEquals(1520, replicated.get(ELO));
+
+        primary.clear();
+        primary.flush();
+        replica.receive();
+
+        assertTrue(replicated.isEmpty());
+        assertEquals(1200, replicated.get(ELO));
+        assertThrows(UnsupportedOperationException.class, () -> replicated.put(ELO, 1));
+    }
+
+    @Test
+    void testViewReadsAllocation() throws IOException {
+        assumeTrue(AllocationMeter.isSupported(), "allocated bytes are not measurable");
+
+        QueueTransport transport = new QueueTransport(16);
+        SnapshotRequest request = new SnapshotRequest();
+        PrimaryRepository primary = new PrimaryRepository(SimpleRepository.newInstance(), SCHEMA, transport, 100);
+        request.primary.set(primary);
+        Replica replica = new Replica(SCHEMA, transport, request);
+
+        primary.put(NAME, "Magnus");
+        primary.flush();
+        replica.receive();
+        request.serve();
+        replica.receive();
+
+        Repository replicated = replica.repository();
+        Map<String, Runnable> operations = new LinkedHashMap<>();
+        operations.put("get", () -> replicated.get(NAME));
+        operations.put("getDefault", () -> replicated.get(ELO));
+        operations.put("contains", () -> replicated.contains(NAME));
+
+        AllocationMeter.assertWithinBudget(operations, operation -> 0);
+    }
+
+    @Test
+    void testFlushesFullBatches() {
+        QueueTransport transport = new QueueTransport(16);
+        PrimaryRepository primary = new PrimaryRepository(SimpleRepository.newInstance(), SCHEMA, transport, 2);
+
+        primary.put(ELO, 1);
+        primary.put(ELO, 2);
+        assertEquals(0, transport.pending());
+
+        primary.put(NAME, "full");
+        assertEquals(1, transport.pending());
+        assertEquals(1, primary.sequence());
+    }
+
+    @Test
+    void testCloseWakesUpReceivers() throws Exception {
+        QueueTransport transport = new QueueTransport(16);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        Thread receiver = new Thread(() -> {
+            try {
+                transport.receive();
+            } catch (Throwable t) {
+                failure.set(t);
+            }
+        });
+
+        receiver.start();
+        transport.close();
+        receiver.join(5000);
+
+        assertFalse(receiver.isAlive());
+        assertTrue(failure.get() instanceof EOFException);
+        assertThrows(EOFException.class, transport::receive);
+        assertThrows(IOException.class, () -> transport.send(new byte[1]));
+    }
+
+    @Test
+    void testResyncsAfterMissedBatch() throws IOException {
+        QueueTransport transport = new QueueTransport(16);
+        SnapshotRequest request = new SnapshotRequest();
+        PrimaryRepository primary = new PrimaryRepository(SimpleRepository.newInstance(), SCHEMA, transport, 100);
+        request.primary.set(primary);
+        Replica replica = new Replica(SCHEMA, transport, request);
+
+        primary.sendSnapshot();
+        replica.receive();
+        assertTrue(replica.isSynchronized());
+
+        primary.put(ELO, 1300);
+        primary.flush();
+        transport.receive(); // Lost
+
+        primary.put(NAME, "Hikaru");
+        primary.flush();
+        replica.receive();
+
+        assertFalse(replica.isSynchronized());
+        assertFalse(replica.repository().contains(NAME));
+
+        request.serve();
+        replica.receive();
+
+        assertTrue(replica.isSynchronized());
+        assertEquals(1300, replica.repository().get(ELO));
+        assertEquals("Hikaru", replica.repository().get(NAME));
+    }
+
+    @Test
+    void testSocketTransport() throws Exception {
+        try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+             Socket client = new Socket(server.getInetAddress(), server.getLocalPort());
+             Socket accepted = server.accept();
+             ReplicationTransport sending = new SocketTransport(client);
+             ReplicationTransport receiving = new SocketTransport(accepted)) {
+
+            PrimaryRepository primary = new PrimaryRepository(SimpleRepository.newConcurrentInstance(), SCHEMA, sending, 100);
+            Replica replica = new Replica(SCHEMA, receiving, () -> {
+                try {
+                    primary.sendSnapshot();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            primary.put(NAME, "Fabiano");
+            replica.receive();
+
+            primary.put(ELO, 2800);
+            primary.flush();
+            replica.receive();
+
+            assertEquals("Fabiano", replica.repository().get(NAME));
+            assertEquals(2800, replica.repository().get(ELO));
+        }
+    }
+}
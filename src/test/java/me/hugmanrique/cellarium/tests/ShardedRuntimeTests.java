@@ -0,0 +1,164 @@
+package me.hugmanrique.cellarium.tests;
+
+import me.hugmanrique.cellarium.Key;
+import me.hugmanrique.cellarium.Repository;
+import me.hugmanrique.cellarium.concurrent.OwnedRepository;
+import me.hugmanrique.cellarium.concurrent.ShardedRuntime;
+import me.hugmanrique.cellarium.simple.FrozenRepository;
+import me.hugmanrique.cellarium.simple.SimpleKey;
+import me.hugmanrique.cellarium.tests.repository.AllocationMeter;
+import me.hugmanrique.cellarium.util.IntegerValues;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class ShardedRuntimeTests {
+
+    private static final Key<Integer> WINS = new SimpleKey.Builder<>(Integer.class).build();
+    private static final Key<String> NAME = new SimpleKey.Builder<>(String.class).build();
+
+    @Test
+    void testConcurrentSubmitters() throws Exception {
+        try (ShardedRuntime runtime = new ShardedRuntime(2)) {
+            List<OwnedRepository> repositories = new ArrayList<>();
+
+            for (int i = 0; i < 4; i++) {
+                repositories.add(runtime.create());
+            }
+
+            Thread[] threads = new Thread[4];
+
+            for (int i = 0; i < threads.length; i++) {
+                threads[i] = new Thread(() -> {
+                    for (int j = 0; j < 1000; j++) {
+                        for (OwnedRepository repository : repositories) {
+                            repository.execute(owned -> IntegerValues.increaseBy(owned, WINS, 1));
+                        }
+                    }
+                });
+                threads[i].start();
+            }
+
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            for (OwnedRepository repository : repositories) {
+                assertEquals(4000, repository.get(WINS).get());
+            }
+        }
+    }
+
+    @Test
+    void testExecuteAllocation() {
+        assumeTrue(AllocationMeter.isSupported(), "allocated bytes are not measurable");
+
+        try (ShardedRuntime runtime = new ShardedRuntime(1)) {
+            OwnedRepository repository = runtime.create();
+
+            // The enqueued task and its queue node, the operation itself captures nothing
+            AllocationMeter.assertWithinBudget(
+                    Collections.singletonMap("execute", () -> repository.execute(ShardedRuntimeTests::win)),
+                    operation -> 2);
+        }
+    }
+
+    private static void win(Repository repository) {
+        IntegerValues.increaseBy(repository, WINS, 1);
+    }
+
+    @Test
+    void testSubmitAndSnapshot() throws Exception {
+        try (ShardedRuntime runtime = new ShardedRuntime(1)) {
+            OwnedRepository repository = runtime.create();
+
+            repository.execute(owned -> owned.put(NAME, "foo"));
+            CompletableFuture<Boolean> owner = repository.submit(owned -> repository.isOwner());
+            FrozenRepository snapshot = repository.snapshot().get();
+            repository.execute(owned -> owned.put(NAME, "bar"));
+
+            assertTrue(owner.get());
+            assertFalse(repository.isOwner());
+            assertEquals("foo", snapshot.get(NAME));
+            assertEquals("bar", repository.get(NAME).get());
+        }
+    }
+
+    @Test
+    void testFailures() throws Exception {
+        try (ShardedRuntime runtime = new ShardedRuntime(1)) {
+            OwnedRepository repository = runtime.create();
+
+            CompletableFuture<Object> future = repository.submit(owned -> {
+                throw new IllegalStateException("dummy");
+            });
+
+            ExecutionException exception = assertThrows(ExecutionException.class, future::get);
+            assertTrue(exception.getCause() instanceof IllegalStateException);
+
+            // The shard keeps running
+            assertEquals(2, repository.submit(owned -> 2).get());
+        }
+    }
+
+    @Test
+    void testClose() throws Exception {
+        ShardedRuntime runtime = new ShardedRuntime(2);
+        OwnedRepository repository = runtime.create();
+        CompletableFuture<String> pending = repository.submit(owned -> "done");
+
+        runtime.close();
+
+        assertEquals("done", pending.get());
+        assertThrows(RejectedExecutionException.class, runtime::create);
+        assertThrows(RejectedExecutionException.class, () -> repository.execute(owned -> {}));
+    }
+
+    @Test
+    void testSubmitDuringClose() throws Exception {
+        for (int attempt = 0; attempt < 50; attempt++) {
+            ShardedRuntime runtime = new ShardedRuntime(1);
+            OwnedRepository repository = runtime.create();
+            List<CompletableFuture<Integer>> futures = Collections.synchronizedList(new ArrayList<>());
+
+            Thread submitter = new Thread(() -> {
+                try {
+                    while (true) {
+                        futures.add(repository.submit(owned -> IntegerValues.increaseBy(owned, WINS, 1)));
+                    }
+                } catch (RejectedExecutionException expected) {
+                    // Closed
+                }
+            });
+            submitter.start();
+            runtime.close();
+            submitter.join();
+
+            // Accepted operations are always applied
+            for (CompletableFuture<Integer> future : futures) {
+                assertTrue(future.isDone());
+            }
+        }
+    }
+
+    @Test
+    void testCloseRestoresInterrupt() throws Exception {
+        ShardedRuntime runtime = new ShardedRuntime(1);
+        CompletableFuture<String> pending = runtime.create().submit(owned -> "done");
+
+        Thread.currentThread().interrupt();
+        runtime.close();
+
+        // Clears the interrupt status
+        assertTrue(Thread.interrupted());
+        assertEquals("done", pending.get());
+    }
+}
@@ -1,5 +1,7 @@
 package me.hugmanrique.cellarium.tests;
 
+import me.hugmanrique.cellarium.KeyGroup;
+import me.hugmanrique.cellarium.ValueRetention;
 import me.hugmanrique.cellarium.simple.SimpleKey;
 import org.junit.jupiter.api.Test;
 
@@ -27,6 +29,39 @@ public class SimpleKeyTests {
         assertEquals(15, foo.defaultValue());
     }
 
+    @Test
+    void testBuildWithName() {
+        SimpleKey<Integer> foo = new SimpleKey.Builder<>(Integer.class)
+                .name("foo")
+                .build();
+
+        assertEquals("foo", foo.name());
+        assertNull(new SimpleKey.Builder<>(Integer.class).build().name());
+    }
+
+    @Test
+    void testBuildWithRetention() {
+        SimpleKey.Builder<String> builder = new SimpleKey.Builder<>(String.class);
+
+        assertEquals(ValueRetention.STRONG, builder.build().retention());
+        assertNull(builder.build().loader());
+        assertEquals(ValueRetention.WEAK, builder.weakValues().build().retention());
+
+        SimpleKey<String> foo = builder.softValues().loader(() -> "foo").build();
+        assertEquals(ValueRetention.SOFT, foo.retention());
+        assertEquals("foo", foo.loader().get());
+    }
+
+    @Test
+    void testBuildWithGroup() {
+        KeyGroup group = new KeyGroup("session");
+        SimpleKey.Builder<String> builder = new SimpleKey.Builder<>(String.class);
+
+        assertNull(builder.build().group());
+        assertSame(group, builder.group(group).build().group());
+        assertThrows(NullPointerException.class, () -> builder.group(null));
+    }
+
     @Test
     void testNullValueTypeThrows() {
         assertThrows(NullPointerException.class, () -> {
@@ -0,0 +1,118 @@
+package me.hugmanrique.cellarium.tests;
+
+import me.hugmanrique.cellarium.Key;
+import me.hugmanrique.cellarium.ListeningRepository;
+import me.hugmanrique.cellarium.Repository;
+import me.hugmanrique.cellarium.index.SortedIndex;
+import me.hugmanrique.cellarium.simple.SimpleKey;
+import me.hugmanrique.cellarium.simple.SimpleRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SortedIndexTests {
+
+    private static final Key<Integer> ELO = new SimpleKey.Builder<>(Integer.class)
+            .defaultValue(1200)
+            .build();
+
+    private static final Key<Integer> WINS = new SimpleKey.Builder<>(Integer.class).build();
+
+    @Test
+    void testTracksDefaultValue() {
+        SortedIndex<Integer> index = SortedIndex.newInstance(ELO);
+        Repository player = index.track(SimpleRepository.newInstance());
+
+        assertEquals(1, index.size());
+        assertEquals(1200, index.scoreOf(player));
+        assertEquals(0, index.rankOf(player));
+    }
+
+    @Test
+    void testSkipsNullValues() {
+        SortedIndex<Integer> index = SortedIndex.newInstance(WINS);
+        Repository player = index.track(SimpleRepository.newInstance());
+
+        assertEquals(0, index.size());
+        assertEquals(-1, index.rankOf(player));
+
+        player.put(WINS, 3);
+        assertEquals(0, index.rankOf(player));
+
+        player.remove(WINS);
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void testOrdering() {
+        SortedIndex<Integer> index = SortedIndex.newInstance(ELO);
+        Repository first = index.track(SimpleRepository.newInstance());
+        Repository second = index.track(SimpleRepository.newInstance());
+        Repository third = index.track(SimpleRepository.newInstance());
+
+        first.put(ELO, 1500);
+        second.put(ELO, 1100);
+        third.compute(ELO, previous -> previous + 100);
+
+        assertEquals(Arrays.asList(first, third, second), index.top(10));
+        assertEquals(Arrays.asList(first, third), index.top(2));
+        assertEquals(Arrays.asList(third, second), index.ranked(1, 5));
+        assertEquals(Arrays.asList(third, second), index.rangeByScore(1000, 1300));
+        assertEquals(2, index.rankOf(second));
+
+        // Ties are ordered by arrival
+        second.put(ELO, 1300);
+        assertEquals(Arrays.asList(first, third, second), index.top(3));
+
+        second.clear();
+        assertEquals(1200, index.scoreOf(second));
+    }
+
+    @Test
+    void testUntrack() {
+        SortedIndex<Integer> index = SortedIndex.newInstance(ELO);
+        ListeningRepository player = index.track(SimpleRepository.newInstance());
+
+        index.untrack(player);
+        player.put(ELO, 1600);
+
+        assertEquals(0, index.size());
+        assertEquals(-1, index.rankOf(player));
+    }
+
+    @Test
+    void testMatchesSortedOrder() {
+        SortedIndex<Integer> index = SortedIndex.newInstance(ELO);
+        List<Repository> players = new ArrayList<>();
+        Random random = new Random(0xE10);
+
+        for (int i = 0; i < 500; i++) {
+            players.add(index.track(SimpleRepository.newInstance()));
+        }
+
+        for (int i = 0; i < 5000; i++) {
+            players.get(random.nextInt(players.size())).put(ELO, random.nextInt(3000));
+        }
+
+        List<Repository> expected = players.stream()
+                .sorted(Comparator.comparingLong(index::scoreOf).reversed())
+                .collect(Collectors.toList());
+        List<Repository> actual = index.top(players.size());
+
+        for (int rank = 0; rank < actual.size(); rank++) {
+            Repository player = actual.get(rank);
+
+            assertEquals(rank, index.rankOf(player));
+            assertEquals(index.scoreOf(expected.get(rank)), index.scoreOf(player));
+        }
+
+        assertEquals(players.size(), actual.size());
+    }
+}
@@ -0,0 +1,215 @@
+package me.hugmanrique.cellarium.tests;
+
+import me.hugmanrique.cellarium.Key;
+import me.hugmanrique.cellarium.KeyRegistry;
+import me.hugmanrique.cellarium.Repository;
+import me.hugmanrique.cellarium.io.RepositoryReader;
+import me.hugmanrique.cellarium.io.RepositoryWriter;
+import me.hugmanrique.cellarium.io.TextFormat;
+import me.hugmanrique.cellarium.simple.SimpleKey;
+import me.hugmanrique.cellarium.simple.SimpleRepository;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TextFormatTests {
+
+    private enum Rank { BEGINNER, CHAMPION }
+
+    private static final Key<String> NAME = new SimpleKey.Builder<>(String.class).name("name").build();
+    private static final Key<Integer> ELO = new SimpleKey.Builder<>(Integer.class).name("elo").build();
+    private static final Key<Double> RATIO = new SimpleKey.Builder<>(Double.class).name("ratio").build();
+    private static final Key<Boolean> BANNED = new SimpleKey.Builder<>(Boolean.class).name("banned").build();
+    private static final Key<Rank> RANK = new SimpleKey.Builder<>(Rank.class).name("rank").build();
+
+    private static final List<Key<?>> COLUMNS = Arrays.asList(NAME, ELO, RATIO, BANNED, RANK);
+    private static final KeyRegistry REGISTRY = new KeyRegistry.Builder()
+            .add(NAME).add(ELO).add(RATIO).add(BANNED).add(RANK)
+            .build();
+
+    private static List<Repository> sampleRepositories() {
+        List<Repository> repositories = new ArrayList<>();
+
+        for (int i = 0; i < 100; i++) {
+            Repository repository = SimpleRepository.newInstance();
+            repository.put(ELO, i * 10);
+
+            if (i % 3 == 0) {
+                repository.put(NAME, i == 0 ? "" : "Player, \"the " + i + "th\"\nsecond line");
+            } else if (i % 3 == 1) {
+                repository.put(NAME, "player" + i);
+                repository.put(RATIO, i / 7d);
+            }
+
+            repository.put(BANNED, i % 2 == 0);
+
+            if (i % 5 == 0) {
+                repository.put(RANK, Rank.CHAMPION);
+            }
+
+            repositories.add(repository);
+        }
+
+        return repositories;
+    }
+
+    private static String write(TextFormat format, List<Repository> repositories) throws IOException {
+        StringWriter out = new StringWriter();
+
+        try (RepositoryWriter writer = new RepositoryWriter(out, format, COLUMNS)) {
+            writer.writeAll(repositories);
+        }
+
+        return out.toString();
+    }
+
+    private static void assertSameMappings(List<Repository> expected, List<Repository> actual) {
+        assertEquals(expected.size(), actual.size());
+
+        for (int i = 0; i < expected.size(); i++) {
+            for (Key<?> key : COLUMNS) {
+                assertEquals(expected.get(i).contains(key), actual.get(i).contains(key), key + " of #" + i);
+                assertEquals(expected.get(i).get(key), actual.get(i).get(key), key + " of #" + i);
+            }
+        }
+    }
+
+    @Test
+    void testRoundTrip() throws IOException {
+        List<Repository> repositories = sampleRepositories();
+
+        for (TextFormat format : TextFormat.values()) {
+            String text = write(format, repositories);
+            List<Repository> read = new ArrayList<>();
+
+            try (RepositoryReader reader = new RepositoryReader(new StringReader(text), format, REGISTRY, SimpleRepository::newInstance)) {
+                assertEquals(repositories.size(), reader.readAll(read::add));
+                assertNull(reader.read());
+            }
+
+            assertSameMappings(repositories, read);
+        }
+    }
+
+    @Test
+    void testParallelRead() throws IOException {
+        List<Repository> repositories = sampleRepositories();
+        ForkJoinPool pool = new ForkJoinPool(3);
+
+        try {
+            for (TextFormat format : TextFormat.values()) {
+                String text = write(format, repositories);
+                List<Repository> read = new ArrayList<>();
+
+                try (RepositoryReader reader = new RepositoryReader(new StringReader(text), format, REGISTRY, SimpleRepository::newInstance)) {
+                    assertEquals(repositories.size(), reader.readAll(read::add, pool, 7));
+                }
+
+                assertSameMappings(repositories, read);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testFormats() throws IOException {
+        Repository repository = SimpleRepository.newInstance();
+        repository.put(NAME, "Steve");
+        repository.put(ELO, 1200);
+        repository.put(RANK, Rank.BEGINNER);
+
+        assertEquals("name,elo,ratio,banned,rank\nSteve,1200,,,BEGINNER\n",
+                write(TextFormat.CSV, Arrays.asList(repository)));
+        assertEquals("{\"name\":\"Steve\",\"elo\":1200,\"rank\":\"BEGINNER\"}\n",
+                write(TextFormat.JSON_LINES, Arrays.asList(repository)));
+    }
+
+    @Test
+    void testUnknownNamesAreSkipped() throws IOException {
+        String csv = "elo,unknown\n5,abc\n7,\n";
+
+        try (RepositoryReader reader = new RepositoryReader(new StringReader(csv), TextFormat.CSV, REGISTRY, SimpleRepository::newInstance)) {
+            assertEquals(5, reader.read().get(ELO));
+            assertEquals(7, reader.read().get(ELO));
+            assertNull(reader.read());
+        }
+
+        String json = "{ \"unknown\" : \"x\\\"y\", \"elo\" : -3, \"name\": null }\n\n{}";
+
+        try (RepositoryReader reader = new RepositoryReader(new StringReader(json), TextFormat.JSON_LINES, REGISTRY, SimpleRepository::newInstance)) {
+            Repository repository = reader.read();
+            assertEquals(-3, repository.get(ELO));
+            assertFalse(repository.contains(NAME));
+            assertTrue(reader.read().isEmpty());
+        }
+    }
+
+    @Test
+    void testMalformedRecords() throws IOException {
+        String[] csv = {"elo\nabc\n", "elo,name\n1\n", "name\n\"unterminated\n"};
+
+        for (String text : csv) {
+            assertThrows(IOException.class, () -> {
+                try (RepositoryReader reader = new RepositoryReader(new StringReader(text), TextFormat.CSV, REGISTRY, SimpleRepository::newInstance)) {
+                    reader.readAll(repository -> {});
+                }
+            });
+        }
+
+        String[] json = {"{\"elo\":\"abc\"}", "{\"rank\":\"NOPE\"}", "{\"elo\":1", "{\"elo\":[1]}", "{} x"};
+
+        for (String text : json) {
+            assertThrows(IOException.class, () -> {
+                try (RepositoryReader reader = new RepositoryReader(new StringReader(text), TextFormat.JSON_LINES, REGISTRY, SimpleRepository::newInstance)) {
+                    reader.read();
+                }
+            });
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(2);
+
+        try (RepositoryReader reader = new RepositoryReader(new StringReader("elo\n1\n2\nx\n"), TextFormat.CSV, REGISTRY, SimpleRepository::newInstance)) {
+            assertThrows(IOException.class, () -> reader.readAll(repository -> {}, pool, 1));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testSingleColumn() throws IOException {
+        Repository empty = SimpleRepository.newInstance();
+        Repository named = SimpleRepository.newInstance();
+        named.put(NAME, "");
+
+        StringWriter out = new StringWriter();
+
+        try (RepositoryWriter writer = new RepositoryWriter(out, TextFormat.CSV, Arrays.asList(NAME))) {
+            writer.writeAll(Arrays.asList(empty, named));
+        }
+
+        assertEquals("name\n\n\"\"\n", out.toString());
+
+        try (RepositoryReader reader = new RepositoryReader(new StringReader(out.toString()), TextFormat.CSV, REGISTRY, SimpleRepository::newInstance)) {
+            assertTrue(reader.read().isEmpty());
+            assertEquals("", reader.read().get(NAME));
+            assertNull(reader.read());
+        }
+    }
+
+    @Test
+    void testUnnamedColumnThrows() {
+        Key<String> unnamed = new SimpleKey.Builder<>(String.class).build();
+
+        assertThrows(IllegalArgumentException.class, () ->
+                new RepositoryWriter(new StringWriter(), TextFormat.CSV, Arrays.asList(unnamed)));
+    }
+}
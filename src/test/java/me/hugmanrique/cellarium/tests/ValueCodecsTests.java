@@ -0,0 +1,83 @@
+package me.hugmanrique.cellarium.tests;
+
+import me.hugmanrique.cellarium.codec.ValueCodec;
+import me.hugmanrique.cellarium.codec.ValueCodecs;
+import me.hugmanrique.cellarium.codec.Varints;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ValueCodecsTests {
+
+    private static final int CHECK_COUNT = 1000;
+
+    private static final Random random = new Random(0xC0DE);
+
+    enum Color {
+        RED, GREEN, BLUE
+    }
+
+    private static <T> T roundTrip(ValueCodec<T> codec, T value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        codec.encode(value, new DataOutputStream(bytes));
+
+        return codec.decode(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+
+    @Test
+    void testZigZag() {
+        for (int i = 0; i < CHECK_COUNT; i++) {
+            int value = random.nextInt();
+            long longValue = random.nextLong();
+
+            assertEquals(value, Varints.unZigZag(Varints.zigZag(value)));
+            assertEquals(longValue, Varints.unZigZag(Varints.zigZag(longValue)));
+        }
+
+        assertEquals(1, Varints.zigZag(-1));
+        assertEquals(2, Varints.zigZag(1));
+    }
+
+    @Test
+    void testRoundTrips() throws IOException {
+        for (int i = 0; i < CHECK_COUNT; i++) {
+            int value = random.nextInt();
+            long longValue = random.nextLong();
+
+            assertEquals(value, roundTrip(ValueCodecs.INTEGER, value));
+            assertEquals(longValue, roundTrip(ValueCodecs.LONG, longValue));
+        }
+
+        assertEquals(Integer.MIN_VALUE, roundTrip(ValueCodecs.INTEGER, Integer.MIN_VALUE));
+        assertEquals(Long.MAX_VALUE, roundTrip(ValueCodecs.LONG, Long.MAX_VALUE));
+        assertEquals(1.5, roundTrip(ValueCodecs.DOUBLE, 1.5));
+        assertEquals(true, roundTrip(ValueCodecs.BOOLEAN, true));
+        assertEquals("héllo", roundTrip(ValueCodecs.STRING, "héllo"));
+        assertEquals(Color.BLUE, roundTrip(ValueCodecs.forEnum(Color.class), Color.BLUE));
+    }
+
+    @Test
+    void testMalformedVarIntThrows() {
+        byte[] bytes = { -1, -1, -1, -1, -1, -1 };
+
+        assertThrows(IOException.class, () -> Varints.readVarInt(new DataInputStream(new ByteArrayInputStream(bytes))));
+    }
+
+    @Test
+    void testInvalidStringLengthThrows() throws IOException {
+        for (int length : new int[] { -1, Integer.MAX_VALUE }) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            Varints.writeVarInt(new DataOutputStream(bytes), length);
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+
+            assertThrows(IOException.class, () -> ValueCodecs.STRING.decode(in));
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package me.hugmanrique.cellarium.tests.repository;
+
+import me.hugmanrique.cellarium.ForwardingRepository;
+import me.hugmanrique.cellarium.Key;
+import me.hugmanrique.cellarium.Repository;
+import me.hugmanrique.cellarium.concurrent.AdaptiveRepository;
+import me.hugmanrique.cellarium.simple.SimpleKey;
+import me.hugmanrique.cellarium.simple.SimpleRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntBinaryOperator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdaptiveRepositoryTests extends RepositoryTests {
+
+    private static final Key<Integer> HITS = new SimpleKey.Builder<>(Integer.class).build();
+    private static final Key<Integer> SCORE = new SimpleKey.Builder<>(Integer.class)
+            .defaultValue(100)
+            .build();
+
+    @Override
+    protected Repository newRepository() {
+        return new AdaptiveRepository.Builder().build(SimpleRepository.newConcurrentInstance());
+    }
+
+    @Override
+    protected int allocatedObjects(String operation) {
+        switch (operation) {
+            case "compute":
+            case "computeIfPresent":
+                // ConcurrentHashMap#compute takes a capturing remapping function, per call
+                return 2;
+            case "nextValue":
+                return 1;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Applies every update function twice, as if each update lost a race.
+     */
+    private static class RetryingRepository extends ForwardingRepository {
+
+        final AtomicInteger updates = new AtomicInteger();
+
+        RetryingRepository() {
+            super(SimpleRepository.newInstance());
+        }
+
+        @Override
+        public int computeInt(Key<Integer> key, int operand, IntBinaryOperator operator) {
+            updates.incrementAndGet();
+            operator.applyAsInt(0, operand);
+            return super.computeInt(key, operand, operator);
+        }
+    }
+
+    @Test
+    void testPromotion() {
+        RetryingRepository backing = new RetryingRepository();
+        AdaptiveRepository repository = new AdaptiveRepository.Builder()
+                .promotionThreshold(2)
+                .window(1, TimeUnit.HOURS)
+                .build(backing);
+
+        repository.add(HITS, 1);
+        assertFalse(repository.isPromoted(HITS));
+        repository.add(HITS, 1);
+        assertTrue(repository.isPromoted(HITS));
+        assertEquals(1, repository.promotedCount());
+        assertEquals(2, backing.updates.get());
+
+        for (int i = 0; i < 10; i++) {
+            repository.add(HITS, 1);
+        }
+
+        // Striped increments do not touch the backing repository
+        assertEquals(2, backing.updates.get());
+        assertEquals(12, repository.get(HITS));
+        assertEquals(2, backing.get(HITS));
+        assertTrue(repository.contains(HITS));
+        assertEquals(1, repository.size());
+    }
+
+    /**
+     * Delays every update, as if waiting for a lock held by another thread.
+     */
+    private static class WaitingRepository extends ForwardingRepository {
+
+        WaitingRepository() {
+            super(SimpleRepository.newInstance());
+        }
+
+        @Override
+        public int computeInt(Key<Integer> key, int operand, IntBinaryOperator operator) {
+            long start = System.nanoTime();
+
+            while (System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(1)) {
+                Thread.yield();
+            }
+
+            return super.computeInt(key, operand, operator);
+        }
+    }
+
+    @Test
+    void testLockWaitPromotion() {
+        AdaptiveRepository repository = new AdaptiveRepository.Builder()
+                .promotionThreshold(2)
+                .lockWaitThreshold(100, TimeUnit.MICROSECONDS)
+                .window(1, TimeUnit.HOURS)
+                .build(new WaitingRepository());
+
+        repository.add(HITS, 1);
+        assertFalse(repository.isPromoted(HITS));
+        repository.add(HITS, 1);
+        assertTrue(repository.isPromoted(HITS));
+        assertEquals(2, repository.get(HITS));
+    }
+
+    @Test
+    void testWriteDemotes() {
+        AdaptiveRepository repository = new AdaptiveRepository.Builder()
+                .promotionThreshold(1)
+                .build(new RetryingRepository());
+
+        repository.add(SCORE, 5);
+        assertTrue(repository.isPromoted(SCORE));
+        repository.add(SCORE, 5);
+        assertEquals(110, repository.get(SCORE));
+
+        assertEquals(110, repository.put(SCORE, 1));
+        assertFalse(repository.isPromoted(SCORE));
+        assertEquals(1, repository.get(SCORE));
+    }
+
+    @Test
+    void testRemovePromotedKey() {
+        AdaptiveRepository repository = new AdaptiveRepository.Builder()
+                .promotionThreshold(1)
+                .build(new RetryingRepository());
+
+        repository.add(HITS, 1);
+        repository.add(HITS, 3);
+        assertEquals(4, repository.remove(HITS));
+
+        assertFalse(repository.isPromoted(HITS));
+        assertNull(repository.get(HITS));
+        assertTrue(repository.isEmpty());
+    }
+
+    @Test
+    void testCooledKeyIsDemoted() {
+        RetryingRepository backing = new RetryingRepository();
+        AdaptiveRepository repository = new AdaptiveRepository.Builder()
+                .promotionThreshold(1)
+                .demotionThreshold(1000)
+                .window(0, TimeUnit.NANOSECONDS)
+                .build(backing);
+
+        repository.add(HITS, 1);
+        assertTrue(repository.isPromoted(HITS));
+        repository.add(HITS, 2);
+
+        repository.cleanUp();
+        assertFalse(repository.isPromoted(HITS));
+        assertEquals(3, backing.get(HITS));
+        assertEquals(3, repository.get(HITS));
+    }
+
+    @Test
+    void testConcurrentAdds() throws InterruptedException {
+        AdaptiveRepository repository = new AdaptiveRepository.Builder()
+                .promotionThreshold(1)
+                .demotionThreshold(Integer.MAX_VALUE)
+                .window(1, TimeUnit.MILLISECONDS)
+                .build(SimpleRepository.newConcurrentInstance());
+
+        Thread[] threads = new Thread[4];
+
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 20000; j++) {
+                    repository.add(HITS, 1);
+                }
+            });
+            threads[i].start();
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(80000, repository.get(HITS));
+        repository.cleanUp();
+        assertEquals(80000, repository.get(HITS));
+    }
+
+    @Test
+    void testInvalidBuilderArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveRepository.Builder().promotionThreshold(0));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveRepository.Builder().stripes(0));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveRepository.Builder().window(-1, TimeUnit.SECONDS));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveRepository.Builder().lockWaitThreshold(-1, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,121 @@
+package me.hugmanrique.cellarium.tests.repository;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Measures the bytes allocated by the current thread while running an operation,
+ * using the HotSpot {@code com.sun.management.ThreadMXBean} extension.
+ */
+public final class AllocationMeter {
+
+    private static final int WARMUP_ITERATIONS = 20_000;
+    private static final int MEASURED_ITERATIONS = 10_000;
+
+    private static final com.sun.management.ThreadMXBean THREADS = threadBean();
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+
+            if (threads.isThreadAllocatedMemorySupported()) {
+                threads.setThreadAllocatedMemoryEnabled(true);
+                return threads;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns whether allocations can be measured on this JVM.
+     */
+    public static boolean isSupported() {
+        return THREADS != null;
+    }
+
+    /**
+     * Runs the operation until it is compiled, and returns the average number
+     * of bytes it allocates per run afterwards.
+     */
+    public static long bytesPerOperation(Runnable operation) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            operation.run();
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long start = THREADS.getThreadAllocatedBytes(threadId);
+
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            operation.run();
+        }
+
+        long allocated = THREADS.getThreadAllocatedBytes(threadId) - start;
+
+        // The measurement itself may allocate a few bytes, which round down to zero
+        return allocated / MEASURED_ITERATIONS;
+    }
+
+    // Escapes the reference objects, so their allocation cannot be eliminated
+    private static volatile Object sink;
+
+    private static long objectSize;
+
+    /**
+     * Returns the size of a small object with three reference fields, such as
+     * a capturing lambda, as allocated by this JVM.
+     */
+    public static synchronized long objectSize() {
+        if (objectSize == 0) {
+            objectSize = bytesPerOperation(() -> sink = new Triple(sink, sink, sink));
+        }
+
+        return objectSize;
+    }
+
+    /**
+     * Asserts that each operation allocates at most the given number of small
+     * objects per run, on average, as measured by {@link #objectSize()}.
+     *
+     * @param operations the operations by name
+     * @param allocatedObjects the maximum number of objects allocated by each operation
+     */
+    public static void assertWithinBudget(Map<String, Runnable> operations, ToIntFunction<String> allocatedObjects) {
+        StringBuilder exceeded = new StringBuilder();
+
+        for (Map.Entry<String, Runnable> operation : operations.entrySet()) {
+            long bytes = bytesPerOperation(operation.getValue());
+            long budget = allocatedObjects.applyAsInt(operation.getKey()) * objectSize();
+
+            if (bytes > budget) {
+                exceeded.append(' ').append(operation.getKey())
+                        .append('=').append(bytes).append("B/").append(budget).append('B');
+            }
+        }
+
+        assertEquals(0, exceeded.length(), "allocation budget exceeded:" + exceeded);
+    }
+
+    private static final class Triple {
+
+        final Object first;
+        final Object second;
+        final Object third;
+
+        Triple(Object first, Object second, Object third) {
+            this.first = first;
+            this.second = second;
+            this.third = third;
+        }
+    }
+
+    private AllocationMeter() {
+        throw new AssertionError();
+    }
+}
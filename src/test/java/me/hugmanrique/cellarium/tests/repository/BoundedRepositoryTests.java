@@ -0,0 +1,160 @@
+package me.hugmanrique.cellarium.tests.repository;
+
+import me.hugmanrique.cellarium.Key;
+import me.hugmanrique.cellarium.Repository;
+import me.hugmanrique.cellarium.cache.BoundedRepository;
+import me.hugmanrique.cellarium.cache.CacheStats;
+import me.hugmanrique.cellarium.cache.EvictionPolicy;
+import me.hugmanrique.cellarium.simple.SimpleKey;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoundedRepositoryTests extends RepositoryTests {
+
+    @Override
+    protected Repository newRepository() {
+        return new BoundedRepository.Builder()
+                .maximumSize(100)
+                .build();
+    }
+
+    private static List<Key<Integer>> newKeys(int count) {
+        List<Key<Integer>> keys = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            keys.add(new SimpleKey.Builder<>(Integer.class).build());
+        }
+
+        return keys;
+    }
+
+    @Test
+    void testLruEviction() {
+        List<Key<?>> evicted = new ArrayList<>();
+        BoundedRepository repository = new BoundedRepository.Builder()
+                .maximumSize(3)
+                .policy(EvictionPolicy.LRU)
+                .evictionListener((key, value) -> evicted.add(key))
+                .build();
+
+        List<Key<Integer>> keys = newKeys(5);
+
+        for (int i = 0; i < 3; i++) {
+            repository.put(keys.get(i), i);
+        }
+
+        // Access the eldest key, so the second one becomes the least recently used
+        assertEquals(0, repository.get(keys.get(0)));
+        repository.put(keys.get(3), 3);
+        repository.put(keys.get(4), 4);
+
+        assertEquals(3, repository.size());
+        assertEquals(3, repository.weightedSize());
+        assertEquals(2, evicted.size());
+        assertSame(keys.get(1), evicted.get(0));
+        assertSame(keys.get(2), evicted.get(1));
+        assertTrue(repository.contains(keys.get(0)));
+
+        // Explicit removals are not evictions
+        repository.remove(keys.get(0));
+        assertEquals(2, evicted.size());
+    }
+
+    @Test
+    void testStats() {
+        BoundedRepository repository = new BoundedRepository.Builder()
+                .maximumSize(1)
+                .build();
+
+        List<Key<Integer>> keys = newKeys(2);
+        repository.put(keys.get(0), 1);
+        repository.get(keys.get(0));
+        repository.get(keys.get(1));
+        repository.put(keys.get(1), 2);
+
+        CacheStats stats = repository.stats();
+        assertEquals(1, stats.hitCount());
+        assertEquals(1, stats.missCount());
+        assertEquals(0.5, stats.hitRate());
+        assertEquals(1, stats.evictionCount());
+        assertEquals(1, repository.size());
+    }
+
+    @Test
+    void testTinyLfuResistsScans() {
+        BoundedRepository repository = new BoundedRepository.Builder()
+                .maximumSize(100)
+                .build();
+
+        List<Key<Integer>> hot = newKeys(50);
+
+        for (int round = 0; round < 5; round++) {
+            for (Key<Integer> key : hot) {
+                repository.computeInt(key, 1, Integer::sum);
+            }
+        }
+
+        // A scan of keys accessed once must not displace the frequently used ones
+        for (Key<Integer> key : newKeys(1000)) {
+            repository.put(key, 0);
+        }
+
+        int retained = 0;
+
+        for (Key<Integer> key : hot) {
+            if (repository.contains(key)) {
+                retained++;
+            }
+        }
+
+        assertEquals(50, retained);
+        assertEquals(100, repository.size());
+    }
+
+    @Test
+    void testMaximumWeight() {
+        Key<String> first = new SimpleKey.Builder<>(String.class).build();
+        Key<String> second = new SimpleKey.Builder<>(String.class).build();
+
+        BoundedRepository repository = new BoundedRepository.Builder()
+                .maximumWeight(10, (key, value) -> ((String) value).length())
+                .policy(EvictionPolicy.LRU)
+                .build();
+
+        repository.put(first, "abcdef");
+        repository.put(second, "abc");
+        assertEquals(9, repository.weightedSize());
+
+        // Growing the most recent mapping evicts the eldest one
+        repository.put(second, "abcdefgh");
+        assertFalse(repository.contains(first));
+        assertEquals(8, repository.weightedSize());
+
+        repository.put(first, "abcdefghijk");
+        assertTrue(repository.isEmpty());
+    }
+
+    @Test
+    void testZeroMaximumRetainsNothing() {
+        for (EvictionPolicy policy : EvictionPolicy.values()) {
+            BoundedRepository repository = new BoundedRepository.Builder()
+                    .maximumSize(0)
+                    .policy(policy)
+                    .build();
+
+            repository.put(newKeys(1).get(0), 1);
+            assertTrue(repository.isEmpty(), policy.name());
+            assertEquals(1, repository.stats().evictionCount());
+        }
+    }
+
+    @Test
+    void testBuilderRequiresMaximum() {
+        assertThrows(IllegalStateException.class, () -> new BoundedRepository.Builder().build());
+        assertThrows(IllegalArgumentException.class, () -> new BoundedRepository.Builder().maximumSize(-1));
+    }
+}
@@ -0,0 +1,164 @@
+package me.hugmanrique.cellarium.tests.repository;
+
+import me.hugmanrique.cellarium.Key;
+import me.hugmanrique.cellarium.Repository;
+import me.hugmanrique.cellarium.concurrent.BufferedRepository;
+import me.hugmanrique.cellarium.simple.SimpleKey;
+import me.hugmanrique.cellarium.simple.SimpleRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BufferedRepositoryTests extends RepositoryTests {
+
+    private static final Key<Integer> KILLS = new SimpleKey.Builder<>(Integer.class).build();
+    private static final Key<Integer> SCORE = new SimpleKey.Builder<>(Integer.class)
+            .defaultValue(100)
+            .build();
+
+    @Override
+    protected Repository newRepository() {
+        return new BufferedRepository(SimpleRepository.newInstance(), 16, 1, TimeUnit.DAYS);
+    }
+
+    @Test
+    void testSizeThreshold() {
+        Repository backing = SimpleRepository.newInstance();
+        BufferedRepository repository = new BufferedRepository(backing, 3, 1, TimeUnit.DAYS);
+
+        repository.add(KILLS, 1);
+        repository.add(SCORE, -5);
+        assertNull(backing.get(KILLS));
+        assertEquals(100, backing.get(SCORE));
+
+        repository.add(KILLS, 2);
+        assertEquals(3, backing.get(KILLS));
+        assertEquals(95, backing.get(SCORE));
+    }
+
+    @Test
+    void testFlush() {
+        Repository backing = SimpleRepository.newInstance();
+        BufferedRepository repository = new BufferedRepository(backing, 1000, 1, TimeUnit.DAYS);
+
+        repository.add(KILLS, 4);
+        repository.add(KILLS, -1);
+        assertFalse(backing.contains(KILLS));
+
+        repository.flush();
+        assertEquals(3, repository.get(KILLS));
+    }
+
+    @Test
+    void testInterval() {
+        Repository backing = SimpleRepository.newInstance();
+        BufferedRepository repository = new BufferedRepository(backing, 1000, 0, TimeUnit.NANOSECONDS);
+
+        repository.add(KILLS, 2);
+        assertEquals(2, backing.get(KILLS));
+    }
+
+    @Test
+    void testFlushAll() throws InterruptedException {
+        Repository backing = SimpleRepository.newConcurrentInstance();
+        BufferedRepository repository = new BufferedRepository(backing, 1000, 1, TimeUnit.DAYS);
+        Thread[] threads = new Thread[4];
+
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 500; j++) {
+                    repository.add(KILLS, 1);
+                }
+            });
+            threads[i].start();
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertFalse(backing.contains(KILLS));
+
+        repository.flushAll();
+        assertEquals(2000, backing.get(KILLS));
+
+        // Buffers are only merged once
+        repository.flushAll();
+        assertEquals(2000, backing.get(KILLS));
+    }
+
+    @Test
+    void testReadsDoNotMergePendingDeltas() throws InterruptedException {
+        Repository backing = SimpleRepository.newConcurrentInstance();
+        BufferedRepository repository = new BufferedRepository(backing, 1000, 1, TimeUnit.DAYS);
+
+        Thread writer = new Thread(() -> repository.add(KILLS, 5));
+        writer.start();
+        writer.join();
+
+        repository.add(KILLS, 1);
+        assertFalse(repository.contains(KILLS));
+        assertNull(repository.get(KILLS));
+
+        // Read your own writes
+        repository.flush();
+        assertEquals(1, repository.get(KILLS));
+
+        repository.flushAll();
+        assertEquals(6, repository.get(KILLS));
+    }
+
+    @Test
+    void testPendingDeltasApplyToMergedValue() {
+        Repository backing = SimpleRepository.newInstance();
+        BufferedRepository repository = new BufferedRepository(backing, 1000, 1, TimeUnit.DAYS);
+
+        repository.add(KILLS, 3);
+        repository.put(KILLS, 10);
+
+        repository.flushAll();
+        assertEquals(13, repository.get(KILLS));
+    }
+
+    @Test
+    void testClearDiscardsPendingDeltas() {
+        Repository backing = SimpleRepository.newInstance();
+        BufferedRepository repository = new BufferedRepository(backing, 1000, 1, TimeUnit.DAYS);
+
+        repository.add(KILLS, 3);
+        repository.clear();
+        repository.flushAll();
+
+        assertTrue(repository.isEmpty());
+    }
+
+    @Test
+    void testReleasesIdleBuffers() throws InterruptedException {
+        Repository backing = SimpleRepository.newConcurrentInstance();
+        BufferedRepository repository = new BufferedRepository(backing, 1000, 1, TimeUnit.DAYS);
+
+        Thread writer = new Thread(() -> repository.add(KILLS, 1));
+        writer.start();
+        writer.join();
+
+        repository.add(KILLS, 1);
+        assertEquals(2, repository.bufferCount());
+
+        // The buffer of the terminated thread is released once merged
+        repository.flushAll();
+        assertEquals(1, repository.bufferCount());
+        assertEquals(2, backing.get(KILLS));
+
+        // The idle buffer is released, and registered again on the next update
+        repository.flushAll();
+        assertEquals(0, repository.bufferCount());
+
+        repository.add(KILLS, 1);
+        assertEquals(1, repository.bufferCount());
+
+        repository.flush();
+        assertEquals(3, repository.get(KILLS));
+    }
+}
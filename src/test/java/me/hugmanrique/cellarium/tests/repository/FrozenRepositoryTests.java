@@ -0,0 +1,107 @@
+package me.hugmanrique.cellarium.tests.repository;
+
+import me.hugmanrique.cellarium.Key;
+import me.hugmanrique.cellarium.simple.FrozenRepository;
+import me.hugmanrique.cellarium.simple.SimpleKey;
+import me.hugmanrique.cellarium.simple.SimpleRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class FrozenRepositoryTests {
+
+    private static final Key<String> FOO = new SimpleKey.Builder<>(String.class).build();
+    private static final Key<Integer> BAR = new SimpleKey.Builder<>(Integer.class)
+            .defaultValue(7)
+            .build();
+
+    @Test
+    void testFreeze() {
+        SimpleRepository repository = SimpleRepository.newConcurrentInstance();
+        repository.put(FOO, "bar");
+
+        FrozenRepository frozen = repository.freeze();
+        repository.put(FOO, "baz");
+        repository.put(BAR, 3);
+
+        assertEquals("bar", frozen.get(FOO));
+        assertEquals(7, frozen.get(BAR));
+        assertTrue(frozen.contains(FOO));
+        assertFalse(frozen.contains(BAR));
+        assertEquals(1, frozen.size());
+        assertFalse(frozen.isEmpty());
+    }
+
+    @Test
+    void testEmpty() {
+        FrozenRepository frozen = new FrozenRepository.Builder().build();
+
+        assertNull(frozen.get(FOO));
+        assertEquals(7, frozen.get(BAR));
+        assertEquals(0, frozen.size());
+        assertTrue(frozen.isEmpty());
+    }
+
+    @Test
+    void testManyKeys() {
+        List<Key<Integer>> keys = new ArrayList<>();
+        FrozenRepository.Builder builder = new FrozenRepository.Builder();
+
+        for (int i = 0; i < 1000; i++) {
+            Key<Integer> key = new SimpleKey.Builder<>(Integer.class).build();
+            keys.add(key);
+            builder.put(key, i);
+        }
+
+        FrozenRepository frozen = builder.build();
+        assertEquals(1000, frozen.size());
+
+        for (int i = 0; i < keys.size(); i++) {
+            assertEquals(i, frozen.get(keys.get(i)));
+        }
+
+        assertFalse(frozen.contains(FOO));
+    }
+
+    @Test
+    void testMutatorsThrow() {
+        FrozenRepository frozen = new FrozenRepository.Builder()
+                .put(FOO, "bar")
+                .build();
+
+        assertThrows(UnsupportedOperationException.class, () -> frozen.put(FOO, "baz"));
+        assertThrows(UnsupportedOperationException.class, () -> frozen.putIfAbsent(BAR, 1));
+        assertThrows(UnsupportedOperationException.class, () -> frozen.compute(FOO, value -> value));
+        assertThrows(UnsupportedOperationException.class, () -> frozen.computeIfAbsent(BAR, () -> 1));
+        assertThrows(UnsupportedOperationException.class, () -> frozen.computeIfPresent(FOO, value -> value));
+        assertThrows(UnsupportedOperationException.class, () -> frozen.replace(FOO, "baz"));
+        assertThrows(UnsupportedOperationException.class, () -> frozen.replace(FOO, "bar", "baz"));
+        assertThrows(UnsupportedOperationException.class, () -> frozen.remove(FOO));
+        assertThrows(UnsupportedOperationException.class, () -> frozen.remove(FOO, "bar"));
+        assertThrows(UnsupportedOperationException.class, frozen::clear);
+        assertEquals("bar", frozen.get(FOO));
+    }
+
+    @Test
+    void testReadsAllocation() {
+        assumeTrue(AllocationMeter.isSupported(), "allocated bytes are not measurable");
+
+        FrozenRepository frozen = new FrozenRepository.Builder()
+                .put(FOO, "bar")
+                .build();
+
+        Map<String, Runnable> operations = new LinkedHashMap<>();
+        operations.put("get", () -> frozen.get(FOO));
+        operations.put("getDefault", () -> frozen.get(BAR));
+        operations.put("contains", () -> frozen.contains(FOO));
+        operations.put("size", frozen::size);
+
+        AllocationMeter.assertWithinBudget(operations, operation -> 0);
+    }
+}
@@ -0,0 +1,137 @@
+package me.hugmanrique.cellarium.tests.repository;
+
+import me.hugmanrique.cellarium.Key;
+import me.hugmanrique.cellarium.KeyGroup;
+import me.hugmanrique.cellarium.Repository;
+import me.hugmanrique.cellarium.simple.GenerationalRepository;
+import me.hugmanrique.cellarium.simple.SimpleKey;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class GenerationalRepositoryTests extends RepositoryTests {
+
+    private static final KeyGroup WEEKLY = new KeyGroup("weekly");
+
+    private static final Key<Integer> WEEKLY_KILLS = new SimpleKey.Builder<>(Integer.class)
+            .group(WEEKLY)
+            .build();
+    private static final Key<Integer> WEEKLY_DEATHS = new SimpleKey.Builder<>(Integer.class)
+            .defaultValue(0)
+            .group(WEEKLY)
+            .build();
+    private static final Key<Integer> TOTAL_KILLS = new SimpleKey.Builder<>(Integer.class).build();
+
+    @Override
+    protected Repository newRepository() {
+        return GenerationalRepository.newInstance();
+    }
+
+    @Test
+    void testResetGroup() {
+        Repository first = GenerationalRepository.newInstance();
+        Repository second = GenerationalRepository.newConcurrentInstance();
+
+        for (Repository repository : new Repository[] { first, second }) {
+            repository.put(WEEKLY_KILLS, 5);
+            repository.put(WEEKLY_DEATHS, 2);
+            repository.put(TOTAL_KILLS, 50);
+            assertEquals(3, repository.size());
+        }
+
+        long generation = WEEKLY.generation();
+        assertEquals(generation + 1, WEEKLY.reset());
+
+        for (Repository repository : new Repository[] { first, second }) {
+            assertFalse(repository.contains(WEEKLY_KILLS));
+            assertNull(repository.get(WEEKLY_KILLS));
+            assertEquals(0, repository.get(WEEKLY_DEATHS));
+            assertEquals(50, repository.get(TOTAL_KILLS));
+            assertEquals(1, repository.size());
+
+            // New writes belong to the current generation
+            assertNull(repository.putIfAbsent(WEEKLY_KILLS, 1));
+            assertEquals(1, repository.computeInt(WEEKLY_DEATHS, 1, Integer::sum));
+            assertEquals(1, repository.get(WEEKLY_KILLS));
+            assertEquals(3, repository.size());
+        }
+    }
+
+    @Test
+    void testStaleValuesAreNotReturned() {
+        GenerationalRepository repository = GenerationalRepository.newInstance();
+        repository.put(WEEKLY_KILLS, 5);
+        WEEKLY.reset();
+
+        assertNull(repository.replace(WEEKLY_KILLS, 6));
+        assertFalse(repository.remove(WEEKLY_KILLS, 5));
+        assertNull(repository.computeIfPresent(WEEKLY_KILLS, value -> value + 1));
+        assertEquals(3, repository.computeIfAbsent(WEEKLY_KILLS, () -> 3));
+        assertEquals(3, repository.remove(WEEKLY_KILLS));
+        assertTrue(repository.isEmpty());
+    }
+
+    @Test
+    void testCleanUp() {
+        GenerationalRepository[] repositories = {
+                GenerationalRepository.newInstance(),
+                GenerationalRepository.newConcurrentInstance()
+        };
+
+        for (GenerationalRepository repository : repositories) {
+            repository.put(WEEKLY_KILLS, 5);
+            repository.put(WEEKLY_DEATHS, 5);
+            repository.put(TOTAL_KILLS, 5);
+        }
+
+        WEEKLY.reset();
+
+        for (GenerationalRepository repository : repositories) {
+            repository.cleanUp();
+            assertEquals(1, repository.size());
+            assertTrue(repository.contains(TOTAL_KILLS));
+        }
+    }
+
+    @Test
+    void testGroupedWritesAllocation() {
+        assumeTrue(AllocationMeter.isSupported(), "allocated bytes are not measurable");
+
+        Repository repository = GenerationalRepository.newConcurrentInstance();
+        repository.put(WEEKLY_KILLS, 0);
+
+        Map<String, Runnable> operations = new LinkedHashMap<>();
+        operations.put("put", () -> repository.put(WEEKLY_KILLS, 0));
+        operations.put("computeInt", () -> {
+            repository.computeInt(WEEKLY_KILLS, 1, Integer::sum);
+            repository.computeInt(WEEKLY_KILLS, -1, Integer::sum);
+        });
+
+        AllocationMeter.assertWithinBudget(operations, operation -> 0);
+    }
+
+    @Test
+    void testConcurrentGroupedWrites() throws InterruptedException {
+        Repository repository = GenerationalRepository.newConcurrentInstance();
+        Thread[] threads = new Thread[4];
+
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    repository.computeInt(WEEKLY_KILLS, 1, Integer::sum);
+                }
+            });
+            threads[i].start();
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(4000, repository.get(WEEKLY_KILLS));
+    }
+}
@@ -0,0 +1,88 @@
+package me.hugmanrique.cellarium.tests.repository;
+
+import me.hugmanrique.cellarium.Key;
+import me.hugmanrique.cellarium.Repository;
+import me.hugmanrique.cellarium.memory.InterningRepository;
+import me.hugmanrique.cellarium.memory.WeakInterner;
+import me.hugmanrique.cellarium.simple.SimpleKey;
+import me.hugmanrique.cellarium.simple.SimpleRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InterningRepositoryTests extends RepositoryTests {
+
+    private static final Key<String> CLAN = new SimpleKey.Builder<>(String.class)
+            .interned()
+            .build();
+    private static final Key<Integer> LEVEL = new SimpleKey.Builder<>(Integer.class)
+            .interned()
+            .build();
+    private static final Key<String> NICKNAME = new SimpleKey.Builder<>(String.class).build();
+
+    @Override
+    protected Repository newRepository() {
+        return new InterningRepository(SimpleRepository.newInstance(), new WeakInterner(4));
+    }
+
+    @Test
+    void testDeduplicatesAcrossRepositories() {
+        WeakInterner interner = new WeakInterner();
+        Repository first = new InterningRepository(SimpleRepository.newInstance(), interner);
+        Repository second = new InterningRepository(SimpleRepository.newInstance(), interner);
+
+        String clan = new String("knights");
+        first.put(CLAN, clan);
+        second.put(CLAN, new String("knights"));
+        assertSame(clan, second.get(CLAN));
+
+        first.put(LEVEL, 1000);
+        second.put(LEVEL, 999);
+        second.computeInt(LEVEL, 1, Integer::sum);
+        assertSame(first.get(LEVEL), second.get(LEVEL));
+
+        second.compute(CLAN, previous -> new String("knights"));
+        assertSame(clan, second.get(CLAN));
+    }
+
+    @Test
+    void testKeysNotInternedAreStoredAsIs() {
+        Repository repository = new InterningRepository(SimpleRepository.newInstance(), new WeakInterner());
+        String first = new String("bob");
+        String second = new String("bob");
+
+        repository.put(NICKNAME, first);
+        assertSame(first, repository.get(NICKNAME));
+        repository.put(NICKNAME, second);
+        assertSame(second, repository.get(NICKNAME));
+    }
+
+    @Test
+    void testInternerKeepsClasses() {
+        WeakInterner interner = new WeakInterner(1);
+        List<Integer> array = new ArrayList<>(Arrays.asList(1, 2));
+        List<Integer> linked = new LinkedList<>(array);
+
+        assertSame(array, interner.intern(array));
+        assertSame(linked, interner.intern(linked));
+        assertSame(array, interner.intern(new ArrayList<>(linked)));
+    }
+
+    @Test
+    void testInternerDoesNotRetainValues() throws InterruptedException {
+        WeakInterner interner = new WeakInterner(1);
+        interner.intern(new String("transient"));
+
+        for (int i = 0; i < 50 && interner.size() > 0; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        assertEquals(0, interner.size());
+    }
+}
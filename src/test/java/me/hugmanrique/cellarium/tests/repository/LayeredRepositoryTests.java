@@ -0,0 +1,161 @@
+package me.hugmanrique.cellarium.tests.repository;
+
+import me.hugmanrique.cellarium.Key;
+import me.hugmanrique.cellarium.Repository;
+import me.hugmanrique.cellarium.simple.LayeredRepository;
+import me.hugmanrique.cellarium.simple.SimpleKey;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LayeredRepositoryTests extends RepositoryTests {
+
+    @Override
+    protected Repository newRepository() {
+        return LayeredRepository.newInstance(LayeredRepository.newInstance());
+    }
+
+    @Override
+    protected int allocatedObjects(String operation) {
+        switch (operation) {
+            case "compute":
+                // The remapping function is wrapped to resolve inherited values, per call
+                return 2;
+            case "computeWithArgument":
+            case "computeInt":
+            case "increaseBy":
+                // The default methods adapt the argument into another capturing function
+                return 4;
+            case "nextValue":
+                return 1;
+            default:
+                return 0;
+        }
+    }
+
+    private static final Key<String> LANGUAGE = new SimpleKey.Builder<>(String.class)
+            .defaultValue("en")
+            .build();
+
+    private static final Key<Integer> VOLUME = new SimpleKey.Builder<>(Integer.class).build();
+
+    @Test
+    void testResolvesThroughParents() {
+        LayeredRepository server = LayeredRepository.newConcurrentInstance();
+        LayeredRepository guild = LayeredRepository.newConcurrentInstance(server);
+        LayeredRepository player = LayeredRepository.newInstance(guild);
+
+        assertEquals("en", player.get(LANGUAGE));
+        assertNull(player.get(VOLUME));
+
+        server.put(LANGUAGE, "es");
+        server.put(VOLUME, 50);
+        assertEquals("es", player.get(LANGUAGE));
+        assertEquals(50, player.get(VOLUME));
+
+        guild.put(LANGUAGE, "fr");
+        assertEquals("fr", player.get(LANGUAGE));
+
+        player.put(LANGUAGE, "de");
+        assertEquals("de", player.get(LANGUAGE));
+        assertFalse(guild.contains(VOLUME));
+        assertEquals(1, player.size());
+
+        player.remove(LANGUAGE);
+        assertEquals("fr", player.get(LANGUAGE));
+
+        guild.clear();
+        assertEquals("es", player.get(LANGUAGE));
+
+        server.remove(LANGUAGE);
+        assertEquals("en", player.get(LANGUAGE));
+    }
+
+    @Test
+    void testParentOrder() {
+        LayeredRepository root = LayeredRepository.newInstance();
+        LayeredRepository first = LayeredRepository.newInstance(root);
+        LayeredRepository second = LayeredRepository.newInstance(root);
+        LayeredRepository child = LayeredRepository.newInstance(first, second);
+
+        second.put(VOLUME, 2);
+        assertEquals(2, child.get(VOLUME));
+
+        first.put(VOLUME, 1);
+        assertEquals(1, child.get(VOLUME));
+    }
+
+    @Test
+    void testComputeReceivesInheritedValue() {
+        LayeredRepository parent = LayeredRepository.newInstance();
+        LayeredRepository child = LayeredRepository.newInstance(parent);
+
+        parent.put(VOLUME, 10);
+        assertEquals(15, child.compute(VOLUME, previous -> previous + 5));
+        assertEquals(10, parent.get(VOLUME));
+
+        assertEquals(20, child.compute(VOLUME, previous -> previous + 5));
+    }
+
+    @Test
+    void testConditionalComputesInvalidateChildren() {
+        LayeredRepository parent = LayeredRepository.newInstance();
+        LayeredRepository child = LayeredRepository.newInstance(parent);
+
+        assertNull(child.get(VOLUME));
+        assertNull(parent.computeIfPresent(VOLUME, previous -> previous + 1));
+        assertEquals(10, parent.computeIfAbsent(VOLUME, () -> 10));
+        assertEquals(10, child.get(VOLUME));
+
+        assertEquals(10, parent.computeIfAbsent(VOLUME, () -> 20));
+        assertEquals(11, parent.computeIfPresent(VOLUME, previous -> previous + 1));
+        assertEquals(11, child.get(VOLUME));
+
+        assertNull(parent.computeIfPresent(VOLUME, previous -> null));
+        assertNull(child.get(VOLUME));
+    }
+
+    @Test
+    void testSiblingModificationsDoNotAffectResolution() {
+        LayeredRepository root = LayeredRepository.newInstance();
+        LayeredRepository first = LayeredRepository.newInstance(root);
+        LayeredRepository second = LayeredRepository.newInstance(root);
+
+        root.put(VOLUME, 5);
+        assertEquals(5, first.get(VOLUME));
+
+        second.put(VOLUME, 7);
+        assertEquals(5, first.get(VOLUME));
+        assertEquals(7, second.get(VOLUME));
+
+        root.put(VOLUME, 6);
+        assertEquals(6, first.get(VOLUME));
+        assertEquals(7, second.get(VOLUME));
+    }
+
+    @Test
+    void testUnrelatedParents() {
+        LayeredRepository first = LayeredRepository.newInstance();
+        LayeredRepository second = LayeredRepository.newInstance();
+        LayeredRepository child = LayeredRepository.newInstance(first, second);
+
+        second.put(VOLUME, 2);
+        assertEquals(2, child.get(VOLUME));
+
+        first.put(VOLUME, 1);
+        assertEquals(1, child.get(VOLUME));
+    }
+
+    @Test
+    void testThrowingComputeDoesNotModify() {
+        LayeredRepository parent = LayeredRepository.newInstance();
+        LayeredRepository child = LayeredRepository.newInstance(parent);
+
+        parent.put(VOLUME, 3);
+        assertThrows(IllegalStateException.class, () -> child.compute(VOLUME, previous -> {
+            throw new IllegalStateException();
+        }));
+        assertFalse(child.contains(VOLUME));
+        assertEquals(3, child.get(VOLUME));
+    }
+}
@@ -0,0 +1,143 @@
+package me.hugmanrique.cellarium.tests.repository;
+
+import me.hugmanrique.cellarium.Key;
+import me.hugmanrique.cellarium.Repository;
+import me.hugmanrique.cellarium.codec.LazyRepository;
+import me.hugmanrique.cellarium.codec.Schema;
+import me.hugmanrique.cellarium.codec.ValueCodec;
+import me.hugmanrique.cellarium.codec.ValueCodecs;
+import me.hugmanrique.cellarium.simple.SimpleKey;
+import me.hugmanrique.cellarium.simple.SimpleRepository;
+import me.hugmanrique.cellarium.util.IntegerValues;
+import org.junit.jupiter.api.Test;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LazyRepositoryTests extends RepositoryTests {
+
+    private static final AtomicInteger decodes = new AtomicInteger();
+
+    // Counts the decoded strings
+    private static final ValueCodec<String> COUNTING_STRING = new ValueCodec<String>() {
+        @Override
+        public void encode(String value, DataOutput out) throws IOException {
+            ValueCodecs.STRING.encode(value, out);
+        }
+
+        @Override
+        public String decode(DataInput in) throws IOException {
+            decodes.incrementAndGet();
+            return ValueCodecs.STRING.decode(in);
+        }
+    };
+
+    private static final Key<String> NAME = new SimpleKey.Builder<>(String.class).build();
+    private static final Key<String> MOTTO = new SimpleKey.Builder<>(String.class).build();
+    private static final Key<Integer> ELO = new SimpleKey.Builder<>(Integer.class).build();
+    private static final Key<Integer> WINS = new SimpleKey.Builder<>(Integer.class).build();
+    private static final Key<Boolean> LOCAL = new SimpleKey.Builder<>(Boolean.class).build();
+
+    private static final Schema SCHEMA = new Schema.Builder()
+            .add(NAME, COUNTING_STRING)
+            .add(MOTTO, COUNTING_STRING)
+            .add(ELO, ValueCodecs.INTEGER)
+            .add(WINS, ValueCodecs.INTEGER)
+            .build();
+
+    @Override
+    protected Repository newRepository() {
+        return new LazyRepository(SCHEMA);
+    }
+
+    private static byte[] sampleData() {
+        Repository repository = SimpleRepository.newInstance();
+        repository.put(NAME, "Steve");
+        repository.put(MOTTO, "Dig straight down");
+        repository.put(ELO, 1200);
+
+        return LazyRepository.encode(repository, SCHEMA);
+    }
+
+    @Test
+    void testLazyDecoding() throws IOException {
+        LazyRepository repository = new LazyRepository(SCHEMA, sampleData());
+        decodes.set(0);
+
+        assertEquals(3, repository.size());
+        assertEquals(3, repository.encodedCount());
+        assertTrue(repository.contains(MOTTO));
+        assertFalse(repository.contains(WINS));
+        assertEquals(0, decodes.get());
+
+        assertEquals("Steve", repository.get(NAME));
+        assertEquals("Steve", repository.get(NAME));
+        assertEquals(1, decodes.get());
+        assertEquals(2, repository.encodedCount());
+
+        assertEquals(1210, IntegerValues.increaseBy(repository, ELO, 10));
+        assertEquals(1, repository.encodedCount());
+        assertEquals(3, repository.size());
+    }
+
+    @Test
+    void testRoundTripWithoutDecoding() throws IOException {
+        byte[] data = sampleData();
+        LazyRepository repository = new LazyRepository(SCHEMA, data);
+        decodes.set(0);
+
+        assertArrayEquals(data, repository.toByteArray());
+
+        repository.put(WINS, 3);
+        repository.put(LOCAL, true);
+        repository.remove(NAME);
+        decodes.set(0);
+
+        LazyRepository copy = new LazyRepository(SCHEMA, repository.toByteArray());
+
+        // The motto was copied without being decoded
+        assertEquals(0, decodes.get());
+        assertEquals(3, copy.size());
+        assertFalse(copy.contains(NAME));
+        assertFalse(copy.contains(LOCAL));
+        assertEquals("Dig straight down", copy.get(MOTTO));
+        assertEquals(1200, copy.get(ELO));
+        assertEquals(3, copy.get(WINS));
+    }
+
+    @Test
+    void testClearEncoded() throws IOException {
+        LazyRepository repository = new LazyRepository(SCHEMA, sampleData());
+        repository.get(NAME);
+        repository.clear();
+
+        assertTrue(repository.isEmpty());
+        assertFalse(repository.contains(MOTTO));
+        assertNull(repository.get(MOTTO));
+        assertArrayEquals(new byte[] {0}, repository.toByteArray());
+    }
+
+    @Test
+    void testUnknownIdsAreSkipped() throws IOException {
+        Schema smaller = new Schema.Builder()
+                .add(NAME, COUNTING_STRING)
+                .build();
+
+        LazyRepository repository = new LazyRepository(smaller, sampleData());
+
+        assertEquals(1, repository.size());
+        assertEquals("Steve", repository.get(NAME));
+    }
+
+    @Test
+    void testMalformedData() {
+        byte[] data = sampleData();
+
+        assertThrows(IOException.class, () -> new LazyRepository(SCHEMA, Arrays.copyOf(data, data.length - 1)));
+    }
+}
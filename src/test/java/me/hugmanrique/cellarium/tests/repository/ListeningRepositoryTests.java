@@ -0,0 +1,83 @@
+package me.hugmanrique.cellarium.tests.repository;
+
+import me.hugmanrique.cellarium.Key;
+import me.hugmanrique.cellarium.ListeningRepository;
+import me.hugmanrique.cellarium.Repository;
+import me.hugmanrique.cellarium.RepositoryListener;
+import me.hugmanrique.cellarium.simple.SimpleKey;
+import me.hugmanrique.cellarium.simple.SimpleRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ListeningRepositoryTests extends RepositoryTests {
+
+    @Override
+    protected Repository newRepository() {
+        return new ListeningRepository(SimpleRepository.newInstance());
+    }
+
+    private static final Key<String> FOO = new SimpleKey.Builder<>(String.class).build();
+
+    private static class RecordingListener implements RepositoryListener {
+
+        final List<Key<?>> updates = new ArrayList<>();
+        int clears;
+
+        @Override
+        public void onUpdate(Repository repository, Key<?> key) {
+            updates.add(key);
+        }
+
+        @Override
+        public void onClear(Repository repository) {
+            clears++;
+        }
+    }
+
+    @Test
+    void testNotifiesModifications() {
+        ListeningRepository repository = new ListeningRepository(SimpleRepository.newInstance());
+        RecordingListener listener = new RecordingListener();
+        repository.addListener(listener);
+
+        repository.put(FOO, "bar");
+        repository.compute(FOO, previous -> previous + "2");
+        repository.clear();
+
+        assertEquals(2, listener.updates.size());
+        assertEquals(FOO, listener.updates.get(0));
+        assertEquals(1, listener.clears);
+    }
+
+    @Test
+    void testIgnoresNoOps() {
+        ListeningRepository repository = new ListeningRepository(SimpleRepository.newInstance());
+        RecordingListener listener = new RecordingListener();
+        repository.addListener(listener);
+
+        repository.remove(FOO);
+        repository.replace(FOO, "bar");
+        repository.replace(FOO, "bar", "baz");
+
+        assertTrue(listener.updates.isEmpty());
+    }
+
+    @Test
+    void testRemoveListener() {
+        ListeningRepository repository = new ListeningRepository(SimpleRepository.newInstance());
+        RecordingListener listener = new RecordingListener();
+        repository.addListener(listener);
+        repository.addListener(listener);
+
+        repository.put(FOO, "bar");
+        assertEquals(1, listener.updates.size());
+
+        assertTrue(repository.removeListener(listener));
+        repository.put(FOO, "baz");
+        assertEquals(1, listener.updates.size());
+    }
+}
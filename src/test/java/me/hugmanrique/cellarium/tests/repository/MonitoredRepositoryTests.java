@@ -0,0 +1,137 @@
+package me.hugmanrique.cellarium.tests.repository;
+
+import me.hugmanrique.cellarium.Key;
+import me.hugmanrique.cellarium.KeyRegistry;
+import me.hugmanrique.cellarium.Repository;
+import me.hugmanrique.cellarium.io.RepositoryReader;
+import me.hugmanrique.cellarium.io.TextFormat;
+import me.hugmanrique.cellarium.monitor.MonitoredRepository;
+import me.hugmanrique.cellarium.monitor.RepositoryMonitor;
+import me.hugmanrique.cellarium.monitor.RepositoryMonitors;
+import me.hugmanrique.cellarium.simple.SimpleKey;
+import me.hugmanrique.cellarium.simple.SimpleRepository;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MonitoredRepositoryTests extends RepositoryTests {
+
+    private static final Key<Integer> COUNT = new SimpleKey.Builder<>(Integer.class)
+            .name("count")
+            .build();
+
+    @Override
+    protected Repository newRepository() {
+        return new MonitoredRepository.Builder()
+                .monitor(RepositoryMonitors.none())
+                .build(SimpleRepository.newInstance());
+    }
+
+    private static class RecordingMonitor implements RepositoryMonitor {
+
+        final List<String> events = new ArrayList<>();
+
+        @Override
+        public void slowCallback(Repository repository, Key<?> key, String operation, long durationNanos) {
+            events.add("slow " + operation);
+        }
+
+        @Override
+        public void contention(Repository repository, Key<?> key, String operation, long waitNanos, int attempts) {
+            events.add("contention " + operation + " " + attempts);
+        }
+
+        @Override
+        public void bulkLoad(String source, long count, long durationNanos) {
+            events.add("load " + source + " " + count);
+        }
+    }
+
+    @Test
+    void testSlowCallback() {
+        RecordingMonitor monitor = new RecordingMonitor();
+        Repository repository = new MonitoredRepository.Builder()
+                .monitor(monitor)
+                .slowCallbackThreshold(5, TimeUnit.MILLISECONDS)
+                .contentionThreshold(1, TimeUnit.MINUTES)
+                .build(SimpleRepository.newInstance());
+
+        assertEquals(1, repository.computeInt(COUNT, 1, Integer::sum));
+        assertTrue(monitor.events.isEmpty());
+
+        repository.compute(COUNT, previous -> {
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            return previous + 1;
+        });
+
+        assertEquals(2, repository.get(COUNT));
+        assertEquals(1, monitor.events.size());
+        assertEquals("slow compute", monitor.events.get(0));
+    }
+
+    @Test
+    void testRetriedCallbackReportsContention() {
+        RecordingMonitor monitor = new RecordingMonitor();
+        SimpleRepository backing = SimpleRepository.newConcurrentInstance();
+        Repository repository = new MonitoredRepository.Builder()
+                .monitor(monitor)
+                .slowCallbackThreshold(1, TimeUnit.MINUTES)
+                .contentionThreshold(1, TimeUnit.MINUTES)
+                .build(backing);
+
+        repository.put(COUNT, 0);
+        repository.compute(COUNT, 1, (previous, addend) -> {
+            // Only interfere with the first attempt
+            if (previous == 0) {
+                backing.put(COUNT, 10);
+            }
+
+            return previous + addend;
+        });
+
+        assertEquals(11, repository.get(COUNT));
+        assertEquals(1, monitor.events.size());
+        assertEquals("contention compute 2", monitor.events.get(0));
+    }
+
+    @Test
+    void testNegativeThresholdThrows() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            new MonitoredRepository.Builder().slowCallbackThreshold(-1, TimeUnit.SECONDS);
+        });
+    }
+
+    @Test
+    void testBulkLoadReported() throws IOException {
+        RecordingMonitor monitor = new RecordingMonitor();
+        RepositoryMonitor previous = RepositoryMonitors.current();
+        RepositoryMonitors.install(monitor);
+
+        try {
+            KeyRegistry registry = new KeyRegistry.Builder()
+                    .add(COUNT)
+                    .build();
+
+            RepositoryReader reader = new RepositoryReader(new StringReader("count\n1\n2\n"),
+                    TextFormat.CSV, registry, SimpleRepository::newInstance);
+
+            assertEquals(2, reader.readAll(repository -> {}));
+        } finally {
+            RepositoryMonitors.install(previous);
+        }
+
+        assertEquals(1, monitor.events.size());
+        assertEquals("load CSV 2", monitor.events.get(0));
+    }
+}
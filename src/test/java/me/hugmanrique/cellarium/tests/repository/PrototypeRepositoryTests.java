@@ -0,0 +1,87 @@
+package me.hugmanrique.cellarium.tests.repository;
+
+import me.hugmanrique.cellarium.Key;
+import me.hugmanrique.cellarium.Repository;
+import me.hugmanrique.cellarium.simple.FrozenRepository;
+import me.hugmanrique.cellarium.simple.PrototypeRepository;
+import me.hugmanrique.cellarium.simple.SimpleKey;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PrototypeRepositoryTests extends RepositoryTests {
+
+    private static final Key<String> RANK = new SimpleKey.Builder<>(String.class).build();
+    private static final Key<Integer> COINS = new SimpleKey.Builder<>(Integer.class).build();
+    private static final Key<Integer> GEMS = new SimpleKey.Builder<>(Integer.class)
+            .defaultValue(0)
+            .build();
+
+    private static final FrozenRepository STARTER = new FrozenRepository.Builder()
+            .put(RANK, "novice")
+            .put(COINS, 100)
+            .build();
+
+    @Override
+    protected Repository newRepository() {
+        return PrototypeRepository.newInstance(new FrozenRepository.Builder().build());
+    }
+
+    @Test
+    void testSharesPrototypeValues() {
+        PrototypeRepository first = PrototypeRepository.newInstance(STARTER);
+        PrototypeRepository second = PrototypeRepository.newInstance(STARTER);
+
+        assertSame(STARTER, first.prototype());
+        assertEquals(2, first.size());
+        assertSame(first.get(RANK), second.get(RANK));
+        assertEquals(0, first.overrideCount());
+    }
+
+    @Test
+    void testCopyOnWrite() {
+        PrototypeRepository repository = PrototypeRepository.newInstance(STARTER);
+        PrototypeRepository other = PrototypeRepository.newInstance(STARTER);
+
+        assertEquals(150, repository.computeInt(COINS, 50, Integer::sum));
+        assertEquals(1, repository.computeInt(GEMS, 1, Integer::sum));
+        assertEquals(2, repository.overrideCount());
+        assertEquals(3, repository.size());
+
+        // The prototype and other instances are unaffected
+        assertEquals(100, STARTER.get(COINS));
+        assertEquals(100, other.get(COINS));
+        assertEquals(0, other.get(GEMS));
+        assertEquals(2, other.size());
+    }
+
+    @Test
+    void testRemovePrototypeMapping() {
+        PrototypeRepository repository = PrototypeRepository.newInstance(STARTER);
+
+        assertEquals("novice", repository.remove(RANK));
+        assertFalse(repository.contains(RANK));
+        assertNull(repository.get(RANK));
+        assertEquals(1, repository.size());
+        assertNull(repository.remove(RANK));
+
+        assertNull(repository.putIfAbsent(RANK, "veteran"));
+        assertEquals("veteran", repository.get(RANK));
+        assertEquals(2, repository.size());
+        assertEquals("novice", STARTER.get(RANK));
+    }
+
+    @Test
+    void testClearDetachesPrototype() {
+        PrototypeRepository repository = PrototypeRepository.newInstance(STARTER);
+        repository.clear();
+
+        assertTrue(repository.isEmpty());
+        assertFalse(repository.contains(COINS));
+        assertNull(repository.get(RANK));
+
+        repository.put(COINS, 5);
+        assertEquals(1, repository.size());
+        assertEquals(5, repository.get(COINS));
+    }
+}
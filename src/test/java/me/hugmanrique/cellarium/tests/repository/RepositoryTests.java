@@ -3,10 +3,16 @@ package me.hugmanrique.cellarium.tests.repository;
 import me.hugmanrique.cellarium.Key;
 import me.hugmanrique.cellarium.Repository;
 import me.hugmanrique.cellarium.simple.SimpleKey;
+import me.hugmanrique.cellarium.util.EnumValues;
+import me.hugmanrique.cellarium.util.IntegerValues;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 /**
  * Provides base assertions for {@link Repository} implementations.
@@ -182,6 +188,43 @@ public abstract class RepositoryTests {
         });
     }
 
+    @Test
+    void testComputeWithArgument() {
+        Repository repository = newRepository();
+
+        String newValue = repository.compute(FOO, "bar", (previous, suffix) -> previous + suffix);
+        assertEquals("nullbar", newValue);
+        assertEquals("nullbar", repository.get(FOO));
+
+        Integer newValue2 = repository.compute(BAR, 3, Integer::sum);
+        assertEquals(BAR_DEFAULT + 3, newValue2);
+        assertEquals(BAR_DEFAULT + 3, repository.get(BAR));
+
+        // Removal
+        newValue = repository.compute(FOO, "ignored", (previous, argument) -> null);
+        assertNull(newValue);
+        assertFalse(repository.contains(FOO));
+
+        assertThrows(IllegalStateException.class, () -> {
+            repository.compute(FOO, 0, (previous, argument) -> {
+                throw new IllegalStateException("dummy");
+            });
+        });
+    }
+
+    @Test
+    void testComputeInt() {
+        Repository repository = newRepository();
+        Key<Integer> count = new SimpleKey.Builder<>(Integer.class).build();
+
+        assertEquals(5, repository.computeInt(count, 5, Integer::sum));
+        assertEquals(15, repository.computeInt(count, 3, (previous, operand) -> previous * operand));
+        assertEquals(15, repository.get(count));
+
+        assertEquals(BAR_DEFAULT - 2, repository.computeInt(BAR, 2, (previous, operand) -> previous - operand));
+        assertEquals(BAR_DEFAULT - 2, repository.get(BAR));
+    }
+
     @Test
     void testComputeIfAbsent() {
         Repository repository = newRepository();
@@ -393,4 +436,65 @@ public abstract class RepositoryTests {
         assertThrows(NullPointerException.class, () -> repository.remove(null));
         assertThrows(NullPointerException.class, () -> repository.remove(FOO, null));
     }
+
+    // Allocation
+
+    private enum Phase { WARMUP, PLAYING, FINISHED }
+
+    private static final Key<Phase> PHASE = new SimpleKey.Builder<>(Phase.class)
+            .defaultValue(Phase.WARMUP)
+            .build();
+
+    /**
+     * Returns the maximum number of small objects (e.g. capturing lambdas) a hot
+     * operation of the tested implementation may allocate per run, on average.
+     * Implementations that allocate by design override this with the objects
+     * they are expected to allocate.
+     *
+     * @param operation the name of the operation, e.g. {@code "compute"}
+     * @return the number of objects the operation may allocate
+     * @see AllocationMeter#objectSize()
+     */
+    protected int allocatedObjects(String operation) {
+        return 0;
+    }
+
+    @Test
+    void testHotOperationsAllocation() {
+        assumeTrue(AllocationMeter.isSupported(), "allocated bytes are not measurable");
+
+        Repository repository = newRepository();
+        repository.put(FOO, "bar");
+        repository.put(BAR, 0);
+
+        // Each operation leaves the values as found, and within the Integer cache
+        Map<String, Runnable> operations = new LinkedHashMap<>();
+        operations.put("get", () -> repository.get(BAR));
+        operations.put("contains", () -> repository.contains(FOO));
+        operations.put("put", () -> repository.put(FOO, "bar"));
+        operations.put("replace", () -> repository.replace(FOO, "bar"));
+        operations.put("compute", () -> {
+            repository.compute(BAR, IntegerValues::increment);
+            repository.compute(BAR, IntegerValues::decrement);
+        });
+        operations.put("computeIfPresent", () -> {
+            repository.computeIfPresent(BAR, IntegerValues::increment);
+            repository.computeIfPresent(BAR, IntegerValues::decrement);
+        });
+        operations.put("computeWithArgument", () -> {
+            repository.compute(BAR, 1, Integer::sum);
+            repository.compute(BAR, -1, Integer::sum);
+        });
+        operations.put("computeInt", () -> {
+            repository.computeInt(BAR, 1, Integer::sum);
+            repository.computeInt(BAR, -1, Integer::sum);
+        });
+        operations.put("increaseBy", () -> {
+            IntegerValues.increaseBy(repository, BAR, 1);
+            IntegerValues.decreaseBy(repository, BAR, 1);
+        });
+        operations.put("nextValue", () -> repository.compute(PHASE, EnumValues::nextValue));
+
+        AllocationMeter.assertWithinBudget(operations, this::allocatedObjects);
+    }
 }
@@ -6,8 +6,10 @@ import me.hugmanrique.cellarium.simple.SimpleKey;
 import me.hugmanrique.cellarium.simple.SimpleRepository;
 import org.junit.jupiter.api.Test;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -56,4 +58,126 @@ public class SimpleRepositoryTests extends RepositoryTests {
             });
         });
     }
+
+    // Argument-passing compute methods
+
+    private static final Key<Integer> COUNT = new SimpleKey.Builder<>(Integer.class).build();
+
+    @Test
+    void testConcurrentComputeInt() throws InterruptedException {
+        SimpleRepository repository = SimpleRepository.newConcurrentInstance();
+        Thread[] threads = new Thread[4];
+
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    repository.computeInt(COUNT, 1, Integer::sum);
+                }
+            });
+            threads[i].start();
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(4000, repository.get(COUNT));
+    }
+
+    @Test
+    void testSynchronizedMapCompute() {
+        SimpleRepository repository = SimpleRepository.newInstance(
+                () -> Collections.synchronizedMap(new HashMap<>()));
+
+        assertEquals(2, repository.computeInt(COUNT, 2, Integer::sum));
+        assertEquals(6, repository.compute(COUNT, 3, (previous, factor) -> previous * factor));
+        assertNull(repository.compute(COUNT, 0, (previous, argument) -> null));
+        assertTrue(repository.isEmpty());
+    }
+
+    // Value retention
+
+    private static final Key<StringBuilder> WEAK = new SimpleKey.Builder<>(StringBuilder.class)
+            .weakValues()
+            .build();
+
+    private static boolean awaitReclaimed(Repository repository, Key<?> key) throws InterruptedException {
+        for (int i = 0; i < 50 && repository.contains(key); i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        return !repository.contains(key);
+    }
+
+    @Test
+    void testWeakValues() throws InterruptedException {
+        SimpleRepository repository = SimpleRepository.newConcurrentInstance();
+        StringBuilder value = new StringBuilder("foo");
+
+        assertNull(repository.putIfAbsent(WEAK, value));
+        assertSame(value, repository.get(WEAK));
+        assertSame(value, repository.putIfAbsent(WEAK, new StringBuilder()));
+        assertEquals("foo!", repository.compute(WEAK, previous -> previous.append('!')).toString());
+        assertTrue(repository.remove(WEAK, value));
+        assertFalse(repository.contains(WEAK));
+
+        repository.put(WEAK, new StringBuilder("bar"));
+        assertEquals(1, repository.size());
+
+        assertTrue(awaitReclaimed(repository, WEAK), "value was not reclaimed");
+        assertNull(repository.get(WEAK));
+
+        // Reclaimed entries are removed by the next modification
+        assertNull(repository.remove(COUNT));
+        assertEquals(0, repository.size());
+        assertTrue(repository.isEmpty());
+
+        // Reclaimed values are absent
+        StringBuilder replacement = new StringBuilder("baz");
+        assertNull(repository.putIfAbsent(WEAK, replacement));
+        assertSame(replacement, repository.get(WEAK));
+    }
+
+    @Test
+    void testLoader() throws InterruptedException {
+        AtomicInteger loads = new AtomicInteger();
+        Key<StringBuilder> key = new SimpleKey.Builder<>(StringBuilder.class)
+                .weakValues()
+                .loader(() -> new StringBuilder("loaded" + loads.incrementAndGet()))
+                .build();
+
+        SimpleRepository repository = SimpleRepository.newInstance();
+
+        assertEquals("loaded1", repository.get(key).toString());
+        assertEquals(1, loads.get());
+
+        repository.put(key, new StringBuilder("foo"));
+        assertTrue(awaitReclaimed(repository, key), "value was not reclaimed");
+
+        StringBuilder loaded = repository.get(key);
+        assertEquals("loaded2", loaded.toString());
+        assertSame(loaded, repository.get(key));
+    }
+
+    @Test
+    void testStrongLoaderNotAppliedByReads() {
+        Key<StringBuilder> key = new SimpleKey.Builder<>(StringBuilder.class)
+                .loader(StringBuilder::new)
+                .build();
+
+        SimpleRepository repository = SimpleRepository.newInstance();
+
+        assertNull(repository.get(key));
+        assertTrue(repository.isEmpty());
+    }
+
+    @Test
+    void testFreezeUnwrapsValues() {
+        SimpleRepository repository = SimpleRepository.newInstance();
+        StringBuilder value = new StringBuilder("foo");
+        repository.put(WEAK, value);
+
+        assertSame(value, repository.freeze().get(WEAK));
+    }
 }
@@ -0,0 +1,49 @@
+package me.hugmanrique.cellarium.tests.repository;
+
+import me.hugmanrique.cellarium.Key;
+import me.hugmanrique.cellarium.Repository;
+import me.hugmanrique.cellarium.simple.SimpleKey;
+import me.hugmanrique.cellarium.sync.VersionedRepository;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VersionedRepositoryTests extends RepositoryTests {
+
+    @Override
+    protected Repository newRepository() {
+        return new VersionedRepository();
+    }
+
+    private static final Key<String> FOO = new SimpleKey.Builder<>(String.class).build();
+    private static final Key<Integer> BAR = new SimpleKey.Builder<>(Integer.class).build();
+
+    @Test
+    void testVersions() {
+        VersionedRepository repository = new VersionedRepository();
+
+        assertEquals(0, repository.version());
+        assertEquals(0, repository.versionOf(FOO));
+
+        repository.put(FOO, "bar");
+        repository.put(BAR, 3);
+        assertEquals(2, repository.version());
+        assertEquals(1, repository.versionOf(FOO));
+        assertEquals(2, repository.versionOf(BAR));
+
+        repository.compute(FOO, previous -> previous + "2");
+        assertEquals(3, repository.versionOf(FOO));
+
+        // No-ops don't bump the version
+        repository.replace(FOO, "nope", "yes");
+        repository.remove(FOO, "nope");
+        assertEquals(3, repository.version());
+
+        repository.remove(FOO);
+        assertEquals(4, repository.versionOf(FOO));
+        assertEquals(1, repository.size());
+
+        repository.remove(FOO);
+        assertEquals(4, repository.version());
+    }
+}
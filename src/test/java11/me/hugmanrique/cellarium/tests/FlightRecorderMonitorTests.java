@@ -0,0 +1,91 @@
+package me.hugmanrique.cellarium.tests;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import me.hugmanrique.cellarium.Key;
+import me.hugmanrique.cellarium.monitor.RepositoryMonitor;
+import me.hugmanrique.cellarium.monitor.RepositoryMonitors;
+import me.hugmanrique.cellarium.simple.SimpleKey;
+import me.hugmanrique.cellarium.simple.SimpleRepository;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Compiled and run by the jfr profile, against the Java 11 classes of the multi-release output
+public class FlightRecorderMonitorTests {
+
+    private static final Key<Integer> COUNT = new SimpleKey.Builder<>(Integer.class)
+            .name("count")
+            .build();
+
+    private static List<RecordedEvent> record(Runnable action) throws IOException {
+        Path file = Files.createTempFile("cellarium", ".jfr");
+
+        try (Recording recording = new Recording()) {
+            recording.enable("me.hugmanrique.cellarium.SlowCallback");
+            recording.enable("me.hugmanrique.cellarium.Contention");
+            recording.enable("me.hugmanrique.cellarium.BulkLoad");
+            recording.enable("me.hugmanrique.cellarium.Eviction");
+            recording.start();
+
+            action.run();
+
+            recording.stop();
+            recording.dump(file);
+
+            return RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> event.getEventType().getName().startsWith("me.hugmanrique.cellarium."))
+                    .collect(Collectors.toList());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static RecordedEvent single(List<RecordedEvent> events, String name) {
+        List<RecordedEvent> matching = events.stream()
+                .filter(event -> event.getEventType().getName().equals(name))
+                .collect(Collectors.toList());
+
+        assertEquals(1, matching.size(), name);
+        return matching.get(0);
+    }
+
+    @Test
+    void testEmitsEvents() throws IOException {
+        RepositoryMonitor monitor = RepositoryMonitors.flightRecorder()
+                .orElseThrow(() -> new AssertionError("Flight Recorder monitor is not available"));
+
+        List<RecordedEvent> events = record(() -> {
+            monitor.slowCallback(SimpleRepository.newInstance(), COUNT, "compute", 1000);
+            monitor.contention(SimpleRepository.newInstance(), COUNT, "computeInt", 500, 3);
+            monitor.bulkLoad("CSV", 2, 2000);
+            monitor.eviction(SimpleRepository.newInstance(), COUNT);
+        });
+
+        assertEquals(4, events.size());
+
+        RecordedEvent slowCallback = single(events, "me.hugmanrique.cellarium.SlowCallback");
+        assertEquals("count", slowCallback.getString("key"));
+        assertEquals("compute", slowCallback.getString("operation"));
+        assertEquals(Duration.ofNanos(1000), slowCallback.getDuration("callbackDuration"));
+
+        RecordedEvent contention = single(events, "me.hugmanrique.cellarium.Contention");
+        assertEquals("computeInt", contention.getString("operation"));
+        assertEquals(3, contention.getInt("attempts"));
+
+        RecordedEvent bulkLoad = single(events, "me.hugmanrique.cellarium.BulkLoad");
+        assertEquals("CSV", bulkLoad.getString("source"));
+        assertEquals(2, bulkLoad.getLong("count"));
+
+        RecordedEvent eviction = single(events, "me.hugmanrique.cellarium.Eviction");
+        assertEquals("count", eviction.getString("key"));
+    }
+}